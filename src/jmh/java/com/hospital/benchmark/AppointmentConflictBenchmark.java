@@ -0,0 +1,51 @@
+package com.hospital.benchmark;
+
+import com.hospital.service.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflict check when booking, for a fully booked day and for a free day
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class AppointmentConflictBenchmark {
+
+    private AppointmentService appointmentService;
+    private Integer doctorId;
+    private LocalDate busyDate;
+    private LocalDate freeDate;
+
+    @Setup
+    public void setUp(HospitalState state) {
+        appointmentService = state.bean(AppointmentService.class);
+        doctorId = state.data().getBusiestDoctor().getId();
+        busyDate = state.data().getBusiestDate();
+        freeDate = LocalDate.now().plusYears(5);
+    }
+
+    @Benchmark
+    public boolean conflictOnBusyDay() {
+        return appointmentService.hasAppointmentConflict(doctorId, busyDate, null);
+    }
+
+    @Benchmark
+    public boolean conflictOnFreeDay() {
+        return appointmentService.hasAppointmentConflict(doctorId, freeDate, null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.hospital.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a login: the BCrypt check on its own and the full username/password authentication,
+ * which adds the user lookup through {@code UserDetailsServiceImpl}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+
+    private PasswordEncoder passwordEncoder;
+    private DaoAuthenticationProvider authenticationProvider;
+    private String passwordHash;
+
+    @Setup
+    public void setUp(HospitalState state) {
+        passwordEncoder = state.bean(PasswordEncoder.class);
+        passwordHash = passwordEncoder.encode(HospitalDataSeeder.PASSWORD);
+
+        authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(state.bean(UserDetailsService.class));
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+    }
+
+    @Benchmark
+    public boolean passwordMatches() {
+        return passwordEncoder.matches(HospitalDataSeeder.PASSWORD, passwordHash);
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(
+                HospitalDataSeeder.ADMIN_EMAIL, HospitalDataSeeder.PASSWORD));
+    }
+}
@@ -0,0 +1,109 @@
+package com.hospital.benchmark;
+
+import com.hospital.dto.HealthMetricChartData;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Chart-data assembly for a loaded history, without the database: the single-pass primitive-array
+ * builder against the previous three-stream, boxed-array implementation. Run with -prof gc to
+ * compare allocation per dashboard load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ChartDataBenchmark {
+
+    @Param({"1000", "10000"})
+    private int points;
+
+    private List<PatientHealthMetric> metrics;
+
+    @Setup
+    public void setUp() {
+        metrics = HospitalDataSeeder.healthMetrics(new Patient(), points, new Random(42));
+    }
+
+    @Benchmark
+    public HealthMetricChartData singlePassBuilder() {
+        HealthMetricChartData.Builder builder = HealthMetricChartData.builder(metrics.size());
+        for (PatientHealthMetric metric : metrics) {
+            builder.add(metric);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public Map<String, Object> legacyStreams() {
+        return legacyChartData(metrics);
+    }
+
+    /**
+     * The chart-data code as it was before the single-pass builder, kept as the baseline
+     */
+    static Map<String, Object> legacyChartData(List<PatientHealthMetric> allMetrics) {
+        Map<String, Object> chartData = new HashMap<>();
+        List<PatientHealthMetric> weightMetrics = allMetrics.stream()
+                .filter(m -> m.getMetricType() == PatientHealthMetric.MetricType.WEIGHT)
+                .sorted((m1, m2) -> m1.getMeasurementDate().compareTo(m2.getMeasurementDate()))
+                .collect(Collectors.toList());
+        List<PatientHealthMetric> bpMetrics = allMetrics.stream()
+                .filter(m -> m.getMetricType() == PatientHealthMetric.MetricType.BLOOD_PRESSURE)
+                .sorted((m1, m2) -> m1.getMeasurementDate().compareTo(m2.getMeasurementDate()))
+                .collect(Collectors.toList());
+        List<PatientHealthMetric> hrMetrics = allMetrics.stream()
+                .filter(m -> m.getMetricType() == PatientHealthMetric.MetricType.HEART_RATE)
+                .sorted((m1, m2) -> m1.getMeasurementDate().compareTo(m2.getMeasurementDate()))
+                .collect(Collectors.toList());
+
+        String[] weightDates = new String[weightMetrics.size()];
+        Double[] weights = new Double[weightMetrics.size()];
+        for (int i = 0; i < weightMetrics.size(); i++) {
+            weightDates[i] = weightMetrics.get(i).getMeasurementDate().toString();
+            weights[i] = Double.parseDouble(weightMetrics.get(i).getValue());
+        }
+        String[] bpDates = new String[bpMetrics.size()];
+        String[] bloodPressures = new String[bpMetrics.size()];
+        for (int i = 0; i < bpMetrics.size(); i++) {
+            bpDates[i] = bpMetrics.get(i).getMeasurementDate().toString();
+            bloodPressures[i] = bpMetrics.get(i).getValue();
+        }
+        String[] hrDates = new String[hrMetrics.size()];
+        Integer[] heartRates = new Integer[hrMetrics.size()];
+        for (int i = 0; i < hrMetrics.size(); i++) {
+            hrDates[i] = hrMetrics.get(i).getMeasurementDate().toString();
+            heartRates[i] = Integer.parseInt(hrMetrics.get(i).getValue().trim());
+        }
+
+        chartData.put("weightDates", weightDates);
+        chartData.put("weights", weights);
+        chartData.put("bpDates", bpDates);
+        chartData.put("bloodPressures", bloodPressures);
+        chartData.put("hrDates", hrDates);
+        chartData.put("heartRates", heartRates);
+        chartData.put("dates", allMetrics.stream()
+                .map(m -> m.getMeasurementDate().toString())
+                .toArray(String[]::new));
+        return chartData;
+    }
+}
@@ -0,0 +1,43 @@
+package com.hospital.benchmark;
+
+import com.hospital.HealthCareApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+/**
+ * Seeds a database with the synthetic hospital data set and exits. Starts the application with its
+ * normal configuration, so by default it writes to the database of application.properties; any
+ * Spring argument such as {@code --spring.datasource.url=...} points it elsewhere.
+ *
+ * Arguments: {@code --generator.scale=small|medium|large|benchmark} (default small), plus optional
+ * overrides of single {@link HospitalDataSeeder.Scale} fields, e.g. {@code --generator.patients=500}
+ * or {@code --generator.metric-days-per-patient=1095}.
+ */
+public class DataGenerator {
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HealthCareApplication.class)
+                .properties("server.port=0")
+                .run(args);
+        try {
+            HospitalDataSeeder.Scale scale = scale(context.getEnvironment());
+            new HospitalDataSeeder(context, scale).seed();
+        } finally {
+            context.close();
+        }
+    }
+
+    private static HospitalDataSeeder.Scale scale(Environment environment) {
+        HospitalDataSeeder.Scale base = HospitalDataSeeder.Scale.named(environment.getProperty("generator.scale", "small"));
+        return new HospitalDataSeeder.Scale(
+                environment.getProperty("generator.doctors", Integer.class, base.doctors()),
+                environment.getProperty("generator.nurses", Integer.class, base.nurses()),
+                environment.getProperty("generator.patients", Integer.class, base.patients()),
+                environment.getProperty("generator.appointments-per-patient", Integer.class, base.appointmentsPerPatient()),
+                environment.getProperty("generator.records-per-patient", Integer.class, base.recordsPerPatient()),
+                environment.getProperty("generator.metric-days-per-patient", Integer.class, base.metricDaysPerPatient()),
+                environment.getProperty("generator.documents-per-patient", Integer.class, base.documentsPerPatient()),
+                environment.getProperty("generator.document-bytes", Integer.class, base.documentBytes()));
+    }
+}
@@ -0,0 +1,73 @@
+package com.hospital.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hospital.dto.DtoMapper;
+import com.hospital.entity.Document;
+import com.hospital.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON for a document listing entry: the entity with its 1 MB file content, as documents were
+ * returned before, against the metadata-only DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class DocumentSerializationBenchmark {
+
+    private static final int FILE_SIZE = 1024 * 1024;
+
+    private ObjectMapper objectMapper;
+    private Document document;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        User uploadedBy = new User();
+        uploadedBy.setId(1);
+        uploadedBy.setName("Dr. Bench");
+        uploadedBy.setEmail("doctor@benchmark.test");
+
+        byte[] fileData = new byte[FILE_SIZE];
+        new Random(42).nextBytes(fileData);
+
+        document = new Document();
+        document.setId(1);
+        document.setDocumentName("scan.pdf");
+        document.setDocumentType("application/pdf");
+        document.setUploadDate(LocalDateTime.now());
+        document.setUploadedBy(uploadedBy);
+        document.setFileData(fileData);
+    }
+
+    @Benchmark
+    public byte[] entityWithFileData() throws Exception {
+        return objectMapper.writeValueAsBytes(document);
+    }
+
+    @Benchmark
+    public byte[] metadataDto() throws Exception {
+        return objectMapper.writeValueAsBytes(DtoMapper.toDocument(document));
+    }
+}
@@ -0,0 +1,381 @@
+package com.hospital.benchmark;
+
+import com.hospital.entity.Appointment;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Document;
+import com.hospital.entity.MedicalRecord;
+import com.hospital.entity.Nurse;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.entity.Role;
+import com.hospital.entity.User;
+import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.DoctorRepository;
+import com.hospital.repository.DocumentRepository;
+import com.hospital.repository.MedicalRecordRepository;
+import com.hospital.repository.NurseRepository;
+import com.hospital.repository.PatientHealthMetricRepository;
+import com.hospital.repository.PatientRepository;
+import com.hospital.repository.RoleRepository;
+import com.hospital.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeds a hospital-sized data set with a fixed random seed, so every run and every commit
+ * measures against the same rows. The benchmark scale resembles a mid-sized hospital:
+ * 60 doctors, 40 nurses, 3,000 patients with ~10 appointments and ~5 records each.
+ * Larger scales add years of daily health readings and documents per patient.
+ * A few patients get dedicated histories for the size-dependent benchmarks.
+ *
+ * All users share {@link #PASSWORD}; their emails follow {@link #doctorEmail},
+ * {@link #nurseEmail} and {@link #patientEmail} so the load harness can log in as them.
+ */
+public class HospitalDataSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalDataSeeder.class);
+
+    public static final String PASSWORD = "benchmark-password";
+    public static final String ADMIN_EMAIL = "admin@benchmark.test";
+    public static final int[] HISTORY_SIZES = {10, 100, 1000};
+    public static final int CHART_POINTS = 10_000;
+
+    private static final long SEED = 42L;
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final String[] BLOOD_GROUPS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+    private static final String[] DIAGNOSES = {
+            "essential hypertension", "type 2 diabetes mellitus", "acute bronchitis", "migraine without aura",
+            "chronic kidney disease stage 3", "iron deficiency anaemia", "community acquired pneumonia",
+            "osteoarthritis of the knee", "atrial fibrillation", "gastro-oesophageal reflux disease",
+            "major depressive disorder", "asthma exacerbation", "urinary tract infection", "hypothyroidism",
+            "lower back pain", "allergic rhinitis", "hyperlipidaemia", "cellulitis of the leg"};
+    private static final String[] PRESCRIPTIONS = {
+            "amlodipine 5mg daily", "metformin 500mg twice daily", "amoxicillin 500mg three times daily",
+            "sumatriptan 50mg as needed", "ramipril 2.5mg daily", "ferrous sulfate 200mg daily",
+            "salbutamol inhaler as needed", "paracetamol 1g four times daily", "apixaban 5mg twice daily",
+            "omeprazole 20mg daily", "sertraline 50mg daily", "levothyroxine 75mcg daily",
+            "atorvastatin 20mg nightly", "flucloxacillin 500mg four times daily", "cetirizine 10mg daily"};
+
+    /**
+     * Number of rows to generate. Metric days are days of weight, blood pressure and heart rate
+     * readings per patient, ending today.
+     */
+    public record Scale(int doctors, int nurses, int patients, int appointmentsPerPatient, int recordsPerPatient,
+                        int metricDaysPerPatient, int documentsPerPatient, int documentBytes) {
+
+        public static final Scale BENCHMARK = new Scale(60, 40, 3_000, 10, 5, 0, 0, 0);
+        public static final Scale SMALL = new Scale(20, 10, 300, 10, 5, 365, 2, 256 * 1024);
+        public static final Scale MEDIUM = new Scale(60, 40, 3_000, 10, 5, 730, 2, 256 * 1024);
+        public static final Scale LARGE = new Scale(200, 150, 30_000, 12, 6, 1_095, 3, 256 * 1024);
+
+        public static Scale named(String name) {
+            return switch (name.toLowerCase()) {
+                case "benchmark" -> BENCHMARK;
+                case "small" -> SMALL;
+                case "medium" -> MEDIUM;
+                case "large" -> LARGE;
+                default -> throw new RuntimeException("Unknown scale: " + name + " (benchmark, small, medium, large)");
+            };
+        }
+    }
+
+    private final Scale scale;
+    private final Random random = new Random(SEED);
+    private final LocalDate today = LocalDate.now();
+
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final DoctorRepository doctorRepository;
+    private final NurseRepository nurseRepository;
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final PatientHealthMetricRepository healthMetricRepository;
+    private final DocumentRepository documentRepository;
+    private final String passwordHash;
+
+    private final Map<Role.RoleName, Role> roles = new EnumMap<>(Role.RoleName.class);
+    private final List<Doctor> doctors = new ArrayList<>();
+    private final List<Patient> historyPatients = new ArrayList<>();
+    private Patient chartPatient;
+    private LocalDate busiestDate;
+    private Doctor busiestDoctor;
+
+    public HospitalDataSeeder(ApplicationContext context) {
+        this(context, Scale.BENCHMARK);
+    }
+
+    public HospitalDataSeeder(ApplicationContext context, Scale scale) {
+        this.scale = scale;
+        roleRepository = context.getBean(RoleRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        doctorRepository = context.getBean(DoctorRepository.class);
+        nurseRepository = context.getBean(NurseRepository.class);
+        patientRepository = context.getBean(PatientRepository.class);
+        appointmentRepository = context.getBean(AppointmentRepository.class);
+        medicalRecordRepository = context.getBean(MedicalRecordRepository.class);
+        healthMetricRepository = context.getBean(PatientHealthMetricRepository.class);
+        documentRepository = context.getBean(DocumentRepository.class);
+        // Hashed once: BCrypt is deliberately slow and would dominate seeding otherwise
+        passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+    }
+
+    /**
+     * Seeds an empty database. Fails if the data set is already present.
+     */
+    public void seed() {
+        if (userRepository.findByEmail(ADMIN_EMAIL).isPresent()) {
+            throw new RuntimeException("Database already contains generated data (" + ADMIN_EMAIL + " exists)");
+        }
+        long start = System.currentTimeMillis();
+        for (Role.RoleName name : Role.RoleName.values()) {
+            roles.put(name, roleRepository.findByName(name).orElseGet(() -> {
+                Role role = new Role();
+                role.setName(name);
+                return roleRepository.save(role);
+            }));
+        }
+        userRepository.save(user(ADMIN_EMAIL, "Benchmark Admin", Role.RoleName.ADMIN));
+
+        for (int i = 0; i < scale.doctors(); i++) {
+            Doctor doctor = new Doctor();
+            doctor.setUser(userRepository.save(user(doctorEmail(i), "Dr. Bench " + i, Role.RoleName.DOCTOR)));
+            doctor.setSpecialization(i % 2 == 0 ? "General Medicine" : "Cardiology");
+            doctor.setYearsOfExperience(1 + random.nextInt(30));
+            doctors.add(doctorRepository.save(doctor));
+        }
+        for (int i = 0; i < scale.nurses(); i++) {
+            Nurse nurse = new Nurse();
+            nurse.setUser(userRepository.save(user(nurseEmail(i), "Nurse Bench " + i, Role.RoleName.NURSE)));
+            nurse.setYearsOfExperience(1 + random.nextInt(20));
+            nurseRepository.save(nurse);
+        }
+
+        List<Patient> patients = new ArrayList<>(scale.patients());
+        for (int i = 0; i < scale.patients(); i++) {
+            patients.add(patient(patientEmail(i), "Patient Bench " + i));
+        }
+        patients = patientRepository.saveAll(patients);
+        logger.info("Seeded {} doctors, {} nurses and {} patients", scale.doctors(), scale.nurses(), scale.patients());
+
+        List<Appointment> appointments = new ArrayList<>();
+        List<MedicalRecord> records = new ArrayList<>();
+        for (Patient patient : patients) {
+            for (int i = 0; i < scale.appointmentsPerPatient(); i++) {
+                appointments.add(appointment(patient, today.plusDays(random.nextInt(360) - 180)));
+            }
+            for (int i = 0; i < scale.recordsPerPatient(); i++) {
+                records.add(record(patient, today.minusDays(random.nextInt(720))));
+            }
+            flushIfFull(appointments, records);
+        }
+        saveAll(appointments, records);
+        logger.info("Seeded appointments and medical records");
+
+        if (scale.metricDaysPerPatient() > 0) {
+            List<PatientHealthMetric> metrics = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < patients.size(); i++) {
+                for (PatientHealthMetric metric : healthMetrics(patients.get(i), scale.metricDaysPerPatient() * 3, random)) {
+                    metrics.add(metric);
+                    if (metrics.size() == BATCH_SIZE) {
+                        healthMetricRepository.saveAll(metrics);
+                        metrics.clear();
+                    }
+                }
+                if ((i + 1) % 1_000 == 0) {
+                    logger.info("Seeded health metrics for {} of {} patients", i + 1, patients.size());
+                }
+            }
+            healthMetricRepository.saveAll(metrics);
+        }
+        if (scale.documentsPerPatient() > 0) {
+            seedDocuments(patients);
+        }
+
+        for (int size : HISTORY_SIZES) {
+            Patient patient = patientRepository.save(patient("history" + size + "@benchmark.test", "History " + size));
+            for (int i = 0; i < size; i++) {
+                appointments.add(appointment(patient, today.plusDays(random.nextInt(720) - 360)));
+                flushIfFull(appointments, records);
+            }
+            historyPatients.add(patient);
+        }
+        saveAll(appointments, records);
+
+        // One doctor fully booked on one day for the conflict check
+        busiestDoctor = doctors.get(0);
+        busiestDate = today.plusDays(7);
+        for (int i = 0; i < 40; i++) {
+            Appointment appointment = appointment(patients.get(i), busiestDate);
+            appointment.setDoctor(busiestDoctor);
+            appointments.add(appointment);
+        }
+        saveAll(appointments, records);
+
+        chartPatient = patientRepository.save(patient("chart@benchmark.test", "Chart Patient"));
+        List<PatientHealthMetric> metrics = new ArrayList<>(BATCH_SIZE);
+        for (PatientHealthMetric metric : healthMetrics(chartPatient, CHART_POINTS, random)) {
+            metrics.add(metric);
+            if (metrics.size() == BATCH_SIZE) {
+                healthMetricRepository.saveAll(metrics);
+                metrics.clear();
+            }
+        }
+        healthMetricRepository.saveAll(metrics);
+        logger.info("Data set seeded in {} s", (System.currentTimeMillis() - start) / 1000);
+    }
+
+    /**
+     * Documents share one block of random content; only the row count and size matter for load
+     */
+    private void seedDocuments(List<Patient> patients) {
+        byte[] content = new byte[scale.documentBytes()];
+        random.nextBytes(content);
+        List<Document> documents = new ArrayList<>();
+        for (Patient patient : patients) {
+            for (int i = 0; i < scale.documentsPerPatient(); i++) {
+                Document document = new Document();
+                document.setPatient(patient);
+                document.setUploadedBy(patient.getUser());
+                document.setDocumentName("report-" + i + ".pdf");
+                document.setDocumentType("MEDICAL_REPORT");
+                document.setFileData(content);
+                documents.add(document);
+            }
+            // Documents are large; keep batches small so a batch fits comfortably in memory
+            if (documents.size() >= 50) {
+                documentRepository.saveAll(documents);
+                documents.clear();
+            }
+        }
+        documentRepository.saveAll(documents);
+        logger.info("Seeded {} documents", patients.size() * scale.documentsPerPatient());
+    }
+
+    public static String doctorEmail(int index) {
+        return "doctor" + index + "@benchmark.test";
+    }
+
+    public static String nurseEmail(int index) {
+        return "nurse" + index + "@benchmark.test";
+    }
+
+    public static String patientEmail(int index) {
+        return "patient" + index + "@benchmark.test";
+    }
+
+    /**
+     * Daily readings rotating through weight, blood pressure and heart rate, oldest first
+     */
+    public static List<PatientHealthMetric> healthMetrics(Patient patient, int count, Random random) {
+        List<PatientHealthMetric> metrics = new ArrayList<>(count);
+        LocalDate start = LocalDate.now().minusDays(count / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            PatientHealthMetric metric = new PatientHealthMetric();
+            metric.setPatient(patient);
+            metric.setRecordDate(start.plusDays(i / 3));
+            metric.setMeasurementDate(metric.getRecordDate());
+            switch (i % 3) {
+                case 0 -> {
+                    metric.setMetricType(PatientHealthMetric.MetricType.WEIGHT);
+                    metric.setNumericValue(60 + random.nextInt(400) / 10.0);
+                }
+                case 1 -> {
+                    metric.setMetricType(PatientHealthMetric.MetricType.BLOOD_PRESSURE);
+                    metric.setSystolic(100 + random.nextInt(60));
+                    metric.setDiastolic(60 + random.nextInt(35));
+                }
+                default -> {
+                    metric.setMetricType(PatientHealthMetric.MetricType.HEART_RATE);
+                    metric.setNumericValue(55.0 + random.nextInt(50));
+                }
+            }
+            metric.setValue(metric.getDisplayValue());
+            metrics.add(metric);
+        }
+        return metrics;
+    }
+
+    public Patient getChartPatient() {
+        return chartPatient;
+    }
+
+    /**
+     * Patients with 10, 100 and 1000 appointments, in the order of {@link #HISTORY_SIZES}
+     */
+    public List<Patient> getHistoryPatients() {
+        return historyPatients;
+    }
+
+    public Doctor getBusiestDoctor() {
+        return busiestDoctor;
+    }
+
+    public LocalDate getBusiestDate() {
+        return busiestDate;
+    }
+
+    private void flushIfFull(List<Appointment> appointments, List<MedicalRecord> records) {
+        if (appointments.size() >= BATCH_SIZE || records.size() >= BATCH_SIZE) {
+            saveAll(appointments, records);
+        }
+    }
+
+    private void saveAll(List<Appointment> appointments, List<MedicalRecord> records) {
+        appointmentRepository.saveAll(appointments);
+        medicalRecordRepository.saveAll(records);
+        appointments.clear();
+        records.clear();
+    }
+
+    private User user(String email, String name, Role.RoleName role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(name);
+        user.setPassword(passwordHash);
+        user.setRoles(Set.of(roles.get(role)));
+        return user;
+    }
+
+    private Patient patient(String email, String name) {
+        Patient patient = new Patient();
+        patient.setUser(userRepository.save(user(email, name, Role.RoleName.PATIENT)));
+        patient.setDateOfBirth(today.minusYears(18 + random.nextInt(70)));
+        patient.setGender(random.nextBoolean() ? "Male" : "Female");
+        patient.setBloodGroup(BLOOD_GROUPS[random.nextInt(BLOOD_GROUPS.length)]);
+        return patient;
+    }
+
+    private Appointment appointment(Patient patient, LocalDate date) {
+        Appointment appointment = new Appointment();
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctors.get(random.nextInt(doctors.size())));
+        appointment.setCreatedBy(patient.getUser());
+        appointment.setAppointmentDate(date);
+        appointment.setStatus(date.isBefore(today)
+                ? (random.nextInt(5) == 0 ? Appointment.AppointmentStatus.CANCELLED : Appointment.AppointmentStatus.COMPLETED)
+                : Appointment.AppointmentStatus.SCHEDULED);
+        return appointment;
+    }
+
+    private MedicalRecord record(Patient patient, LocalDate date) {
+        MedicalRecord record = new MedicalRecord();
+        record.setPatient(patient);
+        record.setDoctor(doctors.get(random.nextInt(doctors.size())));
+        record.setVisitDate(date);
+        record.setDiagnosis(DIAGNOSES[random.nextInt(DIAGNOSES.length)]);
+        record.setPrescription(PRESCRIPTIONS[random.nextInt(PRESCRIPTIONS.length)]);
+        return record;
+    }
+}
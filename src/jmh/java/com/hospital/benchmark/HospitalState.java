@@ -0,0 +1,45 @@
+package com.hospital.benchmark;
+
+import com.hospital.HealthCareApplication;
+import com.hospital.service.MedicalRecordService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application once per fork against the in-memory "benchmark" database and seeds it
+ */
+@State(Scope.Benchmark)
+public class HospitalState {
+
+    private ConfigurableApplicationContext context;
+    private HospitalDataSeeder data;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(HealthCareApplication.class)
+                .profiles("benchmark")
+                .run();
+        data = new HospitalDataSeeder(context);
+        data.seed();
+        // The startup build ran against an empty database
+        context.getBean(MedicalRecordService.class).rebuildSearchIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public HospitalDataSeeder data() {
+        return data;
+    }
+}
@@ -0,0 +1,118 @@
+package com.hospital.benchmark;
+
+import com.hospital.HealthCareApplication;
+import com.hospital.entity.Document;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.repository.DocumentRepository;
+import com.hospital.repository.PatientHealthMetricRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts per second on the health metric and document write paths, with Hibernate JDBC batching
+ * off (batchSize 1) and on. Entities with IDENTITY ids are never insert-batched, so running this on
+ * a commit before the switch to pooled ids gives the baseline for both settings. Uses its own small
+ * data set rather than {@link HospitalState}; to measure against MySQL, where batching saves a round
+ * trip per row, pass the datasource, e.g.
+ * -Djmh.args="-jvmArgsAppend -Dspring.datasource.url=jdbc:mysql://localhost:3306/hospital_bench -Dspring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver ..."
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+// The Hibernate insert path takes about 20 s of inserts to reach steady state
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class InsertBenchmark {
+
+    private static final int METRICS_PER_TRANSACTION = 100;
+    private static final int DOCUMENTS_PER_TRANSACTION = 20;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private PatientHealthMetricRepository healthMetricRepository;
+    private DocumentRepository documentRepository;
+    private Patient patient;
+    private byte[] content;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(HealthCareApplication.class)
+                .profiles("benchmark")
+                .run("--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        HospitalDataSeeder data = new HospitalDataSeeder(context,
+                new HospitalDataSeeder.Scale(2, 1, 50, 0, 0, 0, 0, 0));
+        data.seed();
+        patient = data.getChartPatient();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        healthMetricRepository = context.getBean(PatientHealthMetricRepository.class);
+        documentRepository = context.getBean(DocumentRepository.class);
+        content = new byte[4 * 1024];
+        random.nextBytes(content);
+    }
+
+    /**
+     * Keeps the tables from growing across iterations
+     */
+    @TearDown(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM document");
+        jdbcTemplate.update("DELETE FROM patient_health_metrics WHERE patient_id = ?", patient.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(METRICS_PER_TRANSACTION)
+    public List<PatientHealthMetric> insertHealthMetrics() {
+        List<PatientHealthMetric> metrics = HospitalDataSeeder.healthMetrics(patient, METRICS_PER_TRANSACTION, random);
+        return transactionTemplate.execute(status -> healthMetricRepository.saveAll(metrics));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS_PER_TRANSACTION)
+    public List<Document> insertDocuments() {
+        List<Document> documents = new ArrayList<>(DOCUMENTS_PER_TRANSACTION);
+        for (int i = 0; i < DOCUMENTS_PER_TRANSACTION; i++) {
+            Document document = new Document();
+            document.setPatient(patient);
+            document.setUploadedBy(patient.getUser());
+            document.setDocumentName("scan-" + i + ".pdf");
+            document.setDocumentType("MEDICAL_REPORT");
+            document.setFileData(content);
+            documents.add(document);
+        }
+        return transactionTemplate.execute(status -> documentRepository.saveAll(documents));
+    }
+}
@@ -0,0 +1,457 @@
+package com.hospital.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test against a running server seeded by {@link DataGenerator}. Each virtual user
+ * repeatedly picks a scenario from a weighted mix and runs it with the credentials of a generated
+ * patient, doctor, nurse or the admin. Latency is recorded per endpoint after the warmup period and
+ * reported as p50/p90/p99/max together with throughput and error counts. Scenarios that fail before
+ * completing a request, such as on an unexpected response, are counted per scenario and kept out of
+ * the latency figures.
+ *
+ * Arguments (all optional):
+ * <pre>
+ *   --base-url=http://localhost:8080
+ *   --users=50                       concurrent virtual users
+ *   --duration=60                    measured seconds
+ *   --warmup=10                      seconds before measuring starts
+ *   --mix=patientDashboard:20,...    scenario weights; omitted scenarios are not run
+ *   --out=target/load-result.csv     also write the report as CSV
+ * </pre>
+ * Users run on virtual threads when the JVM provides them, otherwise one platform thread per user.
+ */
+public class LoadTestHarness {
+
+    private static final String[] SEARCH_TERMS = {"hypertension", "diabetes", "daily", "kidney disease", "asthma"};
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Map<String, String> authorizations = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> scenarioFailures = new ConcurrentHashMap<>();
+
+    private final List<Integer> patientIds = new ArrayList<>();
+    private final Map<Integer, String> patientEmails = new HashMap<>();
+    private final List<String> doctorEmails = new ArrayList<>();
+    private final List<String> nurseEmails = new ArrayList<>();
+    private final List<Integer> doctorIds = new ArrayList<>();
+
+    private volatile long measureFrom;
+
+    public LoadTestHarness(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArguments(args);
+        LoadTestHarness harness = new LoadTestHarness(options.getOrDefault("base-url", "http://localhost:8080"));
+        int users = Integer.parseInt(options.getOrDefault("users", "50"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+
+        Map<String, Scenario> scenarios = harness.scenarios();
+        Map<String, Integer> mix = options.containsKey("mix") ? parseMix(options.get("mix")) : defaultMix();
+        for (String name : mix.keySet()) {
+            if (!scenarios.containsKey(name)) {
+                throw new RuntimeException("Unknown scenario: " + name + ", available: " + scenarios.keySet());
+            }
+        }
+
+        harness.discover();
+        System.out.printf("Running %d users for %ds after %ds warmup against %s%n", users, duration, warmup, harness.baseUrl);
+        long measuredNanos = harness.run(scenarios, mix, users, warmup, duration);
+
+        String report = harness.report(measuredNanos);
+        System.out.println(report);
+        if (options.containsKey("out")) {
+            harness.writeCsv(Path.of(options.get("out")), measuredNanos);
+        }
+    }
+
+    /**
+     * A unit of user behaviour; may issue several requests
+     */
+    @FunctionalInterface
+    interface Scenario {
+        void run(ThreadLocalRandom random) throws InterruptedException;
+    }
+
+    /**
+     * Scenario weights roughly follow a working day: patients checking dashboards and charts,
+     * doctors working through their appointments, occasional bookings, downloads and admin reports.
+     */
+    static Map<String, Integer> defaultMix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("patientDashboard", 15);
+        mix.put("patientAppointments", 8);
+        mix.put("patientHealthMetrics", 5);
+        mix.put("patientRecords", 5);
+        mix.put("bookAppointment", 3);
+        mix.put("chartData", 10);
+        mix.put("chartImage", 4);
+        mix.put("doctorDashboard", 12);
+        mix.put("doctorAppointments", 6);
+        mix.put("doctorPatients", 3);
+        mix.put("patientDetail", 3);
+        mix.put("recordSearch", 5);
+        mix.put("documentDownload", 5);
+        mix.put("nursePatients", 2);
+        mix.put("nurseAppointments", 1);
+        mix.put("userProfile", 3);
+        mix.put("profileEdit", 1);
+        mix.put("roleDashboard", 2);
+        mix.put("adminStatistics", 2);
+        mix.put("reportStatistics", 1);
+        return mix;
+    }
+
+    Map<String, Scenario> scenarios() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("patientDashboard", random -> get("GET /api/patients/dashboard", "/api/patients/dashboard", patient(random)));
+        scenarios.put("patientAppointments", random -> get("GET /api/patients/appointments", "/api/patients/appointments", patient(random)));
+        scenarios.put("patientHealthMetrics", random -> get("GET /api/patients/health-metrics", "/api/patients/health-metrics", patient(random)));
+        scenarios.put("patientRecords", random -> get("GET /api/patients/medical-records", "/api/patients/medical-records", patient(random)));
+        scenarios.put("bookAppointment", this::bookAppointment);
+        scenarios.put("chartData", random -> get("GET /api/health-metrics/patient/{id}/chart-data",
+                "/api/health-metrics/patient/" + patientId(random) + "/chart-data", doctor(random)));
+        scenarios.put("chartImage", random -> get("GET /api/health-metrics/chart/{id}/weight",
+                "/api/health-metrics/chart/" + patientId(random) + "/weight", doctor(random)));
+        scenarios.put("doctorDashboard", random -> get("GET /api/doctors/appointments/dashboard", "/api/doctors/appointments/dashboard", doctor(random)));
+        scenarios.put("doctorAppointments", random -> get("GET /api/doctors/appointments", "/api/doctors/appointments", doctor(random)));
+        scenarios.put("doctorPatients", random -> get("GET /api/doctors/patients", "/api/doctors/patients", doctor(random)));
+        scenarios.put("patientDetail", random -> get("GET /api/patients/{id}", "/api/patients/" + patientId(random), doctor(random)));
+        scenarios.put("recordSearch", random -> get("GET /api/medical-records/search",
+                "/api/medical-records/search?q=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "+"),
+                doctor(random)));
+        scenarios.put("documentDownload", this::documentDownload);
+        scenarios.put("nursePatients", random -> get("GET /api/nurses/patients", "/api/nurses/patients", nurse(random)));
+        scenarios.put("nurseAppointments", random -> get("GET /api/nurses/appointments", "/api/nurses/appointments", nurse(random)));
+        scenarios.put("userProfile", random -> get("GET /api/users/profile", "/api/users/profile", patient(random)));
+        scenarios.put("profileEdit", random -> get("GET /api/profile/edit", "/api/profile/edit", doctor(random)));
+        scenarios.put("roleDashboard", random -> get("GET /api/dashboard", "/api/dashboard", patient(random)));
+        scenarios.put("adminStatistics", random -> get("GET /api/admin/statistics", "/api/admin/statistics", HospitalDataSeeder.ADMIN_EMAIL));
+        scenarios.put("reportStatistics", random -> get("GET /api/reports/statistics", "/api/reports/statistics", HospitalDataSeeder.ADMIN_EMAIL));
+        return scenarios;
+    }
+
+    private void bookAppointment(ThreadLocalRandom random) throws InterruptedException {
+        Integer patientId = patientId(random);
+        String body = "{\"doctorId\":" + doctorIds.get(random.nextInt(doctorIds.size()))
+                + ",\"appointmentDate\":\"" + LocalDate.now().plusDays(1 + random.nextInt(90))
+                + "\",\"notes\":\"load test\"}";
+        HttpRequest request = request("/api/appointments/book", patientEmails.get(patientId))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        // A conflicting date is rejected with 400, which is a normal outcome under load
+        send("POST /api/appointments/book", request, 201, 400);
+    }
+
+    private void documentDownload(ThreadLocalRandom random) throws InterruptedException {
+        String doctor = doctor(random);
+        HttpResponse<byte[]> listing = get("GET /api/documents/patient/{id}", "/api/documents/patient/" + patientId(random), doctor);
+        if (listing == null || listing.statusCode() != 200) {
+            return;
+        }
+        JsonNode documents = readJson(listing.body()).path("documents");
+        if (documents.isEmpty()) {
+            return;
+        }
+        int documentId = documents.get(random.nextInt(documents.size())).path("id").asInt();
+        get("GET /api/documents/download/{id}", "/api/documents/download/" + documentId, doctor);
+    }
+
+    /**
+     * Finds the generated users and the ids the scenarios need, as the admin
+     */
+    void discover() throws InterruptedException {
+        for (JsonNode patient : getJson("/api/patients", HospitalDataSeeder.ADMIN_EMAIL)) {
+            String email = patient.path("email").asText();
+            if (email.startsWith("patient") && email.endsWith("@benchmark.test")) {
+                patientIds.add(patient.path("id").asInt());
+                patientEmails.put(patient.path("id").asInt(), email);
+            }
+        }
+        for (JsonNode user : getJson("/api/users", HospitalDataSeeder.ADMIN_EMAIL)) {
+            String email = user.path("email").asText();
+            if (email.startsWith("doctor") && email.endsWith("@benchmark.test")) {
+                doctorEmails.add(email);
+            } else if (email.startsWith("nurse") && email.endsWith("@benchmark.test")) {
+                nurseEmails.add(email);
+            }
+        }
+        if (patientIds.isEmpty() || doctorEmails.isEmpty() || nurseEmails.isEmpty()) {
+            throw new RuntimeException("No generated data found at " + baseUrl + "; run DataGenerator first");
+        }
+        for (String email : doctorEmails.subList(0, Math.min(10, doctorEmails.size()))) {
+            doctorIds.add(getJson("/api/doctors/profile", email).path("doctor").path("id").asInt());
+        }
+        System.out.printf("Found %d patients, %d doctors and %d nurses%n", patientIds.size(), doctorEmails.size(), nurseEmails.size());
+    }
+
+    /**
+     * Runs the users for warmup plus duration seconds and returns the measured time in nanoseconds
+     */
+    long run(Map<String, Scenario> scenarios, Map<String, Integer> mix, int users, int warmup, int duration)
+            throws InterruptedException {
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((name, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(name);
+            }
+        });
+
+        long start = System.nanoTime();
+        measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+        ExecutorService executor = newUserExecutor(users);
+        for (int i = 0; i < users; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    String name = weighted.get(random.nextInt(weighted.size()));
+                    try {
+                        scenarios.get(name).run(random);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        recordFailure(name);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(warmup + duration + 60L, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        return Math.min(System.nanoTime(), end) - measureFrom;
+    }
+
+    /**
+     * Virtual threads when running on Java 21 or later, a platform thread per user otherwise
+     */
+    private static ExecutorService newUserExecutor(int users) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(users);
+        }
+    }
+
+    private HttpResponse<byte[]> get(String endpoint, String path, String email) throws InterruptedException {
+        return send(endpoint, request(path, email).GET().build());
+    }
+
+    private HttpRequest.Builder request(String path, String email) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorizations.computeIfAbsent(email, e -> "Basic " + Base64.getEncoder()
+                        .encodeToString((e + ":" + HospitalDataSeeder.PASSWORD).getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Sends a request and records its latency. 2xx responses count as success unless other
+     * accepted statuses are given.
+     */
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest request, int... acceptedStatuses)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            int status = response.statusCode();
+            boolean success = acceptedStatuses.length == 0
+                    ? status >= 200 && status < 300
+                    : Arrays.stream(acceptedStatuses).anyMatch(s -> s == status);
+            record(endpoint, System.nanoTime() - start, success);
+            return response;
+        } catch (IOException e) {
+            record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    private void record(String endpoint, long nanos, boolean success) {
+        if (System.nanoTime() >= measureFrom) {
+            stats.computeIfAbsent(endpoint, e -> new EndpointStats()).record(nanos, success);
+        }
+    }
+
+    /**
+     * A failed scenario has no meaningful latency, so it is only counted
+     */
+    private void recordFailure(String scenario) {
+        if (System.nanoTime() >= measureFrom) {
+            scenarioFailures.computeIfAbsent(scenario, s -> new LongAdder()).increment();
+        }
+    }
+
+    private JsonNode getJson(String path, String email) throws InterruptedException {
+        try {
+            HttpResponse<byte[]> response = client.send(request(path, email).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("GET " + path + " as " + email + " returned " + response.statusCode());
+            }
+            return readJson(response.body());
+        } catch (IOException e) {
+            throw new RuntimeException("GET " + path + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private JsonNode readJson(byte[] body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid JSON response: " + e.getMessage(), e);
+        }
+    }
+
+    private Integer patientId(ThreadLocalRandom random) {
+        return patientIds.get(random.nextInt(patientIds.size()));
+    }
+
+    private String patient(ThreadLocalRandom random) {
+        return patientEmails.get(patientId(random));
+    }
+
+    private String doctor(ThreadLocalRandom random) {
+        return doctorEmails.get(random.nextInt(doctorEmails.size()));
+    }
+
+    private String nurse(ThreadLocalRandom random) {
+        return nurseEmails.get(random.nextInt(nurseEmails.size()));
+    }
+
+    String report(long measuredNanos) {
+        double seconds = measuredNanos / 1e9;
+        StringBuilder report = new StringBuilder(String.format("%-50s %8s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        long total = 0;
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+            EndpointStats.Summary summary = entry.getValue().summarize();
+            total += summary.count();
+            report.append(String.format("%-50s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    summary.count(), summary.errors(), summary.count() / seconds,
+                    summary.p50() / 1e6, summary.p90() / 1e6, summary.p99() / 1e6, summary.max() / 1e6));
+        }
+        report.append(String.format("Total: %d requests in %.1fs, %.1f req/s", total, seconds, total / seconds));
+        long failures = scenarioFailures.values().stream().mapToLong(LongAdder::sum).sum();
+        report.append(String.format("%nFailed scenarios: %d", failures));
+        if (failures > 0) {
+            StringJoiner byScenario = new StringJoiner(", ", " (", ")");
+            new TreeMap<>(scenarioFailures).forEach((name, count) -> byScenario.add(name + " " + count.sum()));
+            report.append(byScenario);
+        }
+        return report.toString();
+    }
+
+    void writeCsv(Path file, long measuredNanos) throws IOException {
+        double seconds = measuredNanos / 1e9;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("endpoint,requests,errors,throughput,p50_ms,p90_ms,p99_ms,max_ms");
+            for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+                EndpointStats.Summary summary = entry.getValue().summarize();
+                out.printf("\"%s\",%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f%n", entry.getKey(), summary.count(), summary.errors(),
+                        summary.count() / seconds, summary.p50() / 1e6, summary.p90() / 1e6,
+                        summary.p99() / 1e6, summary.max() / 1e6);
+            }
+            // Failed scenarios have no requests or latency of their own, so those columns are left empty
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(scenarioFailures).entrySet()) {
+                out.printf("\"scenario %s\",,%d,,,,,%n", entry.getKey(), entry.getValue().sum());
+            }
+        }
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new RuntimeException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+        return weights;
+    }
+
+    /**
+     * Latencies of one endpoint. Every sample is kept so percentiles are exact.
+     */
+    static final class EndpointStats {
+
+        record Summary(int count, int errors, long p50, long p90, long p99, long max) {
+        }
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void record(long nanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized Summary summarize() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Summary(count, errors, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), count == 0 ? 0 : sorted[count - 1]);
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hospital.benchmark;
+
+import com.hospital.entity.MedicalRecord;
+import com.hospital.repository.MedicalRecordRepository;
+import com.hospital.service.MedicalRecordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Medical-record search over 15k records: the inverted index against the LIKE query it replaced
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class MedicalRecordSearchBenchmark {
+
+    private static final int LIMIT = 50;
+
+    @Param({"hypertension", "kidney disease", "daily"})
+    private String query;
+
+    private MedicalRecordService medicalRecordService;
+    private MedicalRecordRepository medicalRecordRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp(HospitalState state) {
+        medicalRecordService = state.bean(MedicalRecordService.class);
+        medicalRecordRepository = state.bean(MedicalRecordRepository.class);
+        transactionTemplate = state.bean(TransactionTemplate.class);
+    }
+
+    @Benchmark
+    public List<MedicalRecord> invertedIndex() {
+        return medicalRecordService.searchMedicalRecords(query, LIMIT);
+    }
+
+    @Benchmark
+    public List<MedicalRecord> likeQuery() {
+        return transactionTemplate.execute(status ->
+                medicalRecordRepository.searchByDiagnosisOrPrescription(query, PageRequest.of(0, LIMIT)));
+    }
+}
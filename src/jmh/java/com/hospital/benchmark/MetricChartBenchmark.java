@@ -0,0 +1,68 @@
+package com.hospital.benchmark;
+
+import com.hospital.dto.HealthMetricChartData;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.service.PatientHealthMetricService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health-metric charting against the seeded database: chart data for a 10k-point history and
+ * rendering plus PNG encoding of a 90-day chart image.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class MetricChartBenchmark {
+
+    private PatientHealthMetricService healthMetricService;
+    private Patient patient;
+
+    @Setup
+    public void setUp(HospitalState state) {
+        healthMetricService = state.bean(PatientHealthMetricService.class);
+        patient = state.data().getChartPatient();
+    }
+
+    @Benchmark
+    public HealthMetricChartData chartData() {
+        return healthMetricService.getPatientHealthMetricsChartData(patient);
+    }
+
+    @Benchmark
+    public String generateMetricChart() {
+        LocalDate today = LocalDate.now();
+        String url = healthMetricService.generateMetricChart(
+                patient, PatientHealthMetric.MetricType.WEIGHT, today.minusDays(90), today);
+        deleteChartFile(url);
+        return url;
+    }
+
+    /**
+     * Charts are written below the working directory; remove them so runs leave no files behind
+     */
+    private void deleteChartFile(String url) {
+        if (url == null) {
+            return;
+        }
+        String filename = url.substring(url.lastIndexOf('/') + 1, url.indexOf('?'));
+        new File("src/main/resources/static/images/charts/", filename).delete();
+        new File(System.getProperty("java.io.tmpdir") + "/healthcare-charts/", filename).delete();
+    }
+}
@@ -0,0 +1,40 @@
+package com.hospital.benchmark;
+
+import com.hospital.service.StatisticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin dashboard statistics over the full seeded data set
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+    private StatisticsService statisticsService;
+
+    @Setup
+    public void setUp(HospitalState state) {
+        statisticsService = state.bean(StatisticsService.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> adminDashboardStatistics() {
+        return statisticsService.getAdminDashboardStatistics();
+    }
+}
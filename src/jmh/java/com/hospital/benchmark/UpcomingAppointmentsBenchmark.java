@@ -0,0 +1,58 @@
+package com.hospital.benchmark;
+
+import com.hospital.entity.Appointment;
+import com.hospital.entity.Patient;
+import com.hospital.service.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upcoming appointments for patients with growing appointment histories. The range query
+ * should stay flat as the history grows; the bounded variant is what the dashboard uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class UpcomingAppointmentsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int historySize;
+
+    private AppointmentService appointmentService;
+    private Patient patient;
+
+    @Setup
+    public void setUp(HospitalState state) {
+        appointmentService = state.bean(AppointmentService.class);
+        int index = 0;
+        while (HospitalDataSeeder.HISTORY_SIZES[index] != historySize) {
+            index++;
+        }
+        patient = state.data().getHistoryPatients().get(index);
+    }
+
+    @Benchmark
+    public List<Appointment> upcomingAppointments() {
+        return appointmentService.getUpcomingAppointmentsForPatient(patient);
+    }
+
+    @Benchmark
+    public List<Appointment> nextFiveAppointments() {
+        return appointmentService.getUpcomingAppointmentsForPatient(patient, 5);
+    }
+}
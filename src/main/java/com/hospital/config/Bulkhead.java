@@ -0,0 +1,87 @@
+package com.hospital.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many callers can use one subsystem at a time. With virtual threads the number of
+ * concurrent requests is no longer bounded by the servlet thread pool, so each subsystem that
+ * holds a scarce resource (CPU for chart rendering, SMTP connections for mail) is guarded by
+ * its own semaphore. Callers wait up to maxWait for a permit and are rejected after that.
+ * The database needs no bulkhead: the Hikari pool already limits it.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final Semaphore permits;
+    private final long maxWaitMs;
+    private final Counter rejected;
+
+    /**
+     * Thrown when no permit became available within the maximum wait
+     */
+    public static class BulkheadFullException extends RuntimeException {
+        public BulkheadFullException(String message) {
+            super(message);
+        }
+    }
+
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMs) {
+        this.name = name;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+        this.maxWaitMs = maxWaitMs;
+        this.rejected = Counter.builder("hospital.bulkhead.rejected")
+                .description("Calls rejected because the bulkhead stayed full")
+                .tag("name", name)
+                .register(Metrics.globalRegistry);
+        Gauge.builder("hospital.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free permits of the bulkhead")
+                .tag("name", name)
+                .register(Metrics.globalRegistry);
+    }
+
+    public <T> T call(Supplier<T> task) {
+        acquire();
+        try {
+            return task.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable task) {
+        acquire();
+        try {
+            task.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException("Bulkhead '" + name + "' is full after waiting " + maxWaitMs + " ms");
+        }
+    }
+}
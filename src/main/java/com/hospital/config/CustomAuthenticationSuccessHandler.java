@@ -32,19 +32,14 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
             Authentication authentication) throws IOException, ServletException {
         
-        logger.info("Authentication success handler triggered for user: {}", authentication.getName());
-        
         Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        logger.info("User authorities: {}", authorities);
-        
         String username = authentication.getName();
-        logger.info("Authenticated user: {}", username);
+        logger.debug("Authentication success handler triggered for user: {} with authorities: {}", username, authorities);
         
         // Determine user role
         String role = "";
         for (GrantedAuthority authority : authorities) {
             String auth = authority.getAuthority();
-            logger.info("Processing authority: {}", auth);
             
             if (auth.equals("ROLE_ADMIN")) {
                 role = "ADMIN";
@@ -80,6 +75,6 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
         // Write JSON response
         objectMapper.writeValue(response.getWriter(), responseData);
         
-        logger.info("Authentication success response sent for user: {}", username);
+        logger.info("User {} logged in with role {}", username, role);
     }
 }
\ No newline at end of file
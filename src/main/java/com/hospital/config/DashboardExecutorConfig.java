@@ -0,0 +1,46 @@
+package com.hospital.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded thread pool used to load the independent sections of the patient dashboard in parallel.
+ * When the pool and its queue are full, new sections are rejected and reported as failed
+ * rather than queueing without limit behind slow queries. With virtual threads each section runs
+ * on its own virtual thread instead, at most {@code hospital.dashboard.threads} at a time.
+ */
+@Configuration
+public class DashboardExecutorConfig {
+
+    @Value("${hospital.dashboard.threads:8}")
+    private int threads;
+
+    @Value("${hospital.dashboard.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean(name = "dashboardExecutor")
+    public TaskExecutor dashboardExecutor(Environment environment) {
+        if (ExecutionModeConfig.useVirtualThreads(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("dashboard-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            executor.setTaskDecorator(SqlStatementCounter::propagate);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        // Statements run by a section count towards the request that loads the dashboard
+        executor.setTaskDecorator(SqlStatementCounter::propagate);
+        executor.initialize();
+        return executor;
+    }
+}
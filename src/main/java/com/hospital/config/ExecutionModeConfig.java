@@ -0,0 +1,147 @@
+package com.hospital.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Chooses between platform and virtual threads. The switch is Spring Boot's
+ * spring.threads.virtual.enabled, which on Java 21 also moves Tomcat request handling to virtual
+ * threads; the beans here follow the same switch for outgoing mail. On an older JRE the setting is
+ * ignored with a warning. Either way the database is limited by the Hikari pool and chart
+ * rendering and mail by their {@link Bulkhead}s, not by the number of threads.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionModeConfig.class);
+
+    @Value("${hospital.mail.threads:4}")
+    private int mailThreads;
+
+    @Value("${hospital.mail.queue-capacity:500}")
+    private int mailQueueCapacity;
+
+    // 0 means one thread per available processor
+    @Value("${hospital.import.threads:0}")
+    private int importThreads;
+
+    @Value("${hospital.vitals.threads:4}")
+    private int vitalsThreads;
+
+    @Value("${hospital.vitals.max-subscribers:1000}")
+    private int vitalsMaxSubscribers;
+
+    @Value("${hospital.alerts.queue-capacity:10000}")
+    private int alertQueueCapacity;
+
+    /**
+     * True when virtual threads are requested and the running JRE supports them
+     */
+    public static boolean useVirtualThreads(Environment environment) {
+        if (!environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            return false;
+        }
+        if (Runtime.version().feature() < 21) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+                    Runtime.version().feature());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sends emails off the request thread. With virtual threads every mail gets its own thread and the
+     * mail bulkhead limits how many talk to the SMTP server at once; otherwise a small bounded pool does.
+     */
+    @Bean(name = "mailExecutor")
+    public TaskExecutor mailExecutor(Environment environment) {
+        if (useVirtualThreads(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mail-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mailThreads);
+        executor.setMaxPoolSize(mailThreads);
+        executor.setQueueCapacity(mailQueueCapacity);
+        executor.setThreadNamePrefix("mail-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Validates bulk import rows and hashes their passwords. BCrypt is CPU bound, so this is a fixed
+     * pool of platform threads in both modes; when the queue is full the importing thread hashes
+     * the row itself, which keeps reading the file in step with hashing.
+     */
+    @Bean(name = "importExecutor")
+    public TaskExecutor importExecutor() {
+        int threads = importThreads > 0 ? importThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("import-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes buffered readings to vitals stream subscribers. Each subscriber has at most one task queued,
+     * so the queue holds one per allowed subscriber.
+     */
+    @Bean(name = "vitalsExecutor")
+    public TaskExecutor vitalsExecutor(Environment environment) {
+        if (useVirtualThreads(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("vitals-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(vitalsThreads);
+        executor.setMaxPoolSize(vitalsThreads);
+        executor.setQueueCapacity(vitalsMaxSubscribers);
+        executor.setThreadNamePrefix("vitals-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Applies the vitals alert rules. One platform thread in both modes, so the per-patient windows need
+     * no locking; readings beyond the queue capacity are rejected and counted as dropped.
+     */
+    @Bean(name = "alertExecutor")
+    public TaskExecutor alertExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(alertQueueCapacity);
+        executor.setThreadNamePrefix("vitals-alerts-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "chartBulkhead")
+    public Bulkhead chartBulkhead(@Value("${hospital.bulkhead.chart.permits:4}") int permits,
+                                  @Value("${hospital.bulkhead.chart.max-wait-ms:1000}") long maxWaitMs) {
+        return new Bulkhead("chart", permits, maxWaitMs);
+    }
+
+    @Bean(name = "mailBulkhead")
+    public Bulkhead mailBulkhead(@Value("${hospital.bulkhead.mail.permits:10}") int permits,
+                                 @Value("${hospital.bulkhead.mail.max-wait-ms:30000}") long maxWaitMs) {
+        return new Bulkhead("mail", permits, maxWaitMs);
+    }
+}
@@ -0,0 +1,102 @@
+package com.hospital.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to read replicas when hospital.replica.urls is set. The application
+ * DataSource defers taking a physical connection until the first statement, by which time the
+ * transaction is known to be {@code @Transactional(readOnly = true)} or not, and then takes it from
+ * {@link ReplicaRoutingDataSource}. Replicas receive the schema through replication, not from Hibernate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hospital.replica.urls")
+public class ReadReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Value("${hospital.replica.urls}")
+    private String[] replicaUrls;
+
+    @Value("${hospital.replica.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${hospital.replica.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${hospital.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int replicaPoolSize;
+
+    @Value("${hospital.replica.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // The same spring.datasource.hikari.* settings Boot would apply to its own pool
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        // Boot's pool metrics only see the routing DataSource, so every pool is instrumented here
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(Metrics.globalRegistry));
+
+        List<String> urls = Arrays.stream(replicaUrls).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName(name);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(primary.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(Metrics.globalRegistry));
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, replica));
+        }
+        if (replicas.isEmpty()) {
+            logger.warn("hospital.replica.urls is blank, all transactions use the primary");
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, maxLagMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Hibernate otherwise keeps the first connection of a request for the whole open session, so a
+     * request that reads before it writes would send its writes to the replica it read from.
+     * Released after each transaction, every transaction is routed on its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+}
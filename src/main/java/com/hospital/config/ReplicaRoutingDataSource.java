@@ -0,0 +1,195 @@
+package com.hospital.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions from the read replicas, round robin, skipping
+ * replicas that lag too far behind or cannot be reached; everything else, and read-only work when
+ * no replica is usable, gets a primary connection. Lag is measured with a heartbeat row: the
+ * primary's row is advanced on every check and each replica's copy shows how far replication is
+ * behind, to a resolution of one check interval. Replicas are not used until their first
+ * successful check. The replication_heartbeat table is created by migration V8.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * One replica and the result of its last lag check
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long lagMs = -1;
+        private volatile boolean available;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        /**
+         * Replication lag at the last check, or -1 if the replica could not be checked
+         */
+        public long getLagMs() {
+            return lagMs;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final JdbcTemplate primaryJdbc;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagMs) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMs = maxLagMs;
+        this.primaryJdbc = new JdbcTemplate(primary);
+        this.fallbacks = Counter.builder("hospital.replica.fallback")
+                .description("Read-only connections taken from the primary because no replica was usable")
+                .register(Metrics.globalRegistry);
+        for (Replica replica : this.replicas) {
+            Gauge.builder("hospital.replica.lag", replica, Replica::getLagMs)
+                    .description("Replication lag at the last check, -1 when unreachable")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.getName())
+                    .register(Metrics.globalRegistry);
+            Gauge.builder("hospital.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("Whether read-only transactions are routed to the replica")
+                    .tag("replica", replica.getName())
+                    .register(Metrics.globalRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        // No replicas when hospital.replica.urls is set but blank, e.g. from an unset environment variable
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // Not retried until the next check reaches it again
+                replica.available = false;
+                logger.warn("Replica {} unavailable, routing reads elsewhere: {}", replica.name, e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    /**
+     * Measures each replica's lag against the primary's heartbeat, then advances the heartbeat
+     */
+    @Scheduled(fixedDelayString = "${hospital.replica.heartbeat-interval-ms:1000}")
+    public void checkReplicas() {
+        Long primaryBeat = null;
+        try {
+            primaryBeat = primaryJdbc.query("SELECT beat_at FROM replication_heartbeat WHERE id = 1",
+                    rs -> rs.next() ? rs.getLong(1) : null);
+        } catch (DataAccessException e) {
+            logger.warn("Could not read the replication heartbeat on the primary: {}", e.getMessage());
+        }
+
+        for (Replica replica : replicas) {
+            long lag = primaryBeat != null ? lagOf(replica, primaryBeat) : -1;
+            boolean available = lag >= 0 && lag <= maxLagMs;
+            if (available != replica.available) {
+                if (available) {
+                    logger.info("Replica {} is {} ms behind, routing reads to it", replica.name, lag);
+                } else {
+                    logger.warn("Replica {} is {}, routing its reads to other replicas or the primary", replica.name,
+                            lag < 0 ? "unreachable" : lag + " ms behind");
+                }
+            }
+            replica.lagMs = lag;
+            replica.available = available;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            if (primaryJdbc.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+                primaryJdbc.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not write the replication heartbeat: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the pools; called by Spring on shutdown since they are not beans themselves
+     */
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    private long lagOf(Replica replica, long primaryBeat) {
+        try {
+            Long replicaBeat = new JdbcTemplate(replica.dataSource).query(
+                    "SELECT beat_at FROM replication_heartbeat WHERE id = 1", rs -> rs.next() ? rs.getLong(1) : null);
+            return replicaBeat != null ? Math.max(0, primaryBeat - replicaBeat) : -1;
+        } catch (DataAccessException e) {
+            logger.debug("Lag check failed for replica {}: {}", replica.name, e.getMessage());
+            return -1;
+        }
+    }
+}
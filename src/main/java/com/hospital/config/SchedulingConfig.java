@@ -0,0 +1,12 @@
+package com.hospital.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the nightly search index rebuild
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
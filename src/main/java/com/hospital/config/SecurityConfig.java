@@ -2,10 +2,13 @@ package com.hospital.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -36,6 +39,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/records/**").hasAnyRole("DOCTOR", "NURSE", "ADMIN", "PATIENT")
                 .requestMatchers("/api/health-metrics/**").hasAnyRole("DOCTOR", "NURSE", "ADMIN", "PATIENT")
                 .requestMatchers("/health-metrics/chart/**").permitAll() // Allow access to chart data
+                .requestMatchers("/actuator/**").hasRole("ADMIN") // Metrics and Prometheus scrape endpoint
                 .anyRequest().authenticated()
             )
             .httpBasic() // Use HTTP Basic Authentication for API
@@ -65,6 +69,18 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * The username/password provider Spring Security would otherwise create, wrapped to time each authentication
+     */
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return new TimedAuthenticationProvider(provider);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,19 @@
+package com.hospital.config;
+
+import com.hospital.service.SlowQueryLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Times SQL execution at the JDBC level for the per-request budget and the slow-query log
+ */
+@Configuration
+public class SqlMonitoringConfig {
+
+    // Static so the post-processor is registered before the DataSource is created
+    @Bean
+    public static SqlTimingDataSourcePostProcessor sqlTimingDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new SqlTimingDataSourcePostProcessor(slowQueryLog);
+    }
+}
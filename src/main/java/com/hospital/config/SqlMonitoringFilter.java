@@ -0,0 +1,115 @@
+package com.hospital.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the SQL each request issues: the number of statements and the time spent executing them.
+ * Records both as metrics per endpoint, logs requests that exceed the statement or time budget,
+ * and, unless disabled (the prod profile does), returns them as X-SQL-Statements and X-SQL-Time-Ms
+ * response headers. Runs outside the security filters so the user lookup during authentication
+ * is included. Request latency per endpoint is recorded by Spring's own http.server.requests timer.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlMonitoringFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger("com.hospital.sql");
+
+    static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    @Value("${hospital.sql.budget.statements:25}")
+    private int statementBudget;
+
+    @Value("${hospital.sql.budget.time-ms:500}")
+    private long timeBudgetMs;
+
+    @Value("${hospital.sql.response-headers:true}")
+    private boolean responseHeaders;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Usage usage = SqlStatementCounter.start(request.getMethod() + " " + request.getRequestURI());
+        HttpServletResponse target = responseHeaders ? new SqlHeaderResponse(response, usage) : response;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            SqlStatementCounter.stop();
+            if (responseHeaders && !response.isCommitted()) {
+                addHeaders(response, usage);
+            }
+            // Unmatched requests (404s, rejected before dispatch) would only add unbounded uri tags
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                record(request.getMethod(), pattern.toString(), usage);
+            }
+            checkBudget(usage);
+        }
+    }
+
+    private void record(String method, String uri, SqlStatementCounter.Usage usage) {
+        DistributionSummary.builder("hospital.http.sql.statements")
+                .description("SQL statements prepared per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry)
+                .record(usage.getStatements());
+        Timer.builder("hospital.http.sql.time")
+                .description("Time spent executing SQL per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(Metrics.globalRegistry)
+                .record(usage.getExecutionMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void checkBudget(SqlStatementCounter.Usage usage) {
+        if (usage.getStatements() > statementBudget || usage.getExecutionMillis() > timeBudgetMs) {
+            logger.warn("SQL budget exceeded by {}: {} statements in {} ms (budget {} statements, {} ms)",
+                    usage.getRequest(), usage.getStatements(), usage.getExecutionMillis(), statementBudget, timeBudgetMs);
+        }
+    }
+
+    private static void addHeaders(HttpServletResponse response, SqlStatementCounter.Usage usage) {
+        response.setHeader(STATEMENTS_HEADER, String.valueOf(usage.getStatements()));
+        response.setHeader(TIME_HEADER, String.valueOf(usage.getExecutionMillis()));
+    }
+
+    /**
+     * Adds the headers just before the response is committed, when they can still be set.
+     * SQL run while the body is being written is not included.
+     */
+    private static final class SqlHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatementCounter.Usage usage;
+
+        SqlHeaderResponse(HttpServletResponse response, SqlStatementCounter.Usage usage) {
+            super(response);
+            this.usage = usage;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            addHeaders((HttpServletResponse) getResponse(), usage);
+        }
+    }
+}
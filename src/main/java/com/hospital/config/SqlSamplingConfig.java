@@ -0,0 +1,57 @@
+package com.hospital.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs a sample of the SQL statements Hibernate prepares instead of every one of them.
+ * Enabled by setting hospital.sql-log.sample-every; the prod profile logs one statement in 100.
+ * Registered with Hibernate by {@link StatementInspectorConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hospital.sql-log.sample-every")
+public class SqlSamplingConfig {
+
+    @Value("${hospital.sql-log.sample-every}")
+    private long sampleEvery;
+
+    @Bean
+    public SampledSqlLogger sampledSqlLogger() {
+        return new SampledSqlLogger(sampleEvery);
+    }
+
+    /**
+     * Passes every statement through unchanged and logs each n-th one
+     */
+    public static class SampledSqlLogger implements StatementInspector {
+
+        private static final Logger logger = LoggerFactory.getLogger("com.hospital.sql");
+
+        private final long sampleEvery;
+        private final AtomicLong statementCount = new AtomicLong();
+
+        public SampledSqlLogger(long sampleEvery) {
+            this.sampleEvery = Math.max(1, sampleEvery);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            long count = statementCount.incrementAndGet();
+            if (count % sampleEvery == 0 && logger.isInfoEnabled()) {
+                logger.info("SQL sample (1/{}, #{}): {}", sampleEvery, count, sql);
+            }
+            return sql;
+        }
+
+        public long getStatementCount() {
+            return statementCount.get();
+        }
+    }
+}
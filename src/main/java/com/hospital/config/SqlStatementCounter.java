@@ -0,0 +1,116 @@
+package com.hospital.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the SQL the current thread's unit of work runs, typically one HTTP request: the number of
+ * statements Hibernate prepares and, via {@link SqlTimingDataSourcePostProcessor}, the time spent
+ * executing them. Tracking is off until {@link #start(String)} is called on the thread.
+ * Work handed to other threads is counted against the same request when the task is wrapped
+ * with {@link #propagate(Runnable)}.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Usage> CURRENT = new ThreadLocal<>();
+
+    /**
+     * SQL issued on behalf of one request
+     */
+    public static final class Usage {
+        private final String request;
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicLong executionNanos = new AtomicLong();
+
+        Usage(String request) {
+            this.request = request;
+        }
+
+        public String getRequest() {
+            return request;
+        }
+
+        public int getStatements() {
+            return statements.get();
+        }
+
+        public long getExecutionMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(executionNanos.get());
+        }
+    }
+
+    /**
+     * Starts tracking on the current thread and returns the usage record
+     */
+    public static Usage start(String request) {
+        Usage usage = new Usage(request);
+        CURRENT.set(usage);
+        return usage;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The usage being tracked on the current thread, or null
+     */
+    public static Usage currentUsage() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Statements counted so far on the current thread, or -1 when not counting
+     */
+    public static int current() {
+        Usage usage = CURRENT.get();
+        return usage != null ? usage.getStatements() : -1;
+    }
+
+    /**
+     * Adds the execution time of one statement to the current request
+     */
+    public static void recordExecution(long nanos) {
+        Usage usage = CURRENT.get();
+        if (usage != null) {
+            usage.executionNanos.addAndGet(nanos);
+        }
+    }
+
+    /**
+     * Wraps a task so that SQL it runs on another thread counts towards the caller's request
+     */
+    public static Runnable propagate(Runnable task) {
+        Usage usage = CURRENT.get();
+        if (usage == null) {
+            return task;
+        }
+        return () -> {
+            Usage previous = CURRENT.get();
+            CURRENT.set(usage);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Usage usage = CURRENT.get();
+        if (usage != null) {
+            usage.statements.incrementAndGet();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,101 @@
+package com.hospital.config;
+
+import com.hospital.service.SlowQueryLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Wraps the application's DataSource so that every statement execution is timed at the JDBC level.
+ * The time is added to the current request's {@link SqlStatementCounter.Usage}, and statements
+ * slower than the threshold are kept in the {@link SlowQueryLog}. Covers Hibernate and JdbcTemplate
+ * alike. unwrap() still reaches the pool, so pool metrics keep working.
+ */
+public class SqlTimingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    public SqlTimingDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // The replica router is only used through the application DataSource, which is timed already
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())
+                && !(bean instanceof ReplicaRoutingDataSource)) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? timedConnection(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    private Connection timedConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return timedStatement(CallableStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return timedStatement(PreparedStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                return timedStatement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private <T extends Statement> T timedStatement(Class<T> type, T statement, String preparedSql) {
+        return proxy(type, statement, (target, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                SqlStatementCounter.recordExecution(nanos);
+                SlowQueryLog log = slowQueryLog.getIfAvailable();
+                if (log != null && log.isSlow(nanos)) {
+                    String sql = preparedSql != null ? preparedSql
+                            : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    SqlStatementCounter.Usage usage = SqlStatementCounter.currentUsage();
+                    log.record(sql, nanos, usage != null ? usage.getRequest() : null);
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, TargetInvocationHandler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+        return (T) Proxy.newProxyInstance(SqlTimingDataSourcePostProcessor.class.getClassLoader(),
+                new Class<?>[] {type}, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocationHandler<T> {
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hospital.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Hibernate accepts a single statement inspector; this registers one that runs every
+ * {@link StatementInspector} bean in turn, such as the statement counter and the SQL sampler.
+ */
+@Configuration
+public class StatementInspectorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(ObjectProvider<StatementInspector> inspectors) {
+        return properties -> {
+            List<StatementInspector> chain = inspectors.orderedStream().toList();
+            if (!chain.isEmpty()) {
+                properties.put("hibernate.session_factory.statement_inspector", compose(chain));
+            }
+        };
+    }
+
+    static StatementInspector compose(List<StatementInspector> inspectors) {
+        if (inspectors.size() == 1) {
+            return inspectors.get(0);
+        }
+        return sql -> {
+            String inspected = sql;
+            for (StatementInspector inspector : inspectors) {
+                inspected = inspector.inspect(inspected);
+            }
+            return inspected;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.hospital.config;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Records how long authentication takes, including the user lookup and the password hash check,
+ * as hospital.auth.latency tagged with the outcome
+ */
+public class TimedAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+
+    public TimedAuthenticationProvider(AuthenticationProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        String outcome = "failure";
+        try {
+            Authentication result = delegate.authenticate(authentication);
+            outcome = result != null ? "success" : "unsupported";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("hospital.auth.latency")
+                    .description("Time to authenticate a username and password")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry));
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -1,6 +1,7 @@
 package com.hospital.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -9,16 +10,28 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.hospital.dto.DtoMapper;
 import com.hospital.service.DoctorService;
+import com.hospital.service.ExportJob;
+import com.hospital.service.ImportJob;
 import com.hospital.service.NurseService;
 import com.hospital.service.PatientService;
 import com.hospital.service.AppointmentService;
+import com.hospital.service.BulkExportService;
+import com.hospital.service.BulkImportService;
+import com.hospital.service.CacheStatisticsService;
+import com.hospital.service.SlowQueryLog;
 import com.hospital.service.UserService;
 import com.hospital.entity.User;
 import com.hospital.entity.Nurse;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -45,6 +58,18 @@ public class AdminController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private BulkExportService bulkExportService;
+
     /**
      * Get admin dashboard data
      */
@@ -64,7 +89,7 @@ public class AdminController {
             
             // Build response
             Map<String, Object> response = new HashMap<>();
-            response.put("user", currentUser);
+            response.put("user", DtoMapper.toUser(currentUser));
             response.put("statistics", statistics);
             
             return ResponseEntity.ok(response);
@@ -106,4 +131,231 @@ public class AdminController {
             throw new RuntimeException("Error fetching system statistics: " + e.getMessage(), e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Get second-level and query cache statistics
+     */
+    @GetMapping("/cache-statistics")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        try {
+            return ResponseEntity.ok(cacheStatisticsService.getCacheStatistics());
+        } catch (Exception e) {
+            throw new RuntimeException("Error fetching cache statistics: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reset cache statistics counters
+     */
+    @PostMapping("/cache-statistics/reset")
+    public ResponseEntity<Map<String, Object>> resetCacheStatistics() {
+        cacheStatisticsService.resetStatistics();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Cache statistics reset");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the slowest recent SQL statements, slowest first
+     */
+    @GetMapping("/slow-queries")
+    public ResponseEntity<Map<String, Object>> getSlowQueries() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("thresholdMs", slowQueryLog.getThresholdMs());
+        response.put("capacity", slowQueryLog.getCapacity());
+        response.put("queries", slowQueryLog.getSlowestQueries());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Clear the slow query log
+     */
+    @PostMapping("/slow-queries/reset")
+    public ResponseEntity<Map<String, Object>> resetSlowQueries() {
+        slowQueryLog.clear();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Slow query log cleared");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Start a bulk patient import from a CSV or NDJSON upload; poll /imports/{id} for progress
+     */
+    @PostMapping("/imports/patients")
+    public ResponseEntity<Map<String, Object>> importPatients(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format) {
+        return startImport(ImportJob.Kind.PATIENTS, file, format);
+    }
+
+    /**
+     * Start a bulk health metric import from a CSV or NDJSON upload; poll /imports/{id} for progress
+     */
+    @PostMapping("/imports/health-metrics")
+    public ResponseEntity<Map<String, Object>> importHealthMetrics(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format) {
+        return startImport(ImportJob.Kind.HEALTH_METRICS, file, format);
+    }
+
+    /**
+     * List recent bulk imports
+     */
+    @GetMapping("/imports")
+    public ResponseEntity<Map<String, Object>> getImports() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("imports", bulkImportService.getJobs().stream().map(job -> toImportMap(job, false)).toList());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the progress of a bulk import and its rejected rows
+     */
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<Map<String, Object>> getImport(@PathVariable String id) {
+        return bulkImportService.getJob(id)
+                .map(job -> ResponseEntity.ok(toImportMap(job, true)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                        "success", false, "message", "Import not found: " + id)));
+    }
+
+    /**
+     * Start a bulk export of all patient data as FHIR style NDJSON; poll /exports/{id} for progress
+     */
+    @PostMapping("/exports")
+    public ResponseEntity<Map<String, Object>> startExport() {
+        try {
+            return exportAccepted(bulkExportService.start());
+        } catch (IllegalStateException e) {
+            return exportConflict(e);
+        }
+    }
+
+    /**
+     * Continue a failed or interrupted export from its last complete page
+     */
+    @PostMapping("/exports/{id}/resume")
+    public ResponseEntity<Map<String, Object>> resumeExport(@PathVariable String id) {
+        try {
+            return bulkExportService.resume(id)
+                    .map(this::exportAccepted)
+                    .orElseGet(() -> exportNotFound(id));
+        } catch (IllegalStateException e) {
+            return exportConflict(e);
+        }
+    }
+
+    /**
+     * List the exports in the export directory
+     */
+    @GetMapping("/exports")
+    public ResponseEntity<Map<String, Object>> getExports() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("exports", bulkExportService.getJobs().stream().map(this::toExportMap).toList());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the progress of an export and its output files
+     */
+    @GetMapping("/exports/{id}")
+    public ResponseEntity<Map<String, Object>> getExport(@PathVariable String id) {
+        return bulkExportService.getJob(id)
+                .map(job -> ResponseEntity.ok(toExportMap(job)))
+                .orElseGet(() -> exportNotFound(id));
+    }
+
+    private ResponseEntity<Map<String, Object>> exportAccepted(ExportJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("exportId", job.getId());
+        response.put("status", "/api/admin/exports/" + job.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> exportConflict(IllegalStateException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> exportNotFound(String id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "success", false, "message", "Export not found: " + id));
+    }
+
+    private Map<String, Object> toExportMap(ExportJob job) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", job.getId());
+        map.put("state", job.getState());
+        map.put("startedAt", job.getStartedAt());
+        map.put("finishedAt", job.getFinishedAt());
+        map.put("failure", job.getFailure());
+        map.put("output", job.getOutput().stream().map(output -> Map.of(
+                "type", output.getType(),
+                "file", output.getFile(),
+                "count", output.getCount(),
+                "done", output.isDone())).toList());
+        return map;
+    }
+
+    private ResponseEntity<Map<String, Object>> startImport(ImportJob.Kind kind, MultipartFile file, String format) {
+        Map<String, Object> response = new HashMap<>();
+        Path upload = null;
+        try {
+            BulkImportService.Format fileFormat = BulkImportService.Format.of(format, file.getOriginalFilename());
+            // The upload is copied to a file of our own; the request's temporary file is gone once we return
+            upload = Files.createTempFile("hospital-import-", ".upload");
+            file.transferTo(upload);
+            ImportJob job = bulkImportService.start(kind, fileFormat, upload, file.getOriginalFilename());
+            response.put("success", true);
+            response.put("importId", job.getId());
+            response.put("status", "/api/admin/imports/" + job.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalStateException e) {
+            deleteQuietly(upload);
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalArgumentException e) {
+            deleteQuietly(upload);
+            response.put("success", false);
+            response.put("message", "Unsupported format: " + format);
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            deleteQuietly(upload);
+            throw new RuntimeException("Error storing import upload: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Object> toImportMap(ImportJob job, boolean withErrors) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", job.getId());
+        map.put("kind", job.getKind());
+        map.put("source", job.getSource());
+        map.put("state", job.getState());
+        map.put("startedAt", job.getStartedAt());
+        map.put("finishedAt", job.getFinishedAt());
+        map.put("rowsRead", job.getRowsRead());
+        map.put("imported", job.getImported());
+        map.put("failed", job.getFailed());
+        map.put("failure", job.getFailure());
+        if (withErrors) {
+            map.put("errors", job.getErrors());
+        }
+        return map;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException ignored) {
+            // Left in the temp directory
+        }
+    }
+}
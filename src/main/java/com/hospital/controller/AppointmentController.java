@@ -1,5 +1,6 @@
 package com.hospital.controller;
 
+import com.hospital.dto.DtoMapper;
 import com.hospital.entity.Appointment;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.Patient;
@@ -73,7 +74,7 @@ public class AppointmentController {
             }
             
             Map<String, Object> response = new HashMap<>();
-            response.put("appointments", appointments);
+            response.put("appointments", DtoMapper.toList(appointments, DtoMapper::toAppointment));
             response.put("success", true);
             
             return ResponseEntity.ok(response);
@@ -132,7 +133,7 @@ public class AppointmentController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Appointment booked successfully");
-            response.put("appointment", savedAppointment);
+            response.put("appointment", DtoMapper.toAppointment(savedAppointment));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
@@ -169,7 +170,7 @@ public class AppointmentController {
             }
             
             Map<String, Object> response = new HashMap<>();
-            response.put("appointment", appointment);
+            response.put("appointment", DtoMapper.toAppointment(appointment));
             response.put("success", true);
             
             return ResponseEntity.ok(response);
@@ -235,7 +236,7 @@ public class AppointmentController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Appointment updated successfully");
-            response.put("appointment", updatedAppointment);
+            response.put("appointment", DtoMapper.toAppointment(updatedAppointment));
             
             return ResponseEntity.ok(response);
             
@@ -0,0 +1,51 @@
+package com.hospital.controller;
+
+import com.hospital.dto.ChangeResponse;
+import com.hospital.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Change feed for downstream systems: appointments, medical records, health metrics and documents
+ * created, updated or deleted since a cursor
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    /**
+     * Get the changes after the cursor, oldest first. Start with since=0 and pass nextCursor on the
+     * next call; an empty page means the consumer is up to date.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                          @RequestParam(defaultValue = "100") int limit) {
+        if (since < 0 || limit < 1 || limit > MAX_LIMIT) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "since must be 0 or more and limit between 1 and " + MAX_LIMIT);
+            return ResponseEntity.badRequest().body(response);
+        }
+        List<ChangeResponse> changes = changeFeedService.getChanges(since, limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("changes", changes);
+        response.put("nextCursor", changes.isEmpty() ? since : changes.get(changes.size() - 1).cursor());
+        response.put("hasMore", changes.size() == limit);
+        return ResponseEntity.ok(response);
+    }
+}
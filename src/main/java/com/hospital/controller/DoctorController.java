@@ -1,5 +1,7 @@
 package com.hospital.controller;
 
+import com.hospital.dto.DtoMapper;
+import com.hospital.dto.AppointmentSummary;
 import com.hospital.entity.Appointment;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.MedicalRecord;
@@ -12,6 +14,8 @@ import com.hospital.service.PatientService;
 import com.hospital.service.UserService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -36,6 +40,8 @@ public class DoctorController {
     
     private static final Logger logger = LoggerFactory.getLogger(DoctorController.class);
     
+    private static final int MAX_PAGE_SIZE = 100;
+    
     @Autowired
     private DoctorService doctorService;
     
@@ -66,8 +72,8 @@ public class DoctorController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("user", user);
-            response.put("doctor", doctor);
+            response.put("user", DtoMapper.toUser(user));
+            response.put("doctor", DtoMapper.toDoctor(doctor));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -124,8 +130,8 @@ public class DoctorController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Profile updated successfully");
-            response.put("user", user);
-            response.put("doctor", doctor);
+            response.put("user", DtoMapper.toUser(user));
+            response.put("doctor", DtoMapper.toDoctor(doctor));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -161,7 +167,7 @@ public class DoctorController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("patients", patients);
+            response.put("patients", DtoMapper.toList(patients, DtoMapper::toPatient));
             response.put("total", patients.size());
             
             return ResponseEntity.ok(response);
@@ -204,9 +210,9 @@ public class DoctorController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("patient", patient);
-            response.put("appointments", appointments);
-            response.put("medicalRecords", medicalRecords);
+            response.put("patient", DtoMapper.toPatient(patient));
+            response.put("appointments", DtoMapper.toList(appointments, DtoMapper::toAppointment));
+            response.put("medicalRecords", DtoMapper.toList(medicalRecords, DtoMapper::toMedicalRecord));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -255,11 +261,11 @@ public class DoctorController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("appointments", appointments);
-            response.put("scheduledAppointments", scheduledAppointments);
-            response.put("completedAppointments", completedAppointments);
-            response.put("cancelledAppointments", cancelledAppointments);
-            response.put("todayAppointments", todayAppointments);
+            response.put("appointments", DtoMapper.toList(appointments, DtoMapper::toAppointment));
+            response.put("scheduledAppointments", DtoMapper.toList(scheduledAppointments, DtoMapper::toAppointment));
+            response.put("completedAppointments", DtoMapper.toList(completedAppointments, DtoMapper::toAppointment));
+            response.put("cancelledAppointments", DtoMapper.toList(cancelledAppointments, DtoMapper::toAppointment));
+            response.put("todayAppointments", DtoMapper.toList(todayAppointments, DtoMapper::toAppointment));
             response.put("total", appointments.size());
             
             return ResponseEntity.ok(response);
@@ -272,6 +278,50 @@ public class DoctorController {
         }
     }
     
+    /**
+     * Get doctor's appointment dashboard: status counts, today's list and one page of history.
+     * Uses an aggregate query and flat projections instead of loading every appointment.
+     */
+    @GetMapping("/appointments/dashboard")
+    @PreAuthorize("hasRole('DOCTOR')")
+    public ResponseEntity<Map<String, Object>> getDoctorAppointmentDashboard(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        try {
+            Doctor doctor = doctorService.getDoctorByEmail(authentication.getName())
+                    .orElseThrow(() -> new RuntimeException("Doctor profile not found"));
+            
+            Map<Appointment.AppointmentStatus, Long> statusCounts = appointmentService.getAppointmentStatusCountsForDoctor(doctor);
+            List<AppointmentSummary> todayAppointments = appointmentService.getTodayAppointmentSummariesForDoctor(doctor);
+            
+            int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+            Page<AppointmentSummary> history = appointmentService.getAppointmentHistoryForDoctor(
+                    doctor, PageRequest.of(Math.max(page, 0), pageSize));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("statusCounts", statusCounts);
+            response.put("scheduledCount", statusCounts.get(Appointment.AppointmentStatus.SCHEDULED));
+            response.put("completedCount", statusCounts.get(Appointment.AppointmentStatus.COMPLETED));
+            response.put("cancelledCount", statusCounts.get(Appointment.AppointmentStatus.CANCELLED));
+            response.put("total", statusCounts.values().stream().mapToLong(Long::longValue).sum());
+            response.put("todayAppointments", todayAppointments);
+            response.put("history", history.getContent());
+            response.put("page", history.getNumber());
+            response.put("size", history.getSize());
+            response.put("totalPages", history.getTotalPages());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error retrieving doctor's appointment dashboard", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error retrieving appointment dashboard: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
     /**
      * Create a medical record
      */
@@ -311,7 +361,7 @@ public class DoctorController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Medical record created successfully");
-            response.put("medicalRecord", savedRecord);
+            response.put("medicalRecord", DtoMapper.toMedicalRecord(savedRecord));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -1,5 +1,6 @@
 package com.hospital.controller;
 
+import com.hospital.dto.DtoMapper;
 import com.hospital.entity.Document;
 import com.hospital.entity.Patient;
 import com.hospital.entity.User;
@@ -72,7 +73,7 @@ public class DocumentController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Document uploaded successfully");
-            response.put("document", document);
+            response.put("document", DtoMapper.toDocument(document));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -100,8 +101,8 @@ public class DocumentController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("documents", documents);
-            response.put("patient", patient);
+            response.put("documents", DtoMapper.toList(documents, DtoMapper::toDocument));
+            response.put("patient", DtoMapper.toPatient(patient));
             response.put("total", documents.size());
             
             return ResponseEntity.ok(response);
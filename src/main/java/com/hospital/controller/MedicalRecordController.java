@@ -1,5 +1,7 @@
 package com.hospital.controller;
 
+import com.hospital.dto.DtoMapper;
+import com.hospital.dto.MedicalRecordResponse;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.MedicalRecord;
 import com.hospital.entity.Patient;
@@ -30,6 +32,8 @@ public class MedicalRecordController {
 
     private static final Logger logger = LoggerFactory.getLogger(MedicalRecordController.class);
 
+    private static final int MAX_SEARCH_RESULTS = 200;
+
     @Autowired
     private MedicalRecordService medicalRecordService;
 
@@ -44,26 +48,72 @@ public class MedicalRecordController {
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE')")
-    public ResponseEntity<List<MedicalRecord>> getAllMedicalRecords() {
+    public ResponseEntity<List<MedicalRecordResponse>> getAllMedicalRecords() {
         try {
             List<MedicalRecord> records = medicalRecordService.getAllMedicalRecords();
-            return ResponseEntity.ok(records);
+            return ResponseEntity.ok(DtoMapper.toList(records, DtoMapper::toMedicalRecord));
         } catch (Exception e) {
             logger.error("Error retrieving all medical records", e);
             throw new RuntimeException("Failed to retrieve medical records: " + e.getMessage());
         }
     }
 
+    /**
+     * Full-text search over diagnosis and prescription
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE')")
+    public ResponseEntity<List<MedicalRecordResponse>> searchMedicalRecords(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+            List<MedicalRecord> records = medicalRecordService.searchMedicalRecords(query, boundedLimit);
+            return ResponseEntity.ok(DtoMapper.toList(records, DtoMapper::toMedicalRecord));
+        } catch (Exception e) {
+            // Search terms are clinical data, so only their length is logged
+            logger.error("Error searching medical records for a {} character query", query.length(), e);
+            throw new RuntimeException("Failed to search medical records: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the search index from the database
+     */
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        try {
+            int indexed = medicalRecordService.rebuildSearchIndex();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("indexedRecords", indexed);
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            logger.error("Error rebuilding medical record search index", e);
+            throw new RuntimeException("Failed to rebuild search index: " + e.getMessage());
+        }
+    }
+
     /**
      * Get medical record by ID
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE') or @recordSecurity.canViewRecord(authentication, #id)")
-    public ResponseEntity<MedicalRecord> getMedicalRecordById(@PathVariable Integer id) {
+    public ResponseEntity<MedicalRecordResponse> getMedicalRecordById(@PathVariable Integer id) {
         try {
             MedicalRecord record = medicalRecordService.getMedicalRecordById(id)
                     .orElseThrow(() -> new RuntimeException("Medical record not found with id: " + id));
-            return ResponseEntity.ok(record);
+            return ResponseEntity.ok(DtoMapper.toMedicalRecord(record));
         } catch (Exception e) {
             logger.error("Error retrieving medical record with ID: {}", id, e);
             throw new RuntimeException("Failed to retrieve medical record: " + e.getMessage());
@@ -75,13 +125,13 @@ public class MedicalRecordController {
      */
     @GetMapping("/patient/{patientId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE') or @patientSecurity.isPatientOwner(authentication, #patientId)")
-    public ResponseEntity<List<MedicalRecord>> getMedicalRecordsByPatient(@PathVariable Integer patientId) {
+    public ResponseEntity<List<MedicalRecordResponse>> getMedicalRecordsByPatient(@PathVariable Integer patientId) {
         try {
             Patient patient = patientService.getPatientById(patientId)
                     .orElseThrow(() -> new RuntimeException("Patient not found with id: " + patientId));
             
             List<MedicalRecord> records = medicalRecordService.getMedicalRecordsByPatient(patient);
-            return ResponseEntity.ok(records);
+            return ResponseEntity.ok(DtoMapper.toList(records, DtoMapper::toMedicalRecord));
         } catch (Exception e) {
             logger.error("Error retrieving medical records for patient ID: {}", patientId, e);
             throw new RuntimeException("Failed to retrieve patient medical records: " + e.getMessage());
@@ -93,7 +143,7 @@ public class MedicalRecordController {
      */
     @PostMapping
     @PreAuthorize("hasAnyRole('DOCTOR', 'NURSE')")
-    public ResponseEntity<MedicalRecord> createMedicalRecord(@RequestBody Map<String, Object> recordData) {
+    public ResponseEntity<MedicalRecordResponse> createMedicalRecord(@RequestBody Map<String, Object> recordData) {
         try {
             Integer patientId = (Integer) recordData.get("patientId");
             Integer doctorId = (Integer) recordData.get("doctorId");
@@ -116,7 +166,7 @@ public class MedicalRecordController {
                 record = medicalRecordService.updateMedicalRecord(record);
             }
             
-            return ResponseEntity.status(HttpStatus.CREATED).body(record);
+            return ResponseEntity.status(HttpStatus.CREATED).body(DtoMapper.toMedicalRecord(record));
         } catch (Exception e) {
             logger.error("Error creating medical record", e);
             throw new RuntimeException("Failed to create medical record: " + e.getMessage());
@@ -128,7 +178,7 @@ public class MedicalRecordController {
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('DOCTOR', 'NURSE')")
-    public ResponseEntity<MedicalRecord> updateMedicalRecord(
+    public ResponseEntity<MedicalRecordResponse> updateMedicalRecord(
             @PathVariable Integer id, 
             @RequestBody Map<String, Object> updateData) {
         try {
@@ -153,7 +203,7 @@ public class MedicalRecordController {
             }
             
             MedicalRecord updatedRecord = medicalRecordService.updateMedicalRecord(record);
-            return ResponseEntity.ok(updatedRecord);
+            return ResponseEntity.ok(DtoMapper.toMedicalRecord(updatedRecord));
         } catch (Exception e) {
             logger.error("Error updating medical record with ID: {}", id, e);
             throw new RuntimeException("Failed to update medical record: " + e.getMessage());
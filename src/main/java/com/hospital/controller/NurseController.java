@@ -1,5 +1,6 @@
 package com.hospital.controller;
 
+import com.hospital.dto.DtoMapper;
 import com.hospital.entity.Appointment;
 import com.hospital.entity.Nurse;
 import com.hospital.entity.Patient;
@@ -60,8 +61,8 @@ public class NurseController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("user", user);
-            response.put("nurse", nurse);
+            response.put("user", DtoMapper.toUser(user));
+            response.put("nurse", DtoMapper.toNurse(nurse));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -110,8 +111,8 @@ public class NurseController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Profile updated successfully");
-            response.put("user", user);
-            response.put("nurse", nurse);
+            response.put("user", DtoMapper.toUser(user));
+            response.put("nurse", DtoMapper.toNurse(nurse));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -135,7 +136,7 @@ public class NurseController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("patients", patients);
+            response.put("patients", DtoMapper.toList(patients, DtoMapper::toPatient));
             response.put("total", patients.size());
             
             return ResponseEntity.ok(response);
@@ -173,10 +174,10 @@ public class NurseController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("appointments", appointments);
-            response.put("scheduledAppointments", scheduledAppointments);
-            response.put("completedAppointments", completedAppointments);
-            response.put("cancelledAppointments", cancelledAppointments);
+            response.put("appointments", DtoMapper.toList(appointments, DtoMapper::toAppointment));
+            response.put("scheduledAppointments", DtoMapper.toList(scheduledAppointments, DtoMapper::toAppointment));
+            response.put("completedAppointments", DtoMapper.toList(completedAppointments, DtoMapper::toAppointment));
+            response.put("cancelledAppointments", DtoMapper.toList(cancelledAppointments, DtoMapper::toAppointment));
             response.put("total", appointments.size());
             
             return ResponseEntity.ok(response);
@@ -204,8 +205,8 @@ public class NurseController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("patient", patient);
-            response.put("appointments", appointments);
+            response.put("patient", DtoMapper.toPatient(patient));
+            response.put("appointments", DtoMapper.toList(appointments, DtoMapper::toAppointment));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
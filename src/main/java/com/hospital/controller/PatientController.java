@@ -1,5 +1,9 @@
 package com.hospital.controller;
 
+import com.hospital.dto.DtoMapper;
+import com.hospital.dto.HealthMetricChartData;
+import com.hospital.dto.MedicalRecordResponse;
+import com.hospital.dto.PatientResponse;
 import com.hospital.entity.Appointment;
 import com.hospital.entity.MedicalRecord;
 import com.hospital.entity.Patient;
@@ -14,6 +18,7 @@ import com.hospital.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +26,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -67,9 +73,9 @@ public class PatientController {
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE')")
-    public ResponseEntity<List<Patient>> getAllPatients() {
+    public ResponseEntity<List<PatientResponse>> getAllPatients() {
         List<Patient> patients = patientService.getAllPatients();
-        return ResponseEntity.ok(patients);
+        return ResponseEntity.ok(DtoMapper.toList(patients, DtoMapper::toPatient));
     }
 
     /**
@@ -77,10 +83,10 @@ public class PatientController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE') or @patientSecurity.isPatientOwner(authentication, #id)")
-    public ResponseEntity<Patient> getPatientById(@PathVariable Integer id) {
+    public ResponseEntity<PatientResponse> getPatientById(@PathVariable Integer id) {
         Patient patient = patientService.getPatientById(id)
                 .orElseThrow(() -> new RuntimeException("Patient not found with ID: " + id));
-        return ResponseEntity.ok(patient);
+        return ResponseEntity.ok(DtoMapper.toPatient(patient));
     }
 
     /**
@@ -88,7 +94,7 @@ public class PatientController {
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'NURSE') or @patientSecurity.isPatientOwner(authentication, #id)")
-    public ResponseEntity<Patient> updatePatient(@PathVariable Integer id, @RequestBody Patient updatedPatient) {
+    public ResponseEntity<PatientResponse> updatePatient(@PathVariable Integer id, @RequestBody Patient updatedPatient) {
         try {
             Patient patient = patientService.getPatientById(id)
                     .orElseThrow(() -> new RuntimeException("Patient not found with ID: " + id));
@@ -97,7 +103,7 @@ public class PatientController {
             // Assumes all necessary fields are directly set in the Patient object
             
             Patient savedPatient = patientService.updatePatient(patient);
-            return ResponseEntity.ok(savedPatient);
+            return ResponseEntity.ok(DtoMapper.toPatient(savedPatient));
         } catch (Exception e) {
             logger.error("Error updating patient", e);
             throw new RuntimeException("Failed to update patient: " + e.getMessage());
@@ -138,10 +144,10 @@ public class PatientController {
             List<PatientHealthMetric> recentMetrics = healthMetricService.getRecentHealthMetricsByPatient(patient, 5);
             
             Map<String, Object> dashboardData = new HashMap<>();
-            dashboardData.put("patient", patient);
-            dashboardData.put("upcomingAppointments", upcomingAppointments);
-            dashboardData.put("recentRecords", recentRecords);
-            dashboardData.put("recentMetrics", recentMetrics);
+            dashboardData.put("patient", DtoMapper.toPatient(patient));
+            dashboardData.put("upcomingAppointments", DtoMapper.toList(upcomingAppointments, DtoMapper::toAppointment));
+            dashboardData.put("recentRecords", DtoMapper.toList(recentRecords, DtoMapper::toMedicalRecord));
+            dashboardData.put("recentMetrics", DtoMapper.toList(recentMetrics, DtoMapper::toHealthMetric));
             
             return ResponseEntity.ok(dashboardData);
         } catch (Exception e) {
@@ -155,19 +161,24 @@ public class PatientController {
      */
     @GetMapping("/appointments")
     @PreAuthorize("hasRole('PATIENT') or hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getAppointments(Authentication authentication) {
+    public ResponseEntity<Map<String, Object>> getAppointments(Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
         try {
             Patient patient = getAuthenticatedPatient(authentication);
             
             // Get upcoming appointments
             List<Appointment> upcomingAppointments = appointmentService.getUpcomingAppointmentsByPatient(patient);
             
-            // Get past appointments
-            List<Appointment> pastAppointments = appointmentService.getPastAppointmentsByPatient(patient);
-            
             Map<String, Object> response = new HashMap<>();
-            response.put("upcomingAppointments", upcomingAppointments);
-            response.put("pastAppointments", pastAppointments);
+            response.put("upcomingAppointments", DtoMapper.toList(upcomingAppointments, DtoMapper::toAppointment));
+            
+            // Get past appointments; from a given day they include archived appointments
+            if (from != null) {
+                response.put("pastAppointments", appointmentService.getPastAppointmentsByPatientSince(patient, from));
+            } else {
+                List<Appointment> pastAppointments = appointmentService.getPastAppointmentsByPatient(patient);
+                response.put("pastAppointments", DtoMapper.toList(pastAppointments, DtoMapper::toAppointment));
+            }
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -186,14 +197,14 @@ public class PatientController {
             Patient patient = getAuthenticatedPatient(authentication);
             
             // Get health metrics for charts
-            Map<String, Object> chartData = healthMetricService.getPatientHealthMetricsChartData(patient);
+            HealthMetricChartData chartData = healthMetricService.getPatientHealthMetricsChartData(patient);
             
             // Get recent health metrics entries
             List<PatientHealthMetric> recentMetrics = healthMetricService.getRecentHealthMetricsByPatient(patient, 10);
             
             Map<String, Object> response = new HashMap<>();
             response.put("chartData", chartData);
-            response.put("recentMetrics", recentMetrics);
+            response.put("recentMetrics", DtoMapper.toList(recentMetrics, DtoMapper::toHealthMetric));
             response.put("chartUrls", Map.of(
                 "weight", "/api/health-metrics/chart/" + patient.getId() + "/weight",
                 "bloodPressure", "/api/health-metrics/chart/" + patient.getId() + "/blood-pressure",
@@ -212,11 +223,11 @@ public class PatientController {
      */
     @GetMapping("/medical-records")
     @PreAuthorize("hasRole('PATIENT') or hasRole('ADMIN')")
-    public ResponseEntity<List<MedicalRecord>> getMedicalRecords(Authentication authentication) {
+    public ResponseEntity<List<MedicalRecordResponse>> getMedicalRecords(Authentication authentication) {
         try {
             Patient patient = getAuthenticatedPatient(authentication);
             List<MedicalRecord> records = medicalRecordService.getMedicalRecordsByPatient(patient);
-            return ResponseEntity.ok(records);
+            return ResponseEntity.ok(DtoMapper.toList(records, DtoMapper::toMedicalRecord));
         } catch (Exception e) {
             logger.error("Error getting medical records", e);
             throw new RuntimeException("Failed to get medical records: " + e.getMessage());
@@ -1,5 +1,9 @@
 package com.hospital.controller;
 
+import com.hospital.dto.DtoMapper;
+import com.hospital.dto.HealthMetricChartData;
+import com.hospital.dto.HealthMetricChartResponse;
+import com.hospital.dto.HealthMetricResponse;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.Patient;
 import com.hospital.entity.PatientHealthMetric;
@@ -9,6 +13,7 @@ import com.hospital.service.DoctorService;
 import com.hospital.service.PatientHealthMetricService;
 import com.hospital.service.PatientService;
 import com.hospital.service.UserService;
+import com.hospital.service.VitalsStreamService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.File;
 import java.io.IOException;
@@ -28,6 +34,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/health-metrics")
@@ -49,37 +56,56 @@ public class PatientHealthMetricController {
     
     @Autowired
     private PatientHealthMetricRepository healthMetricRepository;
+
+    @Autowired
+    private VitalsStreamService vitalsStreamService;
     
     @GetMapping("/patient/{patientId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE') or @patientSecurity.isPatientOwner(authentication, #patientId)")
-    public ResponseEntity<List<PatientHealthMetric>> getPatientHealthMetrics(@PathVariable Integer patientId) {
+    public ResponseEntity<List<HealthMetricResponse>> getPatientHealthMetrics(@PathVariable Integer patientId) {
         try {
         Patient patient = patientService.getPatientById(patientId)
                 .orElseThrow(() -> new RuntimeException("Patient not found with id: " + patientId));
         
         List<PatientHealthMetric> metrics = healthMetricService.getHealthMetricsByPatient(patient);
-            return ResponseEntity.ok(metrics);
+            return ResponseEntity.ok(DtoMapper.toList(metrics, DtoMapper::toHealthMetric));
         } catch (Exception e) {
             logger.error("Error fetching health metrics for patient {}", patientId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    /**
+     * Server-Sent Events stream of the readings saved for the given patients from now on, one
+     * "reading" event per reading. Load the current readings from /patient/{patientId} after connecting.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE')")
+    public ResponseEntity<SseEmitter> streamHealthMetrics(@RequestParam Set<Integer> patientIds) {
+        try {
+            return ResponseEntity.ok(vitalsStreamService.subscribe(patientIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            logger.warn("Vitals stream refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
     @GetMapping("/patient/{patientId}/chart-data")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE') or @patientSecurity.isPatientOwner(authentication, #patientId)")
-    public ResponseEntity<Map<String, Object>> getPatientHealthMetricsChartData(@PathVariable Integer patientId) {
+    public ResponseEntity<HealthMetricChartResponse> getPatientHealthMetricsChartData(@PathVariable Integer patientId) {
         try {
         Patient patient = patientService.getPatientById(patientId)
                 .orElseThrow(() -> new RuntimeException("Patient not found with id: " + patientId));
         
-            Map<String, Object> chartData = healthMetricService.getPatientHealthMetricsChartData(patient);
+            HealthMetricChartData chartData = healthMetricService.getPatientHealthMetricsChartData(patient);
             
             // Add chart URLs to maintain visualization compatibility
-            chartData.put("weightChartUrl", "/api/health-metrics/chart/" + patientId + "/weight");
-            chartData.put("bpChartUrl", "/api/health-metrics/chart/" + patientId + "/blood-pressure");
-            chartData.put("hrChartUrl", "/api/health-metrics/chart/" + patientId + "/heart-rate");
-            
-            return ResponseEntity.ok(chartData);
+            return ResponseEntity.ok(new HealthMetricChartResponse(chartData,
+                    "/api/health-metrics/chart/" + patientId + "/weight",
+                    "/api/health-metrics/chart/" + patientId + "/blood-pressure",
+                    "/api/health-metrics/chart/" + patientId + "/heart-rate"));
         } catch (Exception e) {
             logger.error("Error fetching chart data for patient {}", patientId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -110,7 +136,7 @@ public class PatientHealthMetricController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Health metric added successfully");
-            response.put("healthMetric", savedMetric);
+            response.put("healthMetric", DtoMapper.toHealthMetric(savedMetric));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -128,15 +154,17 @@ public class PatientHealthMetricController {
     
     @GetMapping(value = "/chart/{patientId}/weight", produces = MediaType.IMAGE_PNG_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE') or @patientSecurity.isPatientOwner(authentication, #patientId)")
-    public ResponseEntity<byte[]> getWeightChart(@PathVariable Integer patientId) {
+    public ResponseEntity<byte[]> getWeightChart(@PathVariable Integer patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         try {
             Patient patient = patientService.getPatientById(patientId)
                     .orElseThrow(() -> new RuntimeException("Patient not found with id: " + patientId));
             
-            // Generate the chart using JFreeChart
-            LocalDate endDate = LocalDate.now();
-            LocalDate startDate = endDate.minusYears(1);
-            String chartUrl = healthMetricService.generateMetricChart(patient, "WEIGHT", startDate, endDate);
+            // Generate the chart using JFreeChart; the last year unless a range is given
+            LocalDate endDate = to != null ? to : LocalDate.now();
+            LocalDate startDate = from != null ? from : endDate.minusYears(1);
+            String chartUrl = healthMetricService.generateMetricChart(patient, PatientHealthMetric.MetricType.WEIGHT, startDate, endDate);
             
             if (chartUrl == null) {
                 logger.error("Failed to generate weight chart for patient {}", patientId);
@@ -169,15 +197,17 @@ public class PatientHealthMetricController {
     
     @GetMapping(value = "/chart/{patientId}/blood-pressure", produces = MediaType.IMAGE_PNG_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE') or @patientSecurity.isPatientOwner(authentication, #patientId)")
-    public ResponseEntity<byte[]> getBloodPressureChart(@PathVariable Integer patientId) {
+    public ResponseEntity<byte[]> getBloodPressureChart(@PathVariable Integer patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         try {
             Patient patient = patientService.getPatientById(patientId)
                     .orElseThrow(() -> new RuntimeException("Patient not found with id: " + patientId));
             
-            // Generate the chart using JFreeChart
-            LocalDate endDate = LocalDate.now();
-            LocalDate startDate = endDate.minusYears(1);
-            String chartUrl = healthMetricService.generateMetricChart(patient, "BLOOD_PRESSURE", startDate, endDate);
+            // Generate the chart using JFreeChart; the last year unless a range is given
+            LocalDate endDate = to != null ? to : LocalDate.now();
+            LocalDate startDate = from != null ? from : endDate.minusYears(1);
+            String chartUrl = healthMetricService.generateMetricChart(patient, PatientHealthMetric.MetricType.BLOOD_PRESSURE, startDate, endDate);
             
             if (chartUrl == null) {
                 logger.error("Failed to generate blood pressure chart for patient {}", patientId);
@@ -210,15 +240,17 @@ public class PatientHealthMetricController {
     
     @GetMapping(value = "/chart/{patientId}/heart-rate", produces = MediaType.IMAGE_PNG_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'NURSE') or @patientSecurity.isPatientOwner(authentication, #patientId)")
-    public ResponseEntity<byte[]> getHeartRateChart(@PathVariable Integer patientId) {
+    public ResponseEntity<byte[]> getHeartRateChart(@PathVariable Integer patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         try {
             Patient patient = patientService.getPatientById(patientId)
                     .orElseThrow(() -> new RuntimeException("Patient not found with id: " + patientId));
             
-            // Generate the chart using JFreeChart
-            LocalDate endDate = LocalDate.now();
-            LocalDate startDate = endDate.minusYears(1);
-            String chartUrl = healthMetricService.generateMetricChart(patient, "HEART_RATE", startDate, endDate);
+            // Generate the chart using JFreeChart; the last year unless a range is given
+            LocalDate endDate = to != null ? to : LocalDate.now();
+            LocalDate startDate = from != null ? from : endDate.minusYears(1);
+            String chartUrl = healthMetricService.generateMetricChart(patient, PatientHealthMetric.MetricType.HEART_RATE, startDate, endDate);
             
             if (chartUrl == null) {
                 logger.error("Failed to generate heart rate chart for patient {}", patientId);
@@ -258,7 +290,7 @@ public class PatientHealthMetricController {
             
             // Just return URLs to the chart images for Postman testing
             Map<String, Object> response = new HashMap<>();
-            response.put("patient", patient);
+            response.put("patient", DtoMapper.toPatient(patient));
             response.put("weightChartUrl", "/api/health-metrics/chart/" + patientId + "/weight");
             response.put("bloodPressureChartUrl", "/api/health-metrics/chart/" + patientId + "/blood-pressure");
             response.put("heartRateChartUrl", "/api/health-metrics/chart/" + patientId + "/heart-rate");
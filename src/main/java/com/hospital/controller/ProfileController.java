@@ -1,5 +1,6 @@
 package com.hospital.controller;
 
+import com.hospital.dto.DtoMapper;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.Nurse;
 import com.hospital.entity.Patient;
@@ -49,7 +50,7 @@ public class ProfileController {
             // Set role-specific attributes
             String userRole = getUserRole(authentication);
             Map<String, Object> responseData = new HashMap<>();
-            responseData.put("user", user);
+            responseData.put("user", DtoMapper.toUser(user));
             
             // Add role-specific data to the response
             setupProfileResponseData(responseData, user, userRole);
@@ -95,7 +96,7 @@ public class ProfileController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Profile updated successfully");
-            response.put("user", user);
+            response.put("user", DtoMapper.toUser(user));
             response.put("profile", updatedProfile);
             
             return ResponseEntity.ok(response);
@@ -172,7 +173,7 @@ public class ProfileController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Profile updated successfully");
-            response.put("user", user);
+            response.put("user", DtoMapper.toUser(user));
             response.put("profile", updatedProfile);
             
             return ResponseEntity.ok(response);
@@ -210,7 +211,7 @@ public class ProfileController {
             case "DOCTOR":
                 Doctor doctor = doctorService.getDoctorByUser(user)
                         .orElseThrow(() -> new RuntimeException("Doctor profile not found"));
-                responseData.put("doctor", doctor);
+                responseData.put("doctor", DtoMapper.toDoctor(doctor));
                 responseData.put("phoneNumber", doctor.getPhoneNumber());
                 responseData.put("userRole", "DOCTOR");
                 break;
@@ -218,7 +219,7 @@ public class ProfileController {
             case "NURSE":
                 Nurse nurse = nurseService.getNurseByUser(user)
                         .orElseThrow(() -> new RuntimeException("Nurse profile not found"));
-                responseData.put("nurse", nurse);
+                responseData.put("nurse", DtoMapper.toNurse(nurse));
                 responseData.put("phoneNumber", nurse.getPhoneNumber());
                 responseData.put("userRole", "NURSE");
                 break;
@@ -226,7 +227,7 @@ public class ProfileController {
             case "PATIENT":
                 Patient patient = patientService.getPatientByUser(user)
                         .orElseThrow(() -> new RuntimeException("Patient profile not found"));
-                responseData.put("patient", patient);
+                responseData.put("patient", DtoMapper.toPatient(patient));
                 responseData.put("phoneNumber", patient.getPhoneNumber());
                 responseData.put("userRole", "PATIENT");
                 break;
@@ -248,7 +249,7 @@ public class ProfileController {
                 doctor.setYearsOfExperience(yearsOfExperience);
                 doctor.setCharges(charges);
                 doctorService.updateDoctor(doctor);
-                return doctor;
+                return DtoMapper.toDoctor(doctor);
                 
             case "NURSE":
                 Nurse nurse = nurseService.getNurseByUser(user)
@@ -256,7 +257,7 @@ public class ProfileController {
                 nurse.setPhoneNumber(phoneNumber);
                 nurse.setYearsOfExperience(yearsOfExperience);
                 nurseService.updateNurse(nurse);
-                return nurse;
+                return DtoMapper.toNurse(nurse);
                 
             case "PATIENT":
                 Patient patient = patientService.getPatientByUser(user)
@@ -268,7 +269,7 @@ public class ProfileController {
                 patient.setBloodGroup(bloodGroup);
                 patient.setEmergencyContact(emergencyContact);
                 patientService.updatePatient(patient);
-                return patient;
+                return DtoMapper.toPatient(patient);
                 
             default:
                 throw new RuntimeException("Unsupported user role");
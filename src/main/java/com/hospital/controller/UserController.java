@@ -22,6 +22,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.hospital.dto.DtoMapper;
+import com.hospital.dto.UserResponse;
 import com.hospital.entity.User;
 import com.hospital.service.UserService;
 
@@ -41,10 +43,10 @@ public class UserController {
      * Get the current user's profile
      */
     @GetMapping("/profile")
-    public ResponseEntity<User> getCurrentUserProfile() {
+    public ResponseEntity<UserResponse> getCurrentUserProfile() {
         try {
             User user = getCurrentUser();
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(DtoMapper.toUser(user));
         } catch (Exception e) {
             logger.error("Error retrieving current user profile", e);
             throw new RuntimeException("Failed to retrieve user profile: " + e.getMessage());
@@ -56,10 +58,10 @@ public class UserController {
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserResponse>> getAllUsers() {
         try {
             List<User> users = userService.getAllUsers();
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(DtoMapper.toList(users, DtoMapper::toUser));
         } catch (Exception e) {
             logger.error("Error retrieving all users", e);
             throw new RuntimeException("Failed to retrieve users: " + e.getMessage());
@@ -71,11 +73,11 @@ public class UserController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<User> getUserById(@PathVariable int id) {
+    public ResponseEntity<UserResponse> getUserById(@PathVariable int id) {
         try {
             User user = userService.getUserById(id)
                     .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(DtoMapper.toUser(user));
         } catch (Exception e) {
             logger.error("Error retrieving user with ID: {}", id, e);
             throw new RuntimeException("Failed to retrieve user: " + e.getMessage());
@@ -103,7 +105,7 @@ public class UserController {
             
             User updatedUser = userService.updateUser(user);
             logger.info("User with ID {} updated successfully by admin", id);
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(DtoMapper.toUser(updatedUser));
         } catch (Exception e) {
             logger.error("Error updating user with ID: {}", id, e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -0,0 +1,9 @@
+package com.hospital.dto;
+
+import com.hospital.entity.Appointment;
+
+/**
+ * Row of a GROUP BY status aggregate over appointments
+ */
+public record AppointmentStatusCount(Appointment.AppointmentStatus status, long count) {
+}
@@ -0,0 +1,21 @@
+package com.hospital.dto;
+
+import com.hospital.entity.Appointment;
+
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only view of an appointment returned by the appointment endpoints.
+ * Dashboard queries populate it directly with JPQL constructor expressions so no
+ * entity graph is loaded; other endpoints map loaded entities via {@link DtoMapper}.
+ */
+public record AppointmentSummary(
+        Integer id,
+        LocalDate appointmentDate,
+        Appointment.AppointmentStatus status,
+        String notes,
+        Integer patientId,
+        String patientName,
+        Integer doctorId,
+        String doctorName) {
+}
@@ -0,0 +1,17 @@
+package com.hospital.dto;
+
+import com.hospital.entity.ChangeLogEntry;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the change feed. Populated directly by a JPQL constructor expression; consumers pass
+ * the cursor of the last entry they processed as the next request's since.
+ */
+public record ChangeResponse(
+        Long cursor,
+        ChangeLogEntry.EntityType entityType,
+        Integer entityId,
+        ChangeLogEntry.Operation operation,
+        LocalDateTime changedAt) {
+}
@@ -0,0 +1,17 @@
+package com.hospital.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Doctor profile with the owning user's name and email flattened in.
+ */
+public record DoctorResponse(
+        Integer id,
+        Integer userId,
+        String name,
+        String email,
+        String specialization,
+        Integer yearsOfExperience,
+        BigDecimal charges,
+        String phoneNumber) {
+}
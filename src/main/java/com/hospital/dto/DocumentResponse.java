@@ -0,0 +1,17 @@
+package com.hospital.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Document metadata. The file content is only served by the download endpoint.
+ */
+public record DocumentResponse(
+        Integer id,
+        String documentName,
+        String documentType,
+        LocalDateTime uploadDate,
+        Integer patientId,
+        Integer recordId,
+        Integer uploadedById,
+        String uploadedByName) {
+}
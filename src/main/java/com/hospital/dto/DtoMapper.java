@@ -0,0 +1,138 @@
+package com.hospital.dto;
+
+import com.hospital.entity.Appointment;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Document;
+import com.hospital.entity.MedicalRecord;
+import com.hospital.entity.Nurse;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maps entities to the flat response records returned by the REST controllers.
+ * Only ids and display names of associated entities are copied, so the size of a
+ * response no longer depends on how much of the entity graph happens to be loaded.
+ */
+public final class DtoMapper {
+
+    private DtoMapper() {
+    }
+
+    public static UserResponse toUser(User user) {
+        if (user == null) {
+            return null;
+        }
+        Set<String> roles = user.getRoles() == null ? Set.of() : user.getRoles().stream()
+                .map(role -> role.getName().name())
+                .collect(Collectors.toUnmodifiableSet());
+        return new UserResponse(user.getId(), user.getEmail(), user.getName(), user.getCreatedAt(), roles);
+    }
+
+    public static PatientResponse toPatient(Patient patient) {
+        if (patient == null) {
+            return null;
+        }
+        User user = patient.getUser();
+        return new PatientResponse(patient.getId(), idOf(user), nameOf(user), emailOf(user),
+                patient.getDateOfBirth(), patient.getGender(), patient.getPhoneNumber(),
+                patient.getAddress(), patient.getBloodGroup(), patient.getEmergencyContact());
+    }
+
+    public static DoctorResponse toDoctor(Doctor doctor) {
+        if (doctor == null) {
+            return null;
+        }
+        User user = doctor.getUser();
+        return new DoctorResponse(doctor.getId(), idOf(user), nameOf(user), emailOf(user),
+                doctor.getSpecialization(), doctor.getYearsOfExperience(), doctor.getCharges(),
+                doctor.getPhoneNumber());
+    }
+
+    public static NurseResponse toNurse(Nurse nurse) {
+        if (nurse == null) {
+            return null;
+        }
+        User user = nurse.getUser();
+        return new NurseResponse(nurse.getId(), idOf(user), nameOf(user), emailOf(user),
+                nurse.getYearsOfExperience(), nurse.getPhoneNumber());
+    }
+
+    public static AppointmentSummary toAppointment(Appointment appointment) {
+        if (appointment == null) {
+            return null;
+        }
+        Patient patient = appointment.getPatient();
+        Doctor doctor = appointment.getDoctor();
+        return new AppointmentSummary(appointment.getId(), appointment.getAppointmentDate(),
+                appointment.getStatus(), appointment.getNotes(),
+                patient != null ? patient.getId() : null, patient != null ? nameOf(patient.getUser()) : null,
+                doctor != null ? doctor.getId() : null, doctor != null ? nameOf(doctor.getUser()) : null);
+    }
+
+    public static MedicalRecordResponse toMedicalRecord(MedicalRecord record) {
+        if (record == null) {
+            return null;
+        }
+        Patient patient = record.getPatient();
+        Doctor doctor = record.getDoctor();
+        return new MedicalRecordResponse(record.getId(), record.getVisitDate(), record.getDiagnosis(),
+                record.getPrescription(), record.getStatus(), record.getCreatedAt(),
+                patient != null ? patient.getId() : null, patient != null ? nameOf(patient.getUser()) : null,
+                doctor != null ? doctor.getId() : null, doctor != null ? nameOf(doctor.getUser()) : null);
+    }
+
+    public static HealthMetricResponse toHealthMetric(PatientHealthMetric metric) {
+        if (metric == null) {
+            return null;
+        }
+        Doctor doctor = metric.getDoctor();
+        return new HealthMetricResponse(metric.getId(), metric.getRecordDate(), metric.getMeasurementDate(),
+                metric.getMetricType(), metric.getMetricType() != null ? metric.getMetricType().getUnit() : null,
+                metric.getNumericValue(), metric.getSystolic(), metric.getDiastolic(), metric.getDisplayValue(),
+                metric.getNotes(),
+                metric.getPatient() != null ? metric.getPatient().getId() : null,
+                doctor != null ? doctor.getId() : null, doctor != null ? nameOf(doctor.getUser()) : null,
+                metric.getMedicalRecord() != null ? metric.getMedicalRecord().getId() : null);
+    }
+
+    public static DocumentResponse toDocument(Document document) {
+        if (document == null) {
+            return null;
+        }
+        User uploadedBy = document.getUploadedBy();
+        return new DocumentResponse(document.getId(), document.getDocumentName(), document.getDocumentType(),
+                document.getUploadDate(),
+                document.getPatient() != null ? document.getPatient().getId() : null,
+                document.getRecord() != null ? document.getRecord().getId() : null,
+                idOf(uploadedBy), nameOf(uploadedBy));
+    }
+
+    /**
+     * Maps every element of a collection with one of the mappers above.
+     */
+    public static <E, D> List<D> toList(Collection<E> entities, Function<E, D> mapper) {
+        if (entities == null) {
+            return List.of();
+        }
+        return entities.stream().map(mapper).toList();
+    }
+
+    private static Integer idOf(User user) {
+        return user != null ? user.getId() : null;
+    }
+
+    private static String nameOf(User user) {
+        return user != null ? user.getName() : null;
+    }
+
+    private static String emailOf(User user) {
+        return user != null ? user.getEmail() : null;
+    }
+}
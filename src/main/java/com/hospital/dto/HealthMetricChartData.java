@@ -0,0 +1,268 @@
+package com.hospital.dto;
+
+import com.hospital.entity.PatientHealthMetric;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+
+/**
+ * Chart series for a patient's weight, blood pressure and heart rate readings, each in measurement
+ * date order. {@code dates} lists the measurement date of every reading in the order they were read.
+ * Blood pressure is available both as "120/80" text and as systolic/diastolic numbers; a diastolic
+ * of 0 means only the systolic value was recorded.
+ */
+public record HealthMetricChartData(
+        String[] dates,
+        String[] weightDates,
+        double[] weights,
+        String[] bpDates,
+        String[] bloodPressures,
+        int[] systolic,
+        int[] diastolic,
+        String[] hrDates,
+        int[] heartRates) {
+
+    private static final HealthMetricChartData EMPTY = new HealthMetricChartData(
+            new String[0], new String[0], new double[0], new String[0], new String[0],
+            new int[0], new int[0], new String[0], new int[0]);
+
+    public static HealthMetricChartData empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public OptionalDouble latestWeight() {
+        return weights.length == 0 ? OptionalDouble.empty() : OptionalDouble.of(weights[weights.length - 1]);
+    }
+
+    public Optional<String> latestBloodPressure() {
+        return bloodPressures.length == 0 ? Optional.empty() : Optional.ofNullable(bloodPressures[bloodPressures.length - 1]);
+    }
+
+    public OptionalInt latestHeartRate() {
+        return heartRates.length == 0 ? OptionalInt.empty() : OptionalInt.of(heartRates[heartRates.length - 1]);
+    }
+
+    /**
+     * Builds the chart series in a single pass over the readings, appending straight into
+     * growable arrays. A series is only sorted if its readings arrive out of date order.
+     */
+    public static final class Builder {
+
+        private String[] dates;
+        private int dateCount;
+
+        private final DoubleSeries weights = new DoubleSeries();
+        private final BloodPressureSeries bloodPressures = new BloodPressureSeries();
+        private final IntSeries heartRates = new IntSeries();
+
+        private Builder(int expectedSize) {
+            dates = new String[Math.max(expectedSize, 0)];
+        }
+
+        public Builder add(PatientHealthMetric metric) {
+            if (metric == null || metric.getMeasurementDate() == null || metric.getMetricType() == null) {
+                return this;
+            }
+            String date = metric.getMeasurementDate().toString();
+            if (dateCount == dates.length) {
+                dates = Arrays.copyOf(dates, grow(dates.length));
+            }
+            dates[dateCount++] = date;
+
+            // Readings without a value in the numeric columns are skipped
+            switch (metric.getMetricType()) {
+                case WEIGHT -> {
+                    if (metric.getNumericValue() != null) {
+                        weights.add(date, metric.getNumericValue());
+                    }
+                }
+                case BLOOD_PRESSURE -> {
+                    if (metric.getSystolic() != null) {
+                        bloodPressures.add(date, metric.getSystolic(),
+                                metric.getDiastolic() != null ? metric.getDiastolic() : 0, metric.getDisplayValue());
+                    }
+                }
+                case HEART_RATE -> {
+                    if (metric.getNumericValue() != null) {
+                        heartRates.add(date, (int) Math.round(metric.getNumericValue()));
+                    }
+                }
+                default -> {
+                    // Other metric types are not charted on the dashboard
+                }
+            }
+            return this;
+        }
+
+        public HealthMetricChartData build() {
+            weights.sortIfNeeded();
+            bloodPressures.sortIfNeeded();
+            heartRates.sortIfNeeded();
+            return new HealthMetricChartData(
+                    Arrays.copyOf(dates, dateCount),
+                    weights.dates(), weights.values(),
+                    bloodPressures.dates(), bloodPressures.text(), bloodPressures.systolic(), bloodPressures.diastolic(),
+                    heartRates.dates(), heartRates.values());
+        }
+
+        private static int grow(int length) {
+            return Math.max(16, length + (length >> 1));
+        }
+
+        /**
+         * Dates of one series plus the order check shared by all value types. ISO dates compare correctly as strings.
+         */
+        private abstract static class Series {
+            String[] dates = new String[16];
+            int size;
+            boolean sorted = true;
+
+            void addDate(String date) {
+                if (size == dates.length) {
+                    dates = Arrays.copyOf(dates, grow(size));
+                    growValues(dates.length);
+                }
+                if (size > 0 && date.compareTo(dates[size - 1]) < 0) {
+                    sorted = false;
+                }
+                dates[size] = date;
+            }
+
+            void sortIfNeeded() {
+                if (sorted) {
+                    return;
+                }
+                // Stable sort of the indices keeps same-day readings in their original order
+                Integer[] order = new Integer[size];
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                }
+                String[] unsortedDates = dates;
+                Arrays.sort(order, Comparator.comparing(i -> unsortedDates[i]));
+                String[] sortedDates = new String[size];
+                for (int i = 0; i < size; i++) {
+                    sortedDates[i] = unsortedDates[order[i]];
+                }
+                dates = sortedDates;
+                reorderValues(order);
+                sorted = true;
+            }
+
+            String[] dates() {
+                return Arrays.copyOf(dates, size);
+            }
+
+            abstract void growValues(int capacity);
+
+            abstract void reorderValues(Integer[] order);
+        }
+
+        private static final class DoubleSeries extends Series {
+            double[] values = new double[16];
+
+            void add(String date, double value) {
+                addDate(date);
+                values[size++] = value;
+            }
+
+            double[] values() {
+                return Arrays.copyOf(values, size);
+            }
+
+            @Override
+            void growValues(int capacity) {
+                values = Arrays.copyOf(values, capacity);
+            }
+
+            @Override
+            void reorderValues(Integer[] order) {
+                double[] reordered = new double[size];
+                for (int i = 0; i < size; i++) {
+                    reordered[i] = values[order[i]];
+                }
+                values = reordered;
+            }
+        }
+
+        private static final class IntSeries extends Series {
+            int[] values = new int[16];
+
+            void add(String date, int value) {
+                addDate(date);
+                values[size++] = value;
+            }
+
+            int[] values() {
+                return Arrays.copyOf(values, size);
+            }
+
+            @Override
+            void growValues(int capacity) {
+                values = Arrays.copyOf(values, capacity);
+            }
+
+            @Override
+            void reorderValues(Integer[] order) {
+                int[] reordered = new int[size];
+                for (int i = 0; i < size; i++) {
+                    reordered[i] = values[order[i]];
+                }
+                values = reordered;
+            }
+        }
+
+        private static final class BloodPressureSeries extends Series {
+            int[] systolic = new int[16];
+            int[] diastolic = new int[16];
+            String[] text = new String[16];
+
+            void add(String date, int systolicValue, int diastolicValue, String displayValue) {
+                addDate(date);
+                systolic[size] = systolicValue;
+                diastolic[size] = diastolicValue;
+                text[size++] = displayValue;
+            }
+
+            int[] systolic() {
+                return Arrays.copyOf(systolic, size);
+            }
+
+            int[] diastolic() {
+                return Arrays.copyOf(diastolic, size);
+            }
+
+            String[] text() {
+                return Arrays.copyOf(text, size);
+            }
+
+            @Override
+            void growValues(int capacity) {
+                systolic = Arrays.copyOf(systolic, capacity);
+                diastolic = Arrays.copyOf(diastolic, capacity);
+                text = Arrays.copyOf(text, capacity);
+            }
+
+            @Override
+            void reorderValues(Integer[] order) {
+                int[] reorderedSystolic = new int[size];
+                int[] reorderedDiastolic = new int[size];
+                String[] reorderedText = new String[size];
+                for (int i = 0; i < size; i++) {
+                    reorderedSystolic[i] = systolic[order[i]];
+                    reorderedDiastolic[i] = diastolic[order[i]];
+                    reorderedText[i] = text[order[i]];
+                }
+                systolic = reorderedSystolic;
+                diastolic = reorderedDiastolic;
+                text = reorderedText;
+            }
+        }
+    }
+}
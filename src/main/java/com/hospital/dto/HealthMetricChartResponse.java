@@ -0,0 +1,14 @@
+package com.hospital.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Chart series for a patient together with the URLs of the rendered chart images.
+ * The series are written at the top level of the JSON object, next to the URLs.
+ */
+public record HealthMetricChartResponse(
+        @JsonUnwrapped HealthMetricChartData chartData,
+        String weightChartUrl,
+        String bpChartUrl,
+        String hrChartUrl) {
+}
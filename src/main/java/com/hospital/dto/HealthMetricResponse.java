@@ -0,0 +1,26 @@
+package com.hospital.dto;
+
+import com.hospital.entity.PatientHealthMetric;
+
+import java.time.LocalDate;
+
+/**
+ * Single health metric reading with its recording doctor reduced to id and name.
+ * {@code value} is the reading as display text, e.g. "120/80".
+ */
+public record HealthMetricResponse(
+        Integer id,
+        LocalDate recordDate,
+        LocalDate measurementDate,
+        PatientHealthMetric.MetricType metricType,
+        String unit,
+        Double numericValue,
+        Integer systolic,
+        Integer diastolic,
+        String value,
+        String notes,
+        Integer patientId,
+        Integer doctorId,
+        String doctorName,
+        Integer medicalRecordId) {
+}
@@ -0,0 +1,22 @@
+package com.hospital.dto;
+
+import com.hospital.entity.MedicalRecord;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Medical record with patient and doctor reduced to id and display name.
+ */
+public record MedicalRecordResponse(
+        Integer id,
+        LocalDate visitDate,
+        String diagnosis,
+        String prescription,
+        MedicalRecord.RecordStatus status,
+        LocalDateTime createdAt,
+        Integer patientId,
+        String patientName,
+        Integer doctorId,
+        String doctorName) {
+}
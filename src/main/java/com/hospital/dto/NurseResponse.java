@@ -0,0 +1,13 @@
+package com.hospital.dto;
+
+/**
+ * Nurse profile with the owning user's name and email flattened in.
+ */
+public record NurseResponse(
+        Integer id,
+        Integer userId,
+        String name,
+        String email,
+        Integer yearsOfExperience,
+        String phoneNumber) {
+}
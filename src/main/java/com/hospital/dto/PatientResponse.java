@@ -0,0 +1,19 @@
+package com.hospital.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Patient profile with the owning user's name and email flattened in.
+ */
+public record PatientResponse(
+        Integer id,
+        Integer userId,
+        String name,
+        String email,
+        LocalDate dateOfBirth,
+        String gender,
+        String phoneNumber,
+        String address,
+        String bloodGroup,
+        String emergencyContact) {
+}
@@ -0,0 +1,15 @@
+package com.hospital.dto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Public view of a user account. Never carries the password hash.
+ */
+public record UserResponse(
+        Integer id,
+        String email,
+        String name,
+        LocalDateTime createdAt,
+        Set<String> roles) {
+}
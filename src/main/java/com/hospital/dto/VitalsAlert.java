@@ -0,0 +1,30 @@
+package com.hospital.dto;
+
+import com.hospital.entity.PatientHealthMetric;
+
+import java.time.LocalDateTime;
+
+/**
+ * Abnormal reading found by the vitals alert rules. {@code value} is the reading that raised the alert,
+ * the systolic value for blood pressure; {@code message} describes it for people, e.g.
+ * "Heart rate 142 bpm is above 130 bpm".
+ */
+public record VitalsAlert(
+        Integer patientId,
+        Integer metricId,
+        PatientHealthMetric.MetricType metricType,
+        Rule rule,
+        double value,
+        String unit,
+        String message,
+        LocalDateTime raisedAt) {
+
+    public enum Rule {
+        // A single reading outside the critical limits
+        THRESHOLD,
+        // A change larger than allowed within the rule's time window
+        RATE_OF_CHANGE,
+        // Several readings in a row outside the normal range
+        SUSTAINED
+    }
+}
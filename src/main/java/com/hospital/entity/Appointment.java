@@ -1,5 +1,6 @@
 package com.hospital.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,7 +9,28 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointment")
+@Table(name = "appointment", indexes = {
+    @Index(name = "idx_appointment_doctor_date_status", columnList = "doctor_id, appointment_date, status"),
+    @Index(name = "idx_appointment_doctor_status_date", columnList = "doctor_id, status, appointment_date"),
+    @Index(name = "idx_appointment_patient_status_date", columnList = "patient_id, status, appointment_date"),
+    @Index(name = "idx_appointment_date_status", columnList = "appointment_date, status")
+})
+@NamedEntityGraph(name = "Appointment.participants", attributeNodes = {
+    @NamedAttributeNode(value = "patient", subgraph = "patient.user"),
+    @NamedAttributeNode(value = "doctor", subgraph = "doctor.user")
+}, subgraphs = {
+    @NamedSubgraph(name = "patient.user", attributeNodes = @NamedAttributeNode("user")),
+    @NamedSubgraph(name = "doctor.user", attributeNodes = @NamedAttributeNode("user"))
+})
+@NamedEntityGraph(name = "Appointment.detail", attributeNodes = {
+    @NamedAttributeNode(value = "patient", subgraph = "patient.user"),
+    @NamedAttributeNode(value = "doctor", subgraph = "doctor.user"),
+    @NamedAttributeNode("createdBy")
+}, subgraphs = {
+    @NamedSubgraph(name = "patient.user", attributeNodes = @NamedAttributeNode("user")),
+    @NamedSubgraph(name = "doctor.user", attributeNodes = @NamedAttributeNode("user"))
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,11 +41,11 @@ public class Appointment {
     @Column(name = "appointment_id")
     private Integer id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
     
@@ -46,7 +68,7 @@ public class Appointment {
     @Column(name = "updated_by", length = 100)
     private String updatedBy;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
     
@@ -0,0 +1,56 @@
+package com.hospital.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A completed or cancelled appointment moved out of the appointment table by HealthDataArchiver.
+ * Read only; associations are kept as plain ids because the archive table has no foreign keys.
+ */
+@Entity
+@Immutable
+@Table(name = "appointment_archive")
+@Data
+@NoArgsConstructor
+public class ArchivedAppointment {
+
+    @Id
+    @Column(name = "appointment_id")
+    private Integer id;
+
+    @Column(name = "patient_id", nullable = false)
+    private Integer patientId;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Integer doctorId;
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate appointmentDate;
+
+    @Column(name = "notes", length = 1000)
+    private String notes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private Appointment.AppointmentStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "created_by", nullable = false)
+    private Integer createdBy;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "updated_by", length = 100)
+    private String updatedBy;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,98 @@
+package com.hospital.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A health metric moved out of patient_health_metrics by HealthDataArchiver. Read only; associations
+ * are kept as plain ids because the archive table has no foreign keys. The measurement date is always
+ * set (the record date for legacy rows without one) as it is the partitioning column.
+ */
+@Entity
+@Immutable
+@Table(name = "patient_health_metrics_archive")
+@Data
+@NoArgsConstructor
+public class ArchivedHealthMetric {
+
+    @Id
+    @Column(name = "metric_id")
+    private Integer id;
+
+    @Column(name = "patient_id", nullable = false)
+    private Integer patientId;
+
+    @Column(name = "doctor_id")
+    private Integer doctorId;
+
+    @Column(name = "record_id")
+    private Integer medicalRecordId;
+
+    @Column(name = "record_date", nullable = false)
+    private LocalDate recordDate;
+
+    @Column(name = "measurement_date", nullable = false)
+    private LocalDate measurementDate;
+
+    @Convert(converter = PatientHealthMetric.MetricTypeConverter.class)
+    @Column(name = "metric_type", length = 50)
+    private PatientHealthMetric.MetricType metricType;
+
+    @Column(name = "numeric_value")
+    private Double numericValue;
+
+    @Column(name = "systolic")
+    private Integer systolic;
+
+    @Column(name = "diastolic")
+    private Integer diastolic;
+
+    @Column(name = "value", length = 50)
+    private String value;
+
+    @Column(name = "weight")
+    private Double weight;
+
+    @Column(name = "blood_pressure")
+    private Integer bloodPressure;
+
+    @Column(name = "heart_rate")
+    private Integer heartRate;
+
+    @Column(name = "notes")
+    private String notes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * The reading as a detached PatientHealthMetric of the given patient, for charts that mix live and
+     * archived readings. Doctor and medical record are not resolved.
+     */
+    public PatientHealthMetric toHealthMetric(Patient patient) {
+        PatientHealthMetric metric = new PatientHealthMetric();
+        metric.setId(id);
+        metric.setPatient(patient);
+        metric.setRecordDate(recordDate);
+        metric.setMeasurementDate(measurementDate);
+        metric.setMetricType(metricType);
+        metric.setNumericValue(numericValue);
+        metric.setSystolic(systolic);
+        metric.setDiastolic(diastolic);
+        metric.setValue(value);
+        metric.setWeight(weight);
+        metric.setBloodPressure(bloodPressure);
+        metric.setHeartRate(heartRate);
+        metric.setNotes(notes);
+        metric.setCreatedAt(createdAt);
+        return metric;
+    }
+}
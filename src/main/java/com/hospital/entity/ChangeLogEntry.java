@@ -0,0 +1,48 @@
+package com.hospital.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only change log behind GET /api/changes: an appointment, medical record,
+ * health metric or document was created, updated or deleted. Written by ChangeFeedService in the
+ * transaction of the change; the id is the consumers' cursor.
+ */
+@Entity
+@Immutable
+@Table(name = "change_log", indexes = @Index(name = "idx_change_log_changed_at", columnList = "changed_at"))
+@Data
+@NoArgsConstructor
+public class ChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private Operation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public enum EntityType {
+        APPOINTMENT, MEDICAL_RECORD, HEALTH_METRIC, DOCUMENT
+    }
+
+    public enum Operation {
+        CREATED, UPDATED, DELETED
+    }
+}
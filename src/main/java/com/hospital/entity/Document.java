@@ -1,5 +1,6 @@
 package com.hospital.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,21 +9,31 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "document")
+@NamedEntityGraph(name = "Document.owners", attributeNodes = {
+    @NamedAttributeNode(value = "patient", subgraph = "patient.user"),
+    @NamedAttributeNode("uploadedBy")
+}, subgraphs = {
+    @NamedSubgraph(name = "patient.user", attributeNodes = @NamedAttributeNode("user"))
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Document {
     
+    // Pooled table ids instead of IDENTITY so Hibernate can batch inserts; see IdGeneratorAlignment
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "document_ids")
+    @TableGenerator(name = "document_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "document", allocationSize = 50)
     @Column(name = "document_id")
     private Integer id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "record_id")
     private MedicalRecord record;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
     
@@ -35,7 +46,7 @@ public class Document {
     @Column(name = "upload_date", nullable = false, updatable = false)
     private LocalDateTime uploadDate;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "upload_by", nullable = false)
     private User uploadedBy;
     
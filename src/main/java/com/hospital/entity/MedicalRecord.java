@@ -1,5 +1,6 @@
 package com.hospital.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +10,14 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "record")
+@NamedEntityGraph(name = "MedicalRecord.participants", attributeNodes = {
+    @NamedAttributeNode(value = "patient", subgraph = "patient.user"),
+    @NamedAttributeNode(value = "doctor", subgraph = "doctor.user")
+}, subgraphs = {
+    @NamedSubgraph(name = "patient.user", attributeNodes = @NamedAttributeNode("user")),
+    @NamedSubgraph(name = "doctor.user", attributeNodes = @NamedAttributeNode("user"))
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,11 +28,11 @@ public class MedicalRecord {
     @Column(name = "record_id")
     private Integer id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
     
@@ -1,5 +1,6 @@
 package com.hospital.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,13 +9,17 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "patient")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Patient {
     
+    // Pooled table ids instead of IDENTITY so bulk imports can batch inserts; see IdGeneratorAlignment
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "patient_ids")
+    @TableGenerator(name = "patient_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "patient", allocationSize = 50)
     @Column(name = "patient_id")
     private Integer id;
     
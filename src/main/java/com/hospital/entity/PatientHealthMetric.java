@@ -1,33 +1,48 @@
 package com.hospital.entity;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
 @Table(name = "patient_health_metrics")
+@NamedEntityGraph(name = "PatientHealthMetric.doctor", attributeNodes = {
+    @NamedAttributeNode(value = "doctor", subgraph = "doctor.user")
+}, subgraphs = {
+    @NamedSubgraph(name = "doctor.user", attributeNodes = @NamedAttributeNode("user"))
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class PatientHealthMetric {
     
+    // Pooled table ids instead of IDENTITY so Hibernate can batch inserts; see IdGeneratorAlignment
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "metric_ids")
+    @TableGenerator(name = "metric_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "patient_health_metrics", allocationSize = 50)
     @Column(name = "metric_id")
     private Integer id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id")
     private Doctor doctor;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "record_id")
     private MedicalRecord medicalRecord;
     
@@ -37,9 +52,31 @@ public class PatientHealthMetric {
     @Column(name = "measurement_date")
     private LocalDate measurementDate;
     
+    // Stored as plain text rather than a database enum, so new types need no schema change.
+    // Written through storedMetricType; a type this version does not know reads as null.
+    @Convert(converter = MetricTypeConverter.class)
+    @Column(name = "metric_type", length = 50, insertable = false, updatable = false)
+    private MetricType metricType;
+    
+    // The metric_type column as stored, so saving a row with an unknown type keeps it
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
     @Column(name = "metric_type", length = 50)
-    private String metricType;
+    private String storedMetricType;
+    
+    // Reading for every single-valued type, in the unit of the metric type
+    @Column(name = "numeric_value")
+    private Double numericValue;
+    
+    // Blood pressure readings use systolic/diastolic instead of numericValue
+    @Column(name = "systolic")
+    private Integer systolic;
     
+    @Column(name = "diastolic")
+    private Integer diastolic;
+    
+    // Legacy free-text and per-type columns. Still accepted as input and converted to the
+    // numeric columns on save; existing rows were converted by migration V7.
     @Column(name = "value", length = 50)
     private String value;
     
@@ -58,6 +95,11 @@ public class PatientHealthMetric {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    public void setMetricType(MetricType metricType) {
+        this.metricType = metricType;
+        this.storedMetricType = metricType != null ? metricType.name() : null;
+    }
+    
     @PrePersist
     public void prePersist() {
         this.createdAt = LocalDateTime.now();
@@ -67,5 +109,134 @@ public class PatientHealthMetric {
         if (this.measurementDate == null) {
             this.measurementDate = this.recordDate;
         }
+        normalizeValues();
+    }
+    
+    @PreUpdate
+    public void preUpdate() {
+        normalizeValues();
+    }
+    
+    /**
+     * Fills the numeric columns from the legacy value or per-type column when they were not set
+     * directly. Blood pressure text such as "120/80" is split into systolic and diastolic.
+     */
+    public void normalizeValues() {
+        if (metricType == null) {
+            return;
+        }
+        if (metricType == MetricType.BLOOD_PRESSURE) {
+            if (systolic == null) {
+                int[] pressure = parseBloodPressure(value);
+                if (pressure != null) {
+                    systolic = pressure[0];
+                    diastolic = pressure.length > 1 ? pressure[1] : null;
+                } else if (bloodPressure != null) {
+                    systolic = bloodPressure;
+                }
+            }
+        } else if (numericValue == null) {
+            numericValue = parseNumber(value);
+            if (numericValue == null && metricType == MetricType.WEIGHT && weight != null) {
+                numericValue = weight;
+            } else if (numericValue == null && metricType == MetricType.HEART_RATE && heartRate != null) {
+                numericValue = heartRate.doubleValue();
+            }
+        }
+    }
+    
+    /**
+     * Reading as display text: "120/80" for blood pressure, the plain number otherwise
+     */
+    public String getDisplayValue() {
+        if (metricType == MetricType.BLOOD_PRESSURE && systolic != null) {
+            return diastolic != null ? systolic + "/" + diastolic : systolic.toString();
+        }
+        if (numericValue != null) {
+            return numericValue == Math.rint(numericValue)
+                    ? String.valueOf(numericValue.longValue()) : numericValue.toString();
+        }
+        return value;
+    }
+    
+    private static Double parseNumber(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static int[] parseBloodPressure(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = text.split("/");
+            if (parts.length == 2) {
+                return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+            }
+            return parts.length == 1 ? new int[]{Integer.parseInt(parts[0].trim())} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    public enum MetricType {
+        WEIGHT("kg"),
+        BLOOD_PRESSURE("mmHg"),
+        HEART_RATE("bpm"),
+        SPO2("%"),
+        GLUCOSE("mg/dL"),
+        TEMPERATURE("°C");
+        
+        private final String unit;
+        
+        MetricType(String unit) {
+            this.unit = unit;
+        }
+        
+        public String getUnit() {
+            return unit;
+        }
+        
+        /**
+         * Lenient lookup accepting the legacy spellings, e.g. "Blood Pressure", "heart-rate" or "weight".
+         * Returns null for unknown types.
+         */
+        @JsonCreator
+        public static MetricType fromString(String text) {
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            String name = text.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+            for (MetricType type : values()) {
+                if (type.name().equals(name)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Writes the enum name and reads legacy spellings leniently; unknown types read as null (the
+     * stored text is kept in storedMetricType)
+     */
+    @Converter
+    public static class MetricTypeConverter implements AttributeConverter<MetricType, String> {
+        
+        @Override
+        public String convertToDatabaseColumn(MetricType metricType) {
+            return metricType != null ? metricType.name() : null;
+        }
+        
+        @Override
+        public MetricType convertToEntityAttribute(String text) {
+            return MetricType.fromString(text);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.hospital.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Drops the unused appointment.reason column, formerly applied by hand with remove_reason.sql.
+ * Written in Java because MySQL has no DROP COLUMN IF EXISTS: the column only exists in databases
+ * created before it was removed from the entity and not yet fixed by hand.
+ */
+public class V2__Drop_appointment_reason extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (hasColumn(connection, "appointment", "reason")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE appointment DROP COLUMN reason");
+            }
+        }
+    }
+
+    private boolean hasColumn(Connection connection, String table, String column) throws Exception {
+        try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, table, null)) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hospital.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Archive tables for health metrics and appointments older than the archive horizon, filled by
+ * HealthDataArchiver. They have no foreign keys and include the date in the primary key, which is what
+ * MySQL requires of a partitioned table. On MySQL they are compressed and range partitioned by date,
+ * starting with a single catch-all partition that the archiver splits into yearly partitions as it
+ * moves rows; other databases (H2 in tests) get the plain tables.
+ */
+public class V5__Archive_tables extends BaseJavaMigration {
+
+    private static final String METRICS = """
+            create table patient_health_metrics_archive (
+                metric_id integer not null,
+                patient_id integer not null,
+                doctor_id integer,
+                record_id integer,
+                record_date date not null,
+                measurement_date date not null,
+                metric_type varchar(50),
+                numeric_value float(53),
+                systolic integer,
+                diastolic integer,
+                value varchar(50),
+                weight float(53),
+                blood_pressure integer,
+                heart_rate integer,
+                notes varchar(255),
+                created_at datetime(6) not null,
+                archived_at datetime(6) not null,
+                primary key (metric_id, measurement_date),
+                index idx_metric_archive_patient_type_date (patient_id, metric_type, measurement_date)
+            )""";
+
+    private static final String APPOINTMENTS = """
+            create table appointment_archive (
+                appointment_id integer not null,
+                patient_id integer not null,
+                doctor_id integer not null,
+                appointment_date date not null,
+                notes varchar(1000),
+                status enum ('SCHEDULED','COMPLETED','CANCELLED'),
+                created_at datetime(6) not null,
+                created_by integer not null,
+                updated_at datetime(6),
+                updated_by varchar(100),
+                archived_at datetime(6) not null,
+                primary key (appointment_id, appointment_date),
+                index idx_appointment_archive_patient_date (patient_id, appointment_date)
+            )""";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(METRICS + (mysql ? mysqlOptions("measurement_date") : ""));
+            statement.execute(APPOINTMENTS + (mysql ? mysqlOptions("appointment_date") : ""));
+        }
+    }
+
+    private String mysqlOptions(String dateColumn) {
+        return " row_format=compressed key_block_size=8"
+                + " partition by range columns (" + dateColumn + ") (partition p_max values less than (maxvalue))";
+    }
+}
@@ -0,0 +1,170 @@
+package com.hospital.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Structured health metric values: adds the numeric_value, systolic and diastolic columns, rewrites
+ * legacy metric type spellings such as "Blood Pressure" to the enum names, and fills the new columns
+ * from the legacy value and per-type columns. The columns are only added where missing, as databases
+ * that ran with ddl-auto=update after the change already have them. The metric types and parsing
+ * rules are copied from PatientHealthMetric as it was when this migration was written, so later
+ * changes to the entity cannot change what the migration does.
+ */
+public class V7__Metric_numeric_values extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<String> METRIC_TYPES =
+            List.of("WEIGHT", "BLOOD_PRESSURE", "HEART_RATE", "SPO2", "GLUCOSE", "TEMPERATURE");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        addColumn(connection, "numeric_value", "float(53)");
+        addColumn(connection, "systolic", "integer");
+        addColumn(connection, "diastolic", "integer");
+        normalizeMetricTypes(connection);
+        convertValues(connection);
+    }
+
+    private void addColumn(Connection connection, String column, String type) throws Exception {
+        if (!hasColumn(connection, "patient_health_metrics", column)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE patient_health_metrics ADD COLUMN " + column + " " + type);
+            }
+        }
+    }
+
+    /**
+     * Types that match no enum constant are left as they are
+     */
+    private void normalizeMetricTypes(Connection connection) throws Exception {
+        String sql = "UPDATE patient_health_metrics SET metric_type = ? WHERE metric_type <> ? "
+                + "AND UPPER(REPLACE(REPLACE(TRIM(metric_type), ' ', '_'), '-', '_')) = ?";
+        try (PreparedStatement update = connection.prepareStatement(sql)) {
+            for (String type : METRIC_TYPES) {
+                update.setString(1, type);
+                update.setString(2, type);
+                update.setString(3, type);
+                update.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Walks the unconverted rows by id in batches, so large tables are never held in memory at once
+     */
+    private void convertValues(Connection connection) throws Exception {
+        String select = "SELECT metric_id, metric_type, value, weight, blood_pressure, heart_rate "
+                + "FROM patient_health_metrics WHERE metric_id > ? AND metric_type IS NOT NULL "
+                + "AND numeric_value IS NULL AND systolic IS NULL ORDER BY metric_id";
+        String update = "UPDATE patient_health_metrics SET numeric_value = ?, systolic = ?, diastolic = ? "
+                + "WHERE metric_id = ?";
+        try (PreparedStatement query = connection.prepareStatement(select);
+             PreparedStatement write = connection.prepareStatement(update)) {
+            query.setMaxRows(BATCH_SIZE);
+            int lastId = 0;
+            int read;
+            do {
+                read = 0;
+                query.setInt(1, lastId);
+                try (ResultSet rows = query.executeQuery()) {
+                    while (rows.next()) {
+                        read++;
+                        lastId = rows.getInt("metric_id");
+                        String type = rows.getString("metric_type");
+                        if (!METRIC_TYPES.contains(type)) {
+                            continue;
+                        }
+                        String value = rows.getString("value");
+                        Double numericValue = null;
+                        Integer systolic = null;
+                        Integer diastolic = null;
+                        if (type.equals("BLOOD_PRESSURE")) {
+                            int[] pressure = parseBloodPressure(value);
+                            if (pressure != null) {
+                                systolic = pressure[0];
+                                diastolic = pressure.length > 1 ? pressure[1] : null;
+                            } else {
+                                systolic = rows.getObject("blood_pressure", Integer.class);
+                            }
+                        } else {
+                            numericValue = parseNumber(value);
+                            if (numericValue == null && type.equals("WEIGHT")) {
+                                numericValue = rows.getObject("weight", Double.class);
+                            } else if (numericValue == null && type.equals("HEART_RATE")) {
+                                Integer heartRate = rows.getObject("heart_rate", Integer.class);
+                                numericValue = heartRate != null ? heartRate.doubleValue() : null;
+                            }
+                        }
+                        if (numericValue == null && systolic == null) {
+                            continue;
+                        }
+                        setNullable(write, 1, numericValue, Types.DOUBLE);
+                        setNullable(write, 2, systolic, Types.INTEGER);
+                        setNullable(write, 3, diastolic, Types.INTEGER);
+                        write.setInt(4, lastId);
+                        write.addBatch();
+                    }
+                }
+                write.executeBatch();
+            } while (read == BATCH_SIZE);
+        }
+    }
+
+    private static Double parseNumber(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * "120/80" as systolic and diastolic, or a lone systolic value
+     */
+    private static int[] parseBloodPressure(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = text.split("/");
+            if (parts.length == 2) {
+                return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+            }
+            return parts.length == 1 ? new int[]{Integer.parseInt(parts[0].trim())} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void setNullable(PreparedStatement statement, int index, Object value, int sqlType) throws Exception {
+        if (value != null) {
+            statement.setObject(index, value, sqlType);
+        } else {
+            statement.setNull(index, sqlType);
+        }
+    }
+
+    private boolean hasColumn(Connection connection, String table, String column) throws Exception {
+        try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, table, null)) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,25 +1,88 @@
 package com.hospital.repository;
 
+import com.hospital.dto.AppointmentStatusCount;
+import com.hospital.dto.AppointmentSummary;
 import com.hospital.entity.Appointment;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.Patient;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
+    // Single appointment views and status changes also send emails, which need both participants
+    @Override
+    @EntityGraph("Appointment.detail")
+    Optional<Appointment> findById(Integer id);
+
+    @Override
+    @EntityGraph("Appointment.participants")
+    List<Appointment> findAll();
+
+    @EntityGraph("Appointment.participants")
     List<Appointment> findByPatient(Patient patient);
+    @EntityGraph("Appointment.participants")
     List<Appointment> findByDoctor(Doctor doctor);
+    @EntityGraph("Appointment.participants")
     List<Appointment> findByAppointmentDate(LocalDate date);
+    @EntityGraph("Appointment.participants")
     List<Appointment> findByStatus(Appointment.AppointmentStatus status);
+    @EntityGraph("Appointment.participants")
     List<Appointment> findByDoctorAndAppointmentDate(Doctor doctor, LocalDate date);
     List<Appointment> findByDoctorIdAndAppointmentDate(Integer doctorId, LocalDate date);
     List<Appointment> findByPatientAndAppointmentDate(Patient patient, LocalDate date);
+    // Conflict checks only look at ids, so no associations are fetched
     List<Appointment> findByDoctorIdAndAppointmentDateAndStatus(Integer doctorId, LocalDate date, Appointment.AppointmentStatus status);
+    @EntityGraph("Appointment.participants")
     List<Appointment> findByPatientAndStatusOrderByAppointmentDateAsc(Patient patient, Appointment.AppointmentStatus status);
+    @EntityGraph("Appointment.participants")
     List<Appointment> findByPatientOrderByAppointmentDateDesc(Patient patient);
+
+    // Range queries backed by the (doctor_id|patient_id, status, appointment_date) indexes
+    @EntityGraph("Appointment.participants")
+    List<Appointment> findByStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+            Appointment.AppointmentStatus status, LocalDate fromDate);
+    @EntityGraph("Appointment.participants")
+    List<Appointment> findByDoctorAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+            Doctor doctor, Appointment.AppointmentStatus status, LocalDate fromDate);
+    @EntityGraph("Appointment.participants")
+    List<Appointment> findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+            Patient patient, Appointment.AppointmentStatus status, LocalDate fromDate);
+    @EntityGraph("Appointment.participants")
+    List<Appointment> findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+            Patient patient, Appointment.AppointmentStatus status, LocalDate fromDate, Limit limit);
+    long countByPatientAndStatusAndAppointmentDateGreaterThanEqual(
+            Patient patient, Appointment.AppointmentStatus status, LocalDate fromDate);
+    // Reminder emails need the patient's address and the doctor's name
+    @EntityGraph("Appointment.participants")
+    List<Appointment> findByAppointmentDateAndStatus(LocalDate date, Appointment.AppointmentStatus status);
+
+    // Doctor dashboard: aggregate and projection queries that never materialise entity graphs
+    @Query("select new com.hospital.dto.AppointmentStatusCount(a.status, count(a)) "
+            + "from Appointment a where a.doctor = :doctor group by a.status")
+    List<AppointmentStatusCount> countByDoctorGroupByStatus(@Param("doctor") Doctor doctor);
+
+    @Query("select new com.hospital.dto.AppointmentSummary(a.id, a.appointmentDate, a.status, a.notes, "
+            + "p.id, pu.name, d.id, du.name) "
+            + "from Appointment a join a.patient p join p.user pu join a.doctor d join d.user du "
+            + "where a.doctor = :doctor and a.appointmentDate = :date order by a.id")
+    List<AppointmentSummary> findSummariesByDoctorAndDate(@Param("doctor") Doctor doctor, @Param("date") LocalDate date);
+
+    @Query(value = "select new com.hospital.dto.AppointmentSummary(a.id, a.appointmentDate, a.status, a.notes, "
+            + "p.id, pu.name, d.id, du.name) "
+            + "from Appointment a join a.patient p join p.user pu join a.doctor d join d.user du "
+            + "where a.doctor = :doctor order by a.appointmentDate desc, a.id desc",
+            countQuery = "select count(a) from Appointment a where a.doctor = :doctor")
+    Page<AppointmentSummary> findSummariesByDoctor(@Param("doctor") Doctor doctor, Pageable pageable);
 }
\ No newline at end of file
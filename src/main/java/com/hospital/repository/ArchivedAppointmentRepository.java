@@ -0,0 +1,25 @@
+package com.hospital.repository;
+
+import com.hospital.dto.AppointmentSummary;
+import com.hospital.entity.ArchivedAppointment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Integer> {
+    // Bounded by date so MySQL only reads the partitions of the range; names are joined from the live tables
+    @Query("select new com.hospital.dto.AppointmentSummary(a.id, a.appointmentDate, a.status, a.notes, "
+            + "a.patientId, pu.name, a.doctorId, du.name) "
+            + "from ArchivedAppointment a left join Patient p on p.id = a.patientId left join p.user pu "
+            + "left join Doctor d on d.id = a.doctorId left join d.user du "
+            + "where a.patientId = :patientId and a.appointmentDate between :fromDate and :toDate "
+            + "order by a.appointmentDate desc, a.id desc")
+    List<AppointmentSummary> findSummariesByPatientIdAndDateBetween(@Param("patientId") Integer patientId,
+                                                                     @Param("fromDate") LocalDate fromDate,
+                                                                     @Param("toDate") LocalDate toDate);
+}
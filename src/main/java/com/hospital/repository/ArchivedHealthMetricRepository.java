@@ -0,0 +1,16 @@
+package com.hospital.repository;
+
+import com.hospital.entity.ArchivedHealthMetric;
+import com.hospital.entity.PatientHealthMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ArchivedHealthMetricRepository extends JpaRepository<ArchivedHealthMetric, Integer> {
+    // Always bounded by date so MySQL only reads the partitions of the range
+    List<ArchivedHealthMetric> findByPatientIdAndMetricTypeAndMeasurementDateBetweenOrderByMeasurementDateAsc(
+            Integer patientId, PatientHealthMetric.MetricType metricType, LocalDate startDate, LocalDate endDate);
+}
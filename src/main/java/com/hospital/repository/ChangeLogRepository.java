@@ -0,0 +1,19 @@
+package com.hospital.repository;
+
+import com.hospital.dto.ChangeResponse;
+import com.hospital.entity.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+    // Range scan on the primary key from the consumer's cursor
+    @Query("select new com.hospital.dto.ChangeResponse(c.id, c.entityType, c.entityId, c.operation, c.changedAt) "
+            + "from ChangeLogEntry c where c.id > :since order by c.id")
+    List<ChangeResponse> findChangesSince(@Param("since") Long since, Pageable pageable);
+}
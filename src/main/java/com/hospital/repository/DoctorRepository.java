@@ -1,15 +1,29 @@
 package com.hospital.repository;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.hospital.entity.Doctor;
 import com.hospital.entity.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Integer>{
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<Doctor> findByUser(User user);
+
+	@EntityGraph(attributePaths = "user")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<Doctor> findByUserEmail(String email);
+
+	@Override
+	@EntityGraph(attributePaths = "user")
+	List<Doctor> findAll();
 }
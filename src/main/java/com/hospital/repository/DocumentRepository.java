@@ -3,6 +3,7 @@ package com.hospital.repository;
 import com.hospital.entity.Document;
 import com.hospital.entity.MedicalRecord;
 import com.hospital.entity.Patient;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,7 +11,14 @@ import java.util.List;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Integer> {
+    @Override
+    @EntityGraph("Document.owners")
+    List<Document> findAll();
+
+    @EntityGraph("Document.owners")
     List<Document> findByPatient(Patient patient);
+    @EntityGraph("Document.owners")
     List<Document> findByRecord(MedicalRecord record);
+    @EntityGraph("Document.owners")
     List<Document> findByDocumentType(String documentType);
 }
\ No newline at end of file
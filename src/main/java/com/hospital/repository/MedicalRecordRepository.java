@@ -2,8 +2,14 @@ package com.hospital.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.hospital.entity.Doctor;
@@ -12,8 +18,38 @@ import com.hospital.entity.Patient;
 
 @Repository
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Integer> {
+    @Override
+    @EntityGraph("MedicalRecord.participants")
+    Optional<MedicalRecord> findById(Integer id);
+
+    @Override
+    @EntityGraph("MedicalRecord.participants")
+    List<MedicalRecord> findAll();
+
+    @EntityGraph("MedicalRecord.participants")
 	List<MedicalRecord> findByPatient(Patient patient);
+    @EntityGraph("MedicalRecord.participants")
     List<MedicalRecord> findByDoctor(Doctor doctor);
+    @EntityGraph("MedicalRecord.participants")
     List<MedicalRecord> findByVisitDate(LocalDate visitDate);
+    @EntityGraph("MedicalRecord.participants")
     List<MedicalRecord> findByPatientOrderByVisitDateDesc(Patient patient);
+    // Top-N for dashboards: the database returns only the newest rows
+    @EntityGraph("MedicalRecord.participants")
+    List<MedicalRecord> findByPatientOrderByVisitDateDesc(Patient patient, Limit limit);
+    long countByPatient(Patient patient);
+
+    // Loads search hits by id
+    @Override
+    @EntityGraph("MedicalRecord.participants")
+    List<MedicalRecord> findAllById(Iterable<Integer> ids);
+
+    // Keyset pages over all records, used to rebuild the search index without holding them all in memory
+    List<MedicalRecord> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    // Substring search used until the search index has been built
+    @EntityGraph("MedicalRecord.participants")
+    @Query("select r from MedicalRecord r where lower(r.diagnosis) like lower(concat('%', :term, '%')) "
+            + "or lower(r.prescription) like lower(concat('%', :term, '%')) order by r.id desc")
+    List<MedicalRecord> searchByDiagnosisOrPrescription(@Param("term") String term, Pageable pageable);
 }
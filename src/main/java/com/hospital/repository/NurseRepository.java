@@ -1,8 +1,14 @@
 package com.hospital.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.hospital.entity.Nurse;
@@ -10,7 +16,14 @@ import com.hospital.entity.User;
 
 @Repository
 public interface NurseRepository extends JpaRepository<Nurse, Integer> {
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<Nurse> findByUser(User user);
 
+	@EntityGraph(attributePaths = "user")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<Nurse> findByUserEmail(String email);
+
+	@Override
+	@EntityGraph(attributePaths = "user")
+	List<Nurse> findAll();
 }
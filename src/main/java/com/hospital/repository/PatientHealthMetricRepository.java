@@ -2,6 +2,8 @@ package com.hospital.repository;
 
 import com.hospital.entity.Patient;
 import com.hospital.entity.PatientHealthMetric;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,8 +14,13 @@ import java.util.List;
 public interface PatientHealthMetricRepository extends JpaRepository<PatientHealthMetric, Integer> {
     List<PatientHealthMetric> findByPatient(Patient patient);
     List<PatientHealthMetric> findByPatientOrderByRecordDateAsc(Patient patient);
+    // Recent-metric lists show who recorded the reading; chart queries only read values
+    @EntityGraph("PatientHealthMetric.doctor")
     List<PatientHealthMetric> findByPatientOrderByRecordDateDesc(Patient patient);
-    List<PatientHealthMetric> findByPatientAndMetricTypeOrderByMeasurementDateDesc(Patient patient, String metricType);
+    @EntityGraph("PatientHealthMetric.doctor")
+    List<PatientHealthMetric> findByPatientOrderByRecordDateDesc(Patient patient, Limit limit);
+    List<PatientHealthMetric> findByPatientAndMetricTypeOrderByMeasurementDateDesc(
+            Patient patient, PatientHealthMetric.MetricType metricType);
     List<PatientHealthMetric> findByPatientAndMetricTypeAndMeasurementDateBetweenOrderByMeasurementDateAsc(
-            Patient patient, String metricType, LocalDate startDate, LocalDate endDate);
+            Patient patient, PatientHealthMetric.MetricType metricType, LocalDate startDate, LocalDate endDate);
 } 
\ No newline at end of file
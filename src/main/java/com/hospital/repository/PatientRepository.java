@@ -1,9 +1,11 @@
 package com.hospital.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,8 +18,17 @@ import com.hospital.entity.User;
 public interface PatientRepository extends JpaRepository<Patient, Integer> {
 	Optional<Patient> findByUser(User user);
 
+	@EntityGraph(attributePaths = "user")
 	Optional<Patient> findByUserEmail(String email);
 
+	// Bulk health metric import resolves a batch of patients in one query
+	@EntityGraph(attributePaths = "user")
+	List<Patient> findByUserEmailIn(Collection<String> emails);
+
+	@Override
+	@EntityGraph(attributePaths = "user")
+	List<Patient> findAll();
+
 	List<Patient> findByBloodGroup(String bloodGroup);
 	
 	Optional<Patient> findByPhoneNumber(String phoneNumber);
@@ -1,17 +1,42 @@
 package com.hospital.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.hospital.entity.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
+    // Roles are lazy; authentication and role checks load them in the same query.
+    // Resolved on almost every request, so the result is kept in the query cache.
+    @EntityGraph("User.roles")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
+
+    @Override
+    @EntityGraph("User.roles")
+    Optional<User> findById(Integer id);
+
+    @Override
+    @EntityGraph("User.roles")
+    List<User> findAll();
+
     List<User> findTop10ByOrderByCreatedAtDesc();
 
     boolean existsByEmail(String email);
+
+    // Bulk import: which of a batch of emails are already registered, in one query
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
\ No newline at end of file
@@ -1,17 +1,27 @@
 package com.hospital.service;
 
+import com.hospital.dto.AppointmentStatusCount;
+import com.hospital.dto.AppointmentSummary;
+import com.hospital.dto.DtoMapper;
 import com.hospital.entity.Appointment;
+import com.hospital.entity.ChangeLogEntry;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.Patient;
 import com.hospital.entity.User;
 import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.ArchivedAppointmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -29,6 +39,15 @@ public class AppointmentService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+
+    @Autowired
+    private HealthDataArchiver healthDataArchiver;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
     /**
      * Creates or updates an appointment
      */
@@ -38,7 +57,8 @@ public class AppointmentService {
             appointment.setCreatedAt(LocalDateTime.now());
         }
         
-        if (appointment.getId() != null) {
+        boolean isNew = appointment.getId() == null;
+        if (!isNew) {
             // This is an update, so let's maintain creation data
             Optional<Appointment> existingAppointment = appointmentRepository.findById(appointment.getId());
             if (existingAppointment.isPresent()) {
@@ -54,7 +74,10 @@ public class AppointmentService {
             }
         }
         
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        changeFeedService.record(ChangeLogEntry.EntityType.APPOINTMENT, saved.getId(),
+                isNew ? ChangeLogEntry.Operation.CREATED : ChangeLogEntry.Operation.UPDATED);
+        return saved;
     }
 
     /**
@@ -73,6 +96,7 @@ public class AppointmentService {
         
         // Save first
         appointment = appointmentRepository.save(appointment);
+        changeFeedService.record(ChangeLogEntry.EntityType.APPOINTMENT, appointment.getId(), ChangeLogEntry.Operation.CREATED);
         
         // Then send email (but don't stop if email fails)
         try {
@@ -116,8 +140,26 @@ public class AppointmentService {
      */
     @Transactional(readOnly = true)
     public List<Appointment> getUpcomingAppointmentsForPatient(Patient patient) {
-        return appointmentRepository.findByPatientAndStatusOrderByAppointmentDateAsc(
-            patient, Appointment.AppointmentStatus.SCHEDULED);
+        return appointmentRepository.findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+            patient, Appointment.AppointmentStatus.SCHEDULED, LocalDate.now());
+    }
+
+    /**
+     * Retrieves the next {@code limit} scheduled appointments for a patient
+     */
+    @Transactional(readOnly = true)
+    public List<Appointment> getUpcomingAppointmentsForPatient(Patient patient, int limit) {
+        return appointmentRepository.findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+            patient, Appointment.AppointmentStatus.SCHEDULED, LocalDate.now(), Limit.of(limit));
+    }
+
+    /**
+     * Counts scheduled appointments from today onwards for a patient
+     */
+    @Transactional(readOnly = true)
+    public long countUpcomingAppointmentsForPatient(Patient patient) {
+        return appointmentRepository.countByPatientAndStatusAndAppointmentDateGreaterThanEqual(
+            patient, Appointment.AppointmentStatus.SCHEDULED, LocalDate.now());
     }
 
     /**
@@ -132,6 +174,7 @@ public class AppointmentService {
             appointment.setUpdatedAt(LocalDateTime.now());
             appointment.setUpdatedBy(cancelledBy);
             appointment = appointmentRepository.save(appointment);
+            changeFeedService.record(ChangeLogEntry.EntityType.APPOINTMENT, appointmentId, ChangeLogEntry.Operation.UPDATED);
             
             // Send cancellation email but don't stop if it fails
             try {
@@ -156,6 +199,7 @@ public class AppointmentService {
             appointment.setStatus(Appointment.AppointmentStatus.COMPLETED);
             appointment.setUpdatedAt(LocalDateTime.now());
             appointment.setUpdatedBy(completedBy);
+            changeFeedService.record(ChangeLogEntry.EntityType.APPOINTMENT, appointmentId, ChangeLogEntry.Operation.UPDATED);
             return appointmentRepository.save(appointment);
         }
         throw new RuntimeException("Appointment not found");
@@ -180,6 +224,7 @@ public class AppointmentService {
             appointment.setUpdatedAt(LocalDateTime.now());
             appointment.setUpdatedBy(updatedBy);
             appointment = appointmentRepository.save(appointment);
+            changeFeedService.record(ChangeLogEntry.EntityType.APPOINTMENT, appointmentId, ChangeLogEntry.Operation.UPDATED);
             
             // Send update notification
             try {
@@ -198,13 +243,8 @@ public class AppointmentService {
      */
     @Transactional(readOnly = true)
     public List<Appointment> getUpcomingAppointments() {
-        // Since we don't have a direct repository method, we'll filter in memory
-        LocalDate today = LocalDate.now();
-        return appointmentRepository.findAll().stream()
-            .filter(a -> (a.getAppointmentDate().isEqual(today) || 
-                          a.getAppointmentDate().isAfter(today)) &&
-                          a.getStatus() == Appointment.AppointmentStatus.SCHEDULED)
-            .collect(Collectors.toList());
+        return appointmentRepository.findByStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+            Appointment.AppointmentStatus.SCHEDULED, LocalDate.now());
     }
 
     /**
@@ -212,12 +252,8 @@ public class AppointmentService {
      */
     @Transactional(readOnly = true)
     public List<Appointment> getUpcomingAppointmentsForDoctor(Doctor doctor) {
-        LocalDate today = LocalDate.now();
-        return appointmentRepository.findByDoctor(doctor).stream()
-            .filter(a -> (a.getAppointmentDate().isEqual(today) || 
-                          a.getAppointmentDate().isAfter(today)) &&
-                          a.getStatus() == Appointment.AppointmentStatus.SCHEDULED)
-            .collect(Collectors.toList());
+        return appointmentRepository.findByDoctorAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+            doctor, Appointment.AppointmentStatus.SCHEDULED, LocalDate.now());
     }
 
     /**
@@ -226,9 +262,8 @@ public class AppointmentService {
     @Transactional(readOnly = true)
     public List<Appointment> getTomorrowAppointments() {
         LocalDate tomorrow = LocalDate.now().plusDays(1);
-        List<Appointment> appointments = appointmentRepository.findByAppointmentDate(tomorrow).stream()
-            .filter(a -> a.getStatus() == Appointment.AppointmentStatus.SCHEDULED)
-            .collect(Collectors.toList());
+        List<Appointment> appointments = appointmentRepository.findByAppointmentDateAndStatus(
+            tomorrow, Appointment.AppointmentStatus.SCHEDULED);
         
         // Send reminders for tomorrow's appointments
         for (Appointment appointment : appointments) {
@@ -289,6 +324,7 @@ public class AppointmentService {
                 logger.warn("Failed to send status update email", e);
             }
             
+            changeFeedService.record(ChangeLogEntry.EntityType.APPOINTMENT, id, ChangeLogEntry.Operation.UPDATED);
             return appointmentRepository.save(appointment);
         }
         throw new RuntimeException("Appointment not found with id: " + id);
@@ -301,6 +337,7 @@ public class AppointmentService {
     @Transactional
     public void deleteAppointment(Integer id) {
         appointmentRepository.deleteById(id);
+        changeFeedService.record(ChangeLogEntry.EntityType.APPOINTMENT, id, ChangeLogEntry.Operation.DELETED);
     }
 
     /**
@@ -322,6 +359,40 @@ public class AppointmentService {
         return appointmentRepository.findByDoctorAndAppointmentDate(doctor, today);
     }
     
+    /**
+     * Counts a doctor's appointments per status with a single GROUP BY query.
+     * Every status is present in the result, with zero for statuses that have no rows.
+     */
+    @Transactional(readOnly = true)
+    public Map<Appointment.AppointmentStatus, Long> getAppointmentStatusCountsForDoctor(Doctor doctor) {
+        Map<Appointment.AppointmentStatus, Long> counts = new EnumMap<>(Appointment.AppointmentStatus.class);
+        for (Appointment.AppointmentStatus status : Appointment.AppointmentStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (AppointmentStatusCount row : appointmentRepository.countByDoctorGroupByStatus(doctor)) {
+            if (row.status() != null) {
+                counts.put(row.status(), row.count());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Retrieves today's appointments for a doctor as flat summaries
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentSummary> getTodayAppointmentSummariesForDoctor(Doctor doctor) {
+        return appointmentRepository.findSummariesByDoctorAndDate(doctor, LocalDate.now());
+    }
+
+    /**
+     * Retrieves one page of a doctor's appointment history as flat summaries, newest first
+     */
+    @Transactional(readOnly = true)
+    public Page<AppointmentSummary> getAppointmentHistoryForDoctor(Doctor doctor, Pageable pageable) {
+        return appointmentRepository.findSummariesByDoctor(doctor, pageable);
+    }
+    
     /**
      * Validates if an appointment conflicts with existing appointments
      * @param doctorId The doctor's ID
@@ -350,14 +421,8 @@ public class AppointmentService {
      */
     @Transactional(readOnly = true)
     public List<Appointment> getUpcomingAppointmentsByPatient(Patient patient) {
-        LocalDate today = LocalDate.now();
-        List<Appointment> scheduledAppointments = appointmentRepository.findByPatientAndStatusOrderByAppointmentDateAsc(
-                patient, Appointment.AppointmentStatus.SCHEDULED);
-        
-        // Filter to only include today and future appointments
-        return scheduledAppointments.stream()
-                .filter(a -> !a.getAppointmentDate().isBefore(today))
-                .collect(Collectors.toList());
+        return appointmentRepository.findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                patient, Appointment.AppointmentStatus.SCHEDULED, LocalDate.now());
     }
     
     /**
@@ -375,4 +440,22 @@ public class AppointmentService {
                         a.getStatus() == Appointment.AppointmentStatus.CANCELLED)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    /**
+     * Past appointments of a patient dated on or after the given day, newest first. Reads the archive
+     * as well when the day is before the archive cutoff.
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentSummary> getPastAppointmentsByPatientSince(Patient patient, LocalDate from) {
+        List<AppointmentSummary> past = getPastAppointmentsByPatient(patient).stream()
+                .filter(a -> !a.getAppointmentDate().isBefore(from))
+                .map(DtoMapper::toAppointment)
+                .collect(Collectors.toList());
+        if (healthDataArchiver.isArchived(from)) {
+            // Archived appointments all predate the live ones
+            past.addAll(archivedAppointmentRepository.findSummariesByPatientIdAndDateBetween(
+                    patient.getId(), from, healthDataArchiver.getCutoff()));
+        }
+        return past;
+    }
+}
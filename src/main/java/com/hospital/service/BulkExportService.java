@@ -0,0 +1,383 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export of all patient data as FHIR style resources, one gzip-compressed NDJSON file per table,
+ * into a directory of its own under hospital.export.directory. Tables are walked by primary key in pages
+ * of page-size rows (keyset pagination, so every page is an index range scan however far the export
+ * has got), each page in a read-only transaction that goes to a read replica when there is one.
+ * <p>
+ * Every page is appended to its file as a separate gzip member and the file is forced to disk before
+ * the manifest records the new length and last id. An export interrupted by a restart or an error
+ * continues from the manifest: the file is cut back to the recorded length, dropping a partly written
+ * page, and the walk resumes after the recorded id. Concatenated gzip members read as one stream with
+ * gunzip, zcat and GZIPInputStream. One export runs at a time.
+ */
+@Service
+public class BulkExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkExportService.class);
+
+    private static final String MANIFEST = "manifest.json";
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    /**
+     * A table exported as one resource type. The query takes the last exported id and the page size
+     * and returns the next rows by id, with the id as column "id".
+     */
+    private record ExportStep(String type, String table, String file, String sql, RowMapper<Map<String, Object>> mapper) {
+    }
+
+    private static final String APPOINTMENT_COLUMNS =
+            "appointment_id AS id, patient_id, doctor_id, appointment_date, status, notes, created_at";
+
+    private static final String METRIC_COLUMNS = "metric_id AS id, patient_id, doctor_id, record_id, "
+            + "COALESCE(measurement_date, record_date) AS effective_date, metric_type, numeric_value, systolic, "
+            + "diastolic, value, notes";
+
+    // Archive tables are exported after their live tables: a row archived during the export is then
+    // exported twice rather than not at all. Consumers should treat the resource id as the key.
+    private static final List<ExportStep> STEPS = List.of(
+            new ExportStep("Patient", "patient", "Patient.ndjson.gz",
+                    "SELECT p.patient_id AS id, p.date_of_birth, p.gender, p.phone_number, p.address, p.blood_group, "
+                            + "p.emergency_contact, u.name, u.email FROM patient p JOIN user u ON u.user_id = p.user_id "
+                            + "WHERE p.patient_id > ? ORDER BY p.patient_id LIMIT ?",
+                    (rs, row) -> FhirResources.patient(rs)),
+            new ExportStep("Practitioner", "doctor", "Practitioner.ndjson.gz",
+                    "SELECT d.doctor_id AS id, d.phone_number, d.specialization, u.name, u.email FROM doctor d "
+                            + "JOIN user u ON u.user_id = d.user_id WHERE d.doctor_id > ? ORDER BY d.doctor_id LIMIT ?",
+                    (rs, row) -> FhirResources.practitioner(rs)),
+            new ExportStep("Appointment", "appointment", "Appointment.ndjson.gz",
+                    "SELECT " + APPOINTMENT_COLUMNS + " FROM appointment WHERE appointment_id > ? "
+                            + "ORDER BY appointment_id LIMIT ?",
+                    (rs, row) -> FhirResources.appointment(rs)),
+            new ExportStep("Appointment", "appointment_archive", "Appointment.archive.ndjson.gz",
+                    "SELECT " + APPOINTMENT_COLUMNS + " FROM appointment_archive WHERE appointment_id > ? "
+                            + "ORDER BY appointment_id LIMIT ?",
+                    (rs, row) -> FhirResources.appointment(rs)),
+            new ExportStep("Encounter", "record", "Encounter.ndjson.gz",
+                    "SELECT record_id AS id, patient_id, doctor_id, visit_date, status, diagnosis, prescription "
+                            + "FROM record WHERE record_id > ? ORDER BY record_id LIMIT ?",
+                    (rs, row) -> FhirResources.encounter(rs)),
+            new ExportStep("Observation", "patient_health_metrics", "Observation.ndjson.gz",
+                    "SELECT " + METRIC_COLUMNS + " FROM patient_health_metrics WHERE metric_id > ? "
+                            + "ORDER BY metric_id LIMIT ?",
+                    (rs, row) -> FhirResources.observation(rs)),
+            new ExportStep("Observation", "patient_health_metrics_archive", "Observation.archive.ndjson.gz",
+                    "SELECT " + METRIC_COLUMNS + " FROM patient_health_metrics_archive WHERE metric_id > ? "
+                            + "ORDER BY metric_id LIMIT ?",
+                    (rs, row) -> FhirResources.observation(rs)),
+            // Metadata only; file_data is never read
+            new ExportStep("DocumentReference", "document", "DocumentReference.ndjson.gz",
+                    "SELECT document_id AS id, patient_id, record_id, document_name, document_type, upload_date "
+                            + "FROM document WHERE document_id > ? ORDER BY document_id LIMIT ?",
+                    (rs, row) -> FhirResources.documentReference(rs)));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${hospital.export.directory:exports}")
+    private String directory;
+
+    @Value("${hospital.export.page-size:1000}")
+    private int pageSize;
+
+    // Pause between pages, to spread the load of a large export
+    @Value("${hospital.export.pause-ms:0}")
+    private long pauseMs;
+
+    @Value("${hospital.export.resume-on-startup:true}")
+    private boolean resumeOnStartup;
+
+    private TransactionTemplate readOnlyTransaction;
+    // Daemon threads: an export stopped by shutdown continues from its manifest on the next start
+    private final SimpleAsyncTaskExecutor jobRunner = new SimpleAsyncTaskExecutor("export-job-");
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ExportJob current;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        jobRunner.setDaemon(true);
+    }
+
+    /**
+     * Starts a full export in the background. Poll {@link #getJob(String)} for progress.
+     *
+     * @throws IllegalStateException if another export is running
+     */
+    public ExportJob start() {
+        begin();
+        try {
+            List<ExportJob.Output> output = STEPS.stream()
+                    .map(step -> new ExportJob.Output(step.type(), step.table(), step.file()))
+                    .toList();
+            ExportJob job = new ExportJob(UUID.randomUUID().toString(), output);
+            Files.createDirectories(directoryOf(job.getId()));
+            saveManifest(job);
+            logger.info("Export {} started into {}", job.getId(), directoryOf(job.getId()).toAbsolutePath());
+            return launch(job);
+        } catch (IOException | RuntimeException e) {
+            running.set(false);
+            throw new RuntimeException("Could not start the export: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Continues an export that failed or was interrupted, from its last complete page
+     *
+     * @throws IllegalStateException if another export is running or this one is complete
+     */
+    public Optional<ExportJob> resume(String id) {
+        Optional<ExportJob> job = loadManifest(id);
+        if (job.isEmpty()) {
+            return job;
+        }
+        if (job.get().getState() == ExportJob.State.COMPLETED) {
+            throw new IllegalStateException("Export " + id + " is already complete");
+        }
+        begin();
+        job.get().resumed();
+        logger.info("Export {} resumed", id);
+        return Optional.of(launch(job.get()));
+    }
+
+    public Optional<ExportJob> getJob(String id) {
+        ExportJob job = current;
+        if (job != null && job.getId().equals(id)) {
+            return Optional.of(job);
+        }
+        return loadManifest(id);
+    }
+
+    /**
+     * All exports in the export directory, oldest first
+     */
+    public List<ExportJob> getJobs() {
+        Path root = Path.of(directory);
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> dirs = Files.list(root)) {
+            return dirs.map(dir -> getJob(dir.getFileName().toString()))
+                    .flatMap(Optional::stream)
+                    .sorted(Comparator.comparing(ExportJob::getStartedAt))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list exports in " + root, e);
+        }
+    }
+
+    /**
+     * Continues the most recent export that was still running when the application stopped. Older
+     * interrupted exports are marked failed; they can be resumed through the API.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (!resumeOnStartup || running.get()) {
+            return;
+        }
+        List<ExportJob> interrupted = getJobs().stream()
+                .filter(job -> job.getState() == ExportJob.State.RUNNING)
+                .toList();
+        for (int i = 0; i < interrupted.size() - 1; i++) {
+            ExportJob job = interrupted.get(i);
+            job.finish("Interrupted by a restart");
+            try {
+                saveManifest(job);
+            } catch (IOException e) {
+                logger.warn("Could not update the manifest of export {}", job.getId(), e);
+            }
+        }
+        if (!interrupted.isEmpty()) {
+            try {
+                resume(interrupted.get(interrupted.size() - 1).getId());
+            } catch (IllegalStateException e) {
+                logger.info("Interrupted export not resumed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void begin() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Another export is still running");
+        }
+    }
+
+    private ExportJob launch(ExportJob job) {
+        current = job;
+        jobRunner.execute(() -> {
+            try {
+                export(job);
+            } finally {
+                running.set(false);
+            }
+        });
+        return job;
+    }
+
+    private void export(ExportJob job) {
+        long start = System.currentTimeMillis();
+        try {
+            for (ExportJob.Output output : job.getOutput()) {
+                if (!output.isDone()) {
+                    exportTable(job, output, stepOf(output));
+                }
+            }
+            job.finish(null);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Export {} stopped; resume it to continue from the last complete page", job.getId(), e);
+            job.finish(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish("Interrupted");
+        }
+        try {
+            saveManifest(job);
+        } catch (IOException e) {
+            logger.error("Could not save the manifest of export {}", job.getId(), e);
+        }
+        logger.info("Export {} {} in {} ms: {}", job.getId(), job.getState(), System.currentTimeMillis() - start,
+                job.getOutput().stream().map(o -> o.getFile() + "=" + o.getCount()).toList());
+    }
+
+    private void exportTable(ExportJob job, ExportJob.Output output, ExportStep step)
+            throws IOException, InterruptedException {
+        Path file = directoryOf(job.getId()).resolve(output.getFile());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drops whatever was written after the last complete page
+            channel.truncate(output.getBytes());
+            channel.position(output.getBytes());
+            while (true) {
+                List<Map<String, Object>> page = readOnlyTransaction.execute(status ->
+                        jdbcTemplate.query(step.sql(), step.mapper(), output.getLastId(), pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                writePage(channel, page);
+                channel.force(false);
+                output.pageWritten(Long.parseLong((String) page.get(page.size() - 1).get("id")), page.size(),
+                        channel.position());
+                saveManifest(job);
+                Metrics.counter("hospital.export.resources", "type", step.type()).increment(page.size());
+                if (page.size() < pageSize) {
+                    break;
+                }
+                if (pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            }
+        }
+        output.done();
+        saveManifest(job);
+    }
+
+    /**
+     * Appends the page as one gzip member with one resource per line
+     */
+    private void writePage(FileChannel channel, List<Map<String, Object>> page) throws IOException {
+        // Not closed: closing would close the channel as well
+        GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), GZIP_BUFFER);
+        for (Map<String, Object> resource : page) {
+            gzip.write(objectMapper.writeValueAsBytes(resource));
+            gzip.write('\n');
+        }
+        gzip.finish();
+    }
+
+    /**
+     * Replaces the manifest in one step, so a crash leaves either the old or the new one
+     */
+    private void saveManifest(ExportJob job) throws IOException {
+        Path dir = directoryOf(job.getId());
+        Path temp = dir.resolve(MANIFEST + ".tmp");
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(json, job);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(json.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Optional<ExportJob> loadManifest(String id) {
+        if (!isExportId(id)) {
+            return Optional.empty();
+        }
+        Path manifest = directoryOf(id).resolve(MANIFEST);
+        if (!Files.isRegularFile(manifest)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(manifest.toFile(), ExportJob.class));
+        } catch (IOException e) {
+            logger.warn("Unreadable export manifest {}", manifest, e);
+            return Optional.empty();
+        }
+    }
+
+    private Path directoryOf(String id) {
+        return Path.of(directory, id);
+    }
+
+    private static ExportStep stepOf(ExportJob.Output output) {
+        return STEPS.stream()
+                .filter(step -> step.table().equals(output.getTable()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown export table " + output.getTable()));
+    }
+
+    // Ids come from the URL and name a directory, so only the UUIDs that start() creates are accepted
+    private static boolean isExportId(String id) {
+        try {
+            return id != null && UUID.fromString(id).toString().equals(id);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
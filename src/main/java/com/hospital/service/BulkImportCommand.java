@@ -0,0 +1,67 @@
+package com.hospital.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command line bulk import for files too large to upload. When hospital.import.file is set, imports
+ * that file on startup and exits with status 0 if every row was imported, 1 otherwise:
+ * <pre>
+ * java -jar HealthCare.jar --spring.main.web-application-type=none \
+ *     --hospital.import.file=ward7.csv --hospital.import.kind=patients
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "hospital.import.file")
+public class BulkImportCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportCommand.class);
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${hospital.import.file}")
+    private String file;
+
+    // patients or health-metrics
+    @Value("${hospital.import.kind:patients}")
+    private String kind;
+
+    // csv or ndjson; empty to go by the file extension
+    @Value("${hospital.import.format:}")
+    private String format;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ImportJob.Kind importKind = ImportJob.Kind.valueOf(kind.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        Path path = Path.of(file);
+        ImportJob job;
+        try (InputStream in = Files.newInputStream(path)) {
+            job = bulkImportService.run(importKind, BulkImportService.Format.of(format, file), in, path.toString());
+        }
+        for (ImportJob.RowError error : job.getErrors()) {
+            logger.warn("Line {}: {}", error.line(), error.message());
+        }
+        if (job.getFailed() > job.getErrors().size()) {
+            logger.warn("{} more rejected rows not listed", job.getFailed() - job.getErrors().size());
+        }
+        int exitCode = job.getState() == ImportJob.State.COMPLETED && job.getFailed() == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
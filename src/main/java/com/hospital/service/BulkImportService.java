@@ -0,0 +1,516 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.entity.ChangeLogEntry;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.entity.Role;
+import com.hospital.entity.User;
+import com.hospital.repository.PatientHealthMetricRepository;
+import com.hospital.repository.PatientRepository;
+import com.hospital.repository.RoleRepository;
+import com.hospital.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import of patients or health metrics from CSV (with a header row) or NDJSON (one JSON object
+ * per line). The file is read in chunks of batch-size rows, so memory use does not depend on its size.
+ * For each chunk, rows are validated and passwords hashed in parallel on the import executor, then
+ * written in one transaction through the repositories, which Hibernate sends as JDBC batches. If a
+ * chunk fails to write, its rows are retried one by one so a single bad row only rejects itself.
+ * Rejected rows are reported with their line number; one import runs at a time.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int KEPT_JOBS = 20;
+    private static final int PROGRESS_LOG_CHUNKS = 10;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * The explicit format if given, else from the file extension (.ndjson, .jsonl or .json for NDJSON)
+         */
+        public static Format of(String format, String fileName) {
+            if (format != null && !format.isBlank()) {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            }
+            String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? NDJSON : CSV;
+        }
+    }
+
+    /**
+     * One row of the file with lower-cased field names; error is set when the row could not be parsed
+     */
+    private record ImportRow(long line, Map<String, String> fields, String error) {
+
+        String get(String name) {
+            String value = fields.get(name.toLowerCase(Locale.ROOT));
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        String require(String name) {
+            String value = get(name);
+            if (value == null) {
+                throw new IllegalArgumentException(name + " is required");
+            }
+            return value;
+        }
+    }
+
+    private interface RowSource {
+        /**
+         * The next row, or null at the end of the file
+         */
+        ImportRow next() throws IOException;
+    }
+
+    private record PatientRow(long line, User user, Patient patient) {
+    }
+
+    private record MetricRow(long line, String patientEmail, PatientHealthMetric metric) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientHealthMetricRepository healthMetricRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("importExecutor")
+    private TaskExecutor importExecutor;
+
+    @Value("${hospital.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${hospital.import.max-errors:1000}")
+    private int maxErrors;
+
+    private final SimpleAsyncTaskExecutor jobRunner = new SimpleAsyncTaskExecutor("import-job-");
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > KEPT_JOBS;
+        }
+    };
+
+    /**
+     * Imports the file in the background and deletes it afterwards. Poll {@link #getJob(String)} for progress.
+     *
+     * @throws IllegalStateException if another import is running
+     */
+    public ImportJob start(ImportJob.Kind kind, Format format, Path file, String source) {
+        ImportJob job = begin(kind, source);
+        jobRunner.execute(() -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                process(job, kind, format, in);
+            } catch (IOException e) {
+                job.finish("Could not read the upload: " + e.getMessage());
+            } finally {
+                running.set(false);
+                deleteQuietly(file);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Imports the stream on the calling thread, e.g. from the command line
+     *
+     * @throws IllegalStateException if another import is running
+     */
+    public ImportJob run(ImportJob.Kind kind, Format format, InputStream in, String source) {
+        ImportJob job = begin(kind, source);
+        try {
+            process(job, kind, format, in);
+        } finally {
+            running.set(false);
+        }
+        return job;
+    }
+
+    public Optional<ImportJob> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    /**
+     * The most recent imports, oldest first
+     */
+    public List<ImportJob> getJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    private ImportJob begin(ImportJob.Kind kind, String source) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Another import is still running");
+        }
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), kind, source, maxErrors);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        logger.info("Import {} of {} from {} started", job.getId(), kind, source);
+        return job;
+    }
+
+    private void process(ImportJob job, ImportJob.Kind kind, Format format, InputStream in) {
+        long start = System.currentTimeMillis();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            RowSource rows = format == Format.CSV ? csvRows(new CsvReader(reader)) : ndjsonRows(reader);
+            Role patientRole = kind == ImportJob.Kind.PATIENTS ? roleRepository.findByName(Role.RoleName.PATIENT)
+                    .orElseThrow(() -> new RuntimeException("Role not found.")) : null;
+            List<ImportRow> chunk = new ArrayList<>(batchSize);
+            int chunks = 0;
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                job.rowRead();
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    importChunk(job, kind, chunk, patientRole);
+                    chunk = new ArrayList<>(batchSize);
+                    if (++chunks % PROGRESS_LOG_CHUNKS == 0) {
+                        logger.info("Import {}: {} rows read, {} imported, {} rejected",
+                                job.getId(), job.getRowsRead(), job.getImported(), job.getFailed());
+                    }
+                }
+            }
+            importChunk(job, kind, chunk, patientRole);
+            job.finish(null);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Import {} stopped after {} rows", job.getId(), job.getRowsRead(), e);
+            job.finish(e.getMessage());
+        }
+        logger.info("Import {} {}: {} rows read, {} imported, {} rejected in {} ms", job.getId(),
+                job.getState(), job.getRowsRead(), job.getImported(), job.getFailed(), System.currentTimeMillis() - start);
+    }
+
+    private void importChunk(ImportJob job, ImportJob.Kind kind, List<ImportRow> chunk, Role patientRole) {
+        List<ImportRow> parsed = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (row.error() != null) {
+                job.rowFailed(row.line(), row.error());
+            } else {
+                parsed.add(row);
+            }
+        }
+        if (parsed.isEmpty()) {
+            return;
+        }
+        if (kind == ImportJob.Kind.PATIENTS) {
+            importPatients(job, parsed, patientRole);
+        } else {
+            importHealthMetrics(job, parsed);
+        }
+    }
+
+    private void importPatients(ImportJob job, List<ImportRow> rows, Role patientRole) {
+        List<PatientRow> valid = inParallel(job, rows, ImportRow::line, this::toPatient);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Emails repeated in the chunk or already registered, checked on the primary in one query
+        Set<String> existing = new HashSet<>();
+        transactionTemplate.execute(status -> userRepository.findExistingEmails(
+                valid.stream().map(p -> p.user().getEmail()).toList())).forEach(e -> existing.add(key(e)));
+        Set<String> seen = new HashSet<>();
+        List<PatientRow> fresh = new ArrayList<>(valid.size());
+        for (PatientRow row : valid) {
+            String email = key(row.user().getEmail());
+            if (existing.contains(email)) {
+                job.rowFailed(row.line(), "Email already in use: " + row.user().getEmail());
+            } else if (!seen.add(email)) {
+                job.rowFailed(row.line(), "Email appears earlier in the file: " + row.user().getEmail());
+            } else {
+                fresh.add(row);
+            }
+        }
+
+        // Hashing is the expensive step, so only rows that will be written are hashed
+        List<PatientRow> hashed = inParallel(job, fresh, PatientRow::line, row -> {
+            row.user().setPassword(passwordEncoder.encode(row.user().getPassword()));
+            return row;
+        });
+        write(job, hashed, PatientRow::line, batch -> {
+            List<User> users = new ArrayList<>(batch.size());
+            List<Patient> patients = new ArrayList<>(batch.size());
+            for (PatientRow row : batch) {
+                // Ids and the role collection are assigned again on a retry after a failed batch
+                row.user().setId(null);
+                row.user().setRoles(new HashSet<>(Set.of(patientRole)));
+                row.patient().setId(null);
+                users.add(row.user());
+                patients.add(row.patient());
+            }
+            userRepository.saveAll(users);
+            patientRepository.saveAll(patients);
+        });
+    }
+
+    private PatientRow toPatient(ImportRow row) {
+        String email = row.require("email");
+        if (!EMAIL.matcher(email).matches()) {
+            throw new IllegalArgumentException("Invalid email: " + email);
+        }
+        User user = new User();
+        user.setEmail(email);
+        user.setName(row.require("name"));
+        user.setPassword(row.require("password"));
+
+        Patient patient = new Patient();
+        patient.setUser(user);
+        // Same default as self-registration
+        patient.setDateOfBirth(row.get("dateOfBirth") != null ? parseDate(row.get("dateOfBirth"), "dateOfBirth")
+                : LocalDate.now().minusYears(18));
+        patient.setGender(limit(row.get("gender"), 10, "gender"));
+        patient.setPhoneNumber(limit(row.get("phoneNumber"), 20, "phoneNumber"));
+        patient.setAddress(limit(row.get("address"), 255, "address"));
+        patient.setBloodGroup(limit(row.get("bloodGroup"), 5, "bloodGroup"));
+        patient.setEmergencyContact(limit(row.get("emergencyContact"), 100, "emergencyContact"));
+        limit(user.getName(), 255, "name");
+        limit(email, 255, "email");
+        return new PatientRow(row.line(), user, patient);
+    }
+
+    private void importHealthMetrics(ImportJob job, List<ImportRow> rows) {
+        List<MetricRow> valid = inParallel(job, rows, ImportRow::line, this::toHealthMetric);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Resolved on the primary like the email check: patients imported by the previous chunk may not
+        // have reached the read replicas yet
+        Map<String, Patient> patients = new HashMap<>();
+        transactionTemplate.execute(status -> patientRepository.findByUserEmailIn(
+                valid.stream().map(MetricRow::patientEmail).toList()))
+                .forEach(p -> patients.put(key(p.getUser().getEmail()), p));
+        List<MetricRow> resolved = new ArrayList<>(valid.size());
+        for (MetricRow row : valid) {
+            Patient patient = patients.get(key(row.patientEmail()));
+            if (patient == null) {
+                job.rowFailed(row.line(), "No patient with email " + row.patientEmail());
+            } else {
+                row.metric().setPatient(patient);
+                resolved.add(row);
+            }
+        }
+        write(job, resolved, MetricRow::line, batch -> {
+            List<PatientHealthMetric> metrics = new ArrayList<>(batch.size());
+            for (MetricRow row : batch) {
+                row.metric().setId(null);
+                metrics.add(row.metric());
+            }
+            healthMetricRepository.saveAll(metrics);
+            changeFeedService.recordAll(ChangeLogEntry.EntityType.HEALTH_METRIC,
+                    metrics.stream().map(PatientHealthMetric::getId).toList(), ChangeLogEntry.Operation.CREATED);
+        });
+    }
+
+    private MetricRow toHealthMetric(ImportRow row) {
+        String email = row.require("patientEmail");
+        String type = row.require("metricType");
+        PatientHealthMetric.MetricType metricType = PatientHealthMetric.MetricType.fromString(type);
+        if (metricType == null) {
+            throw new IllegalArgumentException("Unknown metricType: " + type);
+        }
+        PatientHealthMetric metric = new PatientHealthMetric();
+        metric.setMetricType(metricType);
+        metric.setValue(limit(row.require("value"), 50, "value"));
+        LocalDate measured = row.get("measurementDate") != null
+                ? parseDate(row.get("measurementDate"), "measurementDate") : LocalDate.now();
+        metric.setMeasurementDate(measured);
+        metric.setRecordDate(measured);
+        metric.setNotes(limit(row.get("notes"), 255, "notes"));
+        metric.normalizeValues();
+        if (metric.getNumericValue() == null && metric.getSystolic() == null) {
+            throw new IllegalArgumentException("Invalid value for " + metricType + ": " + metric.getValue());
+        }
+        return new MetricRow(row.line(), email, metric);
+    }
+
+    /**
+     * Runs the task for every item on the import executor; items whose task throws are reported and dropped
+     */
+    private <T, R> List<R> inParallel(ImportJob job, List<T> items, Function<T, Long> lineOf, Function<T, R> task) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(item), importExecutor));
+        }
+        List<R> results = new ArrayList<>(items.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                job.rowFailed(lineOf.apply(items.get(i)), messageOf(e.getCause()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Saves the rows in one transaction; if that fails, saves them one by one to reject only the bad rows
+     */
+    private <T> void write(ImportJob job, List<T> rows, Function<T, Long> lineOf, Consumer<List<T>> save) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> save.accept(rows));
+            job.imported(rows.size());
+        } catch (RuntimeException e) {
+            logger.debug("Batch of {} rows failed, retrying row by row", rows.size(), e);
+            for (T row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> save.accept(List.of(row)));
+                    job.imported(1);
+                } catch (RuntimeException rowError) {
+                    job.rowFailed(lineOf.apply(row), messageOf(rowError));
+                }
+            }
+        }
+    }
+
+    private RowSource csvRows(CsvReader csv) throws IOException {
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return () -> null;
+        }
+        List<String> names = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        return () -> {
+            List<String> values = csv.readRecord();
+            if (values == null) {
+                return null;
+            }
+            if (values.size() != names.size()) {
+                return new ImportRow(csv.getRecordLine(), Map.of(),
+                        "Expected " + names.size() + " fields but found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                fields.put(names.get(i), values.get(i));
+            }
+            return new ImportRow(csv.getRecordLine(), fields, null);
+        };
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                Map<?, ?> object = objectMapper.readValue(line, Map.class);
+                Map<String, String> fields = new HashMap<>();
+                object.forEach((name, value) -> fields.put(String.valueOf(name).toLowerCase(Locale.ROOT),
+                        value != null ? String.valueOf(value) : null));
+                return new ImportRow(lineNumber[0], fields, null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(lineNumber[0], Map.of(), "Invalid JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private static LocalDate parseDate(String text, String field) {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(field + " must be a date like 1980-04-23: " + text);
+        }
+    }
+
+    private static String limit(String value, int maxLength, String field) {
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String messageOf(Throwable e) {
+        Throwable cause = e instanceof IllegalArgumentException ? e : NestedExceptionUtils.getMostSpecificCause(e);
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        return message.length() > 300 ? message.substring(0, 300) : message;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete import file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.hospital.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reports second-level and query cache statistics per cache region. The counts come from the JCache
+ * statistics Ehcache keeps for every region (enable-statistics in ehcache.xml), so unlike Hibernate
+ * statistics they are available in every profile. The same hits and misses are exported as the
+ * hospital.cache.hits and hospital.cache.misses metrics, tagged by region.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    private static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    private volatile LocalDateTime since = LocalDateTime.now();
+
+    @PostConstruct
+    void registerMetrics() {
+        for (String region : regionNames()) {
+            FunctionCounter.builder("hospital.cache.hits", mBeanServer, server -> count(server, region, CacheStatisticsMXBean::getCacheHits))
+                    .description("Second-level and query cache lookups served from the cache")
+                    .tag("region", region)
+                    .register(Metrics.globalRegistry);
+            FunctionCounter.builder("hospital.cache.misses", mBeanServer, server -> count(server, region, CacheStatisticsMXBean::getCacheMisses))
+                    .description("Second-level and query cache lookups that went to the database")
+                    .tag("region", region)
+                    .register(Metrics.globalRegistry);
+        }
+    }
+
+    /**
+     * Hit, miss and put counts for every second-level cache region plus the query cache totals
+     */
+    public Map<String, Object> getCacheStatistics() {
+        Map<String, CacheStatisticsMXBean> statistics = regionStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        long hits = 0;
+        long misses = 0;
+        long puts = 0;
+        for (Map.Entry<String, CacheStatisticsMXBean> entry : statistics.entrySet()) {
+            CacheStatisticsMXBean region = entry.getValue();
+            regions.put(entry.getKey(), describeRegion(region));
+            if (!entry.getKey().equals(QUERY_RESULTS_REGION) && !entry.getKey().equals(UPDATE_TIMESTAMPS_REGION)) {
+                hits += region.getCacheHits();
+                misses += region.getCacheMisses();
+                puts += region.getCachePuts();
+            }
+        }
+
+        CacheStatisticsMXBean queryResults = statistics.get(QUERY_RESULTS_REGION);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", !statistics.isEmpty());
+        result.put("since", since);
+        result.put("secondLevelCacheHitCount", hits);
+        result.put("secondLevelCacheMissCount", misses);
+        result.put("secondLevelCachePutCount", puts);
+        result.put("secondLevelCacheHitRatio", hitRatio(hits, misses));
+        result.put("regions", regions);
+        result.put("queryCache", queryResults != null ? describeRegion(queryResults) : Map.of());
+        return result;
+    }
+
+    /**
+     * Resets the cache statistics counters of every region
+     */
+    public void resetStatistics() {
+        regionStatistics().values().forEach(CacheStatisticsMXBean::clear);
+        since = LocalDateTime.now();
+    }
+
+    private Map<String, Object> describeRegion(CacheStatisticsMXBean region) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("hitCount", region.getCacheHits());
+        description.put("missCount", region.getCacheMisses());
+        description.put("putCount", region.getCachePuts());
+        description.put("evictionCount", region.getCacheEvictions());
+        description.put("hitRatio", hitRatio(region.getCacheHits(), region.getCacheMisses()));
+        return description;
+    }
+
+    private double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * The region's count, or NaN while its cache does not exist, e.g. as the application shuts down.
+     * Looked up by name on every read, so the counters keep working if the cache manager is recreated.
+     */
+    private static double count(MBeanServer server, String region, ToLongFunction<CacheStatisticsMXBean> counter) {
+        try {
+            Set<ObjectName> names = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+            if (!names.isEmpty()) {
+                return counter.applyAsLong(JMX.newMXBeanProxy(server, names.iterator().next(), CacheStatisticsMXBean.class));
+            }
+        } catch (MalformedObjectNameException | RuntimeException e) {
+            // Reported as NaN
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Statistics MBeans of the Hibernate regions, registered by Ehcache under javax.cache:type=CacheStatistics
+     */
+    private Map<String, CacheStatisticsMXBean> regionStatistics() {
+        Set<String> regionNames = regionNames();
+        Map<String, CacheStatisticsMXBean> statistics = new TreeMap<>();
+        for (ObjectName name : mBeanServer.queryNames(statisticsPattern(), null)) {
+            String region = name.getKeyProperty("Cache");
+            if (regionNames.contains(region)) {
+                statistics.put(region, JMX.newMXBeanProxy(mBeanServer, name, CacheStatisticsMXBean.class));
+            }
+        }
+        return statistics;
+    }
+
+    private Set<String> regionNames() {
+        Set<String> names = new TreeSet<>(Arrays.asList(
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getSecondLevelCacheRegionNames()));
+        names.add(QUERY_RESULTS_REGION);
+        names.add(UPDATE_TIMESTAMPS_REGION);
+        return names;
+    }
+
+    private static ObjectName statisticsPattern() {
+        try {
+            return new ObjectName("javax.cache:type=CacheStatistics,*");
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
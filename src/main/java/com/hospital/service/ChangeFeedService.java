@@ -0,0 +1,117 @@
+package com.hospital.service;
+
+import com.hospital.dto.ChangeResponse;
+import com.hospital.entity.ChangeLogEntry;
+import com.hospital.repository.ChangeLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only change log for consumers that would otherwise poll the list endpoints. Services record
+ * each create, update and delete of an appointment, medical record, health metric or document in the
+ * transaction that makes it, so an entry exists exactly when its change was committed.
+ * <p>
+ * Consumers read the entries after their cursor in id order. Ids are allocated at insert but become
+ * visible at commit, so a transaction still in flight can commit an id lower than one already read.
+ * The feed therefore stops at the first entry younger than settle-ms; transactions must commit
+ * within that time for their entries not to be skipped.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private static final String INSERT = "INSERT INTO change_log (entity_type, entity_id, operation, changed_at) "
+            + "VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${hospital.changes.settle-ms:2000}")
+    private long settleMs;
+
+    @Value("${hospital.changes.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${hospital.changes.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    /**
+     * Records a change in the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeLogEntry.EntityType entityType, Integer entityId, ChangeLogEntry.Operation operation) {
+        recordAll(entityType, List.of(entityId), operation);
+    }
+
+    /**
+     * Records the same change to many rows as one JDBC batch, e.g. for bulk imports
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(ChangeLogEntry.EntityType entityType, Collection<Integer> entityIds,
+                          ChangeLogEntry.Operation operation) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(entityIds.size());
+        for (Integer entityId : entityIds) {
+            rows.add(new Object[]{entityType.name(), entityId, operation.name(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    /**
+     * Up to limit committed changes after the cursor, oldest first. Read-write so that it runs on the
+     * primary: a replica lagging by more than settle-ms could show a later entry while an earlier one
+     * is still missing, and the consumer's cursor would move past it.
+     */
+    @Transactional
+    public List<ChangeResponse> getChanges(long since, int limit) {
+        LocalDateTime settledBefore = LocalDateTime.now().minusNanos(settleMs * 1_000_000);
+        List<ChangeResponse> changes = changeLogRepository.findChangesSince(since, PageRequest.of(0, limit));
+        int settled = 0;
+        while (settled < changes.size() && !changes.get(settled).changedAt().isAfter(settledBefore)) {
+            settled++;
+        }
+        return changes.subList(0, settled);
+    }
+
+    /**
+     * Deletes entries older than the retention period, in id ranges of purge-batch-size. Consumers that
+     * fall further behind must re-sync from a bulk export.
+     */
+    @Scheduled(cron = "${hospital.changes.purge-cron:0 15 4 * * *}")
+    public void purge() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(change_id) FROM change_log WHERE changed_at < ?",
+                Long.class, cutoff);
+        if (last == null) {
+            return;
+        }
+        Long first = jdbcTemplate.queryForObject("SELECT MIN(change_id) FROM change_log", Long.class);
+        int deleted = 0;
+        for (long from = first - 1; from < last; from += purgeBatchSize) {
+            deleted += jdbcTemplate.update("DELETE FROM change_log WHERE change_id > ? AND change_id <= ?",
+                    from, Math.min(from + purgeBatchSize, last));
+        }
+        logger.info("Purged {} change log entries older than {} days", deleted, retentionDays);
+    }
+}
@@ -1,10 +1,13 @@
 package com.hospital.service;
 
+import com.hospital.entity.ChangeLogEntry;
 import com.hospital.entity.Document;
 import com.hospital.entity.MedicalRecord;
 import com.hospital.entity.Patient;
 import com.hospital.entity.User;
 import com.hospital.repository.DocumentRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +23,9 @@ public class DocumentService {
     @Autowired
     private DocumentRepository documentRepository;
 
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
     @Transactional
     public Document uploadDocument(Patient patient, MedicalRecord record, String documentName, 
                                   String documentType, User uploadedBy, MultipartFile file) throws IOException {
@@ -32,8 +38,11 @@ public class DocumentService {
         
         // Save the file binary data
         document.setFileData(file.getBytes());
+        recordBytes("in", document.getFileData().length);
         
-        return documentRepository.save(document);
+        Document saved = documentRepository.save(document);
+        changeFeedService.record(ChangeLogEntry.EntityType.DOCUMENT, saved.getId(), ChangeLogEntry.Operation.CREATED);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -64,6 +73,7 @@ public class DocumentService {
     @Transactional
     public void deleteDocument(Integer id) {
         documentRepository.deleteById(id);
+        changeFeedService.record(ChangeLogEntry.EntityType.DOCUMENT, id, ChangeLogEntry.Operation.DELETED);
     }
 
     /**
@@ -87,6 +97,22 @@ public class DocumentService {
         
         // Get actual document content from the storage system
         // This is where you would implement file/blob retrieval
-        return document.getFileData(); // Assuming Document entity has this field
+        byte[] content = document.getFileData(); // Assuming Document entity has this field
+        if (content != null) {
+            recordBytes("out", content.length);
+        }
+        return content;
+    }
+
+    /**
+     * Document content uploaded ("in") and served ("out"), for sizing storage and bandwidth
+     */
+    private void recordBytes(String direction, long bytes) {
+        DistributionSummary.builder("hospital.document.bytes")
+                .description("Size of document content uploaded and downloaded")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(Metrics.globalRegistry)
+                .record(bytes);
     }
 }
\ No newline at end of file
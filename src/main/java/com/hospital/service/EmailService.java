@@ -1,14 +1,20 @@
 package com.hospital.service;
 
+import com.hospital.config.Bulkhead;
 import com.hospital.entity.Appointment;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Service for sending email notifications
  */
@@ -20,10 +26,20 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    @Qualifier("mailExecutor")
+    private Executor mailExecutor;
+
+    @Autowired
+    @Qualifier("mailBulkhead")
+    private Bulkhead mailBulkhead;
+
+    // Emails handed to the mail executor and not yet sent: queued plus waiting on the SMTP server
+    private final AtomicInteger inFlight = Metrics.gauge("hospital.email.in.flight", new AtomicInteger());
+
     /**
      * Send appointment confirmation email
      */
-    @Async
     public void sendAppointmentConfirmation(Appointment appointment) {
         try {
             String patientEmail = appointment.getPatient().getUser().getEmail();
@@ -39,7 +55,6 @@ public class EmailService {
     /**
      * Send appointment confirmation email with detailed parameters
      */
-    @Async
     public void sendAppointmentConfirmation(String patientEmail, String doctorName, String appointmentDate) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -49,8 +64,8 @@ public class EmailService {
                     " has been scheduled for " + appointmentDate + 
                     ".\n\nThank you for choosing our hospital.");
             
-            mailSender.send(message);
-            logger.info("Appointment confirmation email sent to: " + patientEmail);
+            send(message, "confirmation");
+            logger.info("Appointment confirmation email queued for: " + patientEmail);
         } catch (Exception e) {
             logger.error("Error sending appointment confirmation email", e);
         }
@@ -59,7 +74,6 @@ public class EmailService {
     /**
      * Send appointment cancellation email
      */
-    @Async
     public void sendAppointmentCancellation(Appointment appointment) {
         try {
             String patientEmail = appointment.getPatient().getUser().getEmail();
@@ -75,7 +89,6 @@ public class EmailService {
     /**
      * Send appointment cancellation notification with detailed parameters
      */
-    @Async
     public void sendAppointmentCancellationNotification(String patientEmail, String doctorName, String appointmentDate) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -85,8 +98,8 @@ public class EmailService {
                     " scheduled for " + appointmentDate + 
                     " has been cancelled.\n\nPlease contact us if you need to reschedule.");
             
-            mailSender.send(message);
-            logger.info("Appointment cancellation email sent to: " + patientEmail);
+            send(message, "cancellation");
+            logger.info("Appointment cancellation email queued for: " + patientEmail);
         } catch (Exception e) {
             logger.error("Error sending appointment cancellation email", e);
         }
@@ -95,7 +108,6 @@ public class EmailService {
     /**
      * Send appointment reminder email
      */
-    @Async
     public void sendAppointmentReminder(Appointment appointment) {
         try {
             String patientEmail = appointment.getPatient().getUser().getEmail();
@@ -111,7 +123,6 @@ public class EmailService {
     /**
      * Send appointment reminder notification with detailed parameters
      */
-    @Async
     public void sendAppointmentReminderNotification(String patientEmail, String doctorName, String appointmentDate) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -122,8 +133,8 @@ public class EmailService {
                     ".\n\nPlease arrive 15 minutes early to complete any necessary paperwork." +
                     "\n\nIf you need to reschedule, please contact us as soon as possible.");
             
-            mailSender.send(message);
-            logger.info("Appointment reminder email sent to: " + patientEmail);
+            send(message, "reminder");
+            logger.info("Appointment reminder email queued for: " + patientEmail);
         } catch (Exception e) {
             logger.error("Error sending appointment reminder email", e);
         }
@@ -132,7 +143,6 @@ public class EmailService {
     /**
      * Send appointment update notification with detailed parameters
      */
-    @Async
     public void sendAppointmentUpdatedNotification(String patientEmail, String doctorName, String appointmentDate) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -142,8 +152,8 @@ public class EmailService {
                     " has been rescheduled to " + appointmentDate + 
                     ".\n\nPlease contact us if this new time does not work for you.");
             
-            mailSender.send(message);
-            logger.info("Appointment update email sent to: " + patientEmail);
+            send(message, "update");
+            logger.info("Appointment update email queued for: " + patientEmail);
         } catch (Exception e) {
             logger.error("Error sending appointment update email", e);
         }
@@ -152,7 +162,6 @@ public class EmailService {
     /**
      * Send generic notification email
      */
-    @Async
     public void sendEmail(String to, String subject, String body) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -160,10 +169,47 @@ public class EmailService {
             message.setSubject(subject);
             message.setText(body);
             
-            mailSender.send(message);
-            logger.info("Email sent to: " + to);
+            send(message, "generic");
+            logger.info("Email queued for: " + to);
         } catch (Exception e) {
             logger.error("Error sending email", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Hands a message to the mail executor so the caller does not wait for the SMTP server, and
+     * records the send latency by email type and outcome. Failures are logged on the mail thread.
+     */
+    private void send(SimpleMailMessage message, String type) {
+        inFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        try {
+            mailExecutor.execute(() -> deliver(message, type, sample));
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            recordSend(sample, type, "rejected");
+            throw e;
+        }
+    }
+
+    private void deliver(SimpleMailMessage message, String type, Timer.Sample sample) {
+        String outcome = "failure";
+        try {
+            mailBulkhead.run(() -> mailSender.send(message));
+            outcome = "success";
+        } catch (RuntimeException e) {
+            logger.error("Error sending {} email", type, e);
+        } finally {
+            inFlight.decrementAndGet();
+            recordSend(sample, type, outcome);
+        }
+    }
+
+    private void recordSend(Timer.Sample sample, String type, String outcome) {
+        sample.stop(Timer.builder("hospital.email.send")
+                .description("Time from queueing an email to handing it to the mail server")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry));
+    }
+}
@@ -0,0 +1,144 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of one bulk export, saved as the export's manifest.json after every page so that an
+ * interrupted export can continue where it stopped. Updated by the exporting thread and read by the
+ * status endpoint while the export runs.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+public class ExportJob {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * One output file: the rows of one table as one resource type. Bytes is the length of the file up to
+     * the last complete page, whose highest id is lastId.
+     */
+    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE,
+            isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+    public static class Output {
+        private String type;
+        private String table;
+        private String file;
+        private volatile long lastId;
+        private volatile long count;
+        private volatile long bytes;
+        private volatile boolean done;
+
+        Output() {
+            // For reading the manifest
+        }
+
+        Output(String type, String table, String file) {
+            this.type = type;
+            this.table = table;
+            this.file = file;
+        }
+
+        void pageWritten(long lastId, int rows, long bytes) {
+            this.lastId = lastId;
+            this.count += rows;
+            this.bytes = bytes;
+        }
+
+        void done() {
+            this.done = true;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public long getLastId() {
+            return lastId;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+    }
+
+    private String id;
+    private LocalDateTime startedAt;
+    private volatile State state;
+    private volatile LocalDateTime finishedAt;
+    private volatile String failure;
+    private List<Output> output;
+
+    ExportJob() {
+        // For reading the manifest
+    }
+
+    ExportJob(String id, List<Output> output) {
+        this.id = id;
+        this.startedAt = LocalDateTime.now();
+        this.state = State.RUNNING;
+        this.output = output;
+    }
+
+    void resumed() {
+        this.state = State.RUNNING;
+        this.failure = null;
+        this.finishedAt = null;
+    }
+
+    void finish(String failure) {
+        this.failure = failure;
+        this.finishedAt = LocalDateTime.now();
+        this.state = failure == null ? State.COMPLETED : State.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * The export is not a snapshot: rows changed after this time may or may not be in it
+     */
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Why the export stopped, e.g. a database or disk error; null otherwise
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public List<Output> getOutput() {
+        return output;
+    }
+}
@@ -0,0 +1,247 @@
+package com.hospital.service;
+
+import com.hospital.entity.PatientHealthMetric;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps export query rows to FHIR R4 style resources. Only the elements the hospital records are
+ * filled in; fields without a FHIR counterpart (blood group, prescription) are extensions under
+ * urn:hospital. References use the database ids, e.g. Patient/12.
+ */
+final class FhirResources {
+
+    private static final String LOINC = "http://loinc.org";
+    private static final String UCUM = "http://unitsofmeasure.org";
+
+    private FhirResources() {
+    }
+
+    static Map<String, Object> patient(ResultSet rs) throws SQLException {
+        Map<String, Object> resource = resource("Patient", rs.getInt("id"));
+        resource.put("name", List.of(Map.of("text", rs.getString("name"))));
+        List<Map<String, Object>> telecom = new ArrayList<>();
+        telecom.add(Map.of("system", "email", "value", rs.getString("email")));
+        putIfPresent(telecom, "phone", rs.getString("phone_number"));
+        resource.put("telecom", telecom);
+        putIfPresent(resource, "gender", gender(rs.getString("gender")));
+        putIfPresent(resource, "birthDate", date(rs.getDate("date_of_birth")));
+        if (rs.getString("address") != null) {
+            resource.put("address", List.of(Map.of("text", rs.getString("address"))));
+        }
+        if (rs.getString("emergency_contact") != null) {
+            resource.put("contact", List.of(Map.of(
+                    "relationship", List.of(Map.of("text", "Emergency contact")),
+                    "name", Map.of("text", rs.getString("emergency_contact")))));
+        }
+        if (rs.getString("blood_group") != null) {
+            resource.put("extension", List.of(extension("blood-group", rs.getString("blood_group"))));
+        }
+        return resource;
+    }
+
+    static Map<String, Object> practitioner(ResultSet rs) throws SQLException {
+        Map<String, Object> resource = resource("Practitioner", rs.getInt("id"));
+        resource.put("name", List.of(Map.of("text", rs.getString("name"))));
+        List<Map<String, Object>> telecom = new ArrayList<>();
+        telecom.add(Map.of("system", "email", "value", rs.getString("email")));
+        putIfPresent(telecom, "phone", rs.getString("phone_number"));
+        resource.put("telecom", telecom);
+        if (rs.getString("specialization") != null) {
+            resource.put("qualification", List.of(Map.of("code", Map.of("text", rs.getString("specialization")))));
+        }
+        return resource;
+    }
+
+    static Map<String, Object> appointment(ResultSet rs) throws SQLException {
+        Map<String, Object> resource = resource("Appointment", rs.getInt("id"));
+        resource.put("status", appointmentStatus(rs.getString("status")));
+        putIfPresent(resource, "description", rs.getString("notes"));
+        resource.put("start", date(rs.getDate("appointment_date")));
+        putIfPresent(resource, "created", dateTime(rs.getTimestamp("created_at")));
+        resource.put("participant", List.of(
+                Map.of("actor", reference("Patient", rs.getInt("patient_id")), "status", "accepted"),
+                Map.of("actor", reference("Practitioner", rs.getInt("doctor_id")), "status", "accepted")));
+        return resource;
+    }
+
+    static Map<String, Object> encounter(ResultSet rs) throws SQLException {
+        Map<String, Object> resource = resource("Encounter", rs.getInt("id"));
+        String status = rs.getString("status");
+        resource.put("status", "RESOLVED".equals(status) || "ARCHIVED".equals(status) ? "finished" : "in-progress");
+        resource.put("class", Map.of("code", "AMB", "display", "ambulatory"));
+        resource.put("subject", reference("Patient", rs.getInt("patient_id")));
+        resource.put("participant", List.of(Map.of("individual", reference("Practitioner", rs.getInt("doctor_id")))));
+        resource.put("period", Map.of("start", date(rs.getDate("visit_date"))));
+        if (rs.getString("diagnosis") != null) {
+            resource.put("reasonCode", List.of(Map.of("text", rs.getString("diagnosis"))));
+        }
+        if (rs.getString("prescription") != null) {
+            resource.put("extension", List.of(extension("prescription", rs.getString("prescription"))));
+        }
+        return resource;
+    }
+
+    static Map<String, Object> observation(ResultSet rs) throws SQLException {
+        Map<String, Object> resource = resource("Observation", rs.getInt("id"));
+        resource.put("status", "final");
+        PatientHealthMetric.MetricType type = PatientHealthMetric.MetricType.fromString(rs.getString("metric_type"));
+        resource.put("code", type != null ? code(loinc(type), type.name()) : Map.of("text", String.valueOf(rs.getString("metric_type"))));
+        resource.put("subject", reference("Patient", rs.getInt("patient_id")));
+        int recordId = rs.getInt("record_id");
+        if (!rs.wasNull()) {
+            resource.put("encounter", reference("Encounter", recordId));
+        }
+        int doctorId = rs.getInt("doctor_id");
+        if (!rs.wasNull()) {
+            resource.put("performer", List.of(reference("Practitioner", doctorId)));
+        }
+        putIfPresent(resource, "effectiveDateTime", date(rs.getDate("effective_date")));
+        int systolic = rs.getInt("systolic");
+        if (!rs.wasNull()) {
+            List<Map<String, Object>> components = new ArrayList<>();
+            components.add(Map.of("code", code("8480-6", "Systolic"), "valueQuantity", quantity(systolic, "mmHg")));
+            int diastolic = rs.getInt("diastolic");
+            if (!rs.wasNull()) {
+                components.add(Map.of("code", code("8462-4", "Diastolic"), "valueQuantity", quantity(diastolic, "mmHg")));
+            }
+            resource.put("component", components);
+        } else {
+            double value = rs.getDouble("numeric_value");
+            if (!rs.wasNull()) {
+                resource.put("valueQuantity", quantity(value, type != null ? type.getUnit() : null));
+            } else {
+                // Legacy readings that could not be parsed keep their text
+                putIfPresent(resource, "valueString", rs.getString("value"));
+            }
+        }
+        if (rs.getString("notes") != null) {
+            resource.put("note", List.of(Map.of("text", rs.getString("notes"))));
+        }
+        return resource;
+    }
+
+    static Map<String, Object> documentReference(ResultSet rs) throws SQLException {
+        int id = rs.getInt("id");
+        Map<String, Object> resource = resource("DocumentReference", id);
+        resource.put("status", "current");
+        resource.put("subject", reference("Patient", rs.getInt("patient_id")));
+        putIfPresent(resource, "date", dateTime(rs.getTimestamp("upload_date")));
+        resource.put("description", rs.getString("document_name"));
+        // Metadata only; the file itself stays behind the authenticated download endpoint
+        Map<String, Object> attachment = new LinkedHashMap<>();
+        attachment.put("contentType", rs.getString("document_type"));
+        attachment.put("title", rs.getString("document_name"));
+        attachment.put("url", "/api/documents/download/" + id);
+        resource.put("content", List.of(Map.of("attachment", attachment)));
+        int recordId = rs.getInt("record_id");
+        if (!rs.wasNull()) {
+            resource.put("context", Map.of("encounter", List.of(reference("Encounter", recordId))));
+        }
+        return resource;
+    }
+
+    private static Map<String, Object> resource(String type, int id) {
+        Map<String, Object> resource = new LinkedHashMap<>();
+        resource.put("resourceType", type);
+        resource.put("id", String.valueOf(id));
+        return resource;
+    }
+
+    private static Map<String, Object> reference(String type, int id) {
+        return Map.of("reference", type + "/" + id);
+    }
+
+    private static Map<String, Object> extension(String name, String value) {
+        return Map.of("url", "urn:hospital:" + name, "valueString", value);
+    }
+
+    private static Map<String, Object> code(String loinc, String text) {
+        if (loinc == null) {
+            return Map.of("text", text);
+        }
+        return Map.of("coding", List.of(Map.of("system", LOINC, "code", loinc)), "text", text);
+    }
+
+    private static Map<String, Object> quantity(Number value, String unit) {
+        Map<String, Object> quantity = new LinkedHashMap<>();
+        quantity.put("value", value);
+        if (unit != null) {
+            quantity.put("unit", unit);
+            quantity.put("system", UCUM);
+            quantity.put("code", ucum(unit));
+        }
+        return quantity;
+    }
+
+    private static String loinc(PatientHealthMetric.MetricType type) {
+        return switch (type) {
+            case WEIGHT -> "29463-7";
+            case BLOOD_PRESSURE -> "85354-9";
+            case HEART_RATE -> "8867-4";
+            case SPO2 -> "59408-5";
+            case GLUCOSE -> "2339-0";
+            case TEMPERATURE -> "8310-5";
+        };
+    }
+
+    private static String ucum(String unit) {
+        return switch (unit) {
+            case "mmHg" -> "mm[Hg]";
+            case "bpm" -> "/min";
+            case "°C" -> "Cel";
+            default -> unit;
+        };
+    }
+
+    private static String appointmentStatus(String status) {
+        if (status == null) {
+            return "booked";
+        }
+        return switch (status) {
+            case "COMPLETED" -> "fulfilled";
+            case "CANCELLED" -> "cancelled";
+            default -> "booked";
+        };
+    }
+
+    private static String gender(String gender) {
+        if (gender == null || gender.isBlank()) {
+            return null;
+        }
+        return switch (gender.trim().toLowerCase(Locale.ROOT)) {
+            case "male", "m" -> "male";
+            case "female", "f" -> "female";
+            case "other" -> "other";
+            default -> "unknown";
+        };
+    }
+
+    private static String date(Date date) {
+        return date != null ? date.toLocalDate().toString() : null;
+    }
+
+    private static String dateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private static void putIfPresent(List<Map<String, Object>> telecom, String system, String value) {
+        if (value != null) {
+            telecom.add(Map.of("system", system, "value", value));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.hospital.service;
+
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Moves health metrics and finished appointments older than the archive horizon from the live tables
+ * into patient_health_metrics_archive and appointment_archive, in batches of one transaction each.
+ * The live tables keep their foreign keys and stay small; the archive tables are partitioned by year
+ * on MySQL, and partitions are added here before rows of a new year arrive. Services read through
+ * to the archive for ranges that start before {@link #getCutoff()}.
+ */
+@Service
+public class HealthDataArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthDataArchiver.class);
+
+    /**
+     * A live table and its archive. The date expression is the partitioning column's value, the
+     * condition selects the rows that may be archived.
+     */
+    private record ArchivedTable(String table, String archive, String idColumn, String dateColumn,
+                                 String dateExpression, String columns, String condition) {
+    }
+
+    private static final ArchivedTable METRICS = new ArchivedTable(
+            "patient_health_metrics", "patient_health_metrics_archive", "metric_id", "measurement_date",
+            // Legacy rows may lack a measurement date; the record date stands in, as it does in charts
+            "COALESCE(measurement_date, record_date)",
+            "metric_id, patient_id, doctor_id, record_id, record_date, metric_type, numeric_value, systolic, "
+                    + "diastolic, value, weight, blood_pressure, heart_rate, notes, created_at",
+            "1 = 1");
+
+    private static final ArchivedTable APPOINTMENTS = new ArchivedTable(
+            "appointment", "appointment_archive", "appointment_id", "appointment_date", "appointment_date",
+            "appointment_id, patient_id, doctor_id, notes, status, created_at, created_by, updated_at, updated_by",
+            // Scheduled appointments stay live however old, so they can still be completed or cancelled
+            "status IN ('COMPLETED', 'CANCELLED')");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${hospital.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${hospital.archive.horizon-months:24}")
+    private int horizonMonths;
+
+    @Value("${hospital.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${hospital.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archive();
+        } catch (Exception e) {
+            logger.error("Archiving failed; rows moved so far stay archived", e);
+        }
+    }
+
+    /**
+     * Rows dated before this day may be in the archive: the first day of the month, horizon-months ago
+     */
+    public LocalDate getCutoff() {
+        return LocalDate.now().minusMonths(horizonMonths).withDayOfMonth(1);
+    }
+
+    /**
+     * Whether a range starting on this day needs to read the archive as well
+     */
+    public boolean isArchived(LocalDate from) {
+        return from != null && from.isBefore(getCutoff());
+    }
+
+    /**
+     * Archives everything older than the cutoff and returns the rows moved per table
+     */
+    public Map<String, Integer> archive() {
+        LocalDate cutoff = getCutoff();
+        Map<String, Integer> moved = new LinkedHashMap<>();
+        for (ArchivedTable table : List.of(METRICS, APPOINTMENTS)) {
+            long start = System.currentTimeMillis();
+            addPartitions(table, cutoff);
+            int rows = 0;
+            int batch;
+            do {
+                batch = moveBatch(table, cutoff);
+                rows += batch;
+            } while (batch == batchSize);
+            moved.put(table.table(), rows);
+            if (rows > 0) {
+                Metrics.counter("hospital.archive.rows", "table", table.table()).increment(rows);
+                logger.info("Archived {} rows of {} dated before {} in {} ms",
+                        rows, table.table(), cutoff, System.currentTimeMillis() - start);
+            }
+        }
+        return moved;
+    }
+
+    private int moveBatch(ArchivedTable table, LocalDate cutoff) {
+        return transactionTemplate.execute(status -> {
+            List<Integer> ids = jdbcTemplate.queryForList("SELECT " + table.idColumn() + " FROM " + table.table()
+                    + " WHERE " + table.dateExpression() + " < ? AND " + table.condition()
+                    + " ORDER BY " + table.idColumn() + " LIMIT ?", Integer.class, Date.valueOf(cutoff), batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            String idList = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            List<Object> args = new ArrayList<>();
+            args.add(Timestamp.valueOf(LocalDateTime.now()));
+            args.addAll(ids);
+            jdbcTemplate.update("INSERT INTO " + table.archive() + " (" + table.columns() + ", " + table.dateColumn()
+                    + ", archived_at) SELECT " + table.columns() + ", " + table.dateExpression() + ", ? FROM "
+                    + table.table() + " WHERE " + table.idColumn() + " IN (" + idList + ")", args.toArray());
+            jdbcTemplate.update("DELETE FROM " + table.table() + " WHERE " + table.idColumn()
+                    + " IN (" + idList + ")", ids.toArray());
+            return ids.size();
+        });
+    }
+
+    /**
+     * Splits yearly partitions off the catch-all p_max partition, up to the year before the cutoff.
+     * Only on MySQL; partitions are only ever added after the last existing one, so rows of earlier
+     * years than the first partition land in that partition.
+     */
+    private void addPartitions(ArchivedTable table, LocalDate cutoff) {
+        if (!isMySql()) {
+            return;
+        }
+        List<String> partitions = jdbcTemplate.queryForList("SELECT partition_name FROM information_schema.partitions "
+                + "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL",
+                String.class, table.archive());
+        if (!partitions.contains("p_max")) {
+            return;
+        }
+        LocalDate oldest = jdbcTemplate.queryForObject("SELECT MIN(" + table.dateExpression() + ") FROM "
+                + table.table() + " WHERE " + table.dateExpression() + " < ? AND " + table.condition(),
+                LocalDate.class, Date.valueOf(cutoff));
+        if (oldest == null) {
+            return;
+        }
+        int lastYear = partitions.stream()
+                .filter(name -> name.matches("p\\d{4}"))
+                .mapToInt(name -> Integer.parseInt(name.substring(1)))
+                .max().orElse(oldest.getYear() - 1);
+        int finalYear = cutoff.minusDays(1).getYear();
+        for (int year = lastYear + 1; year <= finalYear; year++) {
+            jdbcTemplate.execute("ALTER TABLE " + table.archive() + " REORGANIZE PARTITION p_max INTO ("
+                    + "PARTITION p" + year + " VALUES LESS THAN ('" + (year + 1) + "-01-01'), "
+                    + "PARTITION p_max VALUES LESS THAN (MAXVALUE))");
+            logger.info("Added partition p{} to {}", year, table.archive());
+        }
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase(Locale.ROOT).contains("mysql");
+    }
+}
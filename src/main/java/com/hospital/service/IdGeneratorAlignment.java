@@ -0,0 +1,62 @@
+package com.hospital.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Health metrics, documents, users and patients take their ids from blocks of the id_generators table
+ * instead of AUTO_INCREMENT, so that Hibernate can batch their inserts. Before Hibernate hands out the first
+ * block, this moves each generator past the highest id already in its table, so rows created with
+ * AUTO_INCREMENT are never reused. Runs once the schema exists and before the web server starts;
+ * a generator is only ever moved forward.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class IdGeneratorAlignment {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorAlignment.class);
+
+    // Must match allocationSize of the @TableGenerator mappings: Hibernate hands out the block
+    // (next_val - ALLOCATION_SIZE, next_val]
+    static final int ALLOCATION_SIZE = 50;
+
+    // Generator row (the table name) and its id column
+    private static final Map<String, String> ID_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        ID_COLUMNS.put("patient_health_metrics", "metric_id");
+        ID_COLUMNS.put("document", "document_id");
+        ID_COLUMNS.put("user", "user_id");
+        ID_COLUMNS.put("patient", "patient_id");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void align() {
+        ID_COLUMNS.forEach(this::align);
+    }
+
+    private void align(String table, String idColumn) {
+        long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+        long nextVal = maxId + ALLOCATION_SIZE;
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM id_generators WHERE sequence_name = ?", Integer.class, table);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?)", table, nextVal);
+            logger.info("Started id generator for {} after id {}", table, maxId);
+        } else if (jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                nextVal, table, nextVal) > 0) {
+            logger.info("Moved id generator for {} past id {}", table, maxId);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.hospital.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and outcome of one bulk import. Updated by the importing thread and read by the status
+ * endpoint while the import runs. Only the first max-errors row errors are kept; the failed count
+ * includes all of them.
+ */
+public class ImportJob {
+
+    public enum Kind {
+        PATIENTS, HEALTH_METRICS
+    }
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * A rejected row; line is where the row starts in the file
+     */
+    public record RowError(long line, String message) {
+    }
+
+    private final String id;
+    private final Kind kind;
+    private final String source;
+    private final int maxErrors;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile State state = State.RUNNING;
+    private volatile String failure;
+    private volatile LocalDateTime finishedAt;
+
+    ImportJob(String id, Kind kind, String source, int maxErrors) {
+        this.id = id;
+        this.kind = kind;
+        this.source = source;
+        this.maxErrors = maxErrors;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void imported(int rows) {
+        imported.addAndGet(rows);
+    }
+
+    void rowFailed(long line, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    void finish(String failure) {
+        this.failure = failure;
+        this.finishedAt = LocalDateTime.now();
+        this.state = failure == null ? State.COMPLETED : State.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Why the import stopped before the end of the file, e.g. malformed CSV; null otherwise
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
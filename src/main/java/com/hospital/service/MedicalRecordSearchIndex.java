@@ -0,0 +1,250 @@
+package com.hospital.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the diagnosis and prescription text of medical records.
+ * Maps each token to the posting list of record ids containing it. A query matches the
+ * records that contain every query token.
+ *
+ * The index is rebuilt from the database by {@link MedicalRecordService#rebuildSearchIndex()};
+ * individual records are added or replaced as they are saved. While a rebuild is running,
+ * incremental changes are applied to both the live and the new index so none are lost on swap.
+ */
+@Component
+public class MedicalRecordSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment live = new Segment();
+    private Segment building;
+    private volatile boolean ready;
+
+    /**
+     * Adds a record to the index, replacing whatever was indexed for it before
+     */
+    public void index(Integer recordId, String... texts) {
+        Set<String> tokens = tokenize(texts);
+        lock.writeLock().lock();
+        try {
+            live.put(recordId, tokens);
+            if (building != null) {
+                building.put(recordId, tokens);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a record from the index
+     */
+    public void remove(Integer recordId) {
+        lock.writeLock().lock();
+        try {
+            live.remove(recordId);
+            if (building != null) {
+                building.remove(recordId);
+                building.tombstones.add(recordId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of records containing every token of the query, newest (highest id) first
+     */
+    public List<Integer> search(String query, int limit) {
+        Set<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Set<Integer>> postings = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                Set<Integer> posting = live.postings.get(token);
+                if (posting == null) {
+                    return List.of();
+                }
+                postings.add(posting);
+            }
+            // Intersect starting from the rarest token to keep the candidate set small
+            postings.sort(Comparator.comparingInt(Set::size));
+            List<Integer> matches = new ArrayList<>();
+            for (Integer id : postings.get(0)) {
+                if (containedInAll(id, postings)) {
+                    matches.add(id);
+                }
+            }
+            matches.sort(Collections.reverseOrder());
+            return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts a rebuild. Records loaded from the database are then added with {@link #load}
+     * and the new index replaces the live one on {@link #finishRebuild()}. Only one rebuild runs
+     * at a time: a second one would replace the first one's partly loaded index.
+     *
+     * @return false if another rebuild is still running
+     */
+    public boolean startRebuild() {
+        lock.writeLock().lock();
+        try {
+            if (building != null) {
+                return false;
+            }
+            building = new Segment();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a record read by the rebuild. Records changed since the rebuild started keep their newer entry.
+     */
+    public void load(Integer recordId, String... texts) {
+        Set<String> tokens = tokenize(texts);
+        lock.writeLock().lock();
+        try {
+            if (building != null && !building.documents.containsKey(recordId)
+                    && !building.tombstones.contains(recordId)) {
+                building.put(recordId, tokens);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishRebuild() {
+        lock.writeLock().lock();
+        try {
+            if (building != null) {
+                building.tombstones.clear();
+                live = building;
+                building = null;
+                ready = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            building = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a full build has completed since startup
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return live.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return live.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cases and splits text on anything that is not a letter or digit
+     */
+    static Set<String> tokenize(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (token.length() >= MIN_TOKEN_LENGTH) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean containedInAll(Integer id, List<Set<Integer>> postings) {
+        for (int i = 1; i < postings.size(); i++) {
+            if (!postings.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Posting lists plus the forward token set per record, needed to unindex old text on update
+     */
+    private static final class Segment {
+        private final Map<String, Set<Integer>> postings = new HashMap<>();
+        private final Map<Integer, Set<String>> documents = new HashMap<>();
+        private final Set<Integer> tombstones = new HashSet<>();
+
+        void put(Integer recordId, Set<String> tokens) {
+            remove(recordId);
+            tombstones.remove(recordId);
+            documents.put(recordId, tokens);
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new HashSet<>()).add(recordId);
+            }
+        }
+
+        void remove(Integer recordId) {
+            Set<String> previous = documents.remove(recordId);
+            if (previous == null) {
+                return;
+            }
+            for (String token : previous) {
+                Set<Integer> posting = postings.get(token);
+                if (posting != null) {
+                    posting.remove(recordId);
+                    if (posting.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+}
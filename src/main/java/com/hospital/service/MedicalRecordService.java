@@ -1,26 +1,51 @@
 package com.hospital.service;
 
+import com.hospital.entity.ChangeLogEntry;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.MedicalRecord;
 import com.hospital.entity.Patient;
 import com.hospital.repository.MedicalRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class MedicalRecordService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MedicalRecordService.class);
+
+    private static final int INDEX_REBUILD_BATCH_SIZE = 1000;
+
     @Autowired
     private MedicalRecordRepository medicalRecordRepository;
 
+    @Autowired
+    private MedicalRecordSearchIndex searchIndex;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
     @Transactional
     public MedicalRecord createMedicalRecord(MedicalRecord medicalRecord) {
-        return medicalRecordRepository.save(medicalRecord);
+        MedicalRecord savedRecord = medicalRecordRepository.save(medicalRecord);
+        changeFeedService.record(ChangeLogEntry.EntityType.MEDICAL_RECORD, savedRecord.getId(), ChangeLogEntry.Operation.CREATED);
+        indexAfterCommit(savedRecord);
+        return savedRecord;
     }
 
     @Transactional
@@ -30,7 +55,10 @@ public class MedicalRecordService {
         medicalRecord.setDoctor(doctor);
         medicalRecord.setVisitDate(visitDate);
         medicalRecord.setPrescription(prescription);
-        return medicalRecordRepository.save(medicalRecord);
+        MedicalRecord savedRecord = medicalRecordRepository.save(medicalRecord);
+        changeFeedService.record(ChangeLogEntry.EntityType.MEDICAL_RECORD, savedRecord.getId(), ChangeLogEntry.Operation.CREATED);
+        indexAfterCommit(savedRecord);
+        return savedRecord;
     }
 
     @Transactional(readOnly = true)
@@ -60,21 +88,128 @@ public class MedicalRecordService {
 
     @Transactional
     public MedicalRecord updateMedicalRecord(MedicalRecord medicalRecord) {
-        return medicalRecordRepository.save(medicalRecord);
+        MedicalRecord savedRecord = medicalRecordRepository.save(medicalRecord);
+        changeFeedService.record(ChangeLogEntry.EntityType.MEDICAL_RECORD, savedRecord.getId(), ChangeLogEntry.Operation.UPDATED);
+        indexAfterCommit(savedRecord);
+        return savedRecord;
     }
 
     @Transactional
     public void deleteMedicalRecord(Integer id) {
         medicalRecordRepository.deleteById(id);
+        changeFeedService.record(ChangeLogEntry.EntityType.MEDICAL_RECORD, id, ChangeLogEntry.Operation.DELETED);
+        afterCommit(() -> searchIndex.remove(id));
+    }
+
+    /**
+     * Full-text search over diagnosis and prescription. Every word of the query must occur
+     * in the record. Falls back to a substring query until the index has been built.
+     */
+    @Transactional(readOnly = true)
+    public List<MedicalRecord> searchMedicalRecords(String query, int limit) {
+        if (!searchIndex.isReady()) {
+            return medicalRecordRepository.searchByDiagnosisOrPrescription(query.trim(), PageRequest.of(0, limit));
+        }
+
+        List<Integer> ids = searchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<MedicalRecord> records = new ArrayList<>(medicalRecordRepository.findAllById(ids));
+        records.sort(Comparator.comparing(MedicalRecord::getId).reversed());
+        return records;
+    }
+
+    /**
+     * Rebuilds the search index from the database in keyset-paged batches
+     *
+     * @return number of records indexed
+     * @throws IllegalStateException if a rebuild is already running
+     */
+    public int rebuildSearchIndex() {
+        long start = System.currentTimeMillis();
+        int indexed = 0;
+        if (!searchIndex.startRebuild()) {
+            throw new IllegalStateException("A search index rebuild is already running");
+        }
+        try {
+            Integer lastId = 0;
+            List<MedicalRecord> batch;
+            do {
+                batch = medicalRecordRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(INDEX_REBUILD_BATCH_SIZE));
+                for (MedicalRecord record : batch) {
+                    searchIndex.load(record.getId(), record.getDiagnosis(), record.getPrescription());
+                    lastId = record.getId();
+                }
+                indexed += batch.size();
+            } while (batch.size() == INDEX_REBUILD_BATCH_SIZE);
+            searchIndex.finishRebuild();
+        } catch (RuntimeException e) {
+            searchIndex.abortRebuild();
+            throw e;
+        }
+        logger.info("Medical record search index rebuilt: {} records, {} terms in {} ms",
+                indexed, searchIndex.getTermCount(), System.currentTimeMillis() - start);
+        return indexed;
+    }
+
+    /**
+     * Initial build. A failure must not stop the application: searches fall back to the database
+     * until a later rebuild succeeds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndexOnStartup() {
+        rebuildQuietly("startup");
+    }
+
+    /**
+     * Nightly rebuild; also picks up changes made outside this application
+     */
+    @Scheduled(cron = "${hospital.search.rebuild-cron:0 0 3 * * *}")
+    public void scheduledSearchIndexRebuild() {
+        rebuildQuietly("nightly");
+    }
+
+    private void rebuildQuietly(String trigger) {
+        try {
+            rebuildSearchIndex();
+        } catch (IllegalStateException e) {
+            logger.info("Skipping the {} search index rebuild: {}", trigger, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("The {} search index rebuild failed", trigger, e);
+        }
     }
 
     @Transactional(readOnly = true)
     public List<MedicalRecord> getRecentMedicalRecordsByPatient(Patient patient, int limit) {
-        List<MedicalRecord> allRecords = medicalRecordRepository.findByPatientOrderByVisitDateDesc(patient);
-        
-        // Return up to 'limit' records
-        return allRecords.stream()
-                .limit(limit)
-                .collect(java.util.stream.Collectors.toList());
-    }
-}
\ No newline at end of file
+        return medicalRecordRepository.findByPatientOrderByVisitDateDesc(patient, Limit.of(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public long countMedicalRecordsByPatient(Patient patient) {
+        return medicalRecordRepository.countByPatient(patient);
+    }
+
+    private void indexAfterCommit(MedicalRecord record) {
+        Integer id = record.getId();
+        String diagnosis = record.getDiagnosis();
+        String prescription = record.getPrescription();
+        afterCommit(() -> searchIndex.index(id, diagnosis, prescription));
+    }
+
+    /**
+     * Runs the action once the surrounding transaction commits, so rolled back changes never reach the index
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,19 +1,28 @@
 package com.hospital.service;
 
+import com.hospital.config.Bulkhead;
+import com.hospital.dto.HealthMetricChartData;
+import com.hospital.entity.ChangeLogEntry;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.MedicalRecord;
 import com.hospital.entity.Patient;
 import com.hospital.entity.PatientHealthMetric;
+import com.hospital.repository.ArchivedHealthMetricRepository;
 import com.hospital.repository.PatientHealthMetricRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +35,26 @@ public class PatientHealthMetricService {
     @Autowired
     private PatientHealthMetricRepository healthMetricRepository;
 
+    @Autowired
+    private ArchivedHealthMetricRepository archivedHealthMetricRepository;
+
+    @Autowired
+    private HealthDataArchiver healthDataArchiver;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private VitalsStreamService vitalsStreamService;
+
+    @Autowired
+    private VitalsAlertService vitalsAlertService;
+
+    // Rendering is CPU bound; limits concurrent renders independently of the number of request threads
+    @Autowired
+    @Qualifier("chartBulkhead")
+    private Bulkhead chartBulkhead;
+
     @Transactional
     public PatientHealthMetric createHealthMetric(PatientHealthMetric healthMetric) {
         // Set measurement date if not provided
@@ -37,21 +66,25 @@ public class PatientHealthMetricService {
         // Set metricType based on what values are available
         if (healthMetric.getMetricType() == null) {
             if (healthMetric.getWeight() != null) {
-                healthMetric.setMetricType("WEIGHT");
-                healthMetric.setValue(String.valueOf(healthMetric.getWeight()));
+                healthMetric.setMetricType(PatientHealthMetric.MetricType.WEIGHT);
             } else if (healthMetric.getBloodPressure() != null) {
-                healthMetric.setMetricType("BLOOD_PRESSURE");
-                healthMetric.setValue(String.valueOf(healthMetric.getBloodPressure()));
+                healthMetric.setMetricType(PatientHealthMetric.MetricType.BLOOD_PRESSURE);
             } else if (healthMetric.getHeartRate() != null) {
-                healthMetric.setMetricType("HEART_RATE");
-                healthMetric.setValue(String.valueOf(healthMetric.getHeartRate()));
+                healthMetric.setMetricType(PatientHealthMetric.MetricType.HEART_RATE);
             }
         }
+        healthMetric.normalizeValues();
+        boolean isNew = healthMetric.getId() == null;
         
         logger.info("Creating health metric: type={}, value={}, measurementDate={}", 
-                healthMetric.getMetricType(), healthMetric.getValue(), healthMetric.getMeasurementDate());
+                healthMetric.getMetricType(), healthMetric.getDisplayValue(), healthMetric.getMeasurementDate());
                 
-        return healthMetricRepository.save(healthMetric);
+        PatientHealthMetric saved = healthMetricRepository.save(healthMetric);
+        changeFeedService.record(ChangeLogEntry.EntityType.HEALTH_METRIC, saved.getId(),
+                isNew ? ChangeLogEntry.Operation.CREATED : ChangeLogEntry.Operation.UPDATED);
+        vitalsStreamService.publish(List.of(saved));
+        vitalsAlertService.submit(List.of(saved));
+        return saved;
     }
     
     @Transactional
@@ -71,6 +104,7 @@ public class PatientHealthMetricService {
         metric.setMedicalRecord(medicalRecord);
         metric.setRecordDate(recordDate != null ? recordDate : LocalDate.now());
         metric.setMeasurementDate(recordDate != null ? recordDate : LocalDate.now());
+        List<PatientHealthMetric> created = new ArrayList<>();
         
         // Store all values consistently
         if (weight != null) {
@@ -83,11 +117,11 @@ public class PatientHealthMetricService {
             weightMetric.setMedicalRecord(medicalRecord);
             weightMetric.setRecordDate(metric.getRecordDate());
             weightMetric.setMeasurementDate(metric.getMeasurementDate());
-            weightMetric.setMetricType("WEIGHT");
-            weightMetric.setValue(String.valueOf(weight));
-            weightMetric.setWeight(weight);
+            weightMetric.setMetricType(PatientHealthMetric.MetricType.WEIGHT);
+            weightMetric.setNumericValue(weight);
             weightMetric.setNotes("Weight measurement: " + weight + " kg");
             healthMetricRepository.save(weightMetric);
+            created.add(weightMetric);
         }
         
         if (bloodPressure != null) {
@@ -100,11 +134,11 @@ public class PatientHealthMetricService {
             bpMetric.setMedicalRecord(medicalRecord);
             bpMetric.setRecordDate(metric.getRecordDate());
             bpMetric.setMeasurementDate(metric.getMeasurementDate());
-            bpMetric.setMetricType("BLOOD_PRESSURE");
-            bpMetric.setValue(String.valueOf(bloodPressure));
-            bpMetric.setBloodPressure(bloodPressure);
+            bpMetric.setMetricType(PatientHealthMetric.MetricType.BLOOD_PRESSURE);
+            bpMetric.setSystolic(bloodPressure);
             bpMetric.setNotes("Blood pressure measurement: " + bloodPressure + " mmHg");
             healthMetricRepository.save(bpMetric);
+            created.add(bpMetric);
         }
         
         if (heartRate != null) {
@@ -117,16 +151,23 @@ public class PatientHealthMetricService {
             hrMetric.setMedicalRecord(medicalRecord);
             hrMetric.setRecordDate(metric.getRecordDate());
             hrMetric.setMeasurementDate(metric.getMeasurementDate());
-            hrMetric.setMetricType("HEART_RATE");
-            hrMetric.setValue(String.valueOf(heartRate));
-            hrMetric.setHeartRate(heartRate);
+            hrMetric.setMetricType(PatientHealthMetric.MetricType.HEART_RATE);
+            hrMetric.setNumericValue(heartRate.doubleValue());
             hrMetric.setNotes("Heart rate measurement: " + heartRate + " bpm");
             healthMetricRepository.save(hrMetric);
+            created.add(hrMetric);
         }
         
         metric.setNotes(notes);
         
-        return healthMetricRepository.save(metric);
+        PatientHealthMetric saved = healthMetricRepository.save(metric);
+        created.add(metric);
+        // The new ids are on the instances, which save persists
+        changeFeedService.recordAll(ChangeLogEntry.EntityType.HEALTH_METRIC,
+                created.stream().map(PatientHealthMetric::getId).toList(), ChangeLogEntry.Operation.CREATED);
+        vitalsStreamService.publish(created);
+        vitalsAlertService.submit(created);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -145,166 +186,73 @@ public class PatientHealthMetricService {
     }
 
     /**
-     * Get formatted chart data for a patient's health metrics
+     * Readings of one type in a date range, oldest first. Reads the archive as well when the range
+     * starts before the archive cutoff.
      */
     @Transactional(readOnly = true)
-    public Map<String, Object> getPatientHealthMetricsChartData(Patient patient) {
-        Map<String, Object> chartData = new HashMap<>();
-        
+    public List<PatientHealthMetric> findMetricsInRange(Patient patient, PatientHealthMetric.MetricType metricType,
+                                                        LocalDate startDate, LocalDate endDate) {
+        List<PatientHealthMetric> live = healthMetricRepository
+                .findByPatientAndMetricTypeAndMeasurementDateBetweenOrderByMeasurementDateAsc(
+                        patient, metricType, startDate, endDate);
+        if (!healthDataArchiver.isArchived(startDate)) {
+            return live;
+        }
+        // Archived readings all predate the live ones
+        List<PatientHealthMetric> metrics = new ArrayList<>();
+        archivedHealthMetricRepository
+                .findByPatientIdAndMetricTypeAndMeasurementDateBetweenOrderByMeasurementDateAsc(
+                        patient.getId(), metricType, startDate, endDate)
+                .forEach(archived -> metrics.add(archived.toHealthMetric(patient)));
+        metrics.addAll(live);
+        return metrics;
+    }
+
+    /**
+     * Get chart series for a patient's health metrics, built in a single pass over the readings
+     */
+    @Transactional(readOnly = true)
+    public HealthMetricChartData getPatientHealthMetricsChartData(Patient patient) {
         try {
-            // Get all metrics for the patient
             List<PatientHealthMetric> allMetrics = getHealthMetricsByPatient(patient);
+            if (allMetrics == null || allMetrics.isEmpty()) {
+                return HealthMetricChartData.empty();
+            }
             
-            if (allMetrics != null && !allMetrics.isEmpty()) {
-                // Filter metrics by type
-                List<PatientHealthMetric> weightMetrics = allMetrics.stream()
-                    .filter(m -> "WEIGHT".equals(m.getMetricType()))
-                    .sorted((m1, m2) -> m1.getMeasurementDate().compareTo(m2.getMeasurementDate()))
-                    .collect(java.util.stream.Collectors.toList());
-                
-                List<PatientHealthMetric> bpMetrics = allMetrics.stream()
-                    .filter(m -> "BLOOD_PRESSURE".equals(m.getMetricType()))
-                    .sorted((m1, m2) -> m1.getMeasurementDate().compareTo(m2.getMeasurementDate()))
-                    .collect(java.util.stream.Collectors.toList());
-                
-                List<PatientHealthMetric> hrMetrics = allMetrics.stream()
-                    .filter(m -> "HEART_RATE".equals(m.getMetricType()))
-                    .sorted((m1, m2) -> m1.getMeasurementDate().compareTo(m2.getMeasurementDate()))
-                    .collect(java.util.stream.Collectors.toList());
-                
-                // Prepare weight data
-                if (!weightMetrics.isEmpty()) {
-                    String[] weightDates = new String[weightMetrics.size()];
-                    Double[] weights = new Double[weightMetrics.size()];
-                    
-                    for (int i = 0; i < weightMetrics.size(); i++) {
-                        PatientHealthMetric metric = weightMetrics.get(i);
-                        weightDates[i] = metric.getMeasurementDate().toString();
-                        
-                        // Try to get weight from value field first, then from weight field
-                        if (metric.getValue() != null && !metric.getValue().isEmpty()) {
-                            try {
-                                weights[i] = Double.parseDouble(metric.getValue());
-                        } catch (NumberFormatException e) {
-                                weights[i] = metric.getWeight(); // Fallback to weight field
-                            }
-                        } else {
-                            weights[i] = metric.getWeight();
-                        }
-                    }
-                    
-                    chartData.put("weightDates", weightDates);
-                    chartData.put("weights", weights);
-                } else {
-                    chartData.put("weightDates", new String[0]);
-                    chartData.put("weights", new Double[0]);
-                }
-                
-                // Prepare blood pressure data
-                if (!bpMetrics.isEmpty()) {
-                    String[] bpDates = new String[bpMetrics.size()];
-                    String[] bloodPressures = new String[bpMetrics.size()];
-                    
-                    for (int i = 0; i < bpMetrics.size(); i++) {
-                        PatientHealthMetric metric = bpMetrics.get(i);
-                        bpDates[i] = metric.getMeasurementDate().toString();
-                        
-                        // Blood pressure is typically stored in the value field
-                        if (metric.getValue() != null && !metric.getValue().isEmpty()) {
-                            bloodPressures[i] = metric.getValue();
-                        } else if (metric.getBloodPressure() != null) {
-                            bloodPressures[i] = metric.getBloodPressure().toString();
-                        } else {
-                            bloodPressures[i] = "N/A";
-                        }
-                    }
-                    
-                    chartData.put("bpDates", bpDates);
-                    chartData.put("bloodPressures", bloodPressures);
-                } else {
-                    chartData.put("bpDates", new String[0]);
-                    chartData.put("bloodPressures", new String[0]);
-                }
-                
-                // Prepare heart rate data
-                if (!hrMetrics.isEmpty()) {
-                    String[] hrDates = new String[hrMetrics.size()];
-                    Integer[] heartRates = new Integer[hrMetrics.size()];
-                    
-                    for (int i = 0; i < hrMetrics.size(); i++) {
-                        PatientHealthMetric metric = hrMetrics.get(i);
-                        hrDates[i] = metric.getMeasurementDate().toString();
-                        
-                        // Try to get heart rate from value field first, then from heartRate field
-                        if (metric.getValue() != null && !metric.getValue().isEmpty()) {
-                            try {
-                                heartRates[i] = Integer.parseInt(metric.getValue().trim());
-                            } catch (NumberFormatException e) {
-                                heartRates[i] = metric.getHeartRate(); // Fallback to heartRate field
-                            }
-                        } else {
-                            heartRates[i] = metric.getHeartRate();
-                        }
-                    }
-                    
-                    chartData.put("hrDates", hrDates);
-                    chartData.put("heartRates", heartRates);
-                } else {
-                    chartData.put("hrDates", new String[0]);
-                    chartData.put("heartRates", new Integer[0]);
-                }
-                
-                // For backward compatibility
-                chartData.put("dates", allMetrics.stream()
-                    .map(m -> m.getMeasurementDate().toString())
-                    .toArray(String[]::new));
-            } else {
-                // Add empty data
-                chartData.put("weightDates", new String[0]);
-                chartData.put("weights", new Double[0]);
-                chartData.put("bpDates", new String[0]);
-                chartData.put("bloodPressures", new String[0]);
-                chartData.put("hrDates", new String[0]);
-                chartData.put("heartRates", new Integer[0]);
-                chartData.put("dates", new String[0]);
+            HealthMetricChartData.Builder builder = HealthMetricChartData.builder(allMetrics.size());
+            for (PatientHealthMetric metric : allMetrics) {
+                builder.add(metric);
             }
+            return builder.build();
         } catch (Exception e) {
             logger.error("Error generating health metrics chart data", e);
-            // Add empty data in case of error
-            chartData.put("weightDates", new String[0]);
-            chartData.put("weights", new Double[0]);
-            chartData.put("bpDates", new String[0]);
-            chartData.put("bloodPressures", new String[0]);
-            chartData.put("hrDates", new String[0]);
-            chartData.put("heartRates", new Integer[0]);
-            chartData.put("dates", new String[0]);
+            return HealthMetricChartData.empty();
         }
-        
-        return chartData;
     }
 
     /**
      * Generate a chart image for the patient's health metrics and return the URL path
      * 
      * @param patient the patient
-     * @param metricType the metric type (WEIGHT, BLOOD_PRESSURE, HEART_RATE)
+     * @param metricType the metric type to chart
      * @param startDate start date for chart data
      * @param endDate end date for chart data
      * @return URL path to the generated chart image
      * @throws IOException if there's an error generating the chart
      */
     @Transactional(readOnly = true)
-    public String generateMetricChart(Patient patient, String metricType, LocalDate startDate, LocalDate endDate) {
+    public String generateMetricChart(Patient patient, PatientHealthMetric.MetricType metricType,
+                                      LocalDate startDate, LocalDate endDate) {
+        Timer.Sample renderSample = Timer.start(Metrics.globalRegistry);
         try {
             logger.info("Generating chart for patient ID: {}, metric type: {}, date range: {} to {}", 
                 patient.getId(), metricType, startDate, endDate);
                 
             // Find health metrics of the given type within the date range
-            List<PatientHealthMetric> metrics = healthMetricRepository.findByPatientAndMetricTypeAndMeasurementDateBetweenOrderByMeasurementDateAsc(
-                    patient, metricType, startDate, endDate);
+            List<PatientHealthMetric> metrics = findMetricsInRange(patient, metricType, startDate, endDate);
             
             if (metrics == null || metrics.isEmpty()) {
-                logger.info("No metrics found with measurement date range, trying alternative queries");
+                logger.debug("No metrics found with measurement date range, trying alternative queries");
                 // If no metrics with measurement date range, try to use all metrics of this type
                 // get all metrics for this patient of this type and filter manually
                 metrics = healthMetricRepository.findByPatientAndMetricTypeOrderByMeasurementDateDesc(patient, metricType);
@@ -317,7 +265,7 @@ public class PatientHealthMetricService {
             }
             
             if (metrics == null || metrics.isEmpty()) {
-                logger.info("Still no metrics found, trying with record_date instead");
+                logger.debug("Still no metrics found, trying with record_date instead");
                 // If still no metrics, try using record_date instead of measurement_date
                 metrics = healthMetricRepository.findByPatient(patient);
                 metrics = metrics.stream()
@@ -328,7 +276,7 @@ public class PatientHealthMetricService {
             
             // If we still have no data, try to fetch all metrics of this type regardless of date
             if (metrics == null || metrics.isEmpty()) {
-                logger.info("Trying to fetch all metrics of type {} regardless of date", metricType);
+                logger.debug("Trying to fetch all metrics of type {} regardless of date", metricType);
                 metrics = healthMetricRepository.findByPatientAndMetricTypeOrderByMeasurementDateDesc(patient, metricType);
                 if (metrics == null || metrics.isEmpty()) {
                     logger.warn("No health metrics found for patient {} of type {}", patient.getId(), metricType);
@@ -336,13 +284,15 @@ public class PatientHealthMetricService {
                 }
             }
             
-            logger.info("Found {} metrics for chart generation", metrics.size());
+            logger.debug("Found {} metrics for chart generation", metrics.size());
             
             // Dump data for debugging
-            for (PatientHealthMetric metric : metrics) {
-                logger.debug("Metric data: type={}, value={}, date={}", 
-                    metric.getMetricType(), metric.getValue(),
-                    metric.getMeasurementDate() != null ? metric.getMeasurementDate() : metric.getRecordDate());
+            if (logger.isTraceEnabled()) {
+                for (PatientHealthMetric metric : metrics) {
+                    logger.trace("Metric data: type={}, value={}, date={}", 
+                        metric.getMetricType(), metric.getDisplayValue(),
+                        metric.getMeasurementDate() != null ? metric.getMeasurementDate() : metric.getRecordDate());
+                }
             }
             
             // Create dataset for the chart
@@ -368,94 +318,26 @@ public class PatientHealthMetricService {
                 if (dateToUse != null) {
                     String dateStr = dateToUse.format(dateFormatter);
                     
-                    try {
-                        switch (metricType) {
-                            case "WEIGHT":
-                                // Try to get value from the value field first
-                                if (metric.getValue() != null && !metric.getValue().isEmpty()) {
-                                    try {
-                                    double weight = Double.parseDouble(metric.getValue());
-                                    dataset.addValue(weight, "Weight", dateStr);
-                                        dataAdded = true;
-                                        logger.debug("Added weight data point: {} on {}", weight, dateStr);
-                                    } catch (NumberFormatException e) {
-                                        logger.warn("Invalid weight value format: {}", metric.getValue());
-                                    }
-                                } 
-                                // Fall back to the weight field if value is not set
-                                else if (metric.getWeight() != null) {
-                                    dataset.addValue(metric.getWeight(), "Weight", dateStr);
-                                    dataAdded = true;
-                                    logger.debug("Added weight data point from weight field: {} on {}", metric.getWeight(), dateStr);
-                                }
-                                break;
-                                
-                            case "BLOOD_PRESSURE":
-                                // Try value field first - blood pressure is usually stored as "systolic/diastolic"
-                                if (metric.getValue() != null && metric.getValue().contains("/")) {
-                                    String[] parts = metric.getValue().split("/");
-                                    if (parts.length == 2) {
-                                        try {
-                                        int systolic = Integer.parseInt(parts[0].trim());
-                                        int diastolic = Integer.parseInt(parts[1].trim());
-                                            
-                                            // For blood pressure, we want to show both systolic and diastolic values
-                                        dataset.addValue(systolic, "Systolic", dateStr);
-                                        dataset.addValue(diastolic, "Diastolic", dateStr);
-                                            dataAdded = true;
-                                            
-                                            logger.debug("Added blood pressure data points: {}/{} on {}", 
-                                                systolic, diastolic, dateStr);
-                                        } catch (NumberFormatException e) {
-                                            logger.warn("Invalid blood pressure format: {}", metric.getValue());
-                                        }
-                                    }
-                                }
-                                // Fall back to bloodPressure field if available
-                                else if (metric.getBloodPressure() != null) {
-                                    dataset.addValue(metric.getBloodPressure(), "Blood Pressure", dateStr);
-                                    dataAdded = true;
-                                    logger.debug("Added blood pressure data point from field: {} on {}", 
-                                        metric.getBloodPressure(), dateStr);
-                                } 
-                                // For blood pressure, also try the value field directly as a number
-                                else if (metric.getValue() != null && !metric.getValue().isEmpty()) {
-                                    try {
-                                        int bp = Integer.parseInt(metric.getValue().trim());
-                                        dataset.addValue(bp, "Blood Pressure", dateStr);
-                                        dataAdded = true;
-                                        logger.debug("Added blood pressure data point from value as number: {} on {}", 
-                                            bp, dateStr);
-                                    } catch (NumberFormatException e) {
-                                        logger.warn("Could not parse blood pressure value: {}", metric.getValue());
-                                    }
-                                }
-                                break;
-                                
-                            case "HEART_RATE":
-                                // Try value field first
-                                if (metric.getValue() != null && !metric.getValue().isEmpty()) {
-                                    try {
-                                        int heartRate = Integer.parseInt(metric.getValue().trim());
-                                    dataset.addValue(heartRate, "Heart Rate", dateStr);
-                                        dataAdded = true;
-                                        logger.debug("Added heart rate data point: {} on {}", heartRate, dateStr);
-                                    } catch (NumberFormatException e) {
-                                        logger.warn("Invalid heart rate format: {}", metric.getValue());
-                                    }
-                                }
-                                // Fall back to heartRate field
-                                else if (metric.getHeartRate() != null) {
-                                    dataset.addValue(metric.getHeartRate(), "Heart Rate", dateStr);
-                                    dataAdded = true;
-                                    logger.debug("Added heart rate data point from field: {} on {}", 
-                                        metric.getHeartRate(), dateStr);
-                                }
-                                break;
-                        }
-                    } catch (Exception e) {
-                        // Log the error but continue processing other metrics
-                        logger.error("Error processing metric: {}", e.getMessage(), e);
+                    // Values are read from the numeric columns; readings without one are skipped
+                    switch (metricType) {
+                        case BLOOD_PRESSURE:
+                            if (metric.getSystolic() != null && metric.getDiastolic() != null) {
+                                // For blood pressure, we want to show both systolic and diastolic values
+                                dataset.addValue(metric.getSystolic(), "Systolic", dateStr);
+                                dataset.addValue(metric.getDiastolic(), "Diastolic", dateStr);
+                                dataAdded = true;
+                            } else if (metric.getSystolic() != null) {
+                                dataset.addValue(metric.getSystolic(), "Blood Pressure", dateStr);
+                                dataAdded = true;
+                            }
+                            break;
+                            
+                        default:
+                            if (metric.getNumericValue() != null) {
+                                dataset.addValue(metric.getNumericValue(), getSeriesName(metricType), dateStr);
+                                dataAdded = true;
+                            }
+                            break;
                     }
                 }
             }
@@ -504,7 +386,7 @@ public class PatientHealthMetricService {
                 renderer.setDefaultShape(new java.awt.geom.Ellipse2D.Double(-5, -5, 10, 10));
                 
                 // Customize weight chart display
-                if ("WEIGHT".equals(metricType)) {
+                if (metricType == PatientHealthMetric.MetricType.WEIGHT) {
                     // Set Y-axis range to make weight data more visible
                     org.jfree.chart.axis.NumberAxis rangeAxis = (org.jfree.chart.axis.NumberAxis) plot.getRangeAxis();
                     
@@ -533,7 +415,7 @@ public class PatientHealthMetricService {
                         // Set the range with padding
                         rangeAxis.setRange(Math.max(0, min - padding), max + padding);
                         
-                        logger.info("Setting axis range for {} chart: min={}, max={}, with padding", 
+                        logger.debug("Setting axis range for {} chart: min={}, max={}, with padding", 
                             metricType, min - padding, max + padding);
                     } else {
                         // Default sensible range for weight if no data found
@@ -546,7 +428,7 @@ public class PatientHealthMetricService {
                 }
                 
                 // Customize blood pressure chart
-                if ("BLOOD_PRESSURE".equals(metricType)) {
+                if (metricType == PatientHealthMetric.MetricType.BLOOD_PRESSURE) {
                     org.jfree.chart.axis.NumberAxis rangeAxis = (org.jfree.chart.axis.NumberAxis) plot.getRangeAxis();
                     
                     // Typical blood pressure ranges (add padding)
@@ -570,7 +452,7 @@ public class PatientHealthMetricService {
                 }
                 
                 // Customize heart rate chart
-                if ("HEART_RATE".equals(metricType)) {
+                if (metricType == PatientHealthMetric.MetricType.HEART_RATE) {
                     org.jfree.chart.axis.NumberAxis rangeAxis = (org.jfree.chart.axis.NumberAxis) plot.getRangeAxis();
                     
                     // Typical heart rate ranges (add padding)
@@ -583,25 +465,27 @@ public class PatientHealthMetricService {
                 // Add a legend
                 chart.getLegend().setFrame(org.jfree.chart.block.BlockBorder.NONE);
                 
-                logger.info("Dataset summary for {}: rows={}, columns={}, total values={}", 
+                logger.debug("Dataset summary for {}: rows={}, columns={}, total values={}", 
                     metricType, dataset.getRowCount(), dataset.getColumnCount(), 
                     dataset.getRowCount() * dataset.getColumnCount());
                 
-                // Log detailed dataset info for debugging
-                StringBuilder dataPoints = new StringBuilder("Dataset values:\n");
-                for (int row = 0; row < dataset.getRowCount(); row++) {
-                    String series = (String) dataset.getRowKey(row);
-                    dataPoints.append("Series: ").append(series).append("\n");
+                // Log detailed dataset info for debugging; only built when trace logging is on
+                if (logger.isTraceEnabled()) {
+                    StringBuilder dataPoints = new StringBuilder("Dataset values:\n");
+                    for (int row = 0; row < dataset.getRowCount(); row++) {
+                        String series = (String) dataset.getRowKey(row);
+                        dataPoints.append("Series: ").append(series).append("\n");
                     
-                    for (int col = 0; col < dataset.getColumnCount(); col++) {
-                        String category = (String) dataset.getColumnKey(col);
-                        Number value = dataset.getValue(row, col);
-                        if (value != null) {
-                            dataPoints.append("  ").append(category).append(": ").append(value).append("\n");
+                        for (int col = 0; col < dataset.getColumnCount(); col++) {
+                            String category = (String) dataset.getColumnKey(col);
+                            Number value = dataset.getValue(row, col);
+                            if (value != null) {
+                                dataPoints.append("  ").append(category).append(": ").append(value).append("\n");
+                            }
                         }
                     }
+                    logger.trace(dataPoints.toString());
                 }
-                logger.info(dataPoints.toString());
             } catch (Exception e) {
                 logger.error("Error customizing chart: {}", e.getMessage(), e);
             }
@@ -610,14 +494,14 @@ public class PatientHealthMetricService {
                 // Ensure the charts directory exists
             String chartsDirPath = "src/main/resources/static/images/charts/";
             java.io.File chartsDir = new java.io.File(chartsDirPath);
-                logger.info("Attempting to use charts directory: {}", chartsDir.getAbsolutePath());
+                logger.debug("Attempting to use charts directory: {}", chartsDir.getAbsolutePath());
                 
                 // Try creating the directory if it doesn't exist
                 if (!chartsDir.exists()) {
                     boolean created = chartsDir.mkdirs();
-                    logger.info("Chart directory created: {}, exists now: {}", created, chartsDir.exists());
+                    logger.debug("Chart directory created: {}, exists now: {}", created, chartsDir.exists());
                 } else {
-                    logger.info("Chart directory already exists: {}", chartsDir.exists());
+                    logger.debug("Chart directory already exists: {}", chartsDir.exists());
                 }
 
                 // Check if the directory is writable
@@ -629,24 +513,30 @@ public class PatientHealthMetricService {
                     chartsDir = new java.io.File(chartsDirPath);
             if (!chartsDir.exists()) {
                         boolean created = chartsDir.mkdirs();
-                        logger.info("Alternative chart directory created: {}", created);
+                        logger.debug("Alternative chart directory created: {}", created);
                     }
-                    logger.info("Using alternative chart directory: {}", chartsDir.getAbsolutePath());
+                    logger.debug("Using alternative chart directory: {}", chartsDir.getAbsolutePath());
             }
             
                 // Generate unique filename with timestamp to avoid browser caching
             String filename = String.format("%s_%s_%d.png", 
                 patient.getId(),
-                metricType.toLowerCase(),
+                metricType.name().toLowerCase(),
                 System.currentTimeMillis()
             );
             
             // Save chart as PNG image
                 java.io.File outputFile = new java.io.File(chartsDir, filename);
-                logger.info("Writing chart to file: {}", outputFile.getAbsolutePath());
+                logger.debug("Writing chart to file: {}", outputFile.getAbsolutePath());
                 
                 try {
-            org.jfree.chart.ChartUtils.saveChartAsPNG(outputFile, chart, 800, 400);
+                    chartBulkhead.run(() -> {
+                        try {
+                            org.jfree.chart.ChartUtils.saveChartAsPNG(outputFile, chart, 800, 400);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
                     logger.info("Chart file successfully written: {}, exists: {}, size: {} bytes", 
                         outputFile.getAbsolutePath(), 
                         outputFile.exists(),
@@ -656,6 +546,7 @@ public class PatientHealthMetricService {
                         logger.error("Failed to create chart image or image is empty: {}", outputFile.getAbsolutePath());
                         return null;
                     }
+                    recordChartRender(renderSample, metricType, outputFile.length());
                 } catch (Exception e) {
                     logger.error("Error saving chart to file: {}", e.getMessage(), e);
                     return null;
@@ -674,27 +565,47 @@ public class PatientHealthMetricService {
         }
     }
 
+    /**
+     * Time from loading the readings to the written PNG, and the size of the image
+     */
+    private void recordChartRender(Timer.Sample sample, PatientHealthMetric.MetricType metricType, long bytes) {
+        String type = metricType != null ? metricType.name() : "UNKNOWN";
+        sample.stop(Timer.builder("hospital.chart.render")
+                .description("Time to query, render and write a health metric chart")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry));
+        DistributionSummary.builder("hospital.chart.bytes")
+                .description("Size of rendered chart images")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .register(Metrics.globalRegistry)
+                .record(bytes);
+    }
+
     /**
      * Get the appropriate chart title based on metric type
      */
-    private String getChartTitle(String metricType) {
-        switch (metricType) {
-            case "WEIGHT": return "Weight History";
-            case "BLOOD_PRESSURE": return "Blood Pressure History";
-            case "HEART_RATE": return "Heart Rate History";
-            default: return metricType + " History";
-        }
+    private String getChartTitle(PatientHealthMetric.MetricType metricType) {
+        return getSeriesName(metricType) + " History";
     }
 
     /**
      * Get the appropriate Y-axis label based on metric type
      */
-    private String getYAxisLabel(String metricType) {
+    private String getYAxisLabel(PatientHealthMetric.MetricType metricType) {
+        return getSeriesName(metricType) + " (" + metricType.getUnit() + ")";
+    }
+
+    private String getSeriesName(PatientHealthMetric.MetricType metricType) {
         switch (metricType) {
-            case "WEIGHT": return "Weight (kg)";
-            case "BLOOD_PRESSURE": return "Blood Pressure (mmHg)";
-            case "HEART_RATE": return "Heart Rate (bpm)";
-            default: return "Value";
+            case WEIGHT: return "Weight";
+            case BLOOD_PRESSURE: return "Blood Pressure";
+            case HEART_RATE: return "Heart Rate";
+            case SPO2: return "SpO2";
+            case GLUCOSE: return "Glucose";
+            case TEMPERATURE: return "Temperature";
+            default: return metricType.name();
         }
     }
 
@@ -703,11 +614,6 @@ public class PatientHealthMetricService {
      */
     @Transactional(readOnly = true)
     public List<PatientHealthMetric> getRecentHealthMetricsByPatient(Patient patient, int limit) {
-        List<PatientHealthMetric> allMetrics = healthMetricRepository.findByPatientOrderByRecordDateDesc(patient);
-        
-        // Return up to 'limit' metrics
-        return allMetrics.stream()
-                .limit(limit)
-                .collect(java.util.stream.Collectors.toList());
+        return healthMetricRepository.findByPatientOrderByRecordDateDesc(patient, Limit.of(limit));
     }
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.hospital.service;
 
+import com.hospital.dto.HealthMetricChartData;
 import com.hospital.entity.Appointment;
 import com.hospital.entity.Patient;
 import com.hospital.entity.Role;
@@ -8,21 +9,40 @@ import com.hospital.repository.PatientRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class PatientService {
     private static final Logger logger = LoggerFactory.getLogger(PatientService.class);
 
+    // Number of upcoming appointments listed on the patient dashboard
+    private static final int DASHBOARD_LIST_SIZE = 5;
+
+    private static final String STATUS_OK = "OK";
+    private static final String STATUS_TIMEOUT = "TIMEOUT";
+    private static final String STATUS_FAILED = "FAILED";
+
     @Autowired
     private PatientRepository patientRepository;
 
@@ -38,6 +58,17 @@ public class PatientService {
     @Autowired
     private PatientHealthMetricService healthMetricService;
 
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private Executor dashboardExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Time allowed for all dashboard sections, measured from the start of the request
+    @Value("${hospital.dashboard.section-timeout-ms:2000}")
+    private long sectionTimeoutMs;
+
     // --- CRUD Operations ---
 
     @Transactional
@@ -209,81 +240,145 @@ public class PatientService {
     
     // --- Patient Dashboard Data ---
     
-    @Transactional(readOnly = true)
+    /**
+     * Assembles the patient dashboard. The independent sections are loaded concurrently on the
+     * dashboard executor, each in its own read-only transaction, and share one deadline. A section
+     * that fails or misses the deadline is replaced by an empty value and the response is marked
+     * partial; per-section status and timings are reported under "meta".
+     */
     public Map<String, Object> getPatientDashboardData(Patient patient) {
+        long startedAt = System.nanoTime();
         Map<String, Object> dashboardData = new HashMap<>();
+        Map<String, Object> sections = new LinkedHashMap<>();
         
-        try {
-            // Add user information
-            dashboardData.put("patient", patient);
-            dashboardData.put("user", patient.getUser());
-            
-            // Get appointment data from AppointmentService
-            List<Appointment> appointments = appointmentService.getAppointmentsByPatient(patient);
-            
-            // Filter upcoming appointments
-            List<Appointment> upcomingAppointments = appointmentService.getUpcomingAppointmentsForPatient(patient);
-            
-            dashboardData.put("upcomingAppointments", upcomingAppointments.size());
-            dashboardData.put("upcomingAppointmentsList", upcomingAppointments);
-            
-            // Get medical records count
-            int medicalRecordsCount = medicalRecordService.getMedicalRecordsByPatient(patient).size();
-            dashboardData.put("totalRecords", medicalRecordsCount);
-            
-            // Add health metrics data
-            Map<String, Object> healthMetricsData = healthMetricService.getPatientHealthMetricsChartData(patient);
-            dashboardData.put("healthMetrics", healthMetricsData);
-            
-            // Get latest values for common metrics from chart data
-            try {
-                Double[] weights = (Double[]) healthMetricsData.get("weights");
-                if (weights != null && weights.length > 0) {
-                    dashboardData.put("latestWeight", weights[weights.length - 1]);
-                }
-            } catch (Exception e) {
-                logger.warn("Error getting latest weight for patient {}: {}", patient.getId(), e.getMessage());
-            }
-            
-            try {
-                String[] bloodPressures = (String[]) healthMetricsData.get("bloodPressures");
-                if (bloodPressures != null && bloodPressures.length > 0) {
-                    String bpString = bloodPressures[bloodPressures.length - 1];
-                    // For backward compatibility with code expecting integer value
-                    if (bpString != null && !bpString.contains("/")) {
-                        try {
-                            int bpValue = Integer.parseInt(bpString.trim());
-                            dashboardData.put("latestBloodPressure", bpValue);
-                        } catch (NumberFormatException nfe) {
-                            // Just use the string value
-                            dashboardData.put("latestBloodPressureText", bpString);
-                        }
-                    } else {
-                        dashboardData.put("latestBloodPressureText", bpString);
-                    }
+        // Add user information
+        dashboardData.put("patient", patient);
+        dashboardData.put("user", patient.getUser());
+        
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+        DashboardSection<Long> upcomingCount = startSection("upcomingAppointments", deadline,
+                () -> appointmentService.countUpcomingAppointmentsForPatient(patient));
+        DashboardSection<List<Appointment>> upcomingList = startSection("upcomingAppointmentsList", deadline,
+                () -> appointmentService.getUpcomingAppointmentsForPatient(patient, DASHBOARD_LIST_SIZE));
+        DashboardSection<Long> recordCount = startSection("totalRecords", deadline,
+                () -> medicalRecordService.countMedicalRecordsByPatient(patient));
+        DashboardSection<HealthMetricChartData> healthMetrics = startSection("healthMetrics", deadline,
+                () -> healthMetricService.getPatientHealthMetricsChartData(patient));
+        
+        dashboardData.put("upcomingAppointments", awaitSection(upcomingCount, deadline, 0L, patient, sections));
+        dashboardData.put("upcomingAppointmentsList", awaitSection(upcomingList, deadline, List.of(), patient, sections));
+        dashboardData.put("totalRecords", awaitSection(recordCount, deadline, 0L, patient, sections));
+        HealthMetricChartData healthMetricsData =
+                awaitSection(healthMetrics, deadline, HealthMetricChartData.empty(), patient, sections);
+        dashboardData.put("healthMetrics", healthMetricsData);
+        
+        addLatestMetricValues(dashboardData, healthMetricsData);
+        
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("partial", sections.values().stream()
+                .anyMatch(section -> !STATUS_OK.equals(((Map<?, ?>) section).get("status"))));
+        meta.put("totalMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        meta.put("sections", sections);
+        dashboardData.put("meta", meta);
+        
+        return dashboardData;
+    }
+    
+    /**
+     * Get latest values for common metrics from chart data
+     */
+    private void addLatestMetricValues(Map<String, Object> dashboardData, HealthMetricChartData healthMetricsData) {
+        healthMetricsData.latestWeight().ifPresent(weight -> dashboardData.put("latestWeight", weight));
+        healthMetricsData.latestHeartRate().ifPresent(heartRate -> dashboardData.put("latestHeartRate", heartRate));
+        
+        healthMetricsData.latestBloodPressure().ifPresent(bpString -> {
+            // For backward compatibility with code expecting integer value
+            if (!bpString.contains("/")) {
+                try {
+                    dashboardData.put("latestBloodPressure", Integer.parseInt(bpString.trim()));
+                    return;
+                } catch (NumberFormatException nfe) {
+                    // Just use the string value
                 }
-            } catch (Exception e) {
-                logger.warn("Error getting latest blood pressure for patient {}: {}", patient.getId(), e.getMessage());
             }
-            
-            try {
-                Integer[] heartRates = (Integer[]) healthMetricsData.get("heartRates");
-                if (heartRates != null && heartRates.length > 0) {
-                    dashboardData.put("latestHeartRate", heartRates[heartRates.length - 1]);
+            dashboardData.put("latestBloodPressureText", bpString);
+        });
+    }
+    
+    private <T> DashboardSection<T> startSection(String name, long deadline, Supplier<T> loader) {
+        DashboardSection<T> section = new DashboardSection<>(name);
+        try {
+            section.future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return loadBefore(deadline, loader);
+                } finally {
+                    section.finishedAt = System.nanoTime();
                 }
-            } catch (Exception e) {
-                logger.warn("Error getting latest heart rate for patient {}: {}", patient.getId(), e.getMessage());
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error generating patient dashboard data for patient {}: ", patient.getId(), e);
-            // Ensure minimum data is available
-            dashboardData.put("patient", patient);
-            dashboardData.put("upcomingAppointments", 0);
-            dashboardData.put("upcomingAppointmentsList", List.of());
-            dashboardData.put("totalRecords", 0);
+            }, dashboardExecutor);
+        } catch (RejectedExecutionException e) {
+            // Executor saturated: report the section as failed instead of running it on the request thread
+            section.future = CompletableFuture.failedFuture(e);
+        }
+        return section;
+    }
+    
+    /**
+     * Runs a section in a read-only transaction that times out at the deadline. A CompletableFuture
+     * cannot interrupt the section once the request stops waiting for it; the transaction timeout
+     * instead becomes the query timeout of every statement the section runs, so the database cancels
+     * a slow query and the pool thread is freed.
+     */
+    private <T> T loadBefore(long deadline, Supplier<T> loader) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            throw new IllegalStateException("Dashboard deadline passed before the section started");
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        // Transaction timeouts are whole seconds
+        transaction.setTimeout((int) Math.max(1, (remainingMs + 999) / 1000));
+        return transaction.execute(status -> loader.get());
+    }
+    
+    private <T> T awaitSection(DashboardSection<T> section, long deadline, T fallback, Patient patient,
+                               Map<String, Object> sections) {
+        String status;
+        T value = fallback;
+        try {
+            value = section.future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            status = STATUS_OK;
+        } catch (TimeoutException e) {
+            // Left running; its queries are cancelled at the transaction timeout (see loadBefore)
+            status = STATUS_TIMEOUT;
+            logger.warn("Dashboard section {} for patient {} timed out after {} ms",
+                    section.name, patient.getId(), sectionTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = STATUS_FAILED;
+        } catch (ExecutionException e) {
+            status = STATUS_FAILED;
+            logger.error("Error loading dashboard section {} for patient {}: ", section.name, patient.getId(), e.getCause());
         }
         
-        return dashboardData;
+        long finishedAt = section.finishedAt != 0 ? section.finishedAt : System.nanoTime();
+        Map<String, Object> timing = new LinkedHashMap<>();
+        timing.put("status", status);
+        timing.put("durationMs", TimeUnit.NANOSECONDS.toMillis(finishedAt - section.startedAt));
+        sections.put(section.name, timing);
+        return value;
+    }
+    
+    /**
+     * One concurrently loaded part of the dashboard
+     */
+    private static final class DashboardSection<T> {
+        private final String name;
+        private final long startedAt = System.nanoTime();
+        private volatile long finishedAt;
+        private CompletableFuture<T> future;
+        
+        private DashboardSection(String name) {
+            this.name = name;
+        }
     }
-}
\ No newline at end of file
+}
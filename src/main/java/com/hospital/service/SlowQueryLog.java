@@ -0,0 +1,108 @@
+package com.hospital.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Ring buffer of the most recent SQL statements that took longer than the slow-query threshold.
+ * Statements are stored by shape: literals replaced with ? and IN lists collapsed, so the same
+ * query with different arguments is recognisable. Oldest entries are overwritten when full.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * One slow execution; request is the "METHOD /uri" that issued it, or null outside a request
+     */
+    public record SlowQuery(LocalDateTime executedAt, long durationMs, String sql, String request, String thread) {
+    }
+
+    private final SlowQuery[] entries;
+    private final long thresholdNanos;
+    private int next;
+    private int size;
+
+    public SlowQueryLog(@Value("${hospital.sql.slow-query.capacity:100}") int capacity,
+                        @Value("${hospital.sql.slow-query.threshold-ms:100}") long thresholdMs) {
+        this.entries = new SlowQuery[Math.max(1, capacity)];
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    /**
+     * Cheap check so callers only build the entry for statements that are actually slow
+     */
+    public boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    public void record(String sql, long nanos, String request) {
+        if (!isSlow(nanos)) {
+            return;
+        }
+        SlowQuery query = new SlowQuery(LocalDateTime.now(), TimeUnit.NANOSECONDS.toMillis(nanos), shape(sql),
+                request, Thread.currentThread().getName());
+        synchronized (entries) {
+            entries[next] = query;
+            next = (next + 1) % entries.length;
+            size = Math.min(size + 1, entries.length);
+        }
+    }
+
+    /**
+     * The buffered slow queries, slowest first
+     */
+    public List<SlowQuery> getSlowestQueries() {
+        List<SlowQuery> queries = new ArrayList<>(entries.length);
+        synchronized (entries) {
+            for (int i = 0; i < size; i++) {
+                queries.add(entries[i]);
+            }
+        }
+        queries.sort(Comparator.comparingLong(SlowQuery::durationMs).reversed());
+        return queries;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            Arrays.fill(entries, null);
+            next = 0;
+            size = 0;
+        }
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    public long getThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Normalizes a statement to its shape, e.g. {@code where id in (1, 2, 3) and name = 'x'}
+     * becomes {@code where id in (?...) and name = ?}
+     */
+    static String shape(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String shaped = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shaped = NUMBER_LITERAL.matcher(shaped).replaceAll("?");
+        shaped = IN_LIST.matcher(shaped).replaceAll("in (?...)");
+        return WHITESPACE.matcher(shaped).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
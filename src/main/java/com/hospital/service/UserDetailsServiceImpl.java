@@ -41,9 +41,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         List<SimpleGrantedAuthority> authorities = new ArrayList<>();
         
         for (Role role : user.getRoles()) {
-            String roleName = "ROLE_" + role.getName().name();
-            logger.debug("Adding authority: {} for user: {}", roleName, username);
-            authorities.add(new SimpleGrantedAuthority(roleName));
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName().name()));
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Granted authorities {} to user: {}", authorities, username);
         }
         
         return org.springframework.security.core.userdetails.User
@@ -0,0 +1,324 @@
+package com.hospital.service;
+
+import com.hospital.dto.VitalsAlert;
+import com.hospital.entity.PatientHealthMetric;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks new health metric readings for abnormal vitals. Readings are handed to the single alert thread
+ * once their transaction commits, through a bounded queue, so the write path only pays for the hand-off;
+ * when the queue is full readings are counted as dropped rather than slowing down the writer.
+ * <p>
+ * The alert thread keeps the last window-size readings of each metric of each patient in a
+ * {@link VitalsWindow} and applies three rules per reading: a critical threshold, a largest allowed
+ * rise or fall within a period, and sustained readings outside the normal range. Each rule alerts at
+ * most once per cooldown for a patient and metric. Alerts are sent as "alert" events on the vitals
+ * stream and emailed to the reading's doctor and the configured recipients.
+ */
+@Service
+public class VitalsAlertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalsAlertService.class);
+
+    /**
+     * Limits of one metric type; NaN where the rule does not apply. Blood pressure limits are systolic.
+     * maxRise and maxFall are the largest changes allowed within changePeriod.
+     */
+    record Limits(double criticalLow, double criticalHigh, double normalLow, double normalHigh,
+                  double maxRise, double maxFall, Duration changePeriod) {
+    }
+
+    private static final Map<PatientHealthMetric.MetricType, Limits> LIMITS =
+            new EnumMap<>(PatientHealthMetric.MetricType.class);
+
+    static {
+        LIMITS.put(PatientHealthMetric.MetricType.HEART_RATE,
+                new Limits(40, 130, 50, 100, 30, 30, Duration.ofHours(1)));
+        LIMITS.put(PatientHealthMetric.MetricType.BLOOD_PRESSURE,
+                new Limits(90, 180, 100, 140, 40, 40, Duration.ofHours(1)));
+        LIMITS.put(PatientHealthMetric.MetricType.SPO2,
+                new Limits(88, Double.NaN, 94, Double.NaN, Double.NaN, 5, Duration.ofHours(1)));
+        LIMITS.put(PatientHealthMetric.MetricType.TEMPERATURE,
+                new Limits(35, 39.5, 36, 38, 1.5, 1.5, Duration.ofHours(4)));
+        LIMITS.put(PatientHealthMetric.MetricType.GLUCOSE,
+                new Limits(54, 300, 70, 180, 100, 100, Duration.ofHours(1)));
+        // Weight is only watched for fast gains or losses, e.g. fluid retention
+        LIMITS.put(PatientHealthMetric.MetricType.WEIGHT,
+                new Limits(Double.NaN, Double.NaN, Double.NaN, Double.NaN, 2, 2, Duration.ofDays(3)));
+    }
+
+    private static final int DIASTOLIC_CRITICAL_HIGH = 120;
+
+    /**
+     * The values of one reading the rules need, taken while its transaction is open
+     */
+    record Reading(Integer metricId, Integer patientId, Integer doctorId, PatientHealthMetric.MetricType type,
+                   double value, double diastolic, long time) {
+    }
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private VitalsStreamService vitalsStreamService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    @Qualifier("alertExecutor")
+    private TaskExecutor alertExecutor;
+
+    @Value("${hospital.alerts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hospital.alerts.window-size:20}")
+    private int windowSize;
+
+    @Value("${hospital.alerts.sustained-count:3}")
+    private int sustainedCount;
+
+    @Value("${hospital.alerts.cooldown-minutes:30}")
+    private long cooldownMinutes;
+
+    @Value("${hospital.alerts.max-patients:10000}")
+    private int maxPatients;
+
+    @Value("${hospital.alerts.email-doctor:true}")
+    private boolean emailDoctor;
+
+    @Value("${hospital.alerts.email-recipients:}")
+    private String[] emailRecipients;
+
+    // Only used on the alert thread; the least recently measured patients are forgotten first
+    private final Map<Integer, Map<PatientHealthMetric.MetricType, VitalsWindow>> windows =
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<Integer, Map<PatientHealthMetric.MetricType, VitalsWindow>> eldest) {
+                    return size() > maxPatients;
+                }
+            };
+
+    private final Counter dropped = Counter.builder("hospital.alerts.dropped")
+            .description("Readings not checked for alerts because the alert queue was full")
+            .register(Metrics.globalRegistry);
+    private final Timer evaluation = Timer.builder("hospital.alerts.evaluation")
+            .description("Time to apply the alert rules to one reading")
+            .register(Metrics.globalRegistry);
+
+    /**
+     * Queues the readings for the alert rules once the caller's transaction commits. Readings without a
+     * metric type or value are skipped.
+     */
+    public void submit(Collection<PatientHealthMetric> readings) {
+        if (!enabled) {
+            return;
+        }
+        List<Reading> batch = new ArrayList<>(readings.size());
+        for (PatientHealthMetric metric : readings) {
+            Reading reading = toReading(metric);
+            if (reading != null) {
+                batch.add(reading);
+            }
+        }
+        if (!batch.isEmpty()) {
+            afterCommit(() -> enqueue(batch));
+        }
+    }
+
+    /**
+     * Adds the reading to its window and returns the alerts it raises. Runs on the alert thread.
+     */
+    List<VitalsAlert> evaluate(Reading reading) {
+        Limits limits = LIMITS.get(reading.type());
+        if (limits == null) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        VitalsWindow window = windows
+                .computeIfAbsent(reading.patientId(), id -> new EnumMap<>(PatientHealthMetric.MetricType.class))
+                .computeIfAbsent(reading.type(), type -> new VitalsWindow(windowSize));
+        window.add(reading.time(), reading.value());
+
+        List<VitalsAlert> alerts = new ArrayList<>(1);
+        String name = describe(reading.type());
+        String unit = " " + reading.type().getUnit();
+        double value = reading.value();
+        if (value < limits.criticalLow()) {
+            raise(alerts, window, reading, VitalsAlert.Rule.THRESHOLD,
+                    name + " " + format(value) + unit + " is below " + format(limits.criticalLow()) + unit);
+        } else if (value > limits.criticalHigh()) {
+            raise(alerts, window, reading, VitalsAlert.Rule.THRESHOLD,
+                    name + " " + format(value) + unit + " is above " + format(limits.criticalHigh()) + unit);
+        } else if (reading.diastolic() > DIASTOLIC_CRITICAL_HIGH) {
+            raise(alerts, window, reading, VitalsAlert.Rule.THRESHOLD, "Diastolic blood pressure "
+                    + format(reading.diastolic()) + unit + " is above " + DIASTOLIC_CRITICAL_HIGH + unit);
+        }
+
+        if (window.lastAllAbove(sustainedCount, limits.normalHigh())) {
+            raise(alerts, window, reading, VitalsAlert.Rule.SUSTAINED, name + " above " + format(limits.normalHigh())
+                    + unit + " for the last " + sustainedCount + " readings, latest " + format(value) + unit);
+        } else if (window.lastAllBelow(sustainedCount, limits.normalLow())) {
+            raise(alerts, window, reading, VitalsAlert.Rule.SUSTAINED, name + " below " + format(limits.normalLow())
+                    + unit + " for the last " + sustainedCount + " readings, latest " + format(value) + unit);
+        }
+
+        long period = limits.changePeriod().toMillis();
+        double rise = window.riseWithin(period);
+        double fall = window.fallWithin(period);
+        if (rise >= limits.maxRise()) {
+            raise(alerts, window, reading, VitalsAlert.Rule.RATE_OF_CHANGE, name + " rose " + format(rise) + unit
+                    + " within " + describe(limits.changePeriod()) + " to " + format(value) + unit);
+        } else if (fall >= limits.maxFall()) {
+            raise(alerts, window, reading, VitalsAlert.Rule.RATE_OF_CHANGE, name + " fell " + format(fall) + unit
+                    + " within " + describe(limits.changePeriod()) + " to " + format(value) + unit);
+        }
+        evaluation.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return alerts;
+    }
+
+    private void enqueue(List<Reading> batch) {
+        try {
+            alertExecutor.execute(() -> evaluateAll(batch));
+        } catch (TaskRejectedException e) {
+            dropped.increment(batch.size());
+            logger.warn("Alert queue full; {} readings were not checked", batch.size());
+        }
+    }
+
+    private void evaluateAll(List<Reading> batch) {
+        for (Reading reading : batch) {
+            for (VitalsAlert alert : evaluate(reading)) {
+                try {
+                    deliver(alert, reading.doctorId());
+                } catch (RuntimeException e) {
+                    logger.error("Could not deliver vitals alert for patient {}", alert.patientId(), e);
+                }
+            }
+        }
+    }
+
+    private void raise(List<VitalsAlert> alerts, VitalsWindow window, Reading reading, VitalsAlert.Rule rule,
+                       String message) {
+        if (!window.tryAlert(rule, reading.time(), TimeUnit.MINUTES.toMillis(cooldownMinutes))) {
+            return;
+        }
+        alerts.add(new VitalsAlert(reading.patientId(), reading.metricId(), reading.type(), rule, reading.value(),
+                reading.type().getUnit(), message, LocalDateTime.now()));
+    }
+
+    private void deliver(VitalsAlert alert, Integer doctorId) {
+        Metrics.counter("hospital.alerts.raised", "rule", alert.rule().name(), "type", alert.metricType().name())
+                .increment();
+        logger.warn("Vitals alert for patient {}: {}", alert.patientId(), alert.message());
+        vitalsStreamService.publishAlert(alert);
+
+        Set<String> recipients = new LinkedHashSet<>();
+        for (String recipient : emailRecipients) {
+            if (!recipient.isBlank()) {
+                recipients.add(recipient.trim());
+            }
+        }
+        if (emailDoctor && doctorId != null) {
+            doctorService.getDoctorById(doctorId).map(doctor -> doctor.getUser().getEmail()).ifPresent(recipients::add);
+        }
+        for (String recipient : recipients) {
+            emailService.sendEmail(recipient, "Vitals alert for patient " + alert.patientId(),
+                    alert.message() + ".\n\nReading " + alert.metricId() + ", raised at " + alert.raisedAt() + ".");
+        }
+    }
+
+    private static Reading toReading(PatientHealthMetric metric) {
+        if (metric.getMetricType() == null || metric.getPatient() == null) {
+            return null;
+        }
+        double value;
+        double diastolic = Double.NaN;
+        if (metric.getMetricType() == PatientHealthMetric.MetricType.BLOOD_PRESSURE) {
+            if (metric.getSystolic() == null) {
+                return null;
+            }
+            value = metric.getSystolic();
+            if (metric.getDiastolic() != null) {
+                diastolic = metric.getDiastolic();
+            }
+        } else if (metric.getNumericValue() != null) {
+            value = metric.getNumericValue();
+        } else {
+            return null;
+        }
+        long time = metric.getCreatedAt() != null
+                ? metric.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        return new Reading(metric.getId(), metric.getPatient().getId(),
+                metric.getDoctor() != null ? metric.getDoctor().getId() : null,
+                metric.getMetricType(), value, diastolic, time);
+    }
+
+    private static String describe(PatientHealthMetric.MetricType type) {
+        switch (type) {
+            case HEART_RATE: return "Heart rate";
+            case BLOOD_PRESSURE: return "Systolic blood pressure";
+            case SPO2: return "SpO2";
+            case TEMPERATURE: return "Temperature";
+            case GLUCOSE: return "Glucose";
+            case WEIGHT: return "Weight";
+            default: return type.name();
+        }
+    }
+
+    private static String describe(Duration period) {
+        long hours = period.toHours();
+        if (hours % 24 == 0) {
+            return hours / 24 == 1 ? "a day" : hours / 24 + " days";
+        }
+        return hours == 1 ? "an hour" : hours + " hours";
+    }
+
+    private static String format(double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Runs the action once the surrounding transaction commits, so rolled back readings are never checked
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.dto.DtoMapper;
+import com.hospital.dto.HealthMetricResponse;
+import com.hospital.dto.VitalsAlert;
+import com.hospital.entity.PatientHealthMetric;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes new health metric readings and abnormal-vitals alerts to Server-Sent Events subscribers, e.g.
+ * nurse station screens that each watch a set of patients. When the transaction that saved a reading
+ * commits, the reading is serialized once and put into the buffer of every subscriber watching its
+ * patient; the vitals pool writes each buffer to its connection, so a slow screen only delays itself.
+ * A subscriber whose buffer fills up is disconnected; like any EventSource it reconnects and reloads
+ * its patients.
+ */
+@Service
+public class VitalsStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalsStreamService.class);
+
+    public static final String READING_EVENT = "reading";
+    public static final String ALERT_EVENT = "alert";
+
+    // Queued when the buffer is empty; sent as an SSE comment that keeps idle connections open
+    private static final Event HEARTBEAT = new Event(null, null);
+
+    private record Event(String name, String data) {
+    }
+
+    private final Map<Integer, Set<Subscriber>> watchers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Counter sent = Counter.builder("hospital.vitals.sent")
+            .description("Readings and alerts written to vitals stream subscribers")
+            .register(Metrics.globalRegistry);
+    private final Counter overflows = Counter.builder("hospital.vitals.overflows")
+            .description("Vitals stream subscribers disconnected because their buffer was full")
+            .register(Metrics.globalRegistry);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("vitalsExecutor")
+    private TaskExecutor vitalsExecutor;
+
+    @Value("${hospital.vitals.buffer-size:100}")
+    private int bufferSize;
+
+    @Value("${hospital.vitals.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${hospital.vitals.max-patients:100}")
+    private int maxPatients;
+
+    @Value("${hospital.vitals.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public VitalsStreamService() {
+        Gauge.builder("hospital.vitals.subscribers", subscribers, Set::size)
+                .description("Open vitals stream connections")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Opens a stream of the readings of the given patients saved from now on
+     *
+     * @throws IllegalArgumentException if no or more than max-patients patients are given
+     * @throws IllegalStateException if max-subscribers streams are already open
+     */
+    public SseEmitter subscribe(Collection<Integer> patientIds) {
+        if (patientIds == null || patientIds.isEmpty() || patientIds.size() > maxPatients) {
+            throw new IllegalArgumentException("Watch between 1 and " + maxPatients + " patients");
+        }
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many open vitals streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(patientIds), new ArrayBlockingQueue<>(bufferSize));
+        subscribers.add(subscriber);
+        for (Integer patientId : subscriber.patientIds) {
+            watchers.compute(patientId, (id, watching) -> {
+                Set<Subscriber> set = watching != null ? watching : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        logger.debug("Vitals stream opened for patients {}", subscriber.patientIds);
+        return emitter;
+    }
+
+    /**
+     * Sends the readings to their patients' subscribers once the caller's transaction commits. Readings
+     * without a metric type (the combined row written by recordHealthMetrics) and readings of patients
+     * nobody watches are skipped without being mapped.
+     */
+    public void publish(Collection<PatientHealthMetric> readings) {
+        if (watchers.isEmpty()) {
+            return;
+        }
+        // Mapped now, while lazy associations can still be loaded, and only for watched patients
+        List<HealthMetricResponse> responses = new ArrayList<>();
+        for (PatientHealthMetric reading : readings) {
+            if (reading.getMetricType() != null && reading.getPatient() != null
+                    && watchers.containsKey(reading.getPatient().getId())) {
+                responses.add(DtoMapper.toHealthMetric(reading));
+            }
+        }
+        if (!responses.isEmpty()) {
+            afterCommit(() -> responses.forEach(response -> dispatch(response.patientId(), READING_EVENT, response)));
+        }
+    }
+
+    /**
+     * Sends an abnormal-vitals alert to the subscribers watching its patient
+     */
+    public void publishAlert(VitalsAlert alert) {
+        dispatch(alert.patientId(), ALERT_EVENT, alert);
+    }
+
+    @Scheduled(fixedDelayString = "${hospital.vitals.heartbeat-ms:20000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.buffer.isEmpty()) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void dispatch(Integer patientId, String name, Object data) {
+        Set<Subscriber> watching = watchers.get(patientId);
+        if (watching == null || watching.isEmpty()) {
+            return;
+        }
+        Event event;
+        try {
+            event = new Event(name, objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize {} event for patient {}", name, patientId, e);
+            return;
+        }
+        for (Subscriber subscriber : watching) {
+            subscriber.offer(event);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Integer patientId : subscriber.patientIds) {
+            watchers.computeIfPresent(patientId, (id, watching) -> {
+                watching.remove(subscriber);
+                return watching.isEmpty() ? null : watching;
+            });
+        }
+        logger.debug("Vitals stream closed for patients {}", subscriber.patientIds);
+    }
+
+    /**
+     * Runs the action once the surrounding transaction commits, so rolled back readings are never sent
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * One open stream. At most one drain task per subscriber is queued or running, so the pool needs no
+     * more queue capacity than there are subscribers.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Integer> patientIds;
+        private final BlockingQueue<Event> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<Integer> patientIds, BlockingQueue<Event> buffer) {
+            this.emitter = emitter;
+            this.patientIds = patientIds;
+            this.buffer = buffer;
+        }
+
+        void offer(Event event) {
+            if (!buffer.offer(event)) {
+                overflows.increment();
+                logger.warn("Vitals stream for patients {} fell {} events behind; disconnecting", patientIds, bufferSize);
+                close(null);
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                vitalsExecutor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                draining.set(false);
+                close(e);
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while ((event = buffer.poll()) != null) {
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                        sent.increment();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream was already completed
+                close(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close(Exception failure) {
+            unsubscribe(this);
+            buffer.clear();
+            if (failure != null) {
+                emitter.completeWithError(failure);
+            } else {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.hospital.service;
+
+import com.hospital.dto.VitalsAlert;
+
+/**
+ * The latest readings of one metric of one patient, the oldest overwritten first. Values and times are
+ * kept in primitive arrays, so adding a reading and scanning the window allocate nothing. Not
+ * thread-safe: only the alert thread uses it.
+ */
+final class VitalsWindow {
+
+    private final double[] values;
+    private final long[] times;
+    // Slot the next reading goes into
+    private int next;
+    private int size;
+    // When each rule last raised an alert for this window, in epoch milliseconds
+    private final long[] alertedAt = new long[VitalsAlert.Rule.values().length];
+
+    VitalsWindow(int capacity) {
+        this.values = new double[Math.max(2, capacity)];
+        this.times = new long[values.length];
+    }
+
+    void add(long time, double value) {
+        values[next] = value;
+        times[next] = time;
+        next = (next + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The i-th newest value, 0 being the latest
+     */
+    double value(int i) {
+        return values[index(i)];
+    }
+
+    long time(int i) {
+        return times[index(i)];
+    }
+
+    /**
+     * Whether the newest count readings are all above the bound; false while fewer are held
+     */
+    boolean lastAllAbove(int count, double bound) {
+        if (count > size) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!(value(i) > bound)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the newest count readings are all below the bound; false while fewer are held
+     */
+    boolean lastAllBelow(int count, double bound) {
+        if (count > size) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!(value(i) < bound)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * How far the latest reading is above the lowest reading taken at most periodMs before it; 0 if none
+     * is lower
+     */
+    double riseWithin(long periodMs) {
+        double rise = 0;
+        for (int i = 1; i < size && time(0) - time(i) <= periodMs; i++) {
+            rise = Math.max(rise, value(0) - value(i));
+        }
+        return rise;
+    }
+
+    /**
+     * How far the latest reading is below the highest reading taken at most periodMs before it; 0 if none
+     * is higher
+     */
+    double fallWithin(long periodMs) {
+        double fall = 0;
+        for (int i = 1; i < size && time(0) - time(i) <= periodMs; i++) {
+            fall = Math.max(fall, value(i) - value(0));
+        }
+        return fall;
+    }
+
+    /**
+     * Records an alert of the rule at the given time unless the rule already alerted within cooldownMs
+     *
+     * @return true if the alert should be raised
+     */
+    boolean tryAlert(VitalsAlert.Rule rule, long time, long cooldownMs) {
+        long last = alertedAt[rule.ordinal()];
+        if (last != 0 && time - last < cooldownMs) {
+            return false;
+        }
+        alertedAt[rule.ordinal()] = time;
+        return true;
+    }
+
+    private int index(int i) {
+        return (next - 1 - i + 2 * values.length) % values.length;
+    }
+}
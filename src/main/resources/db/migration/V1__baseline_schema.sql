@@ -0,0 +1,132 @@
+-- Schema as Hibernate generated it with ddl-auto=update before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it,
+-- so it must stay exactly that schema; every later change goes into a later version. Constraint names
+-- are Hibernate's, so they are the same in baselined and newly created databases.
+
+create table appointment (
+    appointment_date date not null,
+    appointment_id integer not null auto_increment,
+    created_by integer not null,
+    doctor_id integer not null,
+    patient_id integer not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    updated_by varchar(100),
+    notes varchar(1000),
+    status enum ('SCHEDULED','COMPLETED','CANCELLED'),
+    primary key (appointment_id)
+);
+
+create table doctor (
+    charges decimal(10,2),
+    doctor_id integer not null auto_increment,
+    user_id integer not null,
+    years_of_experience integer,
+    phone_number varchar(20),
+    specialization varchar(100),
+    primary key (doctor_id)
+);
+
+create table document (
+    document_id integer not null auto_increment,
+    patient_id integer not null,
+    record_id integer,
+    upload_by integer not null,
+    upload_date datetime(6) not null,
+    document_name varchar(255) not null,
+    document_type varchar(255) not null,
+    file_data LONGBLOB,
+    primary key (document_id)
+);
+
+create table nurse (
+    nurse_id integer not null auto_increment,
+    user_id integer not null,
+    years_of_experience integer,
+    phone_number varchar(20),
+    primary key (nurse_id)
+);
+
+create table patient (
+    date_of_birth date,
+    patient_id integer not null auto_increment,
+    user_id integer not null,
+    blood_group varchar(5),
+    gender varchar(10),
+    phone_number varchar(20),
+    emergency_contact varchar(100),
+    address varchar(255),
+    primary key (patient_id)
+);
+
+create table patient_health_metrics (
+    blood_pressure integer,
+    doctor_id integer,
+    heart_rate integer,
+    measurement_date date,
+    metric_id integer not null auto_increment,
+    patient_id integer not null,
+    record_date date not null,
+    record_id integer,
+    weight float(53),
+    created_at datetime(6) not null,
+    metric_type varchar(50),
+    value varchar(50),
+    notes varchar(255),
+    primary key (metric_id)
+);
+
+create table record (
+    doctor_id integer not null,
+    patient_id integer not null,
+    record_id integer not null auto_increment,
+    visit_date date not null,
+    created_at datetime(6) not null,
+    diagnosis varchar(255),
+    prescription varchar(255),
+    status enum ('ACTIVE','FOLLOW_UP','RESOLVED','ARCHIVED'),
+    primary key (record_id)
+);
+
+create table role (
+    role_id integer not null auto_increment,
+    name enum ('ADMIN','DOCTOR','NURSE','PATIENT') not null,
+    primary key (role_id)
+);
+
+create table user (
+    user_id integer not null auto_increment,
+    created_at datetime(6) not null,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    primary key (user_id)
+);
+
+create table user_role (
+    role_id integer not null,
+    user_id integer not null,
+    primary key (role_id, user_id)
+);
+
+alter table doctor add constraint UK_3q0j5r6i4e9k3afhypo6uljph unique (user_id);
+alter table nurse add constraint UK_bl2q6g60tor4whxe60hlrbdx8 unique (user_id);
+alter table patient add constraint UK_6i3fp8wcdxk473941mbcvdao4 unique (user_id);
+alter table role add constraint UK_8sewwnpamngi6b1dwaa88askk unique (name);
+alter table user add constraint UK_ob8kqyqqgmefl0aco34akdtpe unique (email);
+alter table appointment add constraint FK6tij0hkslv4d7oidqqeww0p60 foreign key (created_by) references user (user_id);
+alter table appointment add constraint FKoeb98n82eph1dx43v3y2bcmsl foreign key (doctor_id) references doctor (doctor_id);
+alter table appointment add constraint FK4apif2ewfyf14077ichee8g06 foreign key (patient_id) references patient (patient_id);
+alter table doctor add constraint FK9roto9ydtnjfkixvexq5vxyl5 foreign key (user_id) references user (user_id);
+alter table document add constraint FKrs6dkc7k70t7h1pitq4f8074o foreign key (patient_id) references patient (patient_id);
+alter table document add constraint FKcb30yuld7k0nynlliaeu6tp5y foreign key (record_id) references record (record_id);
+alter table document add constraint FKrh8gbee39gqv6b73t3iseg4ey foreign key (upload_by) references user (user_id);
+alter table nurse add constraint FKr5s9i2lqsfmloldv6tqbh3eg4 foreign key (user_id) references user (user_id);
+alter table patient add constraint FKp6ttmfrxo2ejiunew4ov805uc foreign key (user_id) references user (user_id);
+alter table patient_health_metrics add constraint FKkr33addi2riueqct834uxsj5y foreign key (doctor_id) references doctor (doctor_id);
+alter table patient_health_metrics add constraint FKm24hhii52fy423qg6ci214o9s foreign key (record_id) references record (record_id);
+alter table patient_health_metrics add constraint FKf17sbd224valk0ohwpseptsbl foreign key (patient_id) references patient (patient_id);
+alter table record add constraint FKmkdgn6xu9svuh75iqt1h2dip2 foreign key (doctor_id) references doctor (doctor_id);
+alter table record add constraint FKfv7pwtoln90pqf2luckkbg8cb foreign key (patient_id) references patient (patient_id);
+alter table user_role add constraint FKa68196081fvovjhkek5m97n3y foreign key (role_id) references role (role_id);
+alter table user_role add constraint FK859n2jvi8ivhui0rl0esws6o foreign key (user_id) references user (user_id);
@@ -0,0 +1,8 @@
+-- Id blocks for the entities with pooled table ids (health metrics, documents).
+-- Databases that ran with ddl-auto=update after the switch to pooled ids already have it.
+-- Rows are created and moved past existing ids by IdGeneratorAlignment on startup.
+create table if not exists id_generators (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+);
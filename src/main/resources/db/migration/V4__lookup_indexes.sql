@@ -0,0 +1,29 @@
+-- Indexes for the repository query methods; IndexCoverageTest checks every derived query against them.
+
+-- Conflict checks and a doctor's day: doctor, date and optionally status
+create index idx_appointment_doctor_date_status on appointment (doctor_id, appointment_date, status);
+-- A doctor's upcoming appointments by status: seeks on doctor and status, then ranges over the date,
+-- which the index above cannot do as its status column follows the date range
+create index idx_appointment_doctor_status_date on appointment (doctor_id, status, appointment_date);
+-- A patient's upcoming appointments by status
+create index idx_appointment_patient_status_date on appointment (patient_id, status, appointment_date);
+-- Appointments of a date, e.g. tomorrow's reminders
+create index idx_appointment_date_status on appointment (appointment_date, status);
+-- Appointments by status from a date on, e.g. all upcoming scheduled appointments
+create index idx_appointment_status_date on appointment (status, appointment_date);
+
+-- Charts: one metric type of a patient over a date range
+create index idx_metric_patient_type_date on patient_health_metrics (patient_id, metric_type, measurement_date);
+-- A patient's metrics newest first, e.g. the dashboard's recent readings
+create index idx_metric_patient_record_date on patient_health_metrics (patient_id, record_date);
+
+create index idx_document_patient on document (patient_id);
+create index idx_document_record on document (record_id);
+create index idx_document_type on document (document_type);
+
+-- A patient's or doctor's records newest first, and records of a visit date
+create index idx_record_patient_visit_date on record (patient_id, visit_date);
+create index idx_record_doctor_visit_date on record (doctor_id, visit_date);
+create index idx_record_visit_date on record (visit_date);
+
+create index idx_patient_phone_number on patient (phone_number);
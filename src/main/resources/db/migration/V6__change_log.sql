@@ -0,0 +1,13 @@
+-- Append-only change log behind GET /api/changes; change_id is the consumers' cursor.
+-- No foreign keys: entries outlive the rows they describe.
+create table change_log (
+    change_id bigint not null auto_increment,
+    entity_id integer not null,
+    changed_at datetime(6) not null,
+    entity_type enum ('APPOINTMENT','MEDICAL_RECORD','HEALTH_METRIC','DOCUMENT') not null,
+    operation enum ('CREATED','UPDATED','DELETED') not null,
+    primary key (change_id)
+);
+
+-- Retention purge
+create index idx_change_log_changed_at on change_log (changed_at);
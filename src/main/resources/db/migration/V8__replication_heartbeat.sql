@@ -0,0 +1,7 @@
+-- Heartbeat behind the read replica lag check: ReplicaRoutingDataSource advances the single row
+-- (id 1) on the primary and compares it with each replica's replicated copy.
+create table replication_heartbeat (
+    id integer not null,
+    beat_at bigint not null,
+    primary key (id)
+);
@@ -0,0 +1,89 @@
+package com.hospital;
+
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Patient;
+import com.hospital.entity.User;
+import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.DoctorRepository;
+import com.hospital.repository.DocumentRepository;
+import com.hospital.repository.MedicalRecordRepository;
+import com.hospital.repository.PatientHealthMetricRepository;
+import com.hospital.repository.PatientRepository;
+import com.hospital.repository.RoleRepository;
+import com.hospital.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Accounts, doctors and patients for the integration tests that run against the shared in-memory
+ * database, and the cleanup that empties every table they write to. Add it to a test with
+ * {@code @Import(TestFixtures.class)} and call {@link #deleteAll()} after each test.
+ */
+@TestComponent
+public class TestFixtures {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private PatientHealthMetricRepository healthMetricRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    public User saveUser(String email, String name) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(name);
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    public Doctor saveDoctor(String email, String name) {
+        Doctor doctor = new Doctor();
+        doctor.setUser(saveUser(email, name));
+        return doctorRepository.save(doctor);
+    }
+
+    public Patient savePatient(String email, String name) {
+        Patient patient = new Patient();
+        patient.setUser(saveUser(email, name));
+        return patientRepository.save(patient);
+    }
+
+    /**
+     * Deletes all rows in dependency order, including the tables without an entity
+     */
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM change_log");
+        jdbcTemplate.update("DELETE FROM patient_health_metrics_archive");
+        jdbcTemplate.update("DELETE FROM appointment_archive");
+        documentRepository.deleteAll();
+        healthMetricRepository.deleteAll();
+        medicalRecordRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+}
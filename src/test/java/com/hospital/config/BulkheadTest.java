@@ -0,0 +1,62 @@
+package com.hospital.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkheadTest {
+
+    @Test
+    void testReleasesPermitAfterCall() {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("test-release", 1, 10);
+
+        // Act
+        String first = bulkhead.call(() -> "first");
+        assertThrows(IllegalStateException.class, () -> bulkhead.run(() -> {
+            throw new IllegalStateException("failed");
+        }));
+        String second = bulkhead.call(() -> "second");
+
+        // Assert
+        assertEquals("first", first);
+        assertEquals("second", second);
+        assertEquals(1, bulkhead.getAvailablePermits());
+    }
+
+    @Test
+    void testRejectsWhenFullAfterMaxWait() throws Exception {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("test-full", 1, 50);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.execute(() -> bulkhead.run(() -> {
+                holding.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            // Act & Assert
+            Bulkhead.BulkheadFullException exception =
+                    assertThrows(Bulkhead.BulkheadFullException.class, () -> bulkhead.run(() -> { }));
+            assertTrue(exception.getMessage().contains("test-full"));
+            assertEquals(0, bulkhead.getAvailablePermits());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, bulkhead.getAvailablePermits());
+    }
+}
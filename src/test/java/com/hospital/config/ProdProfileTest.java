@@ -0,0 +1,54 @@
+package com.hospital.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.hospital.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application with the prod logging settings on top of the in-memory test database.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "prod"})
+public class ProdProfileTest {
+
+    @Autowired
+    private SqlSamplingConfig.SampledSqlLogger sampledSqlLogger;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Test
+    void testRootLoggerUsesAsyncAppenders() {
+        // Arrange
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        // Act
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+
+        // Assert
+        assertNotNull(root.getAppender("ASYNC_FILE"));
+        assertNotNull(root.getAppender("ASYNC_CONSOLE"));
+        assertNull(root.getAppender("CONSOLE"));
+        assertFalse(context.getLogger("com.hospital").isDebugEnabled());
+    }
+
+    @Test
+    void testStatementsPassThroughTheSampler() {
+        // Arrange
+        long before = sampledSqlLogger.getStatementCount();
+
+        // Act
+        roleRepository.count();
+
+        // Assert
+        assertTrue(sampledSqlLogger.getStatementCount() > before);
+        assertEquals("select 1", sampledSqlLogger.inspect("select 1"));
+    }
+}
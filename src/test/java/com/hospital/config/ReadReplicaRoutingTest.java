@@ -0,0 +1,179 @@
+package com.hospital.config;
+
+import com.hospital.dto.ChangeResponse;
+import com.hospital.service.ChangeFeedService;
+import io.micrometer.core.instrument.Metrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the application with a second in-memory database as its replica. Replication is simulated
+ * by copying the heartbeat to the replica by hand.
+ */
+@SpringBootTest(properties = {
+        "hospital.replica.urls=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "hospital.replica.max-lag-ms=1000",
+        // Checks are triggered by the tests
+        "hospital.replica.heartbeat-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+// Closes the replica pools, and lets contexts started later reinitialize logging (see ProdProfileTest)
+@DirtiesContext
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    private JdbcTemplate replicaJdbc;
+
+    @BeforeEach
+    void setUp() {
+        // The test schema comes from the entities; the heartbeat table is created as migration V8 does
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        replicaJdbc = new JdbcTemplate(replicaRoutingDataSource.getReplicas().get(0).getDataSource());
+        replicaJdbc.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        replicaJdbc.update("DELETE FROM replication_heartbeat");
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM change_log");
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseUpToDateReplica() {
+        // Arrange
+        replicateHeartbeat(0);
+
+        // Act
+        replicaRoutingDataSource.checkReplicas();
+        String readOnly = databaseIn(true);
+        String readWrite = databaseIn(false);
+
+        // Assert
+        assertTrue(replicaRoutingDataSource.getReplicas().get(0).isAvailable());
+        assertEquals(0, replicaRoutingDataSource.getReplicas().get(0).getLagMs());
+        assertEquals("replica", readOnly.toLowerCase());
+        assertEquals("hospital", readWrite.toLowerCase());
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        // Arrange
+        replicateHeartbeat(5_000);
+
+        // Act
+        replicaRoutingDataSource.checkReplicas();
+        String readOnly = databaseIn(true);
+
+        // Assert
+        assertFalse(replicaRoutingDataSource.getReplicas().get(0).isAvailable());
+        assertEquals(5_000, replicaRoutingDataSource.getReplicas().get(0).getLagMs());
+        assertEquals("hospital", readOnly.toLowerCase());
+    }
+
+    @Test
+    void testUnreachableReplicaFallsBackToPrimary() {
+        // Arrange
+        replicaJdbc.execute("DROP TABLE replication_heartbeat");
+
+        // Act
+        replicaRoutingDataSource.checkReplicas();
+        String readOnly = databaseIn(true);
+
+        // Assert
+        assertFalse(replicaRoutingDataSource.getReplicas().get(0).isAvailable());
+        assertEquals(-1, replicaRoutingDataSource.getReplicas().get(0).getLagMs());
+        assertEquals("hospital", readOnly.toLowerCase());
+    }
+
+    @Test
+    void testChangeFeedIsReadFromThePrimary() {
+        // Arrange: the replica is within max-lag-ms but has not received the settled entry yet
+        replicateHeartbeat(0);
+        replicaRoutingDataSource.checkReplicas();
+        replicaJdbc.execute("CREATE TABLE IF NOT EXISTS change_log (change_id BIGINT PRIMARY KEY, "
+                + "entity_type VARCHAR(255), entity_id INT, operation VARCHAR(255), changed_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO change_log (entity_type, entity_id, operation, changed_at) VALUES (?, ?, ?, ?)",
+                "APPOINTMENT", 1, "CREATED", Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+
+        // Act
+        List<ChangeResponse> changes = changeFeedService.getChanges(0, 10);
+
+        // Assert
+        assertTrue(replicaRoutingDataSource.getReplicas().get(0).isAvailable());
+        assertEquals(1, changes.size());
+    }
+
+    @Test
+    void testPrimaryAndReplicaPoolsExportMetrics() {
+        // Act
+        databaseIn(false);
+        databaseIn(true);
+
+        // Assert
+        assertNotNull(Metrics.globalRegistry.find("hikaricp.connections.pending").tag("pool", "primary").gauge());
+        assertNotNull(Metrics.globalRegistry.find("hikaricp.connections.pending").tag("pool", "replica-1").gauge());
+    }
+
+    @Test
+    void testNoReplicasUsesThePrimary() throws Exception {
+        // Arrange: what a blank hospital.replica.urls binds to
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(replicaRoutingDataSource.getPrimary(), List.of(), 1000);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        String database;
+        try (Connection connection = router.getConnection()) {
+            database = connection.getCatalog();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        // Assert
+        assertEquals("hospital", database.toLowerCase());
+    }
+
+    /**
+     * Copies the primary's heartbeat to the replica, set back by the given lag
+     */
+    private void replicateHeartbeat(long lagMs) {
+        Long beat = jdbcTemplate.queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+        replicaJdbc.update("DELETE FROM replication_heartbeat");
+        replicaJdbc.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", beat - lagMs);
+    }
+
+    /**
+     * Name of the database a JPA transaction runs against
+     */
+    private String databaseIn(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+}
@@ -0,0 +1,74 @@
+package com.hospital.config;
+
+import com.hospital.service.SlowQueryLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-request SQL counts in response headers and the slow-query log. The threshold is 0 ms
+ * so every statement counts as slow.
+ */
+@SpringBootTest(properties = "hospital.sql.slow-query.threshold-ms=0")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SqlMonitoringFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryLog.clear();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testResponseCarriesSqlHeaders() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/admin/statistics"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Assert
+        String statements = result.getResponse().getHeader(SqlMonitoringFilter.STATEMENTS_HEADER);
+        assertNotNull(statements);
+        assertTrue(Integer.parseInt(statements) > 0);
+        assertNotNull(result.getResponse().getHeader(SqlMonitoringFilter.TIME_HEADER));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testSlowQueriesAreListedWithTheirRequest() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/api/admin/statistics")).andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.thresholdMs").value(0))
+                .andExpect(jsonPath("$.queries[*].request", hasItem("GET /api/admin/statistics")));
+    }
+
+    @Test
+    @WithMockUser(roles = "DOCTOR")
+    void testSlowQueriesAreAdminOnly() throws Exception {
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,60 @@
+package com.hospital.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementCounterTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
+    @Test
+    void testCountsOnlyWhileStarted() {
+        // Arrange
+        counter.inspect("select 1");
+        SqlStatementCounter.Usage usage = SqlStatementCounter.start("GET /api/test");
+
+        // Act
+        String inspected = counter.inspect("select 2");
+        counter.inspect("select 3");
+        SqlStatementCounter.recordExecution(TimeUnit.MILLISECONDS.toNanos(7));
+
+        // Assert
+        assertEquals("select 2", inspected);
+        assertEquals(2, usage.getStatements());
+        assertEquals(7, usage.getExecutionMillis());
+        assertEquals(2, SqlStatementCounter.current());
+        SqlStatementCounter.stop();
+        assertEquals(-1, SqlStatementCounter.current());
+        assertNull(SqlStatementCounter.currentUsage());
+    }
+
+    @Test
+    void testPropagatedTaskCountsTowardsCaller() throws Exception {
+        // Arrange
+        SqlStatementCounter.Usage usage = SqlStatementCounter.start("GET /api/test");
+        Runnable task = SqlStatementCounter.propagate(() -> counter.inspect("select 1"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        try {
+            executor.submit(task).get(5, TimeUnit.SECONDS);
+            executor.submit(() -> counter.inspect("select 2")).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertEquals(1, usage.getStatements());
+    }
+}
@@ -0,0 +1,68 @@
+package com.hospital.controller;
+
+import com.hospital.dto.ChangeResponse;
+import com.hospital.entity.ChangeLogEntry;
+import com.hospital.service.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeControllerTest {
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @InjectMocks
+    private ChangeController changeController;
+
+    @Test
+    void testNextCursorIsTheLastChange() {
+        // Arrange
+        when(changeFeedService.getChanges(5L, 2)).thenReturn(List.of(
+                new ChangeResponse(6L, ChangeLogEntry.EntityType.APPOINTMENT, 1, ChangeLogEntry.Operation.CREATED, LocalDateTime.now()),
+                new ChangeResponse(9L, ChangeLogEntry.EntityType.DOCUMENT, 4, ChangeLogEntry.Operation.DELETED, LocalDateTime.now())));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = changeController.getChanges(5, 2);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(9L, response.getBody().get("nextCursor"));
+        assertEquals(true, response.getBody().get("hasMore"));
+    }
+
+    @Test
+    void testEmptyPageKeepsTheCursor() {
+        // Arrange
+        when(changeFeedService.getChanges(9L, 100)).thenReturn(List.of());
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = changeController.getChanges(9, 100);
+
+        // Assert
+        assertEquals(9L, response.getBody().get("nextCursor"));
+        assertEquals(false, response.getBody().get("hasMore"));
+    }
+
+    @Test
+    void testLimitOutOfRangeIsRejected() {
+        // Act
+        ResponseEntity<Map<String, Object>> response = changeController.getChanges(0, 5000);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(changeFeedService);
+    }
+}
@@ -6,6 +6,7 @@ import com.hospital.entity.User;
 import com.hospital.service.PatientHealthMetricService;
 import com.hospital.service.PatientService;
 import com.hospital.service.UserService;
+import com.hospital.service.VitalsStreamService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,10 +14,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,6 +38,9 @@ public class PatientHealthMetricControllerTest {
     
     @Mock
     private UserService userService;
+
+    @Mock
+    private VitalsStreamService vitalsStreamService;
     
     @InjectMocks
     private PatientHealthMetricController healthMetricController;
@@ -56,7 +64,7 @@ public class PatientHealthMetricControllerTest {
         testMetric = new PatientHealthMetric();
         testMetric.setId(1);
         testMetric.setPatient(testPatient);
-        testMetric.setMetricType("Blood Pressure");
+        testMetric.setMetricType(PatientHealthMetric.MetricType.BLOOD_PRESSURE);
     }
     
     @Test
@@ -65,7 +73,7 @@ public class PatientHealthMetricControllerTest {
         assertNotNull(testMetric);
         assertEquals(1, testMetric.getId());
         assertEquals(testPatient, testMetric.getPatient());
-        assertEquals("Blood Pressure", testMetric.getMetricType());
+        assertEquals(PatientHealthMetric.MetricType.BLOOD_PRESSURE, testMetric.getMetricType());
     }
     
     @Test
@@ -103,4 +111,21 @@ public class PatientHealthMetricControllerTest {
         
         verify(patientService, times(1)).getPatientById(1);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testStreamHealthMetrics() {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(vitalsStreamService.subscribe(Set.of(1, 2))).thenReturn(emitter);
+        when(vitalsStreamService.subscribe(Set.of())).thenThrow(new IllegalArgumentException("Watch between 1 and 100 patients"));
+
+        // Act
+        ResponseEntity<SseEmitter> response = healthMetricController.streamHealthMetrics(Set.of(1, 2));
+        ResponseEntity<SseEmitter> empty = healthMetricController.streamHealthMetrics(Set.of());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(emitter, response.getBody());
+        assertEquals(HttpStatus.BAD_REQUEST, empty.getStatusCode());
+    }
+}
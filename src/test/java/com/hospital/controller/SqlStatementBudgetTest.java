@@ -0,0 +1,185 @@
+package com.hospital.controller;
+
+import com.hospital.entity.Appointment;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.MedicalRecord;
+import com.hospital.entity.Patient;
+import com.hospital.entity.Role;
+import com.hospital.entity.User;
+import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.DoctorRepository;
+import com.hospital.repository.MedicalRecordRepository;
+import com.hospital.repository.PatientRepository;
+import com.hospital.repository.RoleRepository;
+import com.hospital.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements issued per endpoint against an in-memory database.
+ * Each endpoint is measured with a small and a larger data set: the count must stay
+ * within its budget and must not grow with the number of rows returned (N+1 guard).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SqlStatementBudgetTest {
+
+    private static final String DOCTOR_EMAIL = "doctor@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    private Statistics statistics;
+    private Doctor doctor;
+    private Role patientRole;
+    private int patientSequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        patientRole = roleRepository.save(role(Role.RoleName.PATIENT));
+        Role doctorRole = roleRepository.save(role(Role.RoleName.DOCTOR));
+
+        doctor = new Doctor();
+        doctor.setUser(saveUser(DOCTOR_EMAIL, doctorRole));
+        doctor = doctorRepository.save(doctor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        medicalRecordRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(username = DOCTOR_EMAIL, roles = "DOCTOR")
+    void testDoctorAppointmentsStatementCount() throws Exception {
+        assertBudget("/api/doctors/appointments", 6);
+    }
+
+    @Test
+    @WithMockUser(username = DOCTOR_EMAIL, roles = "DOCTOR")
+    void testDoctorDashboardStatementCount() throws Exception {
+        assertBudget("/api/doctors/appointments/dashboard", 6);
+    }
+
+    @Test
+    @WithMockUser(username = DOCTOR_EMAIL, roles = "ADMIN")
+    void testAllAppointmentsStatementCount() throws Exception {
+        assertBudget("/api/appointments", 5);
+    }
+
+    @Test
+    @WithMockUser(username = DOCTOR_EMAIL, roles = "DOCTOR")
+    void testAllMedicalRecordsStatementCount() throws Exception {
+        assertBudget("/api/medical-records", 4);
+    }
+
+    /**
+     * Measures the endpoint with 21 and then 45 patients, each with an appointment and a record.
+     * Both sizes are past the dashboard's first page, so its count query runs in both cases.
+     */
+    private void assertBudget(String url, long budget) throws Exception {
+        seedPatients(21);
+        long small = countStatements(url);
+
+        seedPatients(24);
+        long large = countStatements(url);
+
+        assertTrue(small <= budget, url + " issued " + small + " statements, budget is " + budget);
+        assertEquals(small, large, url + " statement count grows with the number of rows");
+    }
+
+    /**
+     * Counts the statements of one call with empty second-level and query caches, so both data set
+     * sizes are measured alike and rows served from the cache cannot hide an N+1
+     */
+    private long countStatements(String url) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedPatients(int count) {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < count; i++) {
+            Patient patient = new Patient();
+            patient.setUser(saveUser("patient" + (patientSequence++) + "@example.com", patientRole));
+            patient = patientRepository.save(patient);
+
+            Appointment appointment = new Appointment();
+            appointment.setPatient(patient);
+            appointment.setDoctor(doctor);
+            appointment.setCreatedBy(patient.getUser());
+            appointment.setAppointmentDate(today.plusDays(i % 5));
+            appointment.setStatus(Appointment.AppointmentStatus.SCHEDULED);
+            appointmentRepository.save(appointment);
+
+            MedicalRecord record = new MedicalRecord();
+            record.setPatient(patient);
+            record.setDoctor(doctor);
+            record.setVisitDate(today);
+            medicalRecordRepository.save(record);
+        }
+    }
+
+    private User saveUser(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(email);
+        user.setPassword("secret");
+        user.setRoles(Set.of(role));
+        return userRepository.save(user);
+    }
+
+    private Role role(Role.RoleName name) {
+        Role role = new Role();
+        role.setName(name);
+        return role;
+    }
+}
@@ -0,0 +1,148 @@
+package com.hospital.controller;
+
+import com.hospital.TestFixtures;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Patient;
+import com.hospital.service.PatientHealthMetricService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Opens vitals streams through MockMvc, records readings through the service and reads the events
+ * that arrive on each stream.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+public class VitalsStreamTest {
+
+    private static final String STREAM = "/api/health-metrics/stream";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientHealthMetricService healthMetricService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Doctor doctor;
+    private Patient watched;
+    private Patient other;
+
+    @BeforeEach
+    void setUp() {
+        doctor = fixtures.saveDoctor("vitals-doctor@example.com", "Vitals Doctor");
+        watched = fixtures.savePatient("vitals-watched@example.com", "Watched Patient");
+        other = fixtures.savePatient("vitals-other@example.com", "Other Patient");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(roles = "NURSE")
+    void testReadingsReachOnlyTheStreamsWatchingTheirPatient() throws Exception {
+        // Arrange
+        MvcResult watchedStream = openStream(String.valueOf(watched.getId()));
+        MvcResult bothStream = openStream(watched.getId() + "," + other.getId());
+
+        // Act
+        healthMetricService.recordHealthMetrics(watched, doctor, null, LocalDate.now(), 70.5, null, 62, null);
+        healthMetricService.recordHealthMetrics(other, doctor, null, LocalDate.now(), 81.0, null, null, null);
+
+        // Assert
+        String both = awaitReadings(bothStream, 3);
+        String watchedOnly = awaitReadings(watchedStream, 2);
+        assertEquals(3, countReadings(both));
+        assertEquals(2, countReadings(watchedOnly));
+        assertTrue(watchedOnly.contains("\"numericValue\":70.5"));
+        assertTrue(watchedOnly.contains("\"metricType\":\"HEART_RATE\""));
+        assertFalse(watchedOnly.contains("\"patientId\":" + other.getId() + ","));
+        assertTrue(both.contains("\"patientId\":" + other.getId() + ","));
+    }
+
+    @Test
+    @WithMockUser(roles = "NURSE")
+    void testRolledBackReadingsAreNotSent() throws Exception {
+        // Arrange
+        MvcResult stream = openStream(String.valueOf(watched.getId()));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            healthMetricService.recordHealthMetrics(watched, doctor, null, LocalDate.now(), 99.0, null, null, null);
+            throw new IllegalStateException("rolled back");
+        }));
+        healthMetricService.recordHealthMetrics(watched, doctor, null, LocalDate.now(), 70.0, null, null, null);
+
+        // Assert
+        String events = awaitReadings(stream, 1);
+        assertEquals(1, countReadings(events));
+        assertFalse(events.contains("99.0"));
+    }
+
+    @Test
+    @WithMockUser(roles = "NURSE")
+    void testTooManyPatientsIsABadRequest() throws Exception {
+        // Arrange
+        String ids = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        // Act & Assert
+        mockMvc.perform(get(STREAM).param("patientIds", ids)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "PATIENT")
+    void testPatientsCannotOpenAStream() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get(STREAM).param("patientIds", String.valueOf(watched.getId())))
+                .andExpect(status().isForbidden());
+    }
+
+    private MvcResult openStream(String patientIds) throws Exception {
+        return mockMvc.perform(get(STREAM).param("patientIds", patientIds))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private String awaitReadings(MvcResult stream, int expected) throws Exception {
+        String events = stream.getResponse().getContentAsString();
+        for (int i = 0; i < 100 && countReadings(events) < expected; i++) {
+            Thread.sleep(50);
+            events = stream.getResponse().getContentAsString();
+        }
+        // Give readings that should not arrive the same chance to show up
+        Thread.sleep(200);
+        return stream.getResponse().getContentAsString();
+    }
+
+    private static int countReadings(String events) {
+        return events.split("event:reading", -1).length - 1;
+    }
+}
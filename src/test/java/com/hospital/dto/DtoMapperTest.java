@@ -0,0 +1,134 @@
+package com.hospital.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hospital.entity.Appointment;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Document;
+import com.hospital.entity.MedicalRecord;
+import com.hospital.entity.Patient;
+import com.hospital.entity.Role;
+import com.hospital.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DtoMapperTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private User patientUser;
+    private Patient testPatient;
+    private Doctor testDoctor;
+
+    @BeforeEach
+    void setUp() {
+        patientUser = new User();
+        patientUser.setId(1);
+        patientUser.setEmail("patient@example.com");
+        patientUser.setName("Test Patient");
+        patientUser.setPassword("$2a$10$hash");
+        patientUser.setRoles(Set.of(new Role(1, Role.RoleName.PATIENT)));
+
+        testPatient = new Patient();
+        testPatient.setId(10);
+        testPatient.setUser(patientUser);
+        testPatient.setBloodGroup("A+");
+
+        User doctorUser = new User();
+        doctorUser.setId(2);
+        doctorUser.setName("Dr. Test");
+        doctorUser.setPassword("$2a$10$hash");
+
+        testDoctor = new Doctor();
+        testDoctor.setId(20);
+        testDoctor.setUser(doctorUser);
+        testDoctor.setSpecialization("Cardiology");
+    }
+
+    @Test
+    void testUserResponseNeverContainsPassword() throws Exception {
+        // Act
+        UserResponse response = DtoMapper.toUser(patientUser);
+        String json = objectMapper.writeValueAsString(response);
+
+        // Assert
+        assertEquals(Set.of("PATIENT"), response.roles());
+        assertFalse(json.contains("password"));
+        assertFalse(json.contains("$2a$10$hash"));
+    }
+
+    @Test
+    void testAppointmentIsFlattened() throws Exception {
+        // Arrange
+        Appointment appointment = new Appointment();
+        appointment.setId(100);
+        appointment.setPatient(testPatient);
+        appointment.setDoctor(testDoctor);
+        appointment.setCreatedBy(patientUser);
+        appointment.setAppointmentDate(LocalDate.of(2024, 5, 1));
+
+        // Act
+        AppointmentSummary summary = DtoMapper.toAppointment(appointment);
+        String json = objectMapper.writeValueAsString(summary);
+
+        // Assert
+        assertEquals(10, summary.patientId());
+        assertEquals("Test Patient", summary.patientName());
+        assertEquals(20, summary.doctorId());
+        assertEquals("Dr. Test", summary.doctorName());
+        assertFalse(json.contains("roles"));
+        assertFalse(json.contains("password"));
+    }
+
+    @Test
+    void testDocumentResponseOmitsFileData() throws Exception {
+        // Arrange
+        Document document = new Document();
+        document.setId(5);
+        document.setPatient(testPatient);
+        document.setUploadedBy(patientUser);
+        document.setDocumentName("scan.pdf");
+        document.setFileData(new byte[1024 * 1024]);
+
+        // Act
+        String json = objectMapper.writeValueAsString(DtoMapper.toDocument(document));
+
+        // Assert
+        assertFalse(json.contains("fileData"));
+        assertTrue(json.length() < 512);
+    }
+
+    @Test
+    void testMissingAssociationsMapToNull() {
+        // Arrange
+        MedicalRecord record = new MedicalRecord();
+        record.setId(7);
+
+        // Act
+        MedicalRecordResponse response = DtoMapper.toMedicalRecord(record);
+
+        // Assert
+        assertEquals(7, response.id());
+        assertNull(response.patientId());
+        assertNull(response.doctorName());
+        assertNull(DtoMapper.toPatient(null));
+    }
+
+    @Test
+    void testToListMapsEveryElement() {
+        // Act
+        List<PatientResponse> responses = DtoMapper.toList(List.of(testPatient), DtoMapper::toPatient);
+
+        // Assert
+        assertEquals(1, responses.size());
+        assertEquals("patient@example.com", responses.get(0).email());
+        assertEquals("A+", responses.get(0).bloodGroup());
+        assertTrue(DtoMapper.toList(null, DtoMapper::toPatient).isEmpty());
+    }
+}
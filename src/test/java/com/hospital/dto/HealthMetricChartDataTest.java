@@ -0,0 +1,103 @@
+package com.hospital.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.entity.PatientHealthMetric;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HealthMetricChartDataTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSeriesAreSplitByTypeInOnePass() {
+        // Arrange
+        HealthMetricChartData.Builder builder = HealthMetricChartData.builder(4);
+
+        // Act
+        HealthMetricChartData chart = builder
+                .add(metric(PatientHealthMetric.MetricType.WEIGHT, LocalDate.of(2024, 1, 1), 70.5))
+                .add(bloodPressure(LocalDate.of(2024, 1, 2), 120, 80))
+                .add(metric(PatientHealthMetric.MetricType.HEART_RATE, LocalDate.of(2024, 1, 3), 72.0))
+                .add(metric(PatientHealthMetric.MetricType.GLUCOSE, LocalDate.of(2024, 1, 4), 95.0))
+                .build();
+
+        // Assert
+        assertArrayEquals(new String[]{"2024-01-01", "2024-01-02", "2024-01-03", "2024-01-04"}, chart.dates());
+        assertArrayEquals(new double[]{70.5}, chart.weights());
+        assertArrayEquals(new String[]{"120/80"}, chart.bloodPressures());
+        assertArrayEquals(new int[]{120}, chart.systolic());
+        assertArrayEquals(new int[]{80}, chart.diastolic());
+        assertArrayEquals(new int[]{72}, chart.heartRates());
+        assertArrayEquals(new String[]{"2024-01-03"}, chart.hrDates());
+    }
+
+    @Test
+    void testOutOfOrderSeriesIsSortedByMeasurementDate() {
+        // Arrange
+        HealthMetricChartData.Builder builder = HealthMetricChartData.builder(0);
+        for (int day = 30; day >= 1; day--) {
+            builder.add(metric(PatientHealthMetric.MetricType.WEIGHT, LocalDate.of(2024, 3, day), (double) day));
+        }
+
+        // Act
+        HealthMetricChartData chart = builder.build();
+
+        // Assert
+        assertEquals(30, chart.weights().length);
+        assertEquals("2024-03-01", chart.weightDates()[0]);
+        assertEquals(1.0, chart.weights()[0]);
+        assertEquals(30.0, chart.latestWeight().getAsDouble());
+    }
+
+    @Test
+    void testReadingsWithoutNumericValueAreSkipped() {
+        // Arrange
+        PatientHealthMetric missing = metric(PatientHealthMetric.MetricType.WEIGHT, LocalDate.of(2024, 1, 2), null);
+
+        // Act
+        HealthMetricChartData chart = HealthMetricChartData.builder(1).add(missing).build();
+
+        // Assert
+        assertEquals(1, chart.dates().length);
+        assertEquals(0, chart.weights().length);
+        assertTrue(chart.latestWeight().isEmpty());
+        assertTrue(chart.latestBloodPressure().isEmpty());
+    }
+
+    @Test
+    void testResponseKeepsSeriesAtTopLevel() throws Exception {
+        // Arrange
+        HealthMetricChartData chart = HealthMetricChartData.builder(1)
+                .add(metric(PatientHealthMetric.MetricType.WEIGHT, LocalDate.of(2024, 1, 1), 80.0))
+                .build();
+
+        // Act
+        JsonNode json = objectMapper.valueToTree(new HealthMetricChartResponse(chart, "/w", "/bp", "/hr"));
+
+        // Assert
+        assertEquals(80.0, json.get("weights").get(0).asDouble());
+        assertEquals("2024-01-01", json.get("weightDates").get(0).asText());
+        assertEquals("/w", json.get("weightChartUrl").asText());
+        assertFalse(json.has("chartData"));
+    }
+
+    private PatientHealthMetric metric(PatientHealthMetric.MetricType type, LocalDate date, Double value) {
+        PatientHealthMetric metric = new PatientHealthMetric();
+        metric.setMetricType(type);
+        metric.setMeasurementDate(date);
+        metric.setNumericValue(value);
+        return metric;
+    }
+
+    private PatientHealthMetric bloodPressure(LocalDate date, int systolic, int diastolic) {
+        PatientHealthMetric metric = metric(PatientHealthMetric.MetricType.BLOOD_PRESSURE, date, null);
+        metric.setSystolic(systolic);
+        metric.setDiastolic(diastolic);
+        return metric;
+    }
+}
@@ -0,0 +1,171 @@
+package com.hospital.repository;
+
+import com.hospital.dto.AppointmentStatusCount;
+import com.hospital.dto.AppointmentSummary;
+import com.hospital.entity.Appointment;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Patient;
+import com.hospital.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class AppointmentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private Patient patient;
+    private Doctor doctor;
+    private User creator;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+
+        creator = persistUser("creator@example.com");
+
+        doctor = new Doctor();
+        doctor.setUser(persistUser("doctor@example.com"));
+        entityManager.persist(doctor);
+
+        patient = new Patient();
+        patient.setUser(persistUser("patient@example.com"));
+        entityManager.persist(patient);
+
+        // Years of history that the upcoming views must not touch
+        for (int i = 1; i <= 200; i++) {
+            persistAppointment(today.minusDays(i), i % 2 == 0
+                    ? Appointment.AppointmentStatus.COMPLETED
+                    : Appointment.AppointmentStatus.SCHEDULED);
+        }
+
+        persistAppointment(today, Appointment.AppointmentStatus.SCHEDULED);
+        persistAppointment(today.plusDays(3), Appointment.AppointmentStatus.SCHEDULED);
+        persistAppointment(today.plusDays(1), Appointment.AppointmentStatus.SCHEDULED);
+        persistAppointment(today.plusDays(2), Appointment.AppointmentStatus.CANCELLED);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testUpcomingForDoctorReturnsOnlyScheduledFromToday() {
+        List<Appointment> result = appointmentRepository
+                .findByDoctorAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                        doctor, Appointment.AppointmentStatus.SCHEDULED, today);
+
+        assertEquals(3, result.size());
+        assertEquals(today, result.get(0).getAppointmentDate());
+        assertEquals(today.plusDays(1), result.get(1).getAppointmentDate());
+        assertEquals(today.plusDays(3), result.get(2).getAppointmentDate());
+    }
+
+    @Test
+    void testUpcomingForPatientReturnsOnlyScheduledFromToday() {
+        List<Appointment> result = appointmentRepository
+                .findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                        patient, Appointment.AppointmentStatus.SCHEDULED, today);
+
+        assertEquals(3, result.size());
+        assertTrue(result.stream().noneMatch(a -> a.getAppointmentDate().isBefore(today)));
+    }
+
+    @Test
+    void testUpcomingAcrossAllDoctors() {
+        List<Appointment> result = appointmentRepository
+                .findByStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                        Appointment.AppointmentStatus.SCHEDULED, today);
+
+        assertEquals(3, result.size());
+    }
+
+    @Test
+    void testUpcomingForPatientBoundedByLimit() {
+        List<Appointment> result = appointmentRepository
+                .findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                        patient, Appointment.AppointmentStatus.SCHEDULED, today, Limit.of(2));
+        long count = appointmentRepository.countByPatientAndStatusAndAppointmentDateGreaterThanEqual(
+                patient, Appointment.AppointmentStatus.SCHEDULED, today);
+
+        assertEquals(2, result.size());
+        assertEquals(today, result.get(0).getAppointmentDate());
+        assertEquals(today.plusDays(1), result.get(1).getAppointmentDate());
+        assertEquals(3, count);
+    }
+
+    @Test
+    void testTomorrowByDateAndStatus() {
+        List<Appointment> result = appointmentRepository.findByAppointmentDateAndStatus(
+                today.plusDays(1), Appointment.AppointmentStatus.SCHEDULED);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void testCountByDoctorGroupByStatus() {
+        List<AppointmentStatusCount> counts = appointmentRepository.countByDoctorGroupByStatus(doctor);
+
+        long scheduled = counts.stream()
+                .filter(c -> c.status() == Appointment.AppointmentStatus.SCHEDULED)
+                .mapToLong(AppointmentStatusCount::count).sum();
+        long total = counts.stream().mapToLong(AppointmentStatusCount::count).sum();
+
+        assertEquals(3, counts.size());
+        assertEquals(103, scheduled);
+        assertEquals(204, total);
+    }
+
+    @Test
+    void testTodaySummariesForDoctor() {
+        List<AppointmentSummary> result = appointmentRepository.findSummariesByDoctorAndDate(doctor, today);
+
+        assertEquals(1, result.size());
+        assertEquals(patient.getId(), result.get(0).patientId());
+        assertEquals("patient@example.com", result.get(0).patientName());
+    }
+
+    @Test
+    void testHistorySummariesArePaged() {
+        Page<AppointmentSummary> page = appointmentRepository.findSummariesByDoctor(doctor, PageRequest.of(0, 10));
+
+        assertEquals(10, page.getContent().size());
+        assertEquals(204, page.getTotalElements());
+        assertEquals(today.plusDays(3), page.getContent().get(0).appointmentDate());
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(email);
+        user.setPassword("secret");
+        return entityManager.persist(user);
+    }
+
+    private void persistAppointment(LocalDate date, Appointment.AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctor);
+        appointment.setCreatedBy(creator);
+        appointment.setAppointmentDate(date);
+        appointment.setStatus(status);
+        entityManager.persist(appointment);
+    }
+}
@@ -0,0 +1,87 @@
+package com.hospital.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds the schema as it was before migrations were introduced (V1), stores rows with the legacy
+ * string-typed columns and applies the later migrations, as on a baselined production database.
+ */
+public class HealthMetricValueMigrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private Flyway flyway;
+    private int nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy-metrics;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:com/hospital/migration")
+                .load();
+        Flyway.configure().configuration(flyway.getConfiguration()).target("1").load().migrate();
+
+        jdbcTemplate.update("INSERT INTO user (user_id, email, name, password, created_at) "
+                + "VALUES (1, 'legacy-metrics@example.com', 'Legacy Metrics', 'secret', CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO patient (patient_id, user_id) VALUES (1, 1)");
+    }
+
+    @Test
+    void testLegacyRowsAreConverted() {
+        // Arrange
+        insertLegacy("Blood Pressure", "130/85", null, null, null);
+        insertLegacy("heart-rate", null, null, null, 70);
+        insertLegacy("WEIGHT", "n/a", 80.5, null, null);
+        insertLegacy("Mood", "good", null, null, null);
+
+        // Act
+        flyway.migrate();
+
+        // Assert
+        Map<String, Map<String, Object>> byType = new HashMap<>();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT metric_type, numeric_value, systolic, diastolic FROM patient_health_metrics");
+        rows.forEach(row -> byType.put((String) row.get("metric_type"), row));
+        assertEquals(4, rows.size());
+        assertEquals(130, byType.get("BLOOD_PRESSURE").get("systolic"));
+        assertEquals(85, byType.get("BLOOD_PRESSURE").get("diastolic"));
+        assertEquals(70.0, byType.get("HEART_RATE").get("numeric_value"));
+        assertEquals(80.5, byType.get("WEIGHT").get("numeric_value"));
+        assertNull(byType.get("Mood").get("numeric_value"));
+    }
+
+    @Test
+    void testConversionIsRecordedAndNotRepeated() {
+        // Arrange
+        insertLegacy("WEIGHT", "72", null, null, null);
+        flyway.migrate();
+
+        // Act
+        int applied = flyway.migrate().migrationsExecuted;
+
+        // Assert
+        assertEquals(0, applied);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM flyway_schema_history WHERE script LIKE '%V7__Metric_numeric_values'", Integer.class));
+    }
+
+    private void insertLegacy(String type, String value, Double weight, Integer bloodPressure, Integer heartRate) {
+        jdbcTemplate.update("INSERT INTO patient_health_metrics (metric_id, patient_id, record_date, measurement_date, "
+                        + "metric_type, value, weight, blood_pressure, heart_rate, created_at) "
+                        + "VALUES (?, ?, CURRENT_DATE, CURRENT_DATE, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                nextId++, 1, type, value, weight, bloodPressure, heartRate);
+    }
+}
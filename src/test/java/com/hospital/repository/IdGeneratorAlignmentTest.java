@@ -0,0 +1,101 @@
+package com.hospital.repository;
+
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.entity.User;
+import com.hospital.service.IdGeneratorAlignment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Health metrics take pooled ids from the id_generators table; the generator must skip ids that
+ * were written before it existed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdGeneratorAlignmentTest {
+
+    @Autowired
+    private IdGeneratorAlignment alignment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientHealthMetricRepository healthMetricRepository;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("pooled-ids@example.com");
+        user.setName("Pooled Ids");
+        user.setPassword("secret");
+        patient = new Patient();
+        patient.setUser(userRepository.save(user));
+        patient = patientRepository.save(patient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        healthMetricRepository.deleteAll();
+        patientRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testGeneratorIsMovedPastExistingIds() {
+        // Arrange
+        int legacyId = 5_000_000;
+        jdbcTemplate.update("INSERT INTO patient_health_metrics (metric_id, patient_id, record_date, metric_type, "
+                + "numeric_value, created_at) VALUES (?, ?, CURRENT_DATE, 'WEIGHT', 70, CURRENT_TIMESTAMP)", legacyId, patient.getId());
+
+        // Act
+        alignment.align();
+        alignment.align();
+
+        // Assert
+        Long nextVal = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE sequence_name = 'patient_health_metrics'", Long.class);
+        assertEquals(legacyId + 50L, nextVal);
+    }
+
+    @Test
+    void testSavedMetricsGetDistinctIds() {
+        // Arrange
+        List<PatientHealthMetric> metrics = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            PatientHealthMetric metric = new PatientHealthMetric();
+            metric.setPatient(patient);
+            metric.setRecordDate(LocalDate.now().minusDays(i));
+            metric.setMetricType(PatientHealthMetric.MetricType.HEART_RATE);
+            metric.setNumericValue(60.0 + i % 30);
+            metrics.add(metric);
+        }
+
+        // Act
+        List<PatientHealthMetric> saved = healthMetricRepository.saveAll(metrics);
+
+        // Assert
+        assertEquals(120, saved.stream().map(PatientHealthMetric::getId).distinct().count());
+        assertEquals(120, healthMetricRepository.count());
+    }
+}
@@ -0,0 +1,286 @@
+package com.hospital.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds a database from the Flyway migrations alone and checks it against the entities (ddl-auto=validate)
+ * and the repositories: every derived query method must be able to use an index defined by the migrations.
+ * A query is covered when an index starts with all of its equality columns (in any order), or, for a
+ * single range condition, with the range column. Unique constraints and primary keys count as indexes;
+ * indexes the database adds for foreign keys do not, as they differ between databases.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        // The migrations target MySQL (enum columns); validate with the dialect they are written for
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+        // The JCache manager is shared across contexts; closing this one must not close the other contexts' caches
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+public class IndexCoverageTest {
+
+    private static final Set<Part.Type> EQUALITY = EnumSet.of(Part.Type.SIMPLE_PROPERTY, Part.Type.IN,
+            Part.Type.TRUE, Part.Type.FALSE, Part.Type.IS_NULL);
+    private static final Set<Part.Type> RANGE = EnumSet.of(Part.Type.BETWEEN, Part.Type.LESS_THAN,
+            Part.Type.LESS_THAN_EQUAL, Part.Type.GREATER_THAN, Part.Type.GREATER_THAN_EQUAL,
+            Part.Type.BEFORE, Part.Type.AFTER, Part.Type.STARTING_WITH);
+
+    // Queries deliberately left without a covering index
+    private static final Map<String, String> NOT_INDEXED = Map.of(
+            "AppointmentRepository.findByPatientAndAppointmentDate",
+            "a patient has few appointments; the patient_id prefix of idx_appointment_patient_status_date finds them",
+            "PatientRepository.findByBloodGroup",
+            "eight distinct values, an index would not be selective; not called by the application",
+            "UserRepository.findTop10ByOrderByCreatedAtDesc",
+            "not called by the application");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private Flyway flyway;
+
+    /**
+     * Index columns in order, for indexes that count towards coverage
+     */
+    private record Index(String name, boolean unique, List<String> columns) {
+    }
+
+    /**
+     * The conditions of one query on one table
+     */
+    private record Lookup(String query, String table, Set<String> equality, String range, String orderBy,
+                          boolean limited) {
+    }
+
+    @Test
+    void testAllMigrationsApplied() {
+        // Act
+        MigrationInfo[] applied = flyway.info().applied();
+
+        // Assert
+        assertTrue(applied.length >= 4);
+        assertEquals(0, flyway.info().pending().length);
+        for (MigrationInfo migration : applied) {
+            assertTrue(migration.getState().isApplied(), migration.getScript() + " " + migration.getState());
+        }
+    }
+
+    @Test
+    void testEveryDerivedQueryIsCoveredByAnIndex() throws Exception {
+        // Arrange
+        List<Lookup> lookups = new ArrayList<>();
+        for (Class<?> repository : repositories()) {
+            lookups.addAll(lookups(repository));
+        }
+
+        // Act
+        Map<String, List<Index>> indexes = new HashMap<>();
+        Map<String, String> uncovered = new TreeMap<>();
+        Set<String> seen = new HashSet<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (Lookup lookup : lookups) {
+                seen.add(lookup.query());
+                List<Index> tableIndexes = indexes.computeIfAbsent(lookup.table(), table -> indexes(connection, table));
+                if (!isCovered(lookup, tableIndexes) && !NOT_INDEXED.containsKey(lookup.query())) {
+                    uncovered.put(lookup.query(), lookup.table() + " " + lookup.equality()
+                            + (lookup.range() != null ? " range " + lookup.range() : ""));
+                }
+            }
+        }
+
+        // Assert
+        assertFalse(lookups.isEmpty());
+        assertTrue(uncovered.isEmpty(), "Derived queries without a covering index: " + uncovered);
+        for (String query : NOT_INDEXED.keySet()) {
+            assertTrue(seen.contains(query), "NOT_INDEXED names a query that no longer exists: " + query);
+        }
+    }
+
+    private List<Class<?>> repositories() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        List<Class<?>> repositories = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents("com.hospital.repository")) {
+            repositories.add(Class.forName(candidate.getBeanClassName()));
+        }
+        assertFalse(repositories.isEmpty());
+        return repositories;
+    }
+
+    private List<Lookup> lookups(Class<?> repository) {
+        Class<?> domainType = AbstractRepositoryMetadata.getMetadata(repository).getDomainType();
+        Set<String> inherited = new HashSet<>();
+        for (Method method : JpaRepository.class.getMethods()) {
+            inherited.add(method.getName());
+        }
+        List<Lookup> lookups = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (Method method : repository.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Query.class) || method.isDefault() || inherited.contains(method.getName())
+                    || !names.add(method.getName())) {
+                continue;
+            }
+            String query = repository.getSimpleName() + "." + method.getName();
+            PartTree tree = new PartTree(method.getName(), domainType);
+            boolean limited = tree.isLimiting() || Arrays.stream(method.getParameterTypes())
+                    .anyMatch(type -> type == Limit.class || type == Pageable.class);
+            String orderBy = tree.getSort().stream()
+                    .map(order -> column(domainType, PropertyPath.from(order.getProperty(), domainType)))
+                    .findFirst().orElse(null);
+            for (PartTree.OrPart or : tree) {
+                lookups.addAll(lookups(query, domainType, or, orderBy, limited));
+            }
+            if (!tree.iterator().hasNext()) {
+                lookups.add(new Lookup(query, table(domainType), Set.of(), null, orderBy, limited));
+            }
+        }
+        return lookups;
+    }
+
+    private List<Lookup> lookups(String query, Class<?> domainType, PartTree.OrPart or, String orderBy, boolean limited) {
+        List<Lookup> lookups = new ArrayList<>();
+        Set<String> equality = new LinkedHashSet<>();
+        String range = null;
+        for (Part part : or) {
+            PropertyPath path = part.getProperty();
+            if (isNested(domainType, path)) {
+                // Condition on an associated entity: looked up in its own table, then joined on the foreign key
+                Class<?> associated = path.getType();
+                assertTrue(EQUALITY.contains(part.getType()), query + ": unsupported condition " + part);
+                lookups.add(new Lookup(query, table(associated), Set.of(column(associated, path.next())),
+                        null, null, false));
+                lookups.add(new Lookup(query, table(domainType), Set.of(column(domainType, path)), null, null, false));
+            } else if (EQUALITY.contains(part.getType())) {
+                equality.add(column(domainType, path));
+            } else if (RANGE.contains(part.getType()) && range == null) {
+                range = column(domainType, path);
+            } else {
+                fail(query + ": condition cannot use an index: " + part);
+            }
+        }
+        if (!equality.isEmpty() || range != null) {
+            lookups.add(new Lookup(query, table(domainType), equality, range, orderBy, limited));
+        }
+        return lookups;
+    }
+
+    private boolean isCovered(Lookup lookup, List<Index> indexes) {
+        if (lookup.equality().isEmpty() && lookup.range() == null) {
+            // Without conditions only a top-N query needs an index, on its sort column
+            return !lookup.limited() || lookup.orderBy() == null
+                    || indexes.stream().anyMatch(index -> index.columns().get(0).equals(lookup.orderBy()));
+        }
+        for (Index index : indexes) {
+            List<String> columns = index.columns();
+            int prefix = 0;
+            while (prefix < columns.size() && lookup.equality().contains(columns.get(prefix))) {
+                prefix++;
+            }
+            if (prefix == lookup.equality().size() && prefix > 0) {
+                return true;
+            }
+            if (lookup.equality().isEmpty() && columns.get(0).equals(lookup.range())) {
+                return true;
+            }
+            if (index.unique() && lookup.equality().containsAll(columns)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Index> indexes(Connection connection, String table) {
+        Map<String, Index> indexes = new TreeMap<>();
+        try (ResultSet rows = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, table, false, false)) {
+            while (rows.next()) {
+                String name = rows.getString("INDEX_NAME");
+                boolean unique = !rows.getBoolean("NON_UNIQUE");
+                if (name == null || !unique && !name.toLowerCase(Locale.ROOT).startsWith("idx_")) {
+                    continue;
+                }
+                // Rows arrive in ordinal order within each index
+                indexes.computeIfAbsent(name, n -> new Index(n, unique, new ArrayList<>()))
+                        .columns().add(rows.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Could not read the indexes of " + table, e);
+        }
+        assertFalse(indexes.isEmpty(), "No indexes found for table " + table);
+        return new ArrayList<>(indexes.values());
+    }
+
+    private AbstractEntityPersister persister(Class<?> entity) {
+        return (AbstractEntityPersister) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(entity);
+    }
+
+    private String table(Class<?> entity) {
+        return persister(entity).getTableName().replace("`", "").replace("\"", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether the path goes into an associated entity, other than to its id (which is the foreign key column)
+     */
+    private boolean isNested(Class<?> entity, PropertyPath path) {
+        return path.hasNext() && !path.next().getSegment().equals(persister(path.getType()).getIdentifierPropertyName());
+    }
+
+    private String column(Class<?> entity, PropertyPath path) {
+        String[] columns = persister(entity).getPropertyColumnNames(path.getSegment());
+        assertEquals(1, columns.length, "Expected a single column for " + entity.getSimpleName() + "." + path.getSegment());
+        return columns[0].toLowerCase(Locale.ROOT);
+    }
+}
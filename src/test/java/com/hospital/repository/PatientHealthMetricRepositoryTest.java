@@ -0,0 +1,102 @@
+package com.hospital.repository;
+
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class PatientHealthMetricRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PatientHealthMetricRepository healthMetricRepository;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("metrics@example.com");
+        user.setName("Metrics Patient");
+        user.setPassword("secret");
+        patient = new Patient();
+        patient.setUser(entityManager.persist(user));
+        entityManager.persist(patient);
+    }
+
+    @Test
+    void testUnknownMetricTypeSurvivesAnUpdate() {
+        // Arrange: a row written by an older or newer version with a type this one does not know
+        Integer id = persistMetric(PatientHealthMetric.MetricType.WEIGHT).getId();
+        setStoredType(id, "Mood");
+
+        // Act
+        PatientHealthMetric metric = healthMetricRepository.findById(id).orElseThrow();
+        assertNull(metric.getMetricType());
+        metric.setNotes("Reviewed");
+        healthMetricRepository.saveAndFlush(metric);
+        entityManager.clear();
+
+        // Assert
+        assertEquals("Mood", storedType(id));
+        assertEquals("Reviewed", healthMetricRepository.findById(id).orElseThrow().getNotes());
+    }
+
+    @Test
+    void testSettingTheTypeWritesTheEnumName() {
+        // Arrange
+        Integer id = persistMetric(PatientHealthMetric.MetricType.WEIGHT).getId();
+        setStoredType(id, "heart-rate");
+
+        // Act
+        PatientHealthMetric metric = healthMetricRepository.findById(id).orElseThrow();
+        assertEquals(PatientHealthMetric.MetricType.HEART_RATE, metric.getMetricType());
+        metric.setMetricType(PatientHealthMetric.MetricType.SPO2);
+        healthMetricRepository.saveAndFlush(metric);
+        entityManager.clear();
+
+        // Assert
+        assertEquals("SPO2", storedType(id));
+        assertEquals(PatientHealthMetric.MetricType.SPO2, healthMetricRepository.findById(id).orElseThrow().getMetricType());
+    }
+
+    private PatientHealthMetric persistMetric(PatientHealthMetric.MetricType type) {
+        PatientHealthMetric metric = new PatientHealthMetric();
+        metric.setPatient(patient);
+        metric.setMetricType(type);
+        metric.setNumericValue(70.0);
+        metric.setRecordDate(LocalDate.now());
+        PatientHealthMetric saved = entityManager.persistFlushFind(metric);
+        entityManager.clear();
+        return saved;
+    }
+
+    private void setStoredType(Integer id, String type) {
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE patient_health_metrics SET metric_type = ?1 WHERE metric_id = ?2")
+                .setParameter(1, type)
+                .setParameter(2, id)
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    private String storedType(Integer id) {
+        return (String) entityManager.getEntityManager()
+                .createNativeQuery("SELECT metric_type FROM patient_health_metrics WHERE metric_id = ?1")
+                .setParameter(1, id)
+                .getSingleResult();
+    }
+}
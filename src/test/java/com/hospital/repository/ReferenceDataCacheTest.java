@@ -0,0 +1,161 @@
+package com.hospital.repository;
+
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Role;
+import com.hospital.entity.User;
+import com.hospital.service.CacheStatisticsService;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that per-request lookups of the caller's account, roles and profile are
+ * served from the second-level/query cache after the first load.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReferenceDataCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Role role = new Role();
+        role.setName(Role.RoleName.DOCTOR);
+        role = roleRepository.save(role);
+
+        User user = new User();
+        user.setEmail("cached@example.com");
+        user.setName("Dr. Cached");
+        user.setPassword("secret");
+        user.setRoles(Set.of(role));
+        user = userRepository.save(user);
+
+        Doctor doctor = new Doctor();
+        doctor.setUser(user);
+        doctorRepository.save(doctor);
+
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void testRepeatedLookupsByEmailDoNotHitTheDatabase() {
+        // Arrange - first lookup populates the caches
+        userRepository.findByEmail("cached@example.com");
+        doctorRepository.findByUserEmail("cached@example.com");
+        roleRepository.findByName(Role.RoleName.DOCTOR);
+        statistics.clear();
+
+        // Act
+        Optional<User> user = userRepository.findByEmail("cached@example.com");
+        Optional<Doctor> doctor = doctorRepository.findByUserEmail("cached@example.com");
+        Optional<Role> role = roleRepository.findByName(Role.RoleName.DOCTOR);
+
+        // Assert
+        assertTrue(user.isPresent());
+        assertEquals(1, user.get().getRoles().size());
+        assertTrue(doctor.isPresent());
+        assertEquals("Dr. Cached", doctor.get().getUser().getName());
+        assertTrue(role.isPresent());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(3, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testQueryCacheIsInvalidatedOnUpdate() {
+        // Arrange
+        User user = userRepository.findByEmail("cached@example.com").orElseThrow();
+        user.setName("Dr. Renamed");
+        userRepository.save(user);
+
+        // Act
+        User reloaded = userRepository.findByEmail("cached@example.com").orElseThrow();
+
+        // Assert
+        assertEquals("Dr. Renamed", reloaded.getName());
+    }
+
+    @Test
+    void testStatisticsReportCachedRegions() {
+        // Arrange
+        userRepository.findByEmail("cached@example.com");
+        userRepository.findByEmail("cached@example.com");
+
+        // Act
+        Map<String, Object> result = cacheStatisticsService.getCacheStatistics();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        Map<String, Object> regions = (Map<String, Object>) result.get("regions");
+        assertTrue(regions.containsKey("com.hospital.entity.User"));
+        assertTrue(regions.containsKey("com.hospital.entity.Role"));
+        assertTrue(regions.containsKey("com.hospital.entity.Doctor"));
+        assertTrue(regions.containsKey("com.hospital.entity.Nurse"));
+        assertEquals(true, result.get("statisticsEnabled"));
+    }
+
+    @Test
+    void testStatisticsAreCountedWithoutHibernateStatistics() {
+        // Arrange: as in prod, where hibernate.generate_statistics is off
+        statistics.setStatisticsEnabled(false);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        cacheStatisticsService.resetStatistics();
+
+        // Act
+        try {
+            userRepository.findByEmail("cached@example.com");
+            userRepository.findByEmail("cached@example.com");
+        } finally {
+            statistics.setStatisticsEnabled(true);
+        }
+        Map<String, Object> result = cacheStatisticsService.getCacheStatistics();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        Map<String, Object> queryCache = (Map<String, Object>) result.get("queryCache");
+        assertEquals(1L, queryCache.get("hitCount"));
+        assertEquals(1L, queryCache.get("missCount"));
+        assertEquals(0.5, queryCache.get("hitRatio"));
+        assertEquals(1.0, Metrics.globalRegistry.get("hospital.cache.hits")
+                .tag("region", "default-query-results-region").functionCounter().count());
+        assertEquals(1.0, Metrics.globalRegistry.get("hospital.cache.misses")
+                .tag("region", "default-query-results-region").functionCounter().count());
+    }
+}
@@ -1,6 +1,8 @@
 package com.hospital.service;
 
+import com.hospital.dto.AppointmentStatusCount;
 import com.hospital.entity.Appointment;
+import com.hospital.entity.ChangeLogEntry;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.Patient;
 import com.hospital.entity.User;
@@ -16,6 +18,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +34,9 @@ public class AppointmentServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private ChangeFeedService changeFeedService;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -97,6 +103,8 @@ public class AppointmentServiceTest {
         assertEquals(testAppointment.getId(), result.getId());
         assertEquals(testAppointment.getStatus(), result.getStatus());
         verify(appointmentRepository, times(1)).save(any(Appointment.class));
+        verify(changeFeedService).record(ChangeLogEntry.EntityType.APPOINTMENT, testAppointment.getId(),
+                ChangeLogEntry.Operation.CREATED);
     }
 
     @Test
@@ -239,8 +247,8 @@ public class AppointmentServiceTest {
         // Arrange
         List<Appointment> appointmentList = new ArrayList<>();
         appointmentList.add(testAppointment);
-        when(appointmentRepository.findByPatientAndStatusOrderByAppointmentDateAsc(
-                any(Patient.class), any(Appointment.AppointmentStatus.class)))
+        when(appointmentRepository.findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                any(Patient.class), any(Appointment.AppointmentStatus.class), any(LocalDate.class)))
                 .thenReturn(appointmentList);
 
         // Act
@@ -249,8 +257,98 @@ public class AppointmentServiceTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(testAppointment.getId(), result.get(0).getId());
-        verify(appointmentRepository, times(1)).findByPatientAndStatusOrderByAppointmentDateAsc(
-                eq(testPatient), eq(Appointment.AppointmentStatus.SCHEDULED));
+        verify(appointmentRepository, times(1)).findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                eq(testPatient), eq(Appointment.AppointmentStatus.SCHEDULED), eq(LocalDate.now()));
+    }
+
+    @Test
+    void testGetUpcomingAppointmentsUsesRangeQuery() {
+        // Arrange
+        List<Appointment> appointmentList = new ArrayList<>();
+        appointmentList.add(testAppointment);
+        when(appointmentRepository.findByStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                any(Appointment.AppointmentStatus.class), any(LocalDate.class)))
+                .thenReturn(appointmentList);
+
+        // Act
+        List<Appointment> result = appointmentService.getUpcomingAppointments();
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(appointmentRepository, times(1)).findByStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                eq(Appointment.AppointmentStatus.SCHEDULED), eq(LocalDate.now()));
+        verify(appointmentRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetUpcomingAppointmentsForDoctorUsesRangeQuery() {
+        // Arrange
+        List<Appointment> appointmentList = new ArrayList<>();
+        appointmentList.add(testAppointment);
+        when(appointmentRepository.findByDoctorAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                any(Doctor.class), any(Appointment.AppointmentStatus.class), any(LocalDate.class)))
+                .thenReturn(appointmentList);
+
+        // Act
+        List<Appointment> result = appointmentService.getUpcomingAppointmentsForDoctor(testDoctor);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(appointmentRepository, times(1)).findByDoctorAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                eq(testDoctor), eq(Appointment.AppointmentStatus.SCHEDULED), eq(LocalDate.now()));
+        verify(appointmentRepository, never()).findByDoctor(any(Doctor.class));
+    }
+
+    @Test
+    void testGetUpcomingAppointmentsByPatientUsesRangeQuery() {
+        // Arrange
+        List<Appointment> appointmentList = new ArrayList<>();
+        appointmentList.add(testAppointment);
+        when(appointmentRepository.findByPatientAndStatusAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAsc(
+                any(Patient.class), any(Appointment.AppointmentStatus.class), any(LocalDate.class)))
+                .thenReturn(appointmentList);
+
+        // Act
+        List<Appointment> result = appointmentService.getUpcomingAppointmentsByPatient(testPatient);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(appointmentRepository, never()).findByPatientAndStatusOrderByAppointmentDateAsc(
+                any(Patient.class), any(Appointment.AppointmentStatus.class));
+    }
+
+    @Test
+    void testGetTomorrowAppointmentsFiltersStatusInQuery() {
+        // Arrange
+        List<Appointment> appointmentList = new ArrayList<>();
+        appointmentList.add(testAppointment);
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        when(appointmentRepository.findByAppointmentDateAndStatus(tomorrow, Appointment.AppointmentStatus.SCHEDULED))
+                .thenReturn(appointmentList);
+
+        // Act
+        List<Appointment> result = appointmentService.getTomorrowAppointments();
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(emailService, times(1)).sendAppointmentReminder(testAppointment);
+    }
+
+    @Test
+    void testGetAppointmentStatusCountsForDoctor() {
+        // Arrange - only one status present in the aggregate
+        when(appointmentRepository.countByDoctorGroupByStatus(testDoctor))
+                .thenReturn(List.of(new AppointmentStatusCount(Appointment.AppointmentStatus.COMPLETED, 7L)));
+
+        // Act
+        Map<Appointment.AppointmentStatus, Long> result = appointmentService.getAppointmentStatusCountsForDoctor(testDoctor);
+
+        // Assert - missing statuses are reported as zero
+        assertEquals(3, result.size());
+        assertEquals(7L, result.get(Appointment.AppointmentStatus.COMPLETED));
+        assertEquals(0L, result.get(Appointment.AppointmentStatus.SCHEDULED));
+        assertEquals(0L, result.get(Appointment.AppointmentStatus.CANCELLED));
+        verify(appointmentRepository, never()).findByDoctor(any(Doctor.class));
     }
 
     @Test
@@ -0,0 +1,260 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hospital.TestFixtures;
+import com.hospital.entity.Appointment;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Document;
+import com.hospital.entity.MedicalRecord;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.entity.User;
+import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.DocumentRepository;
+import com.hospital.repository.MedicalRecordRepository;
+import com.hospital.repository.PatientHealthMetricRepository;
+import com.hospital.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports a small hospital in pages of two rows and reads the files back, including an export that
+ * resumes after being interrupted in the middle of a page.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+public class BulkExportServiceTest {
+
+    @Autowired
+    private BulkExportService bulkExportService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private PatientHealthMetricRepository healthMetricRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Value("${hospital.export.directory}")
+    private String directory;
+
+    private final List<Patient> patients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkExportService, "pageSize", 2);
+
+        Doctor doctor = fixtures.saveDoctor("export-doctor@example.com", "Export Doctor");
+        User doctorUser = doctor.getUser();
+        for (int i = 1; i <= 3; i++) {
+            Patient patient = fixtures.savePatient("export-patient" + i + "@example.com", "Export Patient " + i);
+            patient.setGender("Female");
+            patient.setDateOfBirth(LocalDate.of(1980, 4, i));
+            patients.add(patientRepository.save(patient));
+        }
+        Patient patient = patients.get(0);
+
+        Appointment appointment = new Appointment();
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctor);
+        appointment.setCreatedBy(doctorUser);
+        appointment.setAppointmentDate(LocalDate.now());
+        appointment.setStatus(Appointment.AppointmentStatus.COMPLETED);
+        appointmentRepository.save(appointment);
+
+        MedicalRecord record = new MedicalRecord();
+        record.setPatient(patient);
+        record.setDoctor(doctor);
+        record.setVisitDate(LocalDate.now());
+        record.setDiagnosis("Hypertension");
+        record = medicalRecordRepository.save(record);
+
+        saveMetric(patient, PatientHealthMetric.MetricType.BLOOD_PRESSURE, "140/90");
+        saveMetric(patient, PatientHealthMetric.MetricType.WEIGHT, "72.5");
+        jdbcTemplate.update("INSERT INTO patient_health_metrics_archive (metric_id, patient_id, record_date, "
+                + "measurement_date, metric_type, numeric_value, created_at, archived_at) "
+                + "VALUES (7000000, ?, '2020-01-15', '2020-01-15', 'WEIGHT', 80, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                patient.getId());
+
+        Document document = new Document();
+        document.setPatient(patient);
+        document.setRecord(record);
+        document.setUploadedBy(doctorUser);
+        document.setDocumentName("scan.pdf");
+        document.setDocumentType("application/pdf");
+        document.setFileData(new byte[]{1, 2, 3});
+        documentRepository.save(document);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(bulkExportService, "pageSize", 1000);
+        FileSystemUtils.deleteRecursively(Path.of(directory).toFile());
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void testExportWritesOneCompressedFilePerTable() throws Exception {
+        // Act
+        ExportJob job = await(bulkExportService.start());
+
+        // Assert
+        assertEquals(ExportJob.State.COMPLETED, job.getState());
+        List<Map<String, Object>> exported = read(job, "Patient.ndjson.gz");
+        assertEquals(patients.stream().map(p -> String.valueOf(p.getId())).toList(),
+                exported.stream().map(p -> p.get("id")).toList());
+        assertEquals("female", exported.get(0).get("gender"));
+        assertEquals("1980-04-01", exported.get(0).get("birthDate"));
+
+        assertEquals(1, read(job, "Practitioner.ndjson.gz").size());
+        assertEquals("fulfilled", read(job, "Appointment.ndjson.gz").get(0).get("status"));
+        assertEquals(0, read(job, "Appointment.archive.ndjson.gz").size());
+        assertEquals(List.of(Map.of("text", "Hypertension")), read(job, "Encounter.ndjson.gz").get(0).get("reasonCode"));
+
+        List<Map<String, Object>> observations = read(job, "Observation.ndjson.gz");
+        assertEquals(2, observations.size());
+        assertTrue(observations.stream().anyMatch(o -> o.containsKey("component")));
+        assertTrue(observations.stream().anyMatch(o -> o.containsKey("valueQuantity")));
+        List<Map<String, Object>> archived = read(job, "Observation.archive.ndjson.gz");
+        assertEquals("7000000", archived.get(0).get("id"));
+        assertEquals("2020-01-15", archived.get(0).get("effectiveDateTime"));
+
+        Map<String, Object> document = read(job, "DocumentReference.ndjson.gz").get(0);
+        assertEquals("scan.pdf", document.get("description"));
+        assertFalse(objectMapper.writeValueAsString(document).contains("fileData"));
+
+        ExportJob manifest = bulkExportService.getJobs().stream()
+                .filter(j -> j.getId().equals(job.getId())).findFirst().orElseThrow();
+        assertEquals(ExportJob.State.COMPLETED, manifest.getState());
+        assertEquals(3, manifest.getOutput().get(0).getCount());
+    }
+
+    @Test
+    void testInterruptedExportResumesAfterTheLastCompletePage() throws Exception {
+        // Arrange: an export that stopped after the first patient, in the middle of writing the next page
+        ExportJob finished = await(bulkExportService.start());
+        Path dir = Path.of(directory, finished.getId());
+        Path patientFile = dir.resolve("Patient.ndjson.gz");
+        String firstPatient = objectMapper.writeValueAsString(read(finished, "Patient.ndjson.gz").get(0));
+        byte[] firstPage = gzip(firstPatient + "\n");
+        Files.write(patientFile, firstPage);
+        Files.write(patientFile, "half a page".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ObjectNode manifest = (ObjectNode) objectMapper.readTree(dir.resolve("manifest.json").toFile());
+        manifest.put("state", "RUNNING");
+        manifest.putNull("finishedAt");
+        ObjectNode patientOutput = (ObjectNode) manifest.get("output").get(0);
+        patientOutput.put("lastId", patients.get(0).getId());
+        patientOutput.put("count", 1);
+        patientOutput.put("bytes", firstPage.length);
+        patientOutput.put("done", false);
+        objectMapper.writeValue(dir.resolve("manifest.json").toFile(), manifest);
+
+        // Act
+        ExportJob resumed = await(bulkExportService.resume(finished.getId()).orElseThrow());
+
+        // Assert
+        assertEquals(ExportJob.State.COMPLETED, resumed.getState());
+        assertEquals(patients.stream().map(p -> String.valueOf(p.getId())).toList(),
+                read(resumed, "Patient.ndjson.gz").stream().map(p -> p.get("id")).toList());
+        assertEquals(3, resumed.getOutput().get(0).getCount());
+        assertEquals(2, resumed.getOutput().stream()
+                .filter(o -> o.getFile().equals("Observation.ndjson.gz")).findFirst().orElseThrow().getCount());
+        assertThrows(IllegalStateException.class, () -> bulkExportService.resume(finished.getId()));
+    }
+
+    @Test
+    void testUnknownOrUnsafeIdsAreNotFound() {
+        // Act & Assert
+        assertTrue(bulkExportService.getJob("00000000-0000-0000-0000-000000000000").isEmpty());
+        assertTrue(bulkExportService.getJob("../../etc").isEmpty());
+    }
+
+    private ExportJob await(ExportJob job) throws InterruptedException {
+        for (int i = 0; i < 200 && job.getState() == ExportJob.State.RUNNING; i++) {
+            Thread.sleep(50);
+        }
+        assertNotEquals(ExportJob.State.RUNNING, job.getState(), "Export did not finish");
+        return job;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> read(ExportJob job, String file) throws IOException {
+        Path path = Path.of(directory, job.getId(), file);
+        List<Map<String, Object>> resources = new ArrayList<>();
+        if (Files.size(path) == 0) {
+            return resources;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                resources.add(objectMapper.readValue(line, Map.class));
+            }
+        }
+        return resources;
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private void saveMetric(Patient patient, PatientHealthMetric.MetricType type, String value) {
+        PatientHealthMetric metric = new PatientHealthMetric();
+        metric.setPatient(patient);
+        metric.setMetricType(type);
+        metric.setValue(value);
+        metric.setMeasurementDate(LocalDate.now());
+        metric.normalizeValues();
+        healthMetricRepository.save(metric);
+    }
+}
@@ -0,0 +1,147 @@
+package com.hospital.service;
+
+import com.hospital.TestFixtures;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.entity.Role;
+import com.hospital.entity.User;
+import com.hospital.repository.PatientHealthMetricRepository;
+import com.hospital.repository.PatientRepository;
+import com.hospital.repository.RoleRepository;
+import com.hospital.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports small CSV and NDJSON files through the real repositories and checks which rows are written
+ * and which are reported with their line numbers.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+public class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PatientHealthMetricRepository healthMetricRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName(Role.RoleName.PATIENT);
+        roleRepository.save(role);
+
+        fixtures.savePatient("existing@example.com", "Existing Patient");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void testImportPatientsFromCsv() {
+        // Arrange
+        String csv = "email,name,password,dateOfBirth,bloodGroup\n"
+                + "ann@example.com,Ann Lee,pass1,1980-04-23,A+\n"
+                + "not-an-email,Bad Email,pass2,,\n"
+                + "\"bob@example.com\",\"Bob, Jr.\",pass3,,O-\n"
+                + "ANN@example.com,Ann Again,pass4,,\n"
+                + "existing@example.com,Existing,pass5,,\n"
+                + "cy@example.com,Cy,pass6,23/04/1980,\n";
+
+        // Act
+        ImportJob job = bulkImportService.run(ImportJob.Kind.PATIENTS, BulkImportService.Format.CSV, stream(csv), "test.csv");
+
+        // Assert
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(6, job.getRowsRead());
+        assertEquals(2, job.getImported());
+        assertEquals(4, job.getFailed());
+        assertEquals(List.of(3L, 5L, 6L, 7L), job.getErrors().stream().map(ImportJob.RowError::line).sorted().toList());
+
+        Map<String, Patient> patients = patientRepository.findByUserEmailIn(List.of("ann@example.com", "bob@example.com"))
+                .stream().collect(Collectors.toMap(p -> p.getUser().getEmail(), p -> p));
+        assertEquals(2, patients.size());
+        assertEquals("A+", patients.get("ann@example.com").getBloodGroup());
+        assertEquals("Bob, Jr.", patients.get("bob@example.com").getUser().getName());
+        User ann = userRepository.findByEmail("ann@example.com").orElseThrow();
+        assertTrue(passwordEncoder.matches("pass1", ann.getPassword()));
+        assertEquals(Role.RoleName.PATIENT, ann.getRoles().iterator().next().getName());
+    }
+
+    @Test
+    void testImportHealthMetricsFromNdjson() {
+        // Arrange
+        String ndjson = "{\"patientEmail\":\"existing@example.com\",\"metricType\":\"BLOOD_PRESSURE\",\"value\":\"120/80\",\"measurementDate\":\"2024-03-01\"}\n"
+                + "{\"patientEmail\":\"existing@example.com\",\"metricType\":\"WEIGHT\",\"value\":72.5}\n"
+                + "\n"
+                + "{\"patientEmail\":\"nobody@example.com\",\"metricType\":\"WEIGHT\",\"value\":\"70\"}\n"
+                + "{\"patientEmail\":\"existing@example.com\",\"metricType\":\"WEIGHT\",\"value\":\"heavy\"}\n"
+                + "{not json\n";
+
+        // Act
+        ImportJob job = bulkImportService.run(ImportJob.Kind.HEALTH_METRICS, BulkImportService.Format.NDJSON,
+                stream(ndjson), "test.ndjson");
+
+        // Assert
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(5, job.getRowsRead());
+        assertEquals(2, job.getImported());
+        assertEquals(List.of(4L, 5L, 6L), job.getErrors().stream().map(ImportJob.RowError::line).sorted().toList());
+        List<PatientHealthMetric> metrics = healthMetricRepository.findAll();
+        assertEquals(2, metrics.size());
+        assertTrue(metrics.stream().anyMatch(m -> Integer.valueOf(120).equals(m.getSystolic())));
+        assertTrue(metrics.stream().anyMatch(m -> Double.valueOf(72.5).equals(m.getNumericValue())));
+    }
+
+    @Test
+    void testMalformedCsvStopsTheImport() {
+        // Arrange
+        String csv = "email,name,password\nann@example.com,\"Ann,pass1\n";
+
+        // Act
+        ImportJob job = bulkImportService.run(ImportJob.Kind.PATIENTS, BulkImportService.Format.CSV, stream(csv), "test.csv");
+
+        // Assert
+        assertEquals(ImportJob.State.FAILED, job.getState());
+        assertTrue(job.getFailure().contains("Unterminated"));
+        assertEquals(0, job.getImported());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
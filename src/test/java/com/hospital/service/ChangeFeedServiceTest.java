@@ -0,0 +1,143 @@
+package com.hospital.service;
+
+import com.hospital.TestFixtures;
+import com.hospital.dto.ChangeResponse;
+import com.hospital.entity.Appointment;
+import com.hospital.entity.ChangeLogEntry;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Patient;
+import com.hospital.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes through the services and reads the resulting change log back through the feed
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+public class ChangeFeedServiceTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PatientHealthMetricService healthMetricService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Patient patient;
+    private Doctor doctor;
+    private User creator;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(changeFeedService, "settleMs", 0L);
+        doctor = fixtures.saveDoctor("changes-doctor@example.com", "Changes Doctor");
+        creator = doctor.getUser();
+        patient = fixtures.savePatient("changes-patient@example.com", "Changes Patient");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(changeFeedService, "settleMs", 2000L);
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void testServiceWritesAppearInOrderAfterTheCursor() {
+        // Arrange
+        Appointment appointment = appointmentService.createAppointment(newAppointment());
+        appointmentService.completeAppointment(appointment.getId(), "changes-doctor@example.com");
+        healthMetricService.recordHealthMetrics(patient, doctor, null, LocalDate.now(), 70.0, null, 60, null);
+        appointmentService.deleteAppointment(appointment.getId());
+
+        // Act
+        List<ChangeResponse> all = changeFeedService.getChanges(0, 100);
+        List<ChangeResponse> firstPage = changeFeedService.getChanges(0, 2);
+        List<ChangeResponse> secondPage = changeFeedService.getChanges(firstPage.get(1).cursor(), 100);
+
+        // Assert
+        assertEquals(List.of(ChangeLogEntry.Operation.CREATED, ChangeLogEntry.Operation.UPDATED,
+                ChangeLogEntry.Operation.CREATED, ChangeLogEntry.Operation.CREATED, ChangeLogEntry.Operation.CREATED,
+                ChangeLogEntry.Operation.DELETED), all.stream().map(ChangeResponse::operation).toList());
+        assertEquals(3, all.stream().filter(c -> c.entityType() == ChangeLogEntry.EntityType.HEALTH_METRIC).count());
+        assertTrue(all.stream().filter(c -> c.entityType() == ChangeLogEntry.EntityType.APPOINTMENT)
+                .allMatch(c -> c.entityId().equals(appointment.getId())));
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i).cursor() > all.get(i - 1).cursor());
+        }
+        assertEquals(all.subList(2, all.size()), secondPage);
+        assertTrue(changeFeedService.getChanges(all.get(all.size() - 1).cursor(), 100).isEmpty());
+    }
+
+    @Test
+    void testRolledBackWritesLeaveNoEntry() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            appointmentService.createAppointment(newAppointment());
+            throw new IllegalStateException("rolled back");
+        }));
+
+        // Assert
+        assertTrue(changeFeedService.getChanges(0, 100).isEmpty());
+    }
+
+    @Test
+    void testRecentEntriesWaitForTheSettleTime() {
+        // Arrange
+        appointmentService.createAppointment(newAppointment());
+        ReflectionTestUtils.setField(changeFeedService, "settleMs", 60_000L);
+
+        // Act & Assert
+        assertTrue(changeFeedService.getChanges(0, 100).isEmpty());
+    }
+
+    @Test
+    void testPurgeRemovesEntriesPastTheRetention() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO change_log (entity_type, entity_id, operation, changed_at) "
+                + "VALUES ('DOCUMENT', 1, 'CREATED', ?)", LocalDate.now().minusYears(1).atStartOfDay());
+        appointmentService.createAppointment(newAppointment());
+
+        // Act
+        changeFeedService.purge();
+
+        // Assert
+        List<ChangeResponse> left = changeFeedService.getChanges(0, 100);
+        assertEquals(1, left.size());
+        assertEquals(ChangeLogEntry.EntityType.APPOINTMENT, left.get(0).entityType());
+    }
+
+    private Appointment newAppointment() {
+        Appointment appointment = new Appointment();
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctor);
+        appointment.setCreatedBy(creator);
+        appointment.setAppointmentDate(LocalDate.now().plusDays(1));
+        return appointment;
+    }
+}
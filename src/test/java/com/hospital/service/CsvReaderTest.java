@@ -0,0 +1,60 @@
+package com.hospital.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTest {
+
+    @Test
+    void testQuotedFieldsMayContainCommasQuotesAndLineBreaks() throws IOException {
+        // Arrange
+        CsvReader csv = new CsvReader(new StringReader(
+                "email,address\r\n\"a@example.com\",\"12 High St,\r\nFlat \"\"B\"\"\"\r\nb@example.com,\n"));
+
+        // Act
+        List<String> header = csv.readRecord();
+        List<String> first = csv.readRecord();
+        long firstLine = csv.getRecordLine();
+        List<String> second = csv.readRecord();
+        long secondLine = csv.getRecordLine();
+
+        // Assert
+        assertEquals(List.of("email", "address"), header);
+        assertEquals(List.of("a@example.com", "12 High St,\r\nFlat \"B\""), first);
+        assertEquals(2, firstLine);
+        assertEquals(List.of("b@example.com", ""), second);
+        assertEquals(4, secondLine);
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void testBlankLinesAreSkippedButCounted() throws IOException {
+        // Arrange
+        CsvReader csv = new CsvReader(new StringReader("a,b\n\n\r\nc,d"));
+
+        // Act
+        csv.readRecord();
+        List<String> record = csv.readRecord();
+
+        // Assert
+        assertEquals(List.of("c", "d"), record);
+        assertEquals(4, csv.getRecordLine());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void testUnterminatedQuoteFails() throws IOException {
+        // Arrange
+        CsvReader csv = new CsvReader(new StringReader("a,b\n\"c,d\n"));
+        csv.readRecord();
+
+        // Act & Assert
+        IOException exception = assertThrows(IOException.class, csv::readRecord);
+        assertTrue(exception.getMessage().contains("line 2"));
+    }
+}
@@ -34,6 +34,9 @@ public class DocumentServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private ChangeFeedService changeFeedService;
+
     @InjectMocks
     private DocumentService documentService;
 
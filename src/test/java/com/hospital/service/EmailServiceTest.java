@@ -1,5 +1,6 @@
 package com.hospital.service;
 
+import com.hospital.config.Bulkhead;
 import com.hospital.entity.Appointment;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.Patient;
@@ -12,8 +13,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,6 +39,10 @@ public class EmailServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Send on the test thread
+        ReflectionTestUtils.setField(emailService, "mailExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(emailService, "mailBulkhead", new Bulkhead("mail-test", 1, 100));
+
         // Set up test users
         testPatientUser = new User();
         testPatientUser.setId(1);
@@ -0,0 +1,145 @@
+package com.hospital.service;
+
+import com.hospital.TestFixtures;
+import com.hospital.dto.AppointmentSummary;
+import com.hospital.entity.Appointment;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.entity.User;
+import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.PatientHealthMetricRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Moves old rows into the archive tables and reads them back through the chart and appointment history
+ * queries. Uses the default 24 month horizon.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+public class HealthDataArchiverTest {
+
+    @Autowired
+    private HealthDataArchiver archiver;
+
+    @Autowired
+    private PatientHealthMetricService healthMetricService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PatientHealthMetricRepository healthMetricRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private Patient patient;
+    private Doctor doctor;
+    private User creator;
+    private LocalDate old;
+
+    @BeforeEach
+    void setUp() {
+        old = LocalDate.now().minusYears(3);
+        doctor = fixtures.saveDoctor("archive-doctor@example.com", "Archive Doctor");
+        creator = doctor.getUser();
+        patient = fixtures.savePatient("archive-patient@example.com", "Archive Patient");
+
+        saveWeight(old, 70.0);
+        saveWeight(LocalDate.now(), 72.0);
+        // Legacy reading without a measurement date
+        jdbcTemplate.update("INSERT INTO patient_health_metrics (metric_id, patient_id, record_date, metric_type, "
+                + "numeric_value, created_at) VALUES (7000000, ?, ?, 'WEIGHT', 71, CURRENT_TIMESTAMP)",
+                patient.getId(), old.plusDays(1));
+
+        saveAppointment(old, Appointment.AppointmentStatus.COMPLETED);
+        saveAppointment(old, Appointment.AppointmentStatus.SCHEDULED);
+        saveAppointment(LocalDate.now().minusDays(1), Appointment.AppointmentStatus.COMPLETED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void testOnlyFinishedRowsBeforeTheCutoffAreMoved() {
+        // Act
+        Map<String, Integer> moved = archiver.archive();
+
+        // Assert
+        assertEquals(2, moved.get("patient_health_metrics"));
+        assertEquals(1, moved.get("appointment"));
+        assertEquals(1, healthMetricRepository.count());
+        assertEquals(2, appointmentRepository.count());
+        assertEquals(Appointment.AppointmentStatus.SCHEDULED, appointmentRepository.findAll().stream()
+                .filter(a -> a.getAppointmentDate().equals(old)).findFirst().orElseThrow().getStatus());
+        // The record date stands in for the missing measurement date
+        assertEquals(old.plusDays(1), jdbcTemplate.queryForObject(
+                "SELECT measurement_date FROM patient_health_metrics_archive WHERE metric_id = 7000000", LocalDate.class));
+        assertEquals(0, archiver.archive().get("patient_health_metrics"));
+    }
+
+    @Test
+    void testRangesBeforeTheCutoffReadThroughToTheArchive() {
+        // Arrange
+        archiver.archive();
+
+        // Act
+        List<PatientHealthMetric> allWeights = healthMetricService.findMetricsInRange(
+                patient, PatientHealthMetric.MetricType.WEIGHT, old.minusYears(1), LocalDate.now());
+        List<PatientHealthMetric> recentWeights = healthMetricService.findMetricsInRange(
+                patient, PatientHealthMetric.MetricType.WEIGHT, LocalDate.now().minusMonths(1), LocalDate.now());
+        List<AppointmentSummary> history = appointmentService.getPastAppointmentsByPatientSince(patient, old.minusDays(1));
+
+        // Assert
+        assertEquals(List.of(70.0, 71.0, 72.0), allWeights.stream().map(PatientHealthMetric::getNumericValue).toList());
+        assertEquals(1, recentWeights.size());
+        assertEquals(3, history.size());
+        AppointmentSummary archived = history.get(history.size() - 1);
+        assertEquals(old, archived.appointmentDate());
+        assertEquals("Archive Doctor", archived.doctorName());
+        assertEquals("Archive Patient", archived.patientName());
+    }
+
+    private void saveWeight(LocalDate date, double kg) {
+        PatientHealthMetric metric = new PatientHealthMetric();
+        metric.setPatient(patient);
+        metric.setMetricType(PatientHealthMetric.MetricType.WEIGHT);
+        metric.setNumericValue(kg);
+        metric.setRecordDate(date);
+        metric.setMeasurementDate(date);
+        healthMetricRepository.save(metric);
+    }
+
+    private void saveAppointment(LocalDate date, Appointment.AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctor);
+        appointment.setCreatedBy(creator);
+        appointment.setAppointmentDate(date);
+        appointment.setStatus(status);
+        appointmentRepository.save(appointment);
+    }
+}
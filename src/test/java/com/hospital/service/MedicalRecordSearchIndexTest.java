@@ -0,0 +1,98 @@
+package com.hospital.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MedicalRecordSearchIndexTest {
+
+    private MedicalRecordSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MedicalRecordSearchIndex();
+        index.index(1, "Acute bronchitis", "Amoxicillin 500mg");
+        index.index(2, "Chronic bronchitis", "Salbutamol inhaler");
+        index.index(3, "Type 2 diabetes", "Metformin 500mg");
+    }
+
+    @Test
+    void testTokenizeLowercasesAndDropsPunctuation() {
+        // Act
+        Set<String> tokens = MedicalRecordSearchIndex.tokenize("Type-2 Diabetes, a", null);
+
+        // Assert
+        assertEquals(Set.of("type", "diabetes"), tokens);
+    }
+
+    @Test
+    void testSearchMatchesAllTokensNewestFirst() {
+        // Act & Assert
+        assertEquals(List.of(2, 1), index.search("BRONCHITIS", 10));
+        assertEquals(List.of(1), index.search("bronchitis 500mg", 10));
+        assertEquals(List.of(3, 1), index.search("500mg", 10));
+        assertEquals(List.of(2), index.search("bronchitis", 1));
+        assertTrue(index.search("asthma", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testReindexReplacesOldTokens() {
+        // Act
+        index.index(1, "Pneumonia", "Azithromycin");
+
+        // Assert
+        assertEquals(List.of(2), index.search("bronchitis", 10));
+        assertEquals(List.of(1), index.search("pneumonia", 10));
+    }
+
+    @Test
+    void testRemove() {
+        // Act
+        index.remove(3);
+
+        // Assert
+        assertTrue(index.search("diabetes", 10).isEmpty());
+        assertEquals(2, index.getDocumentCount());
+    }
+
+    @Test
+    void testChangesDuringRebuildWinOverLoadedRows() {
+        // Arrange
+        index.startRebuild();
+
+        // Act - record 1 is updated and record 2 deleted after the rebuild read them
+        index.index(1, "Pneumonia", null);
+        index.remove(2);
+        index.load(1, "Acute bronchitis", "Amoxicillin 500mg");
+        index.load(2, "Chronic bronchitis", "Salbutamol inhaler");
+        index.load(3, "Type 2 diabetes", "Metformin 500mg");
+        index.finishRebuild();
+
+        // Assert
+        assertTrue(index.isReady());
+        assertEquals(List.of(1), index.search("pneumonia", 10));
+        assertTrue(index.search("bronchitis", 10).isEmpty());
+        assertEquals(List.of(3), index.search("diabetes", 10));
+    }
+
+    @Test
+    void testOnlyOneRebuildRunsAtATime() {
+        // Arrange
+        assertTrue(index.startRebuild());
+        index.load(1, "Acute bronchitis", "Amoxicillin 500mg");
+
+        // Act
+        boolean second = index.startRebuild();
+        index.finishRebuild();
+
+        // Assert
+        assertFalse(second);
+        assertEquals(1, index.getDocumentCount());
+        assertTrue(index.startRebuild());
+    }
+}
@@ -1,5 +1,6 @@
 package com.hospital.service;
 
+import com.hospital.entity.ChangeLogEntry;
 import com.hospital.entity.Doctor;
 import com.hospital.entity.MedicalRecord;
 import com.hospital.entity.Patient;
@@ -11,6 +12,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -28,6 +31,12 @@ public class MedicalRecordServiceTest {
     @Mock
     private MedicalRecordRepository medicalRecordRepository;
 
+    @Mock
+    private MedicalRecordSearchIndex searchIndex;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
     @InjectMocks
     private MedicalRecordService medicalRecordService;
 
@@ -163,6 +172,8 @@ public class MedicalRecordServiceTest {
         assertNotNull(result);
         assertEquals(testRecord.getId(), result.getId());
         verify(medicalRecordRepository, times(1)).save(testRecord);
+        verify(changeFeedService).record(ChangeLogEntry.EntityType.MEDICAL_RECORD, testRecord.getId(),
+                ChangeLogEntry.Operation.UPDATED);
     }
 
     @Test
@@ -182,7 +193,7 @@ public class MedicalRecordServiceTest {
         // Arrange
         List<MedicalRecord> recordList = new ArrayList<>();
         recordList.add(testRecord);
-        when(medicalRecordRepository.findByPatientOrderByVisitDateDesc(any(Patient.class))).thenReturn(recordList);
+        when(medicalRecordRepository.findByPatientOrderByVisitDateDesc(any(Patient.class), any(Limit.class))).thenReturn(recordList);
 
         // Act
         List<MedicalRecord> result = medicalRecordService.getRecentMedicalRecordsByPatient(testPatient, 5);
@@ -190,6 +201,92 @@ public class MedicalRecordServiceTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(testRecord.getId(), result.get(0).getId());
-        verify(medicalRecordRepository, times(1)).findByPatientOrderByVisitDateDesc(testPatient);
+        verify(medicalRecordRepository, times(1)).findByPatientOrderByVisitDateDesc(testPatient, Limit.of(5));
+        verify(medicalRecordRepository, never()).findByPatientOrderByVisitDateDesc(testPatient);
+    }
+
+    @Test
+    void testCreateMedicalRecordIsIndexed() {
+        // Arrange
+        when(medicalRecordRepository.save(any(MedicalRecord.class))).thenReturn(testRecord);
+
+        // Act
+        medicalRecordService.createMedicalRecord(testRecord);
+
+        // Assert
+        verify(searchIndex, times(1)).index(1, "Test Diagnosis", "Test Prescription");
+    }
+
+    @Test
+    void testSearchMedicalRecordsUsesIndexWhenReady() {
+        // Arrange
+        MedicalRecord olderRecord = new MedicalRecord();
+        olderRecord.setId(0);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("diagnosis", 10)).thenReturn(List.of(1, 0));
+        when(medicalRecordRepository.findAllById(List.of(1, 0))).thenReturn(List.of(olderRecord, testRecord));
+
+        // Act
+        List<MedicalRecord> result = medicalRecordService.searchMedicalRecords("diagnosis", 10);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getId());
+        verify(medicalRecordRepository, never()).searchByDiagnosisOrPrescription(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void testSearchMedicalRecordsFallsBackToLikeQueryBeforeIndexIsBuilt() {
+        // Arrange
+        when(searchIndex.isReady()).thenReturn(false);
+        when(medicalRecordRepository.searchByDiagnosisOrPrescription(eq("diagnosis"), any(Pageable.class)))
+                .thenReturn(List.of(testRecord));
+
+        // Act
+        List<MedicalRecord> result = medicalRecordService.searchMedicalRecords(" diagnosis ", 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(searchIndex, never()).search(anyString(), anyInt());
+    }
+
+    @Test
+    void testRebuildSearchIndexPagesThroughAllRecords() {
+        // Arrange
+        when(searchIndex.startRebuild()).thenReturn(true);
+        when(medicalRecordRepository.findByIdGreaterThanOrderByIdAsc(eq(0), any(Limit.class)))
+                .thenReturn(List.of(testRecord));
+
+        // Act
+        int indexed = medicalRecordService.rebuildSearchIndex();
+
+        // Assert
+        assertEquals(1, indexed);
+        verify(searchIndex).startRebuild();
+        verify(searchIndex).load(1, "Test Diagnosis", "Test Prescription");
+        verify(searchIndex).finishRebuild();
+    }
+
+    @Test
+    void testRebuildSearchIndexRejectsOverlappingRebuild() {
+        // Arrange
+        when(searchIndex.startRebuild()).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> medicalRecordService.rebuildSearchIndex());
+        verify(medicalRecordRepository, never()).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Limit.class));
+        verify(searchIndex, never()).finishRebuild();
+    }
+
+    @Test
+    void testStartupRebuildFailureDoesNotPropagate() {
+        // Arrange
+        when(searchIndex.startRebuild()).thenReturn(true);
+        when(medicalRecordRepository.findByIdGreaterThanOrderByIdAsc(eq(0), any(Limit.class)))
+                .thenThrow(new RuntimeException("Database unavailable"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> medicalRecordService.buildSearchIndexOnStartup());
+        verify(searchIndex).abortRebuild();
     }
-} 
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -14,10 +15,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.hospital.config.Bulkhead;
+import com.hospital.dto.HealthMetricChartData;
 import com.hospital.entity.Patient;
 import com.hospital.entity.PatientHealthMetric;
 import com.hospital.entity.User;
+import com.hospital.repository.ArchivedHealthMetricRepository;
 import com.hospital.repository.PatientHealthMetricRepository;
 import com.hospital.repository.PatientRepository;
 
@@ -30,6 +36,21 @@ public class PatientHealthMetricServiceTest {
     @Mock
     private PatientRepository patientRepository;
     
+    @Mock
+    private ArchivedHealthMetricRepository archivedHealthMetricRepository;
+    
+    @Mock
+    private HealthDataArchiver healthDataArchiver;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Mock
+    private VitalsStreamService vitalsStreamService;
+
+    @Mock
+    private VitalsAlertService vitalsAlertService;
+    
     @InjectMocks
     private PatientHealthMetricService patientHealthMetricService;
     
@@ -39,6 +60,8 @@ public class PatientHealthMetricServiceTest {
     
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(patientHealthMetricService, "chartBulkhead", new Bulkhead("chart-test", 1, 100));
+
         // Create test data
         testUser = new User();
         testUser.setId(1);
@@ -52,7 +75,7 @@ public class PatientHealthMetricServiceTest {
         testMetric = new PatientHealthMetric();
         testMetric.setId(1);
         testMetric.setPatient(testPatient);
-        testMetric.setMetricType("Blood Pressure");
+        testMetric.setMetricType(PatientHealthMetric.MetricType.BLOOD_PRESSURE);
     }
     
     @Test
@@ -61,7 +84,25 @@ public class PatientHealthMetricServiceTest {
         assertNotNull(testMetric);
         assertEquals(1, testMetric.getId());
         assertEquals(testPatient, testMetric.getPatient());
-        assertEquals("Blood Pressure", testMetric.getMetricType());
+        assertEquals(PatientHealthMetric.MetricType.BLOOD_PRESSURE, testMetric.getMetricType());
+    }
+    
+    @Test
+    void testRecentRangeDoesNotReadTheArchive() {
+        // Arrange
+        LocalDate from = LocalDate.now().minusMonths(3);
+        LocalDate to = LocalDate.now();
+        when(healthDataArchiver.isArchived(from)).thenReturn(false);
+        when(patientHealthMetricRepository.findByPatientAndMetricTypeAndMeasurementDateBetweenOrderByMeasurementDateAsc(
+                testPatient, PatientHealthMetric.MetricType.BLOOD_PRESSURE, from, to)).thenReturn(List.of(testMetric));
+        
+        // Act
+        List<PatientHealthMetric> result = patientHealthMetricService.findMetricsInRange(
+                testPatient, PatientHealthMetric.MetricType.BLOOD_PRESSURE, from, to);
+        
+        // Assert
+        assertEquals(List.of(testMetric), result);
+        verifyNoInteractions(archivedHealthMetricRepository);
     }
     
     @Test
@@ -152,4 +193,74 @@ public class PatientHealthMetricServiceTest {
         verify(patientRepository, times(1)).findById(1);
         verify(patientHealthMetricRepository, times(1)).findByPatient(testPatient);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testGetRecentHealthMetricsByPatientIsBoundedInTheDatabase() {
+        // Arrange
+        when(patientHealthMetricRepository.findByPatientOrderByRecordDateDesc(testPatient, Limit.of(5)))
+                .thenReturn(List.of(testMetric));
+
+        // Act
+        List<PatientHealthMetric> result = patientHealthMetricService.getRecentHealthMetricsByPatient(testPatient, 5);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(patientHealthMetricRepository, never()).findByPatientOrderByRecordDateDesc(testPatient);
+    }
+
+    @Test
+    void testGetPatientHealthMetricsChartDataReadsMetricsOnce() {
+        // Arrange
+        PatientHealthMetric weight = new PatientHealthMetric();
+        weight.setMetricType(PatientHealthMetric.MetricType.WEIGHT);
+        weight.setMeasurementDate(LocalDate.of(2024, 2, 1));
+        weight.setNumericValue(72.0);
+        when(patientHealthMetricRepository.findByPatientOrderByRecordDateAsc(testPatient)).thenReturn(List.of(weight));
+
+        // Act
+        HealthMetricChartData result = patientHealthMetricService.getPatientHealthMetricsChartData(testPatient);
+
+        // Assert
+        assertArrayEquals(new double[]{72.0}, result.weights());
+        assertArrayEquals(new String[]{"2024-02-01"}, result.dates());
+        verify(patientHealthMetricRepository, times(1)).findByPatientOrderByRecordDateAsc(testPatient);
+    }
+
+    @Test
+    void testGetPatientHealthMetricsChartDataWithoutMetrics() {
+        // Arrange
+        when(patientHealthMetricRepository.findByPatientOrderByRecordDateAsc(testPatient)).thenReturn(List.of());
+
+        // Act
+        HealthMetricChartData result = patientHealthMetricService.getPatientHealthMetricsChartData(testPatient);
+
+        // Assert
+        assertSame(HealthMetricChartData.empty(), result);
+    }
+
+    @Test
+    void testCreateHealthMetricConvertsLegacyInputToNumericColumns() {
+        // Arrange
+        PatientHealthMetric bloodPressure = new PatientHealthMetric();
+        bloodPressure.setPatient(testPatient);
+        bloodPressure.setMetricType(PatientHealthMetric.MetricType.fromString("Blood Pressure"));
+        bloodPressure.setValue("128/84");
+        PatientHealthMetric heartRate = new PatientHealthMetric();
+        heartRate.setPatient(testPatient);
+        heartRate.setHeartRate(61);
+        when(patientHealthMetricRepository.save(any(PatientHealthMetric.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        PatientHealthMetric savedBloodPressure = patientHealthMetricService.createHealthMetric(bloodPressure);
+        PatientHealthMetric savedHeartRate = patientHealthMetricService.createHealthMetric(heartRate);
+
+        // Assert
+        assertEquals(128, savedBloodPressure.getSystolic());
+        assertEquals(84, savedBloodPressure.getDiastolic());
+        assertEquals("128/84", savedBloodPressure.getDisplayValue());
+        assertEquals(PatientHealthMetric.MetricType.HEART_RATE, savedHeartRate.getMetricType());
+        assertEquals(61.0, savedHeartRate.getNumericValue());
+        verify(vitalsStreamService).publish(List.of(savedHeartRate));
+        verify(vitalsAlertService).submit(List.of(savedHeartRate));
+    }
+}
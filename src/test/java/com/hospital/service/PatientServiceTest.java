@@ -1,5 +1,6 @@
 package com.hospital.service;
 
+import com.hospital.dto.HealthMetricChartData;
 import com.hospital.entity.Patient;
 import com.hospital.entity.Role;
 import com.hospital.entity.User;
@@ -7,14 +8,22 @@ import com.hospital.repository.PatientRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,6 +38,18 @@ public class PatientServiceTest {
     
     @Mock
     private UserService userService;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private MedicalRecordService medicalRecordService;
+
+    @Mock
+    private PatientHealthMetricService healthMetricService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
     
     @InjectMocks
     private PatientService patientService;
@@ -51,6 +72,10 @@ public class PatientServiceTest {
         testPatient.setGender("Male");
         testPatient.setAddress("123 Test St");
         testPatient.setPhoneNumber("123-456-7890");
+
+        // Run dashboard sections on the calling thread unless a test needs real concurrency
+        ReflectionTestUtils.setField(patientService, "dashboardExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(patientService, "sectionTimeoutMs", 2000L);
     }
 
     @Test
@@ -194,4 +219,97 @@ public class PatientServiceTest {
         // Assert
         verify(patientRepository, times(1)).deleteById(1);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testGetPatientDashboardDataUsesBoundedQueries() {
+        // Arrange
+        when(appointmentService.countUpcomingAppointmentsForPatient(testPatient)).thenReturn(12L);
+        when(appointmentService.getUpcomingAppointmentsForPatient(testPatient, 5)).thenReturn(List.of());
+        when(medicalRecordService.countMedicalRecordsByPatient(testPatient)).thenReturn(40L);
+        when(healthMetricService.getPatientHealthMetricsChartData(testPatient)).thenReturn(HealthMetricChartData.empty());
+
+        // Act
+        Map<String, Object> result = patientService.getPatientDashboardData(testPatient);
+
+        // Assert
+        assertEquals(12L, result.get("upcomingAppointments"));
+        assertEquals(40L, result.get("totalRecords"));
+        verify(appointmentService, never()).getAppointmentsByPatient(any(Patient.class));
+        verify(appointmentService, never()).getUpcomingAppointmentsForPatient(testPatient);
+        verify(medicalRecordService, never()).getMedicalRecordsByPatient(any(Patient.class));
+    }
+
+    @Test
+    void testGetPatientDashboardDataTimesOutSectionQueriesAtTheDeadline() {
+        // Arrange
+        when(appointmentService.countUpcomingAppointmentsForPatient(testPatient)).thenReturn(1L);
+        when(appointmentService.getUpcomingAppointmentsForPatient(testPatient, 5)).thenReturn(List.of());
+        when(medicalRecordService.countMedicalRecordsByPatient(testPatient)).thenReturn(2L);
+        when(healthMetricService.getPatientHealthMetricsChartData(testPatient)).thenReturn(HealthMetricChartData.empty());
+
+        // Act
+        patientService.getPatientDashboardData(testPatient);
+
+        // Assert: every section runs in a read-only transaction whose timeout ends at the 2 s deadline
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(4)).getTransaction(definitions.capture());
+        for (TransactionDefinition definition : definitions.getAllValues()) {
+            assertTrue(definition.isReadOnly());
+            assertTrue(definition.getTimeout() >= 1 && definition.getTimeout() <= 2, "timeout " + definition.getTimeout());
+        }
+    }
+
+    @Test
+    void testGetPatientDashboardDataDegradesFailedSection() {
+        // Arrange
+        when(appointmentService.countUpcomingAppointmentsForPatient(testPatient)).thenReturn(3L);
+        when(appointmentService.getUpcomingAppointmentsForPatient(testPatient, 5)).thenReturn(List.of());
+        when(medicalRecordService.countMedicalRecordsByPatient(testPatient)).thenThrow(new RuntimeException("db down"));
+        when(healthMetricService.getPatientHealthMetricsChartData(testPatient)).thenReturn(HealthMetricChartData.empty());
+
+        // Act
+        Map<String, Object> result = patientService.getPatientDashboardData(testPatient);
+
+        // Assert
+        assertEquals(3L, result.get("upcomingAppointments"));
+        assertEquals(0L, result.get("totalRecords"));
+        Map<?, ?> meta = (Map<?, ?>) result.get("meta");
+        Map<?, ?> sections = (Map<?, ?>) meta.get("sections");
+        assertEquals(true, meta.get("partial"));
+        assertEquals("FAILED", ((Map<?, ?>) sections.get("totalRecords")).get("status"));
+        assertEquals("OK", ((Map<?, ?>) sections.get("upcomingAppointments")).get("status"));
+    }
+
+    @Test
+    void testGetPatientDashboardDataTimesOutSlowSection() {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ReflectionTestUtils.setField(patientService, "dashboardExecutor", executor);
+        ReflectionTestUtils.setField(patientService, "sectionTimeoutMs", 200L);
+        when(appointmentService.countUpcomingAppointmentsForPatient(testPatient)).thenReturn(1L);
+        when(appointmentService.getUpcomingAppointmentsForPatient(testPatient, 5)).thenReturn(List.of());
+        when(medicalRecordService.countMedicalRecordsByPatient(testPatient)).thenReturn(2L);
+        when(healthMetricService.getPatientHealthMetricsChartData(testPatient)).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return HealthMetricChartData.empty();
+        });
+
+        try {
+            // Act
+            long start = System.nanoTime();
+            Map<String, Object> result = patientService.getPatientDashboardData(testPatient);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert
+            assertTrue(elapsedMs < 2000, "dashboard waited " + elapsedMs + " ms for a slow section");
+            assertEquals(2L, result.get("totalRecords"));
+            assertSame(HealthMetricChartData.empty(), result.get("healthMetrics"));
+            Map<?, ?> meta = (Map<?, ?>) result.get("meta");
+            Map<?, ?> sections = (Map<?, ?>) meta.get("sections");
+            assertEquals(true, meta.get("partial"));
+            assertEquals("TIMEOUT", ((Map<?, ?>) sections.get("healthMetrics")).get("status"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.hospital.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryLogTest {
+
+    @Test
+    void testIgnoresStatementsBelowThreshold() {
+        // Arrange
+        SlowQueryLog log = new SlowQueryLog(10, 100);
+
+        // Act
+        log.record("select 1", TimeUnit.MILLISECONDS.toNanos(99), "GET /api/test");
+
+        // Assert
+        assertTrue(log.getSlowestQueries().isEmpty());
+    }
+
+    @Test
+    void testKeepsMostRecentEntriesSlowestFirst() {
+        // Arrange
+        SlowQueryLog log = new SlowQueryLog(2, 10);
+
+        // Act
+        log.record("select a from t", TimeUnit.MILLISECONDS.toNanos(500), "GET /api/a");
+        log.record("select b from t", TimeUnit.MILLISECONDS.toNanos(20), "GET /api/b");
+        log.record("select c from t", TimeUnit.MILLISECONDS.toNanos(40), null);
+
+        // Assert
+        List<SlowQueryLog.SlowQuery> queries = log.getSlowestQueries();
+        assertEquals(2, queries.size());
+        assertEquals("select c from t", queries.get(0).sql());
+        assertEquals(40, queries.get(0).durationMs());
+        assertEquals("select b from t", queries.get(1).sql());
+        assertEquals("GET /api/b", queries.get(1).request());
+    }
+
+    @Test
+    void testClearEmptiesTheBuffer() {
+        // Arrange
+        SlowQueryLog log = new SlowQueryLog(2, 0);
+        log.record("select 1", 1, null);
+
+        // Act
+        log.clear();
+
+        // Assert
+        assertTrue(log.getSlowestQueries().isEmpty());
+    }
+
+    @Test
+    void testShapeReplacesLiteralsAndCollapsesInLists() {
+        assertEquals("select p1_0.id from patients p1_0 where p1_0.id in (?...) and p1_0.gender = ? and p1_0.age > ?",
+                SlowQueryLog.shape("SELECT p1_0.id FROM patients p1_0\n  WHERE p1_0.id IN (1, 2, 3) AND p1_0.gender = 'O''Brien' AND p1_0.age > 42"));
+        assertEquals("select * from users where id in (?...)", SlowQueryLog.shape("select * from users where id in (?,?,?)"));
+    }
+}
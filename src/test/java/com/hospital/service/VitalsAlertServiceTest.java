@@ -0,0 +1,199 @@
+package com.hospital.service;
+
+import com.hospital.dto.VitalsAlert;
+import com.hospital.entity.Doctor;
+import com.hospital.entity.Patient;
+import com.hospital.entity.PatientHealthMetric;
+import com.hospital.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VitalsAlertServiceTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private VitalsStreamService vitalsStreamService;
+
+    @Mock
+    private DoctorService doctorService;
+
+    @InjectMocks
+    private VitalsAlertService vitalsAlertService;
+
+    private Patient testPatient;
+    private Doctor testDoctor;
+    private LocalDateTime now;
+    private int metricId;
+
+    @BeforeEach
+    void setUp() {
+        // Evaluate on the calling thread
+        ReflectionTestUtils.setField(vitalsAlertService, "alertExecutor", (TaskExecutor) Runnable::run);
+        ReflectionTestUtils.setField(vitalsAlertService, "enabled", true);
+        ReflectionTestUtils.setField(vitalsAlertService, "windowSize", 20);
+        ReflectionTestUtils.setField(vitalsAlertService, "sustainedCount", 3);
+        ReflectionTestUtils.setField(vitalsAlertService, "cooldownMinutes", 30L);
+        ReflectionTestUtils.setField(vitalsAlertService, "maxPatients", 100);
+        ReflectionTestUtils.setField(vitalsAlertService, "emailDoctor", true);
+        ReflectionTestUtils.setField(vitalsAlertService, "emailRecipients", new String[]{"ward@example.com"});
+
+        testPatient = new Patient();
+        testPatient.setId(1);
+        User doctorUser = new User();
+        doctorUser.setEmail("doctor@example.com");
+        testDoctor = new Doctor();
+        testDoctor.setId(7);
+        testDoctor.setUser(doctorUser);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void testCriticalReadingAlertsTheStreamAndEmails() {
+        // Arrange
+        when(doctorService.getDoctorById(7)).thenReturn(Optional.of(testDoctor));
+
+        // Act
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.HEART_RATE, 142, now)));
+
+        // Assert
+        VitalsAlert alert = captureAlerts(1).get(0);
+        assertEquals(VitalsAlert.Rule.THRESHOLD, alert.rule());
+        assertEquals(1, alert.patientId());
+        assertEquals("Heart rate 142 bpm is above 130 bpm", alert.message());
+        verify(emailService).sendEmail(eq("ward@example.com"), eq("Vitals alert for patient 1"), contains("142 bpm"));
+        verify(emailService).sendEmail(eq("doctor@example.com"), anyString(), anyString());
+    }
+
+    @Test
+    void testNormalReadingsRaiseNothing() {
+        // Act
+        vitalsAlertService.submit(List.of(
+                reading(PatientHealthMetric.MetricType.HEART_RATE, 72, now),
+                reading(PatientHealthMetric.MetricType.HEART_RATE, 75, now.plusMinutes(5)),
+                reading(PatientHealthMetric.MetricType.WEIGHT, 70.5, now)));
+
+        // Assert
+        verifyNoInteractions(vitalsStreamService, emailService, doctorService);
+    }
+
+    @Test
+    void testSustainedDeviationAlertsOnTheThirdReading() {
+        // Act
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.HEART_RATE, 105, now)));
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.HEART_RATE, 108, now.plusHours(2))));
+        verifyNoInteractions(vitalsStreamService);
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.HEART_RATE, 110, now.plusHours(4))));
+
+        // Assert
+        VitalsAlert alert = captureAlerts(1).get(0);
+        assertEquals(VitalsAlert.Rule.SUSTAINED, alert.rule());
+        assertEquals("Heart rate above 100 bpm for the last 3 readings, latest 110 bpm", alert.message());
+    }
+
+    @Test
+    void testRateOfChangeOnlyCountsReadingsWithinThePeriod() {
+        // Act: a 3 kg gain over a week is not alerted, a 2.5 kg gain over two days is
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.WEIGHT, 70, now.minusDays(7))));
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.WEIGHT, 71, now.minusDays(2))));
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.WEIGHT, 73.5, now)));
+
+        // Assert
+        VitalsAlert alert = captureAlerts(1).get(0);
+        assertEquals(VitalsAlert.Rule.RATE_OF_CHANGE, alert.rule());
+        assertEquals("Weight rose 2.5 kg within 3 days to 73.5 kg", alert.message());
+    }
+
+    @Test
+    void testOxygenRecoveryIsNotAlertedButAFallIs() {
+        // Act
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.SPO2, 90, now)));
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.SPO2, 97, now.plusMinutes(10))));
+        verifyNoInteractions(vitalsStreamService);
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.SPO2, 91, now.plusMinutes(20))));
+
+        // Assert
+        VitalsAlert alert = captureAlerts(1).get(0);
+        assertEquals(VitalsAlert.Rule.RATE_OF_CHANGE, alert.rule());
+        assertEquals("SpO2 fell 6 % within an hour to 91 %", alert.message());
+    }
+
+    @Test
+    void testRepeatedAlertsWaitForTheCooldown() {
+        // Act
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.TEMPERATURE, 39.8, now)));
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.TEMPERATURE, 39.9, now.plusMinutes(10))));
+        vitalsAlertService.submit(List.of(reading(PatientHealthMetric.MetricType.TEMPERATURE, 39.7, now.plusMinutes(40))));
+
+        // Assert: the second reading is within the cooldown; the third also completes a sustained fever
+        List<VitalsAlert> alerts = captureAlerts(3);
+        assertEquals(List.of(VitalsAlert.Rule.THRESHOLD, VitalsAlert.Rule.THRESHOLD, VitalsAlert.Rule.SUSTAINED),
+                alerts.stream().map(VitalsAlert::rule).toList());
+        assertEquals(39.7, alerts.get(1).value());
+    }
+
+    @Test
+    void testBloodPressureUsesSystolicAndDiastolicLimits() {
+        // Arrange
+        PatientHealthMetric bloodPressure = reading(PatientHealthMetric.MetricType.BLOOD_PRESSURE, 0, now);
+        bloodPressure.setNumericValue(null);
+        bloodPressure.setSystolic(150);
+        bloodPressure.setDiastolic(125);
+
+        // Act
+        vitalsAlertService.submit(List.of(bloodPressure));
+
+        // Assert
+        VitalsAlert alert = captureAlerts(1).get(0);
+        assertEquals(150, alert.value());
+        assertEquals("Diastolic blood pressure 125 mmHg is above 120 mmHg", alert.message());
+    }
+
+    @Test
+    void testFullQueueDropsReadingsWithoutFailingTheWriter() {
+        // Arrange
+        ReflectionTestUtils.setField(vitalsAlertService, "alertExecutor", (TaskExecutor) task -> {
+            throw new TaskRejectedException("full");
+        });
+
+        // Act & Assert
+        assertDoesNotThrow(() -> vitalsAlertService.submit(
+                List.of(reading(PatientHealthMetric.MetricType.HEART_RATE, 150, now))));
+        verifyNoInteractions(vitalsStreamService, emailService);
+    }
+
+    private List<VitalsAlert> captureAlerts(int expected) {
+        ArgumentCaptor<VitalsAlert> alerts = ArgumentCaptor.forClass(VitalsAlert.class);
+        verify(vitalsStreamService, times(expected)).publishAlert(alerts.capture());
+        return alerts.getAllValues();
+    }
+
+    private PatientHealthMetric reading(PatientHealthMetric.MetricType type, double value, LocalDateTime createdAt) {
+        PatientHealthMetric metric = new PatientHealthMetric();
+        metric.setId(++metricId);
+        metric.setPatient(testPatient);
+        metric.setDoctor(testDoctor);
+        metric.setMetricType(type);
+        metric.setNumericValue(value);
+        metric.setCreatedAt(createdAt);
+        return metric;
+    }
+}